@@ -0,0 +1,165 @@
+package com.coworkproject.config;
+
+import com.coworkproject.service.TableVersions;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET condicional nos recursos e no catálogo, muito consultados e raramente alterados.
+// O ETag vem da versão das tabelas das quais a resposta depende; se o If-None-Match do cliente
+// ainda bate, responde 304 aqui mesmo, sem chegar ao controller, ao repositório ou ao Jackson. Roda depois do
+// CorsFilter (WebConfig), então o 304 de uma revalidação de outra origem já leva os cabeçalhos de CORS.
+// Toda resposta de GET da API depende do Accept (JSON, CBOR ou Smile, ver BinaryFormatsConfig): sai com
+// Vary: Accept, e o ETag leva a codificação escolhida, já que os bytes de cada uma são diferentes.
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    // Prefixo da URL -> tabelas que compõem a resposta (planos trazem categoria e turno junto)
+    private static final Map<String, String[]> TABLES_BY_PATH = new LinkedHashMap<>();
+
+    static {
+        TABLES_BY_PATH.put("/api/desks", new String[]{"desks"});
+        TABLES_BY_PATH.put("/api/rooms", new String[]{"rooms"});
+        TABLES_BY_PATH.put("/api/areas", new String[]{"areas"});
+        TABLES_BY_PATH.put("/api/stands", new String[]{"stands"});
+        TABLES_BY_PATH.put("/api/rental-plans", new String[]{"rentalPlans", "rentalCategories", "rentalShifts"});
+        TABLES_BY_PATH.put("/api/rental-shifts", new String[]{"rentalShifts"});
+        TABLES_BY_PATH.put("/api/rental-categories", new String[]{"rentalCategories"});
+        TABLES_BY_PATH.put("/api/catalog", new String[]{"rentalPlans", "rentalCategories", "rentalShifts"});
+    }
+
+    // Conversores na ordem do Spring MVC: o JSON vem primeiro e é o que sai para */* ou sem Accept
+    private static final List<MediaType> ENCODINGS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR,
+            new MediaType("application", "x-jackson-smile"));
+
+    private final TableVersions tableVersions;
+
+    public ConditionalGetFilter(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || !pathOf(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String[] tables = tablesOf(request);
+        if (tables == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Versão lida antes de executar o GET: se uma escrita acontecer no meio, o corpo novo sai com o ETag
+        // antigo e o cliente só busca de novo na próxima vez, nunca o contrário (corpo antigo com ETag novo)
+        String etag = encodingEtag(tableVersions.etag(tables), encodingOf(request.getHeader(HttpHeaders.ACCEPT)));
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Armazenável, mas sempre revalidado com o servidor
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        String matched = match(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+        if (matched != null) {
+            response.setHeader(HttpHeaders.ETAG, matched);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String[] tablesOf(HttpServletRequest request) {
+        String path = pathOf(request);
+        for (Map.Entry<String, String[]> entry : TABLES_BY_PATH.entrySet()) {
+            String prefix = entry.getKey();
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    // Codificação que o Spring MVC escolhe para o Accept: os tipos aceitos do mais preferido (q, depois
+    // especificidade) ao menos, e para cada um o primeiro conversor compatível. Accept sem nada que case fica
+    // com o JSON; o 406 continua sendo decidido pelo Spring MVC.
+    static MediaType encodingOf(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType encoding : ENCODINGS) {
+                if (type.isCompatibleWith(encoding)) {
+                    return encoding;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    // JSON fica com o ETag da versão; as codificações binárias ganham um sufixo próprio
+    static String encodingEtag(String etag, MediaType encoding) {
+        if (MediaType.APPLICATION_JSON.equals(encoding)) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + (MediaType.APPLICATION_CBOR.equals(encoding) ? "cbor" : "smile") + "\"";
+    }
+
+    // ETag da representação já comprimida em gzip: conteúdo em bytes diferente, então ETag forte diferente
+    public static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    // If-None-Match aceita uma lista de ETags, "*" e a forma fraca W/"..." (comparação fraca, como pede o HTTP).
+    // Devolve o ETag que bateu (a versão atual ou sua variante gzip) ou null.
+    private static String match(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String gzipEtag = gzipEtag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return etag;
+            }
+            if (value.equals(gzipEtag)) {
+                return gzipEtag;
+            }
+        }
+        return null;
+    }
+}
@@ -1,13 +1,18 @@
 package com.coworkproject.controller;
 
 import com.coworkproject.model.Area;
+import com.coworkproject.model.ResourceType;
 import com.coworkproject.repository.AreaRepository;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.ResourceChangedEvent;
+import com.coworkproject.service.ResponseCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,44 +20,65 @@ import java.util.Optional;
 @RequestMapping("/api/areas")
 public class AreaController {
 
-    private final AreaRepository repository;
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idAreas",
+            "number", "numberAreas",
+            "name", "nameAreas"
+    );
 
-    public AreaController(AreaRepository repository) {
+    private final AreaRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final ResponseCache responseCache;
+
+    public AreaController(AreaRepository repository,
+                          ApplicationEventPublisher eventPublisher,
+                          KeysetPaging keysetPaging,
+                          ResponseCache responseCache) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.responseCache = responseCache;
     }
 
     // GET ALL - Buscar todas as áreas
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllAreas() {
-        List<Area> areas = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllAreas(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) String sort,
+                                                           @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", areas.isEmpty() ? "Nenhuma área encontrada" : "Áreas recuperadas com sucesso");
-        response.put("data", areas);
-        response.put("count", areas.size());
+        Window<Area> areas = keysetPaging.scroll(repository, null, page, "idAreas");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(areas, page, areas.isEmpty() ? "Nenhuma área encontrada" : "Áreas recuperadas com sucesso"));
     }
 
     // GET BY ID - Buscar área por ID
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getAreaById(@PathVariable Integer id) {
-        Optional<Area> area = repository.findById(id);
+    public ResponseEntity<byte[]> getAreaById(@PathVariable Integer id) {
+        return responseCache.get("areas", id, () -> {
+            Optional<Area> area = repository.findById(id);
 
-        Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
 
-        if (area.isPresent()) {
-            response.put("success", true);
-            response.put("message", "Área encontrada com sucesso");
-            response.put("data", area.get());
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("success", false);
-            response.put("message", "Área não encontrada com ID: " + id);
-            response.put("data", null);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
+            if (area.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Área encontrada com sucesso");
+                response.put("data", area.get());
+                return ResponseEntity.ok(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Área não encontrada com ID: " + id);
+                response.put("data", null);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+        });
     }
 
     // POST - Criar nova área
@@ -75,6 +101,7 @@ public class AreaController {
             }
 
             Area savedArea = repository.save(area);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.AREA, savedArea.getIdAreas(), false));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -123,6 +150,7 @@ public class AreaController {
             area.setNameAreas(areaDetails.getNameAreas());
 
             Area updatedArea = repository.save(area);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.AREA, updatedArea.getIdAreas(), false));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -143,6 +171,7 @@ public class AreaController {
 
         if (repository.existsById(id)) {
             repository.deleteById(id);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.AREA, id, true));
 
             response.put("success", true);
             response.put("message", "Área deletada com sucesso!");
@@ -4,58 +4,106 @@ import com.coworkproject.dto.AreaRentalRequest;
 import com.coworkproject.model.Area;
 import com.coworkproject.model.AreaRental;
 import com.coworkproject.model.Customer;
+import com.coworkproject.model.ResourceType;
 import com.coworkproject.repository.AreaRentalRepository;
 import com.coworkproject.repository.AreaRepository;
 import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.service.ActiveRentalSnapshot;
+import com.coworkproject.service.CompactView;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.RentalChangedEvent;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/area-rentals")
 public class AreaRentalController {
 
+    private static final int MAX_BATCH_SIZE = 200;
+
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idAreaRentals",
+            "start", "startPeriodAreaRentals",
+            "end", "endPeriodAreaRentals",
+            "totalPrice", "totalPriceStandRentals"
+    );
+
     private final AreaRentalRepository repository;
     private final AreaRepository areaRepository;
     private final CustomerRepository customerRepository;
+    private final ResourceLocks resourceLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldService holdService;
+    private final KeysetPaging keysetPaging;
+    private final CompactView compactView;
+    private final ActiveRentalSnapshot activeRentalSnapshot;
 
     public AreaRentalController(AreaRentalRepository repository,
                                 AreaRepository areaRepository,
-                                CustomerRepository customerRepository) {
+                                CustomerRepository customerRepository,
+                                ResourceLocks resourceLocks,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                HoldService holdService,
+                                KeysetPaging keysetPaging,
+                                CompactView compactView,
+                                ActiveRentalSnapshot activeRentalSnapshot) {
         this.repository = repository;
         this.areaRepository = areaRepository;
         this.customerRepository = customerRepository;
+        this.resourceLocks = resourceLocks;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.holdService = holdService;
+        this.keysetPaging = keysetPaging;
+        this.compactView = compactView;
+        this.activeRentalSnapshot = activeRentalSnapshot;
     }
 
     // GET ALL - Buscar todos os aluguéis OU filtrar por área
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAreaRentals(@RequestParam(required = false) Integer areaId) {
-        List<AreaRental> rentals;
-
-        if (areaId != null) {
-            // Se areaId foi fornecido, filtra por área
-            rentals = repository.findByAreaIdAreas(areaId);
-        } else {
-            // Se não, retorna todos os aluguéis
-            rentals = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAreaRentals(@RequestParam(required = false) Integer areaId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) String sort,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ?
-                (areaId != null ? "Nenhum aluguel encontrado para esta área" : "Nenhum aluguel encontrado")
-                : "Aluguéis de áreas recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<AreaRental> rentals = areaId != null
+                ? repository.findByAreaIdAreas(areaId, page.position(), page.sort(), page.limit())
+                : repository.findBy(page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ?
+                (areaId != null ? "Nenhum aluguel encontrado para esta área" : "Nenhum aluguel encontrado")
+                : "Aluguéis de áreas recuperados com sucesso")));
     }
 
     // GET BY ID - Buscar aluguel por ID
@@ -107,41 +155,158 @@ public class AreaRentalController {
                 return createErrorResponse("Data de início não pode ser no passado", HttpStatus.BAD_REQUEST);
             }
 
-            // Verificar conflitos de horário
-            List<AreaRental> conflictingRentals = repository.findConflictingRentals(
-                    rentalRequest.getIdAreas(),
-                    rentalRequest.getStartPeriodAreaRentals(),
-                    rentalRequest.getEndPeriodAreaRentals()
-            );
-
-            if (!conflictingRentals.isEmpty()) {
-                return createErrorResponse("A área já está alugada neste período", HttpStatus.CONFLICT);
+            // Seção crítica: verificação de conflito + save serializados por recurso
+            Lock lock = resourceLocks.lockFor(ResourceType.AREA, rentalRequest.getIdAreas());
+            lock.lock();
+            try {
+                // Verificar conflitos de horário
+                List<AreaRental> conflictingRentals = repository.findConflictingRentals(
+                        rentalRequest.getIdAreas(),
+                        rentalRequest.getStartPeriodAreaRentals(),
+                        rentalRequest.getEndPeriodAreaRentals()
+                );
+
+                if (!conflictingRentals.isEmpty()) {
+                    return createErrorResponse("A área já está alugada neste período", HttpStatus.CONFLICT);
+                }
+
+                // Reservas temporárias em aberto também ocupam o período
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.AREA, rentalRequest.getIdAreas(),
+                        rentalRequest.getStartPeriodAreaRentals(), rentalRequest.getEndPeriodAreaRentals(), null, null, null, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+                }
+
+                // Validação de preço
+                if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
+                    return createErrorResponse("Preço total deve ser maior que zero", HttpStatus.BAD_REQUEST);
+                }
+
+                // Criar o aluguel
+                AreaRental areaRental = new AreaRental();
+                areaRental.setArea(area.get());
+                areaRental.setCustomer(customer.get());
+                areaRental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
+                areaRental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
+                areaRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+
+                AreaRental savedRental = repository.save(areaRental);
+                eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(savedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Área alugada com sucesso!");
+                response.put("data", savedRental);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                lock.unlock();
             }
 
-            // Validação de preço
-            if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
-                return createErrorResponse("Preço total deve ser maior que zero", HttpStatus.BAD_REQUEST);
-            }
+        } catch (Exception e) {
+            return createErrorResponse("Erro ao criar aluguel de área: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
 
-            // Criar o aluguel
-            AreaRental areaRental = new AreaRental();
-            areaRental.setArea(area.get());
-            areaRental.setCustomer(customer.get());
-            areaRental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
-            areaRental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
-            areaRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+    // POST BATCH - Criar vários aluguéis de área de uma vez (tudo ou nada)
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createAreaRentalsBatch(@RequestBody List<AreaRentalRequest> rentalRequests) {
+        if (rentalRequests == null || rentalRequests.isEmpty() || rentalRequests.size() > MAX_BATCH_SIZE) {
+            return createErrorResponse("O lote deve ter entre 1 e " + MAX_BATCH_SIZE + " aluguéis", HttpStatus.BAD_REQUEST);
+        }
 
-            AreaRental savedRental = repository.save(areaRental);
+        try {
+            // Áreas e clientes do lote carregados com uma consulta por tabela
+            Map<Integer, Area> areas = areaRepository.findAllById(collectIds(rentalRequests, AreaRentalRequest::getIdAreas)).stream()
+                    .collect(Collectors.toMap(Area::getIdAreas, Function.identity()));
+            Map<Integer, Customer> customers = customerRepository.findAllById(collectIds(rentalRequests, AreaRentalRequest::getIdCustomers)).stream()
+                    .collect(Collectors.toMap(Customer::getIdCustomers, Function.identity()));
+
+            // Mesmas validações do POST individual, acumulando os erros de todos os itens
+            List<String> errors = new ArrayList<>();
+            List<AreaRental> rentals = new ArrayList<>();
+            LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
+            for (int i = 0; i < rentalRequests.size(); i++) {
+                AreaRentalRequest rentalRequest = rentalRequests.get(i);
+                String item = "Item " + (i + 1) + ": ";
+                Area area = areas.get(rentalRequest.getIdAreas());
+                Customer customer = customers.get(rentalRequest.getIdCustomers());
+
+                if (area == null) {
+                    errors.add(item + "Área não encontrada com ID: " + rentalRequest.getIdAreas());
+                } else if (customer == null) {
+                    errors.add(item + "Cliente não encontrado com ID: " + rentalRequest.getIdCustomers());
+                } else if (rentalRequest.getStartPeriodAreaRentals() == null || rentalRequest.getEndPeriodAreaRentals() == null) {
+                    errors.add(item + "Datas de início e término são obrigatórias");
+                } else if (rentalRequest.getStartPeriodAreaRentals().isAfter(rentalRequest.getEndPeriodAreaRentals())) {
+                    errors.add(item + "Data de início não pode ser após a data de término");
+                } else if (rentalRequest.getStartPeriodAreaRentals().isBefore(today)) {
+                    errors.add(item + "Data de início não pode ser no passado");
+                } else if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
+                    errors.add(item + "Preço total deve ser maior que zero");
+                } else {
+                    AreaRental areaRental = new AreaRental();
+                    areaRental.setArea(area);
+                    areaRental.setCustomer(customer);
+                    areaRental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
+                    areaRental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
+                    areaRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+                    rentals.add(areaRental);
+                }
+            }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Área alugada com sucesso!");
-            response.put("data", savedRental);
+            if (!errors.isEmpty()) {
+                return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.BAD_REQUEST);
+            }
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            // Seção crítica: trava todas as áreas do lote (em ordem fixa) durante verificação + save
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.AREA, areas.keySet());
+            locks.forEach(Lock::lock);
+            try {
+                // Uma única consulta traz os aluguéis existentes de todas as áreas na janela do lote
+                LocalDateTime windowStart = rentals.stream().map(AreaRental::getStartPeriodAreaRentals).min(LocalDateTime::compareTo).get();
+                LocalDateTime windowEnd = rentals.stream().map(AreaRental::getEndPeriodAreaRentals).max(LocalDateTime::compareTo).get();
+                List<RentalSlot> existing = repository.findConflictingRentalsIn(areas.keySet(), windowStart, windowEnd).stream()
+                        .map(RentalSlot::of)
+                        .toList();
+
+                // Conflitos contra os aluguéis existentes, as reservas temporárias e entre os itens do próprio lote
+                List<RentalSlot> accepted = new ArrayList<>();
+                for (int i = 0; i < rentals.size(); i++) {
+                    RentalSlot slot = RentalSlot.of(rentals.get(i));
+                    boolean conflict = existing.stream().anyMatch(slot::conflictsWith)
+                            || accepted.stream().anyMatch(slot::conflictsWith);
+                    Optional<RentalSlot> held = holdService.findConflict(slot);
+
+                    if (conflict) {
+                        errors.add("Item " + (i + 1) + ": A área " + slot.resourceId() + " já está alugada neste período");
+                    } else if (held.isPresent()) {
+                        errors.add("Item " + (i + 1) + ": " + HoldService.conflictMessage(held.get()));
+                    }
+                    accepted.add(slot);
+                }
+
+                if (!errors.isEmpty()) {
+                    return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.CONFLICT);
+                }
+
+                // Um único commit: os ids vêm em blocos do gerador e os inserts saem em batch
+                List<AreaRental> savedRentals = transactionTemplate.execute(status -> repository.saveAll(rentals));
+                savedRentals.forEach(saved -> eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(saved))));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", savedRentals.size() + " áreas alugadas com sucesso!");
+                response.put("data", savedRentals);
+                response.put("count", savedRentals.size());
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
 
         } catch (Exception e) {
-            return createErrorResponse("Erro ao criar aluguel de área: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            return createErrorResponse("Erro ao criar lote de aluguéis de área: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -174,33 +339,50 @@ public class AreaRentalController {
                 return createErrorResponse("Data de início não pode ser após a data de término", HttpStatus.BAD_REQUEST);
             }
 
-            // Verificar conflitos de horário (excluindo o próprio aluguel)
-            List<AreaRental> conflictingRentals = repository.findConflictingRentals(
-                    rentalRequest.getIdAreas(),
-                    rentalRequest.getStartPeriodAreaRentals(),
-                    rentalRequest.getEndPeriodAreaRentals()
-            ).stream().filter(r -> !r.getIdAreaRentals().equals(id)).toList();
-
-            if (!conflictingRentals.isEmpty()) {
-                return createErrorResponse("A área já está alugada neste período", HttpStatus.CONFLICT);
+            // Seção crítica: verificação de conflito + save serializados por recurso. Se o aluguel muda de recurso, o
+            // anterior também fica travado: o slot dele é liberado e a fila de espera dele é avaliada no evento
+            RentalSlot previous = RentalSlot.of(rental);
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.AREA, Arrays.asList(previous.resourceId(), rentalRequest.getIdAreas()));
+            locks.forEach(Lock::lock);
+            try {
+                // Verificar conflitos de horário (excluindo o próprio aluguel)
+                List<AreaRental> conflictingRentals = repository.findConflictingRentals(
+                        rentalRequest.getIdAreas(),
+                        rentalRequest.getStartPeriodAreaRentals(),
+                        rentalRequest.getEndPeriodAreaRentals()
+                ).stream().filter(r -> !r.getIdAreaRentals().equals(id)).toList();
+
+                if (!conflictingRentals.isEmpty()) {
+                    return createErrorResponse("A área já está alugada neste período", HttpStatus.CONFLICT);
+                }
+
+                // Reservas temporárias em aberto também ocupam o período
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.AREA, rentalRequest.getIdAreas(),
+                        rentalRequest.getStartPeriodAreaRentals(), rentalRequest.getEndPeriodAreaRentals(), null, null, null, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+                }
+
+                // Atualizar o aluguel
+                rental.setArea(area.get());
+                rental.setCustomer(customer.get());
+                rental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
+                rental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
+                rental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+
+                AreaRental updatedRental = repository.save(rental);
+                eventPublisher.publishEvent(RentalChangedEvent.updated(previous, RentalSlot.of(updatedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Aluguel de área atualizado com sucesso!");
+                response.put("data", updatedRental);
+
+                return ResponseEntity.ok(response);
+            } finally {
+                locks.forEach(Lock::unlock);
             }
 
-            // Atualizar o aluguel
-            rental.setArea(area.get());
-            rental.setCustomer(customer.get());
-            rental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
-            rental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
-            rental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
-
-            AreaRental updatedRental = repository.save(rental);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Aluguel de área atualizado com sucesso!");
-            response.put("data", updatedRental);
-
-            return ResponseEntity.ok(response);
-
         } catch (Exception e) {
             return createErrorResponse("Erro ao atualizar aluguel de área: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -210,9 +392,11 @@ public class AreaRentalController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteAreaRental(@PathVariable Integer id) {
         Map<String, Object> response = new HashMap<>();
+        Optional<AreaRental> rental = repository.findById(id);
 
-        if (repository.existsById(id)) {
-            repository.deleteById(id);
+        if (rental.isPresent()) {
+            repository.delete(rental.get());
+            eventPublisher.publishEvent(RentalChangedEvent.deleted(RentalSlot.of(rental.get())));
 
             response.put("success", true);
             response.put("message", "Aluguel de área deletado com sucesso!");
@@ -229,44 +413,75 @@ public class AreaRentalController {
 
     // GET BY CUSTOMER - Buscar aluguéis por cliente
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<Map<String, Object>> getAreaRentalsByCustomer(@PathVariable Integer customerId) {
-        List<AreaRental> rentals = repository.findByCustomerIdCustomers(customerId);
+    public ResponseEntity<Map<String, Object>> getAreaRentalsByCustomer(@PathVariable Integer customerId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) String sort,
+                                                                        @RequestParam(required = false) Integer size,
+                                                                        @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel de área encontrado para este cliente" : "Aluguéis de áreas do cliente recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<AreaRental> rentals = repository.findByCustomerIdCustomers(customerId, page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel de área encontrado para este cliente" : "Aluguéis de áreas do cliente recuperados com sucesso")));
     }
 
     // GET BY AREA - Buscar aluguéis por área (endpoint alternativo)
     @GetMapping("/area/{areaId}")
-    public ResponseEntity<Map<String, Object>> getAreaRentalsByArea(@PathVariable Integer areaId) {
-        List<AreaRental> rentals = repository.findByAreaIdAreas(areaId);
+    public ResponseEntity<Map<String, Object>> getAreaRentalsByArea(@PathVariable Integer areaId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para esta área" : "Aluguéis da área recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<AreaRental> rentals = repository.findByAreaIdAreas(areaId, page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel encontrado para esta área" : "Aluguéis da área recuperados com sucesso")));
     }
 
     // GET ACTIVE - Buscar aluguéis ativos
     @GetMapping("/active")
-    public ResponseEntity<Map<String, Object>> getActiveAreaRentals() {
-        List<AreaRental> activeRentals = repository.findActiveRentals(LocalDateTime.now());
+    public ResponseEntity<Map<String, Object>> getActiveAreaRentals(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", activeRentals.isEmpty() ? "Nenhum aluguel de área ativo no momento" : "Aluguéis de áreas ativos recuperados com sucesso");
-        response.put("data", activeRentals);
-        response.put("count", activeRentals.size());
+        // Do snapshot em memória: sem consulta ao banco, ordenado e paginado aqui
+        List<AreaRental> active = activeRentalSnapshot.active(ResourceType.AREA, AreaRental.class, LocalDateTime.now());
+        Window<AreaRental> activeRentals = keysetPaging.page(active, page, "idAreaRentals");
+
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(activeRentals, page, activeRentals.isEmpty() ? "Nenhum aluguel de área ativo no momento" : "Aluguéis de áreas ativos recuperados com sucesso")));
+    }
+
+    // Ids distintos e não nulos de um campo das requisições do lote
+    private static <T> Set<Integer> collectIds(List<T> requests, Function<T, Integer> idGetter) {
+        return requests.stream().map(idGetter).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
 
-        return ResponseEntity.ok(response);
+    // Método auxiliar para respostas de erro de lote/série (um erro por item rejeitado)
+    private ResponseEntity<Map<String, Object>> createBatchErrorResponse(String message, List<String> errors, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        errorResponse.put("errors", errors);
+        return ResponseEntity.status(status).body(errorResponse);
     }
 
     // Método auxiliar para criar respostas de erro
@@ -0,0 +1,99 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.AreaRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.repository.StandRepository;
+import com.coworkproject.service.AvailabilityIndex;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/availability")
+public class AvailabilityController {
+
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final AvailabilityIndex availabilityIndex;
+    private final DeskRepository deskRepository;
+    private final RoomRepository roomRepository;
+    private final AreaRepository areaRepository;
+    private final StandRepository standRepository;
+
+    public AvailabilityController(AvailabilityIndex availabilityIndex,
+                                  DeskRepository deskRepository,
+                                  RoomRepository roomRepository,
+                                  AreaRepository areaRepository,
+                                  StandRepository standRepository) {
+        this.availabilityIndex = availabilityIndex;
+        this.deskRepository = deskRepository;
+        this.roomRepository = roomRepository;
+        this.areaRepository = areaRepository;
+        this.standRepository = standRepository;
+    }
+
+    // GET - Buscar recursos livres de um tipo em todo o período (opcionalmente em um turno)
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getAvailableResources(
+            @RequestParam String type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer shiftId) {
+
+        ResourceType resourceType;
+        try {
+            resourceType = ResourceType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse("Tipo de recurso inválido: " + type + ". Use desk, room, area ou stand", HttpStatus.BAD_REQUEST);
+        }
+
+        if (endDate.isBefore(startDate)) {
+            return createErrorResponse("Data final não pode ser anterior à data inicial", HttpStatus.BAD_REQUEST);
+        }
+
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            return createErrorResponse("O período máximo de busca é de " + MAX_RANGE_DAYS + " dias", HttpStatus.BAD_REQUEST);
+        }
+
+        if (!availabilityIndex.covers(startDate, endDate)) {
+            return createErrorResponse("Período fora do horizonte de disponibilidade: de " + availabilityIndex.horizonStart()
+                    + " a " + availabilityIndex.horizonEnd(), HttpStatus.BAD_REQUEST);
+        }
+
+        BitSet free = availabilityIndex.findFree(resourceType, startDate, endDate, shiftId);
+        List<Integer> ids = free.stream().boxed().toList();
+        List<?> resources = switch (resourceType) {
+            case DESK -> deskRepository.findAllById(ids);
+            case ROOM -> roomRepository.findAllById(ids);
+            case AREA -> areaRepository.findAllById(ids);
+            case STAND -> standRepository.findAllById(ids);
+        };
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", resources.isEmpty() ? "Nenhum recurso disponível no período" : "Recursos disponíveis recuperados com sucesso");
+        response.put("data", resources);
+        response.put("count", resources.size());
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Método auxiliar para criar respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,33 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.service.ResponseCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Métricas do cache de respostas (acertos, taxa de acerto, descartes por capacidade e invalidações)
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final ResponseCache responseCache;
+
+    public CacheController(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    // GET - Estatísticas do cache de respostas
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Estatísticas do cache recuperadas com sucesso");
+        response.put("data", responseCache.stats());
+
+        return ResponseEntity.ok(response);
+    }
+}
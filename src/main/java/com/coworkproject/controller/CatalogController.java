@@ -0,0 +1,134 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.config.ConditionalGetFilter;
+import com.coworkproject.service.CatalogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Catálogo completo (categorias, turnos e planos) numa única resposta versionada, servida da memória.
+// A versão muda a cada alteração no catálogo; o cliente pode guardar a resposta enquanto ela não mudar.
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    // Resposta serializada e comprimida uma única vez por versão do catálogo
+    private record Encoded(long version, byte[] json, byte[] gzip) {
+    }
+
+    private final CatalogService catalogService;
+    private final ObjectMapper objectMapper;
+    private volatile Encoded encoded;
+
+    public CatalogController(CatalogService catalogService, ObjectMapper objectMapper) {
+        this.catalogService = catalogService;
+        this.objectMapper = objectMapper;
+    }
+
+    // GET - Catálogo atual (em gzip já pronto quando o cliente aceita)
+    @GetMapping
+    public ResponseEntity<byte[]> getCatalog(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                             HttpServletResponse servletResponse) {
+        Encoded body = encode(catalogService.current());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (!acceptsGzip(acceptEncoding)) {
+            return response.body(body.json());
+        }
+
+        // Com Content-Encoding já definido o Tomcat não comprime de novo.
+        // O ETag forte posto pelo ConditionalGetFilter é trocado pelo da representação em gzip.
+        String etag = servletResponse.getHeader(HttpHeaders.ETAG);
+        if (etag != null) {
+            servletResponse.setHeader(HttpHeaders.ETAG, ConditionalGetFilter.gzipEtag(etag));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+    }
+
+    private Encoded encode(CatalogService.Snapshot snapshot) {
+        Encoded current = encoded;
+        if (current != null && current.version() == snapshot.version()) {
+            return current;
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("version", snapshot.version());
+        data.put("builtAt", snapshot.builtAt());
+        data.put("categories", snapshot.categories());
+        data.put("shifts", snapshot.shifts());
+        data.put("plans", snapshot.plans());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Catálogo recuperado com sucesso");
+        response.put("data", data);
+        response.put("count", snapshot.categories().size() + snapshot.shifts().size() + snapshot.plans().size());
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            Encoded built = new Encoded(snapshot.version(), json, gzip(json));
+            // Duas requisições podem montar ao mesmo tempo; a de versão mais antiga não substitui a mais nova
+            synchronized (this) {
+                if (encoded == null || encoded.version() < built.version()) {
+                    encoded = built;
+                }
+            }
+            return built;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao serializar o catálogo", e);
+        }
+    }
+
+    // Compressão máxima: o custo é pago uma vez por versão, não a cada requisição
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Accept-Encoding: gzip, deflate, br / gzip;q=0 recusa / * aceita qualquer codificação
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
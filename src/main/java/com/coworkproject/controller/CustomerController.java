@@ -2,11 +2,19 @@ package com.coworkproject.controller;
 
 import com.coworkproject.model.Customer;
 import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.service.CustomerChangedEvent;
+import com.coworkproject.service.CustomerOverviewService;
+import com.coworkproject.service.CustomerSearchIndex;
+import com.coworkproject.service.KeysetPaging;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -15,20 +23,60 @@ import java.util.Optional;
 @RequestMapping("/api/customers")
 public class CustomerController {
 
-    private final CustomerRepository repository;
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idCustomers",
+            "name", "nameCustomers"
+    );
 
-    public CustomerController(CustomerRepository repository) {
+    private final CustomerRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final CustomerOverviewService customerOverviewService;
+
+    public CustomerController(CustomerRepository repository,
+                              ApplicationEventPublisher eventPublisher,
+                              KeysetPaging keysetPaging,
+                              CustomerSearchIndex customerSearchIndex,
+                              CustomerOverviewService customerOverviewService) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.customerSearchIndex = customerSearchIndex;
+        this.customerOverviewService = customerOverviewService;
     }
 
     // GET ALL - Buscar todos os clientes
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllCustomers() {
-        List<Customer> customers = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllCustomers(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        Window<Customer> customers = keysetPaging.scroll(repository, null, page, "idCustomers");
+
+        return ResponseEntity.ok(keysetPaging.response(customers, page, customers.isEmpty() ? "Nenhum cliente encontrado" : "Clientes recuperados com sucesso"));
+    }
+
+    // GET SEARCH - Autocomplete por nome, e-mail ou CPF (índice em memória, sem consultar o banco)
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchCustomers(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 50) {
+            return createErrorResponse("O limite deve estar entre 1 e 50", HttpStatus.BAD_REQUEST);
+        }
+
+        List<CustomerSearchIndex.Match> customers = customerSearchIndex.search(q, limit);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("message", customers.isEmpty() ? "Nenhum cliente encontrado" : "Clientes recuperados com sucesso");
+        response.put("message", customers.isEmpty() ? "Nenhum cliente encontrado" : "Clientes encontrados com sucesso");
         response.put("data", customers);
         response.put("count", customers.size());
 
@@ -55,11 +103,47 @@ public class CustomerController {
         }
     }
 
+    // GET OVERVIEW - Cadastro e aluguéis de todos os tipos (em andamento, a começar, os encerrados mais recentes)
+    // com o total gasto. Tipos que não responderam no prazo vêm em "missing" e ficam fora do total.
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<Map<String, Object>> getCustomerOverview(@PathVariable Integer id) {
+        Optional<CustomerOverviewService.Overview> overview;
+        try {
+            overview = customerOverviewService.overview(id, LocalDateTime.now());
+        } catch (CustomerOverviewService.OverviewTimeoutException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        if (overview.isEmpty()) {
+            return createErrorResponse("Cliente não encontrado com ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        CustomerOverviewService.Overview result = overview.get();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("customer", result.customer());
+        data.put("active", result.active());
+        data.put("upcoming", result.upcoming());
+        data.put("past", result.past());
+        data.put("totalSpend", result.totalSpend());
+        data.put("missing", result.missing());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", result.missing().isEmpty()
+                ? "Visão geral do cliente recuperada com sucesso"
+                : "Visão geral do cliente parcial: tempo limite excedido para " + result.missing());
+        response.put("data", data);
+        response.put("count", result.active().size() + result.upcoming().size() + result.past().size());
+
+        return ResponseEntity.ok(response);
+    }
+
     // POST - Criar novo cliente
     @PostMapping
     public ResponseEntity<Map<String, Object>> createCustomer(@RequestBody Customer customer) {
         try {
             Customer savedCustomer = repository.save(customer);
+            eventPublisher.publishEvent(new CustomerChangedEvent(savedCustomer.getIdCustomers(), false));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -96,6 +180,7 @@ public class CustomerController {
             customer.setCpfCustomers(customerDetails.getCpfCustomers());
 
             Customer updatedCustomer = repository.save(customer);
+            eventPublisher.publishEvent(new CustomerChangedEvent(updatedCustomer.getIdCustomers(), false));
 
             response.put("success", true);
             response.put("message", "Cliente atualizado com sucesso!");
@@ -117,6 +202,7 @@ public class CustomerController {
 
         if (repository.existsById(id)) {
             repository.deleteById(id);
+            eventPublisher.publishEvent(new CustomerChangedEvent(id, true));
 
             response.put("success", true);
             response.put("message", "Cliente deletado com sucesso!");
@@ -130,4 +216,13 @@ public class CustomerController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -1,13 +1,18 @@
 package com.coworkproject.controller;
 
 import com.coworkproject.model.Desk;
+import com.coworkproject.model.ResourceType;
 import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.ResourceChangedEvent;
+import com.coworkproject.service.ResponseCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,44 +20,65 @@ import java.util.Optional;
 @RequestMapping("/api/desks")
 public class DeskController {
 
-    private final DeskRepository repository;
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idDesks",
+            "number", "numberDesks",
+            "name", "nameDesks"
+    );
 
-    public DeskController(DeskRepository repository) {
+    private final DeskRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final ResponseCache responseCache;
+
+    public DeskController(DeskRepository repository,
+                          ApplicationEventPublisher eventPublisher,
+                          KeysetPaging keysetPaging,
+                          ResponseCache responseCache) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.responseCache = responseCache;
     }
 
     // GET ALL - Buscar todas as mesas
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllDesks() {
-        List<Desk> desks = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllDesks(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) String sort,
+                                                           @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", desks.isEmpty() ? "Nenhuma mesa encontrada" : "Mesas recuperadas com sucesso");
-        response.put("data", desks);
-        response.put("count", desks.size());
+        Window<Desk> desks = keysetPaging.scroll(repository, null, page, "idDesks");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(desks, page, desks.isEmpty() ? "Nenhuma mesa encontrada" : "Mesas recuperadas com sucesso"));
     }
 
     // GET BY ID - Buscar mesa por ID
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getDeskById(@PathVariable Integer id) {
-        Optional<Desk> desk = repository.findById(id);
+    public ResponseEntity<byte[]> getDeskById(@PathVariable Integer id) {
+        return responseCache.get("desks", id, () -> {
+            Optional<Desk> desk = repository.findById(id);
 
-        Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
 
-        if (desk.isPresent()) {
-            response.put("success", true);
-            response.put("message", "Mesa encontrada com sucesso");
-            response.put("data", desk.get());
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("success", false);
-            response.put("message", "Mesa não encontrada com ID: " + id);
-            response.put("data", null);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
+            if (desk.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Mesa encontrada com sucesso");
+                response.put("data", desk.get());
+                return ResponseEntity.ok(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Mesa não encontrada com ID: " + id);
+                response.put("data", null);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+        });
     }
 
     // POST - Criar nova mesa
@@ -87,6 +113,7 @@ public class DeskController {
             }
 
             Desk savedDesk = repository.save(desk);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.DESK, savedDesk.getIdDesks(), false));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -147,6 +174,7 @@ public class DeskController {
             desk.setNameDesks(deskDetails.getNameDesks());
 
             Desk updatedDesk = repository.save(desk);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.DESK, updatedDesk.getIdDesks(), false));
 
             response.put("success", true);
             response.put("message", "Mesa atualizada com sucesso!");
@@ -170,6 +198,7 @@ public class DeskController {
             // Aqui você pode adicionar validações (ex: verificar se existem aluguéis para esta mesa)
 
             repository.deleteById(id);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.DESK, id, true));
 
             response.put("success", true);
             response.put("message", "Mesa deletada com sucesso!");
@@ -223,4 +252,13 @@ public class DeskController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -1,53 +1,129 @@
 package com.coworkproject.controller;
 
 import com.coworkproject.dto.DeskRentalRequest;
+import com.coworkproject.dto.RecurrenceRule;
 import com.coworkproject.model.*;
 import com.coworkproject.repository.*;
+import com.coworkproject.service.ActiveRentalSnapshot;
+import com.coworkproject.service.CatalogService;
+import com.coworkproject.service.CompactView;
+import com.coworkproject.service.DeskRentalIndex;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.QuoteService;
+import com.coworkproject.service.RentalChangedEvent;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import com.coworkproject.service.ResponseCache;
+import com.coworkproject.service.SlotBookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/desk-rentals")
 public class DeskRentalController {
 
+    private static final Logger log = LoggerFactory.getLogger(DeskRentalController.class);
+
+    private static final int MAX_BATCH_SIZE = 200;
+
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idDeskRentals",
+            "start", "startPeriodDeskRentals",
+            "end", "endPeriodDeskRentals",
+            "totalPrice", "totalPriceDeskRentals"
+    );
+
     private final DeskRentalRepository repository;
     private final DeskRepository deskRepository;
     private final CustomerRepository customerRepository;
-    private final RentalPlanRepository rentalPlanRepository;
+    private final CatalogService catalogService;
     private final RentalCategoryRepository rentalCategoryRepository;
     private final RentalShiftRepository rentalShiftRepository;
+    private final DeskRentalIndex deskRentalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceLocks resourceLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final RentalSeriesRepository rentalSeriesRepository;
+    private final HoldService holdService;
+    private final KeysetPaging keysetPaging;
+    private final CompactView compactView;
+    private final ResponseCache responseCache;
+    private final ActiveRentalSnapshot activeRentalSnapshot;
+    private final QuoteService quoteService;
 
     public DeskRentalController(DeskRentalRepository repository,
                                 DeskRepository deskRepository,
                                 CustomerRepository customerRepository,
-                                RentalPlanRepository rentalPlanRepository,
+                                CatalogService catalogService,
                                 RentalCategoryRepository rentalCategoryRepository,
-                                RentalShiftRepository rentalShiftRepository) {
+                                RentalShiftRepository rentalShiftRepository,
+                                DeskRentalIndex deskRentalIndex,
+                                ApplicationEventPublisher eventPublisher,
+                                ResourceLocks resourceLocks,
+                                TransactionTemplate transactionTemplate,
+                                RentalSeriesRepository rentalSeriesRepository,
+                                HoldService holdService,
+                                KeysetPaging keysetPaging,
+                                CompactView compactView,
+                                ResponseCache responseCache,
+                                ActiveRentalSnapshot activeRentalSnapshot,
+                                QuoteService quoteService) {
         this.repository = repository;
         this.deskRepository = deskRepository;
         this.customerRepository = customerRepository;
-        this.rentalPlanRepository = rentalPlanRepository;
+        this.catalogService = catalogService;
         this.rentalCategoryRepository = rentalCategoryRepository;
         this.rentalShiftRepository = rentalShiftRepository;
+        this.deskRentalIndex = deskRentalIndex;
+        this.eventPublisher = eventPublisher;
+        this.resourceLocks = resourceLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.rentalSeriesRepository = rentalSeriesRepository;
+        this.holdService = holdService;
+        this.keysetPaging = keysetPaging;
+        this.compactView = compactView;
+        this.responseCache = responseCache;
+        this.activeRentalSnapshot = activeRentalSnapshot;
+        this.quoteService = quoteService;
     }
 
     // POST - Criar novo aluguel (MÉTODO COMPLETAMENTE CORRIGIDO)
     @PostMapping
     public ResponseEntity<Map<String, Object>> createDeskRental(@RequestBody DeskRentalRequest rentalRequest) {
         try {
+            // Com token de cotação, período e preço vêm da cotação assinada
+            if (rentalRequest.getQuoteToken() != null) {
+                return createQuotedDeskRental(rentalRequest);
+            }
+
             // Validações das entidades relacionadas
             Optional<Desk> desk = deskRepository.findById(rentalRequest.getIdDesks());
             Optional<Customer> customer = customerRepository.findById(rentalRequest.getIdCustomers());
-            Optional<RentalPlan> rentalPlan = rentalPlanRepository.findById(rentalRequest.getIdRentalPlans());
+            Optional<RentalPlan> rentalPlan = catalogService.plan(rentalRequest.getIdRentalPlans());
 
             if (desk.isEmpty()) {
                 return createErrorResponse("Mesa não encontrada com ID: " + rentalRequest.getIdDesks(), HttpStatus.NOT_FOUND);
@@ -81,6 +157,11 @@ public class DeskRentalController {
             int durationInDays = rentalCategory.getBaseDurationInDaysRentalCategories();
             LocalDateTime startDate = rentalRequest.getStartPeriodDeskRentals();
 
+            // Com regra de recorrência o pedido vira uma série, validada de uma vez
+            if (rentalRequest.getRecurrence() != null) {
+                return createRecurringDeskRentals(rentalRequest, desk.get(), customer.get(), rentalPlan.get());
+            }
+
             // Ajustar para o horário final considerando o turno
             LocalTime startTime = rentalPlan.get().getRentalShift().getStartTimeRentalShifts();
             LocalTime endTime = rentalPlan.get().getRentalShift().getEndTimeRentalShifts();
@@ -90,65 +171,138 @@ public class DeskRentalController {
             // Calcular data final com horário do turno
             LocalDateTime endDate = startDate.plusDays(durationInDays - 1).with(endTime);
 
-            System.out.println("=== VERIFICAÇÃO DE CONFLITOS POR HORÁRIO ===");
-            System.out.println("Mesa: " + rentalRequest.getIdDesks());
-            System.out.println("Turno: " + rentalPlan.get().getRentalShift().getNameRentalShifts());
-            System.out.println("Horário: " + startTime + " às " + endTime);
-            System.out.println("Novo aluguel - Início: " + startDate + " | Fim: " + endDate);
-
-            // VERIFICAÇÃO DE CONFLITOS BASEADA EM HORÁRIOS
-            List<DeskRental> conflictingRentals = repository.findTimeRangeConflicts(
-                    rentalRequest.getIdDesks(),
-                    startDate,
-                    endDate
-            );
-
-            if (!conflictingRentals.isEmpty()) {
-                System.out.println("CONFLITOS ENCONTRADOS: " + conflictingRentals.size());
-
-                // Verificar se os conflitos são reais (sobreposição de horários)
-                for (DeskRental conflict : conflictingRentals) {
-                    boolean hasRealConflict = checkTimeOverlap(
+            log.debug("Verificando conflitos: mesa {}, turno {} ({} às {}), período {} até {}",
+                    rentalRequest.getIdDesks(), rentalPlan.get().getRentalShift().getNameRentalShifts(),
+                    startTime, endTime, startDate, endDate);
+
+            // Seção crítica: verificação de conflito + save serializados por recurso
+            Lock lock = resourceLocks.lockFor(ResourceType.DESK, rentalRequest.getIdDesks());
+            lock.lock();
+            try {
+                // VERIFICAÇÃO DE CONFLITOS BASEADA EM HORÁRIOS (índice em memória, sem consulta ao banco)
+                Optional<RentalSlot> conflict = deskRentalIndex.findConflict(
+                        rentalRequest.getIdDesks(),
+                        startDate,
+                        endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(),
+                        startTime,
+                        endTime,
+                        null
+                );
+
+                if (conflict.isPresent()) {
+                    log.debug("Conflito com o aluguel {}: turno {} ({} às {}), período {} até {}",
+                            conflict.get().rentalId(), conflict.get().shiftName(), conflict.get().shiftStart(),
+                            conflict.get().shiftEnd(), conflict.get().start(), conflict.get().end());
+
+                    String conflictMessage = buildConflictMessageByTime(
                             rentalPlan.get().getRentalShift(),
-                            conflict.getRentalPlan().getRentalShift()
+                            conflict.get()
                     );
+                    return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
+                }
 
-                    if (hasRealConflict) {
-                        System.out.println("CONFLITO REAL ENCONTRADO:");
-                        System.out.println("Aluguel ID: " + conflict.getIdDeskRentals());
-                        System.out.println("Turno conflitante: " + conflict.getRentalPlan().getRentalShift().getNameRentalShifts());
-                        System.out.println("Horário conflitante: " + conflict.getRentalPlan().getRentalShift().getStartTimeRentalShifts() +
-                                " às " + conflict.getRentalPlan().getRentalShift().getEndTimeRentalShifts());
-                        System.out.println("Período: " + conflict.getStartPeriodDeskRentals() + " até " + conflict.getEndPeriodDeskRentals());
-
-                        String conflictMessage = buildConflictMessageByTime(
-                                rentalPlan.get().getRentalShift(),
-                                conflict.getRentalPlan().getRentalShift()
-                        );
-                        return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
-                    } else {
-                        System.out.println("Conflito de datas mas SEM conflito de horários - PERMITIDO");
-                    }
+                // Reservas temporárias em aberto também ocupam o período
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.DESK, rentalRequest.getIdDesks(), startDate, endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(), startTime, endTime, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
                 }
+
+                // Validação de preço
+                if (rentalRequest.getTotalPriceDeskRentals() == null || rentalRequest.getTotalPriceDeskRentals().compareTo(BigDecimal.ZERO) <= 0) {
+                    return createErrorResponse("Preço total deve ser maior que zero", HttpStatus.BAD_REQUEST);
+                }
+
+                // Criar o aluguel
+                DeskRental deskRental = new DeskRental();
+                deskRental.setDesk(desk.get());
+                deskRental.setCustomer(customer.get());
+                deskRental.setRentalPlan(rentalPlan.get());
+                deskRental.setStartPeriodDeskRentals(startDate);
+                deskRental.setEndPeriodDeskRentals(endDate);
+                deskRental.setTotalPriceDeskRentals(rentalRequest.getTotalPriceDeskRentals());
+
+                DeskRental savedRental = repository.save(deskRental);
+                eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(savedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Mesa alugada com sucesso!");
+                response.put("data", savedRental);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                lock.unlock();
             }
 
-            System.out.println("NENHUM CONFLITO REAL ENCONTRADO - CRIANDO ALUGUEL");
+        } catch (Exception e) {
+            log.warn("Erro ao criar aluguel de mesa", e);
+            return createErrorResponse("Erro ao criar aluguel: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Aluguel a partir de uma cotação (/api/quotes): período e preço vêm do token, sem recalcular;
+    // só a disponibilidade é verificada de novo, sob o lock, porque a cotação não reserva o recurso
+    private ResponseEntity<Map<String, Object>> createQuotedDeskRental(DeskRentalRequest rentalRequest) {
+        if (rentalRequest.getRecurrence() != null) {
+            return createErrorResponse("Cotação não se aplica a aluguel recorrente", HttpStatus.BAD_REQUEST);
+        }
 
-            // Validação de preço
-            if (rentalRequest.getTotalPriceDeskRentals() == null || rentalRequest.getTotalPriceDeskRentals().compareTo(BigDecimal.ZERO) <= 0) {
-                return createErrorResponse("Preço total deve ser maior que zero", HttpStatus.BAD_REQUEST);
+        SlotBookingService.Resolution resolution = quoteService.redeem(rentalRequest.getQuoteToken(), ResourceType.DESK, LocalDateTime.now());
+        if (resolution.error() != null) {
+            return createErrorResponse(resolution.error(), resolution.status());
+        }
+        RentalSlot slot = resolution.slot();
+
+        // Ids enviados junto com o token precisam ser os da cotação
+        if (differs(rentalRequest.getIdDesks(), slot.resourceId())
+                || differs(rentalRequest.getIdCustomers(), slot.customerId())
+                || differs(rentalRequest.getIdRentalPlans(), slot.planId())) {
+            return createErrorResponse("Pedido não corresponde à cotação", HttpStatus.BAD_REQUEST);
+        }
+
+        Optional<Desk> desk = deskRepository.findById(slot.resourceId());
+        Optional<Customer> customer = customerRepository.findById(slot.customerId());
+        Optional<RentalPlan> rentalPlan = catalogService.plan(slot.planId());
+
+        if (desk.isEmpty()) {
+            return createErrorResponse("Mesa não encontrada com ID: " + slot.resourceId(), HttpStatus.NOT_FOUND);
+        }
+
+        if (customer.isEmpty()) {
+            return createErrorResponse("Cliente não encontrado com ID: " + slot.customerId(), HttpStatus.NOT_FOUND);
+        }
+
+        if (rentalPlan.isEmpty()) {
+            return createErrorResponse("Plano de aluguel não encontrado com ID: " + slot.planId(), HttpStatus.NOT_FOUND);
+        }
+
+        Lock lock = resourceLocks.lockFor(ResourceType.DESK, slot.resourceId());
+        lock.lock();
+        try {
+            Optional<RentalSlot> conflict = deskRentalIndex.findConflict(slot.resourceId(), slot.start(), slot.end(),
+                    slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null);
+            if (conflict.isPresent()) {
+                return createErrorResponse(buildConflictMessageByTime(rentalPlan.get().getRentalShift(), conflict.get()), HttpStatus.CONFLICT);
+            }
+
+            Optional<RentalSlot> held = holdService.findConflict(slot);
+            if (held.isPresent()) {
+                return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
             }
 
-            // Criar o aluguel
             DeskRental deskRental = new DeskRental();
             deskRental.setDesk(desk.get());
             deskRental.setCustomer(customer.get());
             deskRental.setRentalPlan(rentalPlan.get());
-            deskRental.setStartPeriodDeskRentals(startDate);
-            deskRental.setEndPeriodDeskRentals(endDate);
-            deskRental.setTotalPriceDeskRentals(rentalRequest.getTotalPriceDeskRentals());
+            deskRental.setStartPeriodDeskRentals(slot.start());
+            deskRental.setEndPeriodDeskRentals(slot.end());
+            deskRental.setTotalPriceDeskRentals(slot.totalPrice());
 
             DeskRental savedRental = repository.save(deskRental);
+            eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(savedRental)));
+            quoteService.markRedeemed(rentalRequest.getQuoteToken(), LocalDateTime.now());
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -156,11 +310,223 @@ public class DeskRentalController {
             response.put("data", savedRental);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean differs(Integer sent, Integer quoted) {
+        return sent != null && !sent.equals(quoted);
+    }
+
+    // Série recorrente: expande as ocorrências e verifica todas contra o índice sob um único lock da mesa
+    private ResponseEntity<Map<String, Object>> createRecurringDeskRentals(DeskRentalRequest rentalRequest,
+                                                                           Desk desk,
+                                                                           Customer customer,
+                                                                           RentalPlan rentalPlan) {
+        RecurrenceRule recurrence = rentalRequest.getRecurrence();
+        LocalDate firstDay = rentalRequest.getStartPeriodDeskRentals().toLocalDate();
+
+        String recurrenceError = recurrence.validate(firstDay);
+        if (recurrenceError != null) {
+            return createErrorResponse(recurrenceError, HttpStatus.BAD_REQUEST);
+        }
+
+        // Na série o preço informado é o de cada ocorrência (como no POST individual), não o total da série
+        if (rentalRequest.getTotalPriceDeskRentals() == null || rentalRequest.getTotalPriceDeskRentals().compareTo(BigDecimal.ZERO) <= 0) {
+            return createErrorResponse("Preço de cada ocorrência deve ser maior que zero", HttpStatus.BAD_REQUEST);
+        }
+
+        List<LocalDate> days = recurrence.expand(firstDay);
+        if (days.isEmpty()) {
+            return createErrorResponse("A recorrência não gera nenhuma ocorrência", HttpStatus.BAD_REQUEST);
+        }
+
+        RentalSeries series = new RentalSeries(
+                ResourceType.DESK,
+                customer,
+                recurrence.getFrequency().name(),
+                days.stream().map(LocalDate::getDayOfWeek).distinct().sorted().map(Enum::name).collect(Collectors.joining(",")),
+                days.get(0),
+                days.get(days.size() - 1),
+                days.size()
+        );
+
+        // Cada ocorrência segue a mesma regra de horário do POST individual
+        RentalShift shift = rentalPlan.getRentalShift();
+        int durationInDays = rentalPlan.getRentalCategory().getBaseDurationInDaysRentalCategories();
+        List<DeskRental> occurrences = new ArrayList<>();
+        for (LocalDate day : days) {
+            LocalDateTime startDate = day.atTime(shift.getStartTimeRentalShifts());
+            DeskRental deskRental = new DeskRental(desk, customer, rentalPlan, startDate,
+                    startDate.plusDays(durationInDays - 1).with(shift.getEndTimeRentalShifts()),
+                    rentalRequest.getTotalPriceDeskRentals());
+            deskRental.setRentalSeries(series);
+            occurrences.add(deskRental);
+        }
+
+        Lock lock = resourceLocks.lockFor(ResourceType.DESK, desk.getIdDesks());
+        lock.lock();
+        try {
+            // Uma passada: cada ocorrência contra o índice e contra as ocorrências anteriores da série
+            List<String> errors = new ArrayList<>();
+            List<RentalSlot> accepted = new ArrayList<>();
+            for (DeskRental occurrence : occurrences) {
+                RentalSlot slot = RentalSlot.of(occurrence);
+                Optional<RentalSlot> conflict = deskRentalIndex.findConflict(
+                        slot.resourceId(), slot.start(), slot.end(),
+                        slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null);
+                if (conflict.isEmpty()) {
+                    conflict = accepted.stream().filter(slot::conflictsWith).findFirst();
+                }
+
+                Optional<RentalSlot> held = holdService.findConflict(slot);
+
+                if (conflict.isPresent()) {
+                    errors.add(slot.start().toLocalDate() + ": " + buildConflictMessageByTime(shift, conflict.get()));
+                } else if (held.isPresent()) {
+                    errors.add(slot.start().toLocalDate() + ": " + HoldService.conflictMessage(held.get()));
+                }
+                accepted.add(slot);
+            }
+
+            if (!errors.isEmpty()) {
+                return createBatchErrorResponse("Série rejeitada, " + errors.size() + " ocorrência(s) em conflito", errors, HttpStatus.CONFLICT);
+            }
+
+            // Série + ocorrências no mesmo commit, com os inserts das ocorrências em batch
+            List<DeskRental> savedRentals = transactionTemplate.execute(status -> {
+                rentalSeriesRepository.save(series);
+                return repository.saveAll(occurrences);
+            });
+            savedRentals.forEach(saved -> eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(saved))));
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("series", series);
+            data.put("rentals", savedRentals);
+            data.put("seriesTotalPrice", rentalRequest.getTotalPriceDeskRentals().multiply(BigDecimal.valueOf(savedRentals.size())));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Série criada com " + savedRentals.size() + " ocorrências!");
+            response.put("data", data);
+            response.put("count", savedRentals.size());
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // POST BATCH - Criar vários aluguéis de mesa de uma vez (tudo ou nada)
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createDeskRentalsBatch(@RequestBody List<DeskRentalRequest> rentalRequests) {
+        if (rentalRequests == null || rentalRequests.isEmpty() || rentalRequests.size() > MAX_BATCH_SIZE) {
+            return createErrorResponse("O lote deve ter entre 1 e " + MAX_BATCH_SIZE + " aluguéis", HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            // Mesas e clientes do lote carregados com uma consulta por tabela; planos vêm do catálogo em memória
+            Map<Integer, Desk> desks = deskRepository.findAllById(collectIds(rentalRequests, DeskRentalRequest::getIdDesks)).stream()
+                    .collect(Collectors.toMap(Desk::getIdDesks, Function.identity()));
+            Map<Integer, Customer> customers = customerRepository.findAllById(collectIds(rentalRequests, DeskRentalRequest::getIdCustomers)).stream()
+                    .collect(Collectors.toMap(Customer::getIdCustomers, Function.identity()));
+            Map<Integer, RentalPlan> rentalPlans = catalogService.plans(collectIds(rentalRequests, DeskRentalRequest::getIdRentalPlans));
+
+            // Mesmas validações do POST individual, acumulando os erros de todos os itens
+            List<String> errors = new ArrayList<>();
+            List<DeskRental> rentals = new ArrayList<>();
+            for (int i = 0; i < rentalRequests.size(); i++) {
+                DeskRentalRequest rentalRequest = rentalRequests.get(i);
+                String item = "Item " + (i + 1) + ": ";
+                Desk desk = desks.get(rentalRequest.getIdDesks());
+                Customer customer = customers.get(rentalRequest.getIdCustomers());
+                RentalPlan rentalPlan = rentalPlans.get(rentalRequest.getIdRentalPlans());
+
+                if (desk == null) {
+                    errors.add(item + "Mesa não encontrada com ID: " + rentalRequest.getIdDesks());
+                } else if (customer == null) {
+                    errors.add(item + "Cliente não encontrado com ID: " + rentalRequest.getIdCustomers());
+                } else if (rentalPlan == null) {
+                    errors.add(item + "Plano de aluguel não encontrado com ID: " + rentalRequest.getIdRentalPlans());
+                } else if (rentalRequest.getStartPeriodDeskRentals() == null) {
+                    errors.add(item + "Data de início é obrigatória");
+                } else if (rentalPlan.getRentalShift() == null) {
+                    errors.add(item + "Plano de aluguel não possui turno definido");
+                } else if (rentalPlan.getRentalCategory() == null) {
+                    errors.add(item + "Categoria do plano de aluguel não encontrada");
+                } else if (rentalRequest.getTotalPriceDeskRentals() == null || rentalRequest.getTotalPriceDeskRentals().compareTo(BigDecimal.ZERO) <= 0) {
+                    errors.add(item + "Preço total deve ser maior que zero");
+                } else {
+                    RentalShift shift = rentalPlan.getRentalShift();
+                    int durationInDays = rentalPlan.getRentalCategory().getBaseDurationInDaysRentalCategories();
+                    LocalDateTime startDate = rentalRequest.getStartPeriodDeskRentals().with(shift.getStartTimeRentalShifts());
+                    LocalDateTime endDate = startDate.plusDays(durationInDays - 1).with(shift.getEndTimeRentalShifts());
+
+                    DeskRental deskRental = new DeskRental();
+                    deskRental.setDesk(desk);
+                    deskRental.setCustomer(customer);
+                    deskRental.setRentalPlan(rentalPlan);
+                    deskRental.setStartPeriodDeskRentals(startDate);
+                    deskRental.setEndPeriodDeskRentals(endDate);
+                    deskRental.setTotalPriceDeskRentals(rentalRequest.getTotalPriceDeskRentals());
+                    rentals.add(deskRental);
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.BAD_REQUEST);
+            }
+
+            // Seção crítica: trava todas as mesas do lote (em ordem fixa) durante verificação + save
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.DESK, desks.keySet());
+            locks.forEach(Lock::lock);
+            try {
+                // Conflitos contra os aluguéis existentes (índice em memória), as reservas temporárias e entre os itens do próprio lote
+                List<RentalSlot> accepted = new ArrayList<>();
+                for (int i = 0; i < rentals.size(); i++) {
+                    DeskRental rental = rentals.get(i);
+                    RentalShift shift = rental.getRentalPlan().getRentalShift();
+                    RentalSlot slot = RentalSlot.of(rental);
+
+                    Optional<RentalSlot> conflict = deskRentalIndex.findConflict(
+                            slot.resourceId(), slot.start(), slot.end(),
+                            slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null);
+                    if (conflict.isEmpty()) {
+                        conflict = accepted.stream().filter(slot::conflictsWith).findFirst();
+                    }
+
+                    Optional<RentalSlot> held = holdService.findConflict(slot);
+
+                    if (conflict.isPresent()) {
+                        errors.add("Item " + (i + 1) + ": " + buildConflictMessageByTime(shift, conflict.get()));
+                    } else if (held.isPresent()) {
+                        errors.add("Item " + (i + 1) + ": " + HoldService.conflictMessage(held.get()));
+                    }
+                    accepted.add(slot);
+                }
+
+                if (!errors.isEmpty()) {
+                    return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.CONFLICT);
+                }
+
+                // Um único commit: os ids vêm em blocos do gerador e os inserts saem em batch
+                List<DeskRental> savedRentals = transactionTemplate.execute(status -> repository.saveAll(rentals));
+                savedRentals.forEach(saved -> eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(saved))));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", savedRentals.size() + " mesas alugadas com sucesso!");
+                response.put("data", savedRentals);
+                response.put("count", savedRentals.size());
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
 
         } catch (Exception e) {
-            System.out.println("ERRO AO CRIAR ALUGUEL: " + e.getMessage());
-            e.printStackTrace();
-            return createErrorResponse("Erro ao criar aluguel: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            return createErrorResponse("Erro ao criar lote de aluguéis: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -179,7 +545,7 @@ public class DeskRentalController {
             // Validações das entidades relacionadas
             Optional<Desk> desk = deskRepository.findById(rentalRequest.getIdDesks());
             Optional<Customer> customer = customerRepository.findById(rentalRequest.getIdCustomers());
-            Optional<RentalPlan> rentalPlan = rentalPlanRepository.findById(rentalRequest.getIdRentalPlans());
+            Optional<RentalPlan> rentalPlan = catalogService.plan(rentalRequest.getIdRentalPlans());
 
             if (desk.isEmpty()) {
                 return createErrorResponse("Mesa não encontrada com ID: " + rentalRequest.getIdDesks(), HttpStatus.NOT_FOUND);
@@ -215,46 +581,57 @@ public class DeskRentalController {
             startDate = startDate.with(startTime);
             LocalDateTime endDate = startDate.plusDays(durationInDays - 1).with(endTime);
 
-            // Verificar conflitos considerando sobreposição de horários (excluindo o próprio aluguel)
-            List<DeskRental> conflictingRentals = repository.findTimeRangeConflicts(
-                    rentalRequest.getIdDesks(),
-                    startDate,
-                    endDate
-            ).stream().filter(r -> !r.getIdDeskRentals().equals(id)).toList();
-
-            if (!conflictingRentals.isEmpty()) {
-                for (DeskRental conflict : conflictingRentals) {
-                    boolean hasRealConflict = checkTimeOverlap(
+            // Seção crítica: verificação de conflito + save serializados por recurso. Se o aluguel muda de recurso, o
+            // anterior também fica travado: o slot dele é liberado e a fila de espera dele é avaliada no evento
+            RentalSlot previous = RentalSlot.of(rental);
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.DESK, Arrays.asList(previous.resourceId(), rentalRequest.getIdDesks()));
+            locks.forEach(Lock::lock);
+            try {
+                // Verificar conflitos considerando sobreposição de horários (excluindo o próprio aluguel)
+                Optional<RentalSlot> conflict = deskRentalIndex.findConflict(
+                        rentalRequest.getIdDesks(),
+                        startDate,
+                        endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(),
+                        startTime,
+                        endTime,
+                        id
+                );
+
+                if (conflict.isPresent()) {
+                    String conflictMessage = buildConflictMessageByTime(
                             rentalPlan.get().getRentalShift(),
-                            conflict.getRentalPlan().getRentalShift()
+                            conflict.get()
                     );
-
-                    if (hasRealConflict) {
-                        String conflictMessage = buildConflictMessageByTime(
-                                rentalPlan.get().getRentalShift(),
-                                conflict.getRentalPlan().getRentalShift()
-                        );
-                        return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
-                    }
+                    return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
                 }
-            }
-
-            // Atualizar o aluguel
-            rental.setDesk(desk.get());
-            rental.setCustomer(customer.get());
-            rental.setRentalPlan(rentalPlan.get());
-            rental.setStartPeriodDeskRentals(startDate);
-            rental.setEndPeriodDeskRentals(endDate);
-            rental.setTotalPriceDeskRentals(rentalRequest.getTotalPriceDeskRentals());
 
-            DeskRental updatedRental = repository.save(rental);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Aluguel atualizado com sucesso!");
-            response.put("data", updatedRental);
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.DESK, rentalRequest.getIdDesks(), startDate, endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(), startTime, endTime, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+                }
 
-            return ResponseEntity.ok(response);
+                // Atualizar o aluguel
+                rental.setDesk(desk.get());
+                rental.setCustomer(customer.get());
+                rental.setRentalPlan(rentalPlan.get());
+                rental.setStartPeriodDeskRentals(startDate);
+                rental.setEndPeriodDeskRentals(endDate);
+                rental.setTotalPriceDeskRentals(rentalRequest.getTotalPriceDeskRentals());
+
+                DeskRental updatedRental = repository.save(rental);
+                eventPublisher.publishEvent(RentalChangedEvent.updated(previous, RentalSlot.of(updatedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Aluguel atualizado com sucesso!");
+                response.put("data", updatedRental);
+
+                return ResponseEntity.ok(response);
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
 
         } catch (Exception e) {
             return createErrorResponse("Erro ao atualizar aluguel: " + e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -263,53 +640,58 @@ public class DeskRentalController {
 
     // GET ALL - Buscar todos os aluguéis OU filtrar por mesa
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getDeskRentals(@RequestParam(required = false) Integer deskId) {
-        List<DeskRental> rentals;
-
-        if (deskId != null) {
-            rentals = repository.findByDeskIdDesks(deskId);
-        } else {
-            rentals = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getDeskRentals(@RequestParam(required = false) Integer deskId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) String sort,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ?
-                (deskId != null ? "Nenhum aluguel encontrado para esta mesa" : "Nenhum aluguel encontrado")
-                : "Aluguéis recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<DeskRental> rentals = deskId != null
+                ? repository.findByDeskIdDesks(deskId, page.position(), page.sort(), page.limit())
+                : repository.findBy(page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ?
+                (deskId != null ? "Nenhum aluguel encontrado para esta mesa" : "Nenhum aluguel encontrado")
+                : "Aluguéis recuperados com sucesso")));
     }
 
     // GET BY ID - Buscar aluguel por ID
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getDeskRentalById(@PathVariable Integer id) {
-        Optional<DeskRental> rental = repository.findById(id);
+    public ResponseEntity<byte[]> getDeskRentalById(@PathVariable Integer id) {
+        return responseCache.get("deskRentals", id, () -> {
+            Optional<DeskRental> rental = repository.findById(id);
 
-        Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
 
-        if (rental.isPresent()) {
-            response.put("success", true);
-            response.put("message", "Aluguel encontrado com sucesso");
-            response.put("data", rental.get());
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("success", false);
-            response.put("message", "Aluguel não encontrado com ID: " + id);
-            response.put("data", null);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
+            if (rental.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Aluguel encontrado com sucesso");
+                response.put("data", rental.get());
+                return ResponseEntity.ok(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Aluguel não encontrado com ID: " + id);
+                response.put("data", null);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+        });
     }
 
     // DELETE - Deletar aluguel
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteDeskRental(@PathVariable Integer id) {
         Map<String, Object> response = new HashMap<>();
+        Optional<DeskRental> rental = repository.findById(id);
 
-        if (repository.existsById(id)) {
-            repository.deleteById(id);
+        if (rental.isPresent()) {
+            repository.delete(rental.get());
+            eventPublisher.publishEvent(RentalChangedEvent.deleted(RentalSlot.of(rental.get())));
 
             response.put("success", true);
             response.put("message", "Aluguel deletado com sucesso!");
@@ -326,63 +708,98 @@ public class DeskRentalController {
 
     // GET BY CUSTOMER - Buscar aluguéis por cliente
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<Map<String, Object>> getDeskRentalsByCustomer(@PathVariable Integer customerId) {
-        List<DeskRental> rentals = repository.findByCustomerIdCustomers(customerId);
+    public ResponseEntity<Map<String, Object>> getDeskRentalsByCustomer(@PathVariable Integer customerId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) String sort,
+                                                                        @RequestParam(required = false) Integer size,
+                                                                        @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para este cliente" : "Aluguéis do cliente recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<DeskRental> rentals = repository.findByCustomerIdCustomers(customerId, page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel encontrado para este cliente" : "Aluguéis do cliente recuperados com sucesso")));
     }
 
     // GET BY DESK - Buscar aluguéis por mesa (endpoint alternativo)
     @GetMapping("/desk/{deskId}")
-    public ResponseEntity<Map<String, Object>> getDeskRentalsByDesk(@PathVariable Integer deskId) {
-        List<DeskRental> rentals = repository.findByDeskIdDesks(deskId);
+    public ResponseEntity<Map<String, Object>> getDeskRentalsByDesk(@PathVariable Integer deskId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        Window<DeskRental> rentals = repository.findByDeskIdDesks(deskId, page.position(), page.sort(), page.limit());
+
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel encontrado para esta mesa" : "Aluguéis da mesa recuperados com sucesso")));
+    }
+
+    // GET BY SERIES - Buscar as ocorrências de uma série recorrente
+    @GetMapping("/series/{seriesId}")
+    public ResponseEntity<Map<String, Object>> getDeskRentalsBySeries(@PathVariable Integer seriesId,
+                                                                      @RequestParam(defaultValue = "false") boolean compact) {
+        List<DeskRental> rentals = repository.findByRentalSeriesIdRentalSeriesOrderByStartPeriodDeskRentals(seriesId);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para esta mesa" : "Aluguéis da mesa recuperados com sucesso");
+        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para esta série" : "Aluguéis da série recuperados com sucesso");
         response.put("data", rentals);
         response.put("count", rentals.size());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, response));
     }
 
     // GET ACTIVE - Buscar aluguéis ativos
     @GetMapping("/active")
-    public ResponseEntity<Map<String, Object>> getActiveDeskRentals() {
-        List<DeskRental> activeRentals = repository.findActiveRentals(LocalDateTime.now());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", activeRentals.isEmpty() ? "Nenhum aluguel ativo no momento" : "Aluguéis ativos recuperados com sucesso");
-        response.put("data", activeRentals);
-        response.put("count", activeRentals.size());
-
-        return ResponseEntity.ok(response);
-    }
+    public ResponseEntity<Map<String, Object>> getActiveDeskRentals(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-    // MÉTODO AUXILIAR - Verificar sobreposição de horários
-    private boolean checkTimeOverlap(RentalShift shift1, RentalShift shift2) {
-        LocalTime start1 = shift1.getStartTimeRentalShifts();
-        LocalTime end1 = shift1.getEndTimeRentalShifts();
-        LocalTime start2 = shift2.getStartTimeRentalShifts();
-        LocalTime end2 = shift2.getEndTimeRentalShifts();
+        // Do snapshot em memória: sem consulta ao banco, ordenado e paginado aqui
+        List<DeskRental> active = activeRentalSnapshot.active(ResourceType.DESK, DeskRental.class, LocalDateTime.now());
+        Window<DeskRental> activeRentals = keysetPaging.page(active, page, "idDeskRentals");
 
-        // Verifica se os horários se sobrepõem
-        return start1.isBefore(end2) && end1.isAfter(start2);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(activeRentals, page, activeRentals.isEmpty() ? "Nenhum aluguel ativo no momento" : "Aluguéis ativos recuperados com sucesso")));
     }
 
     // MÉTODO AUXILIAR - Construir mensagem de conflito baseada em horários
-    private String buildConflictMessageByTime(RentalShift newShift, RentalShift existingShift) {
+    private String buildConflictMessageByTime(RentalShift newShift, RentalSlot existing) {
         return "Conflito de horários: " +
                 newShift.getNameRentalShifts() + " (" + newShift.getStartTimeRentalShifts() + " às " + newShift.getEndTimeRentalShifts() + ") " +
                 "conflita com " +
-                existingShift.getNameRentalShifts() + " (" + existingShift.getStartTimeRentalShifts() + " às " + existingShift.getEndTimeRentalShifts() + ")";
+                existing.shiftName() + " (" + existing.shiftStart() + " às " + existing.shiftEnd() + ")";
+    }
+
+    // Ids distintos e não nulos de um campo das requisições do lote
+    private static <T> Set<Integer> collectIds(List<T> requests, Function<T, Integer> idGetter) {
+        return requests.stream().map(idGetter).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    // Método auxiliar para respostas de erro de lote/série (um erro por item rejeitado)
+    private ResponseEntity<Map<String, Object>> createBatchErrorResponse(String message, List<String> errors, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        errorResponse.put("errors", errors);
+        return ResponseEntity.status(status).body(errorResponse);
     }
 
     // Método auxiliar para criar respostas de erro
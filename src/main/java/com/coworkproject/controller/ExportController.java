@@ -0,0 +1,104 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.service.RentalExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Exportação do histórico de aluguéis para o financeiro, em NDJSON e por streaming:
+// o primeiro registro sai assim que o banco devolve a primeira linha e o uso de memória não cresce com a tabela.
+// Accept: application/cbor (ou cbor-seq) e application/x-jackson-smile trocam a codificação; sem eles, NDJSON.
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    private final RentalExportService rentalExportService;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(RentalExportService rentalExportService, ObjectMapper objectMapper) {
+        this.rentalExportService = rentalExportService;
+        this.objectMapper = objectMapper;
+    }
+
+    // GET EXPORT - Aluguéis de um tipo (desk, room, area ou stand), um por linha, opcionalmente com início em [from, to)
+    // O tipo declarado tem de ser StreamingResponseBody (o Spring escolhe o handler por ele), inclusive nos erros
+    @GetMapping("/rentals/{type}")
+    public ResponseEntity<StreamingResponseBody> exportRentals(
+            @PathVariable String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        ResourceType resourceType;
+        try {
+            resourceType = ResourceType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse("Tipo de recurso inválido: " + type + ". Use desk, room, area ou stand", HttpStatus.BAD_REQUEST);
+        }
+
+        if (from != null && to != null && !from.isBefore(to)) {
+            return createErrorResponse("Data inicial deve ser anterior à data final", HttpStatus.BAD_REQUEST);
+        }
+
+        RentalExportService.Format format = negotiate(accept);
+        StreamingResponseBody body = out -> rentalExportService.export(resourceType, from, to, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resourceType.name().toLowerCase() + "-rentals." + format.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    // Formato de maior qualidade (q) pedido no Accept; */*, JSON, NDJSON ou Accept inválido ficam no NDJSON
+    private static RentalExportService.Format negotiate(String accept) {
+        if (accept == null) {
+            return RentalExportService.Format.NDJSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return RentalExportService.Format.NDJSON;
+        }
+
+        RentalExportService.Format best = RentalExportService.Format.NDJSON;
+        double bestQuality = -1;
+        for (MediaType mediaType : mediaTypes) {
+            RentalExportService.Format format = switch (mediaType.getSubtype()) {
+                case "cbor", "cbor-seq" -> RentalExportService.Format.CBOR;
+                case "x-jackson-smile" -> RentalExportService.Format.SMILE;
+                default -> RentalExportService.Format.NDJSON;
+            };
+            double quality = mediaType.getQualityValue();
+            if (quality > 0 && quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    // Método auxiliar para respostas de erro, no mesmo formato JSON dos outros controllers
+    private ResponseEntity<StreamingResponseBody> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, errorResponse));
+    }
+}
@@ -0,0 +1,166 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.dto.HoldRequest;
+import com.coworkproject.service.HoldReleasedEvent;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import com.coworkproject.service.SlotBookingService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+// Reservas temporárias: seguram o recurso enquanto o cliente conclui o checkout.
+// A verificação de conflito é feita aqui, na criação; a confirmação só converte a reserva em aluguel.
+@RestController
+@RequestMapping("/api/holds")
+public class HoldController {
+
+    private final HoldService holdService;
+    private final SlotBookingService slotBookingService;
+    private final ResourceLocks resourceLocks;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public HoldController(HoldService holdService,
+                          SlotBookingService slotBookingService,
+                          ResourceLocks resourceLocks,
+                          ApplicationEventPublisher eventPublisher) {
+        this.holdService = holdService;
+        this.slotBookingService = slotBookingService;
+        this.resourceLocks = resourceLocks;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // POST - Criar reserva temporária
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createHold(@RequestBody HoldRequest holdRequest) {
+        try {
+            SlotBookingService.Resolution resolution = slotBookingService.resolve(holdRequest);
+            if (resolution.error() != null) {
+                return createErrorResponse(resolution.error(), resolution.status());
+            }
+            RentalSlot slot = resolution.slot();
+
+            // Seção crítica: a reserva disputa o recurso com os aluguéis pelo mesmo lock
+            Lock lock = resourceLocks.lockFor(slot.type(), slot.resourceId());
+            lock.lock();
+            try {
+                if (slotBookingService.isRented(slot)) {
+                    return createErrorResponse("O recurso já está alugado neste período", HttpStatus.CONFLICT);
+                }
+
+                Optional<RentalSlot> held = holdService.findConflict(slot);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+                }
+
+                HoldService.Hold hold = holdService.place(slot, holdService.ttlFor(holdRequest.getTtlSeconds()));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Reserva temporária criada, válida até " + hold.expiresAt());
+                response.put("data", hold);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                lock.unlock();
+            }
+
+        } catch (Exception e) {
+            return createErrorResponse("Erro ao criar reserva temporária: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // GET BY ID - Buscar reserva temporária
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getHoldById(@PathVariable Integer id) {
+        Optional<HoldService.Hold> hold = holdService.find(id);
+        if (hold.isEmpty()) {
+            return createErrorResponse("Reserva temporária não encontrada ou expirada com ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Reserva temporária encontrada com sucesso");
+        response.put("data", hold.get());
+
+        return ResponseEntity.ok(response);
+    }
+
+    // POST - Confirmar a reserva: grava o aluguel sem nova verificação de conflito
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<Map<String, Object>> confirmHold(@PathVariable Integer id) {
+        Optional<HoldService.Hold> found = holdService.find(id);
+        if (found.isEmpty()) {
+            return createErrorResponse("Reserva temporária não encontrada ou expirada com ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        // Reserva feita perto da meia-noite para o próprio dia pode chegar aqui com o início já no passado
+        RentalSlot slot = found.get().slot();
+        if (slot.start().isBefore(LocalDateTime.now().toLocalDate().atStartOfDay())) {
+            return createErrorResponse("Data de início não pode ser no passado", HttpStatus.BAD_REQUEST);
+        }
+
+        Lock lock = resourceLocks.lockFor(slot.type(), slot.resourceId());
+        lock.lock();
+        try {
+            // Pode ter vencido entre a busca e o lock
+            Optional<HoldService.Hold> hold = holdService.release(id);
+            if (hold.isEmpty()) {
+                return createErrorResponse("A reserva temporária expirou", HttpStatus.GONE);
+            }
+
+            try {
+                Optional<SlotBookingService.Booking> booking = slotBookingService.book(slot);
+                if (booking.isEmpty()) {
+                    holdService.restore(hold.get());
+                    return createErrorResponse("Recurso, cliente ou plano da reserva não existe mais", HttpStatus.NOT_FOUND);
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Reserva confirmada com sucesso!");
+                response.put("data", booking.get().rental());
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } catch (Exception e) {
+                holdService.restore(hold.get());
+                return createErrorResponse("Erro ao confirmar reserva temporária: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // DELETE - Cancelar reserva temporária
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> deleteHold(@PathVariable Integer id) {
+        Optional<HoldService.Hold> hold = holdService.release(id);
+        if (hold.isEmpty()) {
+            return createErrorResponse("Reserva temporária não encontrada ou expirada com ID: " + id, HttpStatus.NOT_FOUND);
+        }
+        eventPublisher.publishEvent(new HoldReleasedEvent(hold.get().slot()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Reserva temporária cancelada com sucesso");
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,119 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.index.ShiftOverlapMatrix;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.service.AvailabilityIndex;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/occupancy")
+public class OccupancyController {
+
+    private final AvailabilityIndex availabilityIndex;
+
+    public OccupancyController(AvailabilityIndex availabilityIndex) {
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    // GET HEATMAP - Ocupados e livres por dia e turno no mês, para um tipo de recurso ou todos
+    @GetMapping("/heatmap")
+    public ResponseEntity<Map<String, Object>> getHeatmap(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) String type) {
+
+        List<ResourceType> types;
+        if (type == null) {
+            types = List.of(ResourceType.values());
+        } else {
+            try {
+                types = List.of(ResourceType.valueOf(type.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                return createErrorResponse("Tipo de recurso inválido: " + type + ". Use desk, room, area ou stand", HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        if (!availabilityIndex.covers(month.atDay(1), month.atEndOfMonth())) {
+            return createErrorResponse("Mês fora do horizonte de ocupação: de " + YearMonth.from(availabilityIndex.horizonStart())
+                    + " a " + YearMonth.from(availabilityIndex.horizonEnd()), HttpStatus.BAD_REQUEST);
+        }
+
+        List<Map<String, Object>> grids = new ArrayList<>();
+        for (ResourceType resourceType : types) {
+            AvailabilityIndex.Occupancy occupancy = availabilityIndex.occupancy(resourceType, month.atDay(1), month.atEndOfMonth());
+            grids.add(buildGrid(resourceType, month, occupancy));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Mapa de ocupação recuperado com sucesso");
+        response.put("data", grids);
+        response.put("count", grids.size());
+
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> buildGrid(ResourceType type, YearMonth month, AvailabilityIndex.Occupancy occupancy) {
+        List<ShiftOverlapMatrix.Shift> shifts = occupancy.shifts();
+        int total = occupancy.resources();
+
+        List<Map<String, Object>> shiftHeaders = new ArrayList<>();
+        for (ShiftOverlapMatrix.Shift shift : shifts) {
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("id", shift.id());
+            header.put("name", shift.name());
+            shiftHeaders.add(header);
+        }
+
+        List<Map<String, Object>> days = new ArrayList<>();
+        for (int row = 0; row < occupancy.occupied().length; row++) {
+            int[] counts = occupancy.occupied()[row];
+
+            // Ocupados no turno: recursos com aluguel que conflita com ele (inclusive de turnos sobrepostos), como na
+            // busca de disponibilidade
+            List<Map<String, Object>> cells = new ArrayList<>();
+            for (int position = 0; position < shifts.size(); position++) {
+                Map<String, Object> cell = new LinkedHashMap<>();
+                cell.put("shiftId", shifts.get(position).id());
+                cell.put("occupied", counts[position]);
+                cell.put("free", Math.max(0, total - counts[position]));
+                cells.add(cell);
+            }
+
+            int occupiedInDay = counts[shifts.size()];
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("date", month.atDay(row + 1));
+            day.put("occupied", occupiedInDay);
+            day.put("free", Math.max(0, total - occupiedInDay));
+            day.put("shifts", cells);
+            days.add(day);
+        }
+
+        Map<String, Object> grid = new LinkedHashMap<>();
+        grid.put("type", type);
+        grid.put("month", month.toString());
+        grid.put("resources", total);
+        grid.put("shifts", shiftHeaders);
+        grid.put("days", days);
+        return grid;
+    }
+
+    // Método auxiliar para criar respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,54 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.dto.QuoteRequest;
+import com.coworkproject.service.QuoteService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Cotações de aluguel de mesa e stand: preço e período calculados no servidor, com token assinado
+// que os POSTs de /api/desk-rentals e /api/stand-rentals aceitam em quoteToken
+@RestController
+@RequestMapping("/api/quotes")
+public class QuoteController {
+
+    private final QuoteService quoteService;
+
+    public QuoteController(QuoteService quoteService) {
+        this.quoteService = quoteService;
+    }
+
+    // POST - Cotar aluguel (simulação: verifica disponibilidade sem reservar nem gravar)
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createQuote(@RequestBody QuoteRequest quoteRequest) {
+        try {
+            QuoteService.Outcome outcome = quoteService.quote(quoteRequest, LocalDateTime.now());
+            if (outcome.error() != null) {
+                return createErrorResponse(outcome.error(), outcome.status());
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Cotação válida até " + outcome.quote().expiresAt());
+            response.put("data", outcome.quote());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            return createErrorResponse("Erro ao calcular cotação: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
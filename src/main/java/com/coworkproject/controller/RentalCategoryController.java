@@ -2,12 +2,16 @@ package com.coworkproject.controller;
 
 import com.coworkproject.model.RentalCategory;
 import com.coworkproject.repository.RentalCategoryRepository;
+import com.coworkproject.service.CatalogChangedEvent;
+import com.coworkproject.service.CatalogService;
+import com.coworkproject.service.KeysetPaging;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,30 +19,49 @@ import java.util.Optional;
 @RequestMapping("/api/rental-categories")
 public class RentalCategoryController {
 
-    private final RentalCategoryRepository repository;
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idRentalCategories",
+            "name", "nameRentalCategories",
+            "duration", "baseDurationInDaysRentalCategories"
+    );
 
-    public RentalCategoryController(RentalCategoryRepository repository) {
+    private final RentalCategoryRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final CatalogService catalogService;
+
+    public RentalCategoryController(RentalCategoryRepository repository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    KeysetPaging keysetPaging,
+                                    CatalogService catalogService) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.catalogService = catalogService;
     }
 
     // GET ALL - Buscar todas as categorias
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllRentalCategories() {
-        List<RentalCategory> categories = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllRentalCategories(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) String sort,
+                                                                      @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", categories.isEmpty() ? "Nenhuma categoria encontrada" : "Categorias recuperadas com sucesso");
-        response.put("data", categories);
-        response.put("count", categories.size());
+        Window<RentalCategory> categories = keysetPaging.scroll(repository, null, page, "idRentalCategories");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(categories, page, categories.isEmpty() ? "Nenhuma categoria encontrada" : "Categorias recuperadas com sucesso"));
     }
 
     // GET BY ID - Buscar categoria por ID
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getRentalCategoryById(@PathVariable Integer id) {
-        Optional<RentalCategory> category = repository.findById(id);
+        Optional<RentalCategory> category = catalogService.category(id);
 
         Map<String, Object> response = new HashMap<>();
 
@@ -69,6 +92,7 @@ public class RentalCategoryController {
             }
 
             RentalCategory savedCategory = repository.save(rentalCategory);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalCategories"));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -111,6 +135,7 @@ public class RentalCategoryController {
             category.setBaseDurationInDaysRentalCategories(categoryDetails.getBaseDurationInDaysRentalCategories());
 
             RentalCategory updatedCategory = repository.save(category);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalCategories"));
 
             response.put("success", true);
             response.put("message", "Categoria atualizada com sucesso!");
@@ -134,6 +159,7 @@ public class RentalCategoryController {
             // Aqui você pode adicionar validações (ex: verificar se existem planos usando esta categoria)
 
             repository.deleteById(id);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalCategories"));
 
             response.put("success", true);
             response.put("message", "Categoria deletada com sucesso!");
@@ -167,4 +193,13 @@ public class RentalCategoryController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,127 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.dto.RentalView;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.RentalViewRepository;
+import com.coworkproject.service.KeysetPaging;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Listagem unificada dos aluguéis de mesas, salas, áreas e stands (ex.: recepção, "tudo o que acontece hoje"),
+// numa única consulta em vez de uma chamada por tipo de recurso.
+@RestController
+@RequestMapping("/api/rentals")
+public class RentalController {
+
+    // Ordenação única por início; tipo e id desempatam e entram no cursor
+    private static final Map<String, String> SORT_FIELDS = Map.of("start", "startPeriod");
+
+    private final RentalViewRepository rentalViewRepository;
+    private final KeysetPaging keysetPaging;
+
+    public RentalController(RentalViewRepository rentalViewRepository, KeysetPaging keysetPaging) {
+        this.rentalViewRepository = rentalViewRepository;
+        this.keysetPaging = keysetPaging;
+    }
+
+    // GET ALL - Aluguéis de todos os tipos que tocam o período [from, to] (dias inteiros), por cliente e tipo de recurso
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getRentals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer customerId,
+            @RequestParam(required = false) List<String> type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer size) {
+
+        if (from != null && to != null && to.isBefore(from)) {
+            return createErrorResponse("Data final deve ser igual ou posterior à data inicial", HttpStatus.BAD_REQUEST);
+        }
+
+        Set<ResourceType> types = EnumSet.allOf(ResourceType.class);
+        if (type != null && !type.isEmpty()) {
+            types = EnumSet.noneOf(ResourceType.class);
+            for (String value : type) {
+                try {
+                    types.add(ResourceType.valueOf(value.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return createErrorResponse("Tipo de recurso inválido: " + value + ". Use desk, room, area ou stand", HttpStatus.BAD_REQUEST);
+                }
+            }
+        }
+
+        KeysetPaging.PageQuery page;
+        try {
+            boolean firstPage = cursor == null || cursor.isBlank();
+            page = keysetPaging.query(cursor, firstPage && (sort == null || sort.isBlank()) ? "start" : sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        Map<String, Object> after = ((KeysetScrollPosition) page.position()).getKeys();
+        LocalDateTime afterStart = null;
+        ResourceType afterType = null;
+        Integer afterId = null;
+        if (!after.isEmpty()) {
+            // Cursor de outra listagem (mesmo formato, outras chaves)
+            try {
+                afterStart = (LocalDateTime) after.get("startPeriod");
+                afterType = ResourceType.valueOf((String) after.get("type"));
+                afterId = (Integer) after.get("idRental");
+            } catch (RuntimeException e) {
+                return createErrorResponse("Cursor inválido", HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        int limit = page.limit().max();
+        List<RentalView> rows = rentalViewRepository.find(
+                types,
+                customerId,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                page.sort().getOrderFor("startPeriod").isDescending(),
+                afterStart,
+                afterType,
+                afterId,
+                limit + 1);
+
+        // Uma linha a mais que a página indica que há próxima
+        List<RentalView> content = rows.size() > limit ? rows.subList(0, limit) : rows;
+        Window<RentalView> rentals = Window.from(content, index -> positionOf(content.get(index)), rows.size() > limit);
+
+        return ResponseEntity.ok(keysetPaging.response(rentals, page,
+                rentals.isEmpty() ? "Nenhum aluguel encontrado" : "Aluguéis recuperados com sucesso"));
+    }
+
+    private static ScrollPosition positionOf(RentalView rental) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("startPeriod", rental.startPeriod());
+        keys.put("type", rental.type().name());
+        keys.put("idRental", rental.idRental());
+        return ScrollPosition.forward(keys);
+    }
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -7,13 +7,17 @@ import com.coworkproject.model.RentalShift;
 import com.coworkproject.repository.RentalCategoryRepository;
 import com.coworkproject.repository.RentalPlanRepository;
 import com.coworkproject.repository.RentalShiftRepository;
+import com.coworkproject.service.CatalogChangedEvent;
+import com.coworkproject.service.CatalogService;
+import com.coworkproject.service.KeysetPaging;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -21,36 +25,58 @@ import java.util.Optional;
 @RequestMapping("/api/rental-plans")
 public class RentalPlanController {
 
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idRentalPlans",
+            "name", "planNameRentalPlans",
+            "price", "priceRentalPlans"
+    );
+
+    // Associações do grafo RentalPlan.detail, carregadas no mesmo SELECT das páginas
+    private static final String[] DETAIL = {"rentalCategory", "rentalShift"};
+
     private final RentalPlanRepository repository;
     private final RentalCategoryRepository categoryRepository;
     private final RentalShiftRepository shiftRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final CatalogService catalogService;
 
     public RentalPlanController(RentalPlanRepository repository,
                                 RentalCategoryRepository categoryRepository,
-                                RentalShiftRepository shiftRepository) {
+                                RentalShiftRepository shiftRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                KeysetPaging keysetPaging,
+                                CatalogService catalogService) {
         this.repository = repository;
         this.categoryRepository = categoryRepository;
         this.shiftRepository = shiftRepository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.catalogService = catalogService;
     }
 
     // GET ALL - Buscar todos os planos
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllRentalPlans() {
-        List<RentalPlan> plans = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllRentalPlans(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) String sort,
+                                                                 @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", plans.isEmpty() ? "Nenhum plano encontrado" : "Planos recuperados com sucesso");
-        response.put("data", plans);
-        response.put("count", plans.size());
+        Window<RentalPlan> plans = keysetPaging.scroll(repository, null, page, "idRentalPlans", DETAIL);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(plans, page, plans.isEmpty() ? "Nenhum plano encontrado" : "Planos recuperados com sucesso"));
     }
 
     // GET BY ID - Buscar plano por ID
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getRentalPlanById(@PathVariable Integer id) {
-        Optional<RentalPlan> plan = repository.findById(id);
+        Optional<RentalPlan> plan = catalogService.plan(id);
 
         Map<String, Object> response = new HashMap<>();
 
@@ -113,6 +139,7 @@ public class RentalPlanController {
             rentalPlan.setPriceRentalPlans(planRequest.getPriceRentalPlans());
 
             RentalPlan savedPlan = repository.save(rentalPlan);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalPlans"));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -180,6 +207,7 @@ public class RentalPlanController {
             plan.setPriceRentalPlans(planRequest.getPriceRentalPlans());
 
             RentalPlan updatedPlan = repository.save(plan);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalPlans"));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -202,6 +230,7 @@ public class RentalPlanController {
             // Aqui você pode adicionar validações (ex: verificar se existem aluguéis usando este plano)
 
             repository.deleteById(id);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalPlans"));
 
             response.put("success", true);
             response.put("message", "Plano deletado com sucesso!");
@@ -218,51 +247,62 @@ public class RentalPlanController {
 
     // GET BY CATEGORY - Buscar planos por categoria
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<Map<String, Object>> getRentalPlansByCategory(@PathVariable Integer categoryId) {
-        List<RentalPlan> plans = repository.findByRentalCategoryIdRentalCategories(categoryId);
+    public ResponseEntity<Map<String, Object>> getRentalPlansByCategory(@PathVariable Integer categoryId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) String sort,
+                                                                        @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", plans.isEmpty() ? "Nenhum plano encontrado para esta categoria" : "Planos da categoria recuperados com sucesso");
-        response.put("data", plans);
-        response.put("count", plans.size());
+        Window<RentalPlan> plans = keysetPaging.scroll(repository, RentalPlanRepository.inCategory(categoryId), page, "idRentalPlans", DETAIL);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(plans, page, plans.isEmpty() ? "Nenhum plano encontrado para esta categoria" : "Planos da categoria recuperados com sucesso"));
     }
 
     // GET BY SHIFT - Buscar planos por turno
     @GetMapping("/shift/{shiftId}")
-    public ResponseEntity<Map<String, Object>> getRentalPlansByShift(@PathVariable Integer shiftId) {
-        List<RentalPlan> plans = repository.findByRentalShiftIdRentalShifts(shiftId);
+    public ResponseEntity<Map<String, Object>> getRentalPlansByShift(@PathVariable Integer shiftId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) String sort,
+                                                                     @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", plans.isEmpty() ? "Nenhum plano encontrado para este turno" : "Planos do turno recuperados com sucesso");
-        response.put("data", plans);
-        response.put("count", plans.size());
+        Window<RentalPlan> plans = keysetPaging.scroll(repository, RentalPlanRepository.inShift(shiftId), page, "idRentalPlans", DETAIL);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(plans, page, plans.isEmpty() ? "Nenhum plano encontrado para este turno" : "Planos do turno recuperados com sucesso"));
     }
 
     // GET BY PRICE RANGE - Buscar planos por faixa de preço
     @GetMapping("/price-range")
-    public ResponseEntity<Map<String, Object>> getRentalPlansByPriceRange(
-            @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
+    public ResponseEntity<Map<String, Object>> getRentalPlansByPriceRange(@RequestParam BigDecimal minPrice,
+                                                                          @RequestParam BigDecimal maxPrice,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) String sort,
+                                                                          @RequestParam(required = false) Integer size) {
 
         if (minPrice.compareTo(BigDecimal.ZERO) < 0 || maxPrice.compareTo(minPrice) < 0) {
             return createErrorResponse("Faixa de preço inválida", HttpStatus.BAD_REQUEST);
         }
 
-        List<RentalPlan> plans = repository.findByPriceRentalPlansBetween(minPrice, maxPrice);
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", plans.isEmpty() ? "Nenhum plano encontrado na faixa de preço especificada" : "Planos na faixa de preço recuperados com sucesso");
-        response.put("data", plans);
-        response.put("count", plans.size());
+        Window<RentalPlan> plans = keysetPaging.scroll(repository, RentalPlanRepository.priceBetween(minPrice, maxPrice), page, "idRentalPlans", DETAIL);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(plans, page, plans.isEmpty() ? "Nenhum plano encontrado na faixa de preço especificada" : "Planos na faixa de preço recuperados com sucesso"));
     }
 
     // GET BY NAME - Buscar plano por nome
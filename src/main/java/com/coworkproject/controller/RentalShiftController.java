@@ -2,13 +2,17 @@ package com.coworkproject.controller;
 
 import com.coworkproject.model.RentalShift;
 import com.coworkproject.repository.RentalShiftRepository;
+import com.coworkproject.service.CatalogChangedEvent;
+import com.coworkproject.service.CatalogService;
+import com.coworkproject.service.KeysetPaging;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -16,30 +20,49 @@ import java.util.Optional;
 @RequestMapping("/api/rental-shifts")
 public class RentalShiftController {
 
-    private final RentalShiftRepository repository;
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idRentalShifts",
+            "name", "nameRentalShifts",
+            "start", "startTimeRentalShifts"
+    );
 
-    public RentalShiftController(RentalShiftRepository repository) {
+    private final RentalShiftRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final CatalogService catalogService;
+
+    public RentalShiftController(RentalShiftRepository repository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 KeysetPaging keysetPaging,
+                                 CatalogService catalogService) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.catalogService = catalogService;
     }
 
     // GET ALL - Buscar todos os turnos
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllRentalShifts() {
-        List<RentalShift> shifts = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllRentalShifts(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) String sort,
+                                                                  @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", shifts.isEmpty() ? "Nenhum turno encontrado" : "Turnos recuperados com sucesso");
-        response.put("data", shifts);
-        response.put("count", shifts.size());
+        Window<RentalShift> shifts = keysetPaging.scroll(repository, null, page, "idRentalShifts");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(shifts, page, shifts.isEmpty() ? "Nenhum turno encontrado" : "Turnos recuperados com sucesso"));
     }
 
     // GET BY ID - Buscar turno por ID
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getRentalShiftById(@PathVariable Integer id) {
-        Optional<RentalShift> shift = repository.findById(id);
+        Optional<RentalShift> shift = catalogService.shift(id);
 
         Map<String, Object> response = new HashMap<>();
 
@@ -80,6 +103,7 @@ public class RentalShiftController {
             }
 
             RentalShift savedShift = repository.save(rentalShift);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalShifts"));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -133,6 +157,7 @@ public class RentalShiftController {
             shift.setEndTimeRentalShifts(shiftDetails.getEndTimeRentalShifts());
 
             RentalShift updatedShift = repository.save(shift);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalShifts"));
 
             response.put("success", true);
             response.put("message", "Turno atualizado com sucesso!");
@@ -156,6 +181,7 @@ public class RentalShiftController {
             // Aqui você pode adicionar validações (ex: verificar se existem planos usando este turno)
 
             repository.deleteById(id);
+            eventPublisher.publishEvent(new CatalogChangedEvent("rentalShifts"));
 
             response.put("success", true);
             response.put("message", "Turno deletado com sucesso!");
@@ -189,4 +215,13 @@ public class RentalShiftController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
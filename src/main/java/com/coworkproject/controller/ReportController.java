@@ -0,0 +1,118 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.RevenueRollupRepository;
+import com.coworkproject.service.RevenueRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Relatórios de receita lidos da tabela pré-agregada (dia de início x tipo x plano x turno), sem somar os aluguéis
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final RevenueRollupService revenueRollupService;
+
+    public ReportController(RevenueRollupRepository revenueRollupRepository, RevenueRollupService revenueRollupService) {
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.revenueRollupService = revenueRollupService;
+    }
+
+    // GET REVENUE - Receita dos aluguéis que começam em [from, to], agrupada por day, month, type, plan e/ou shift
+    // (ex.: groupBy=month,type). A receita de um aluguel conta inteira no dia em que ele começa.
+    @GetMapping("/revenue")
+    public ResponseEntity<Map<String, Object>> getRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) List<String> type) {
+
+        if (to.isBefore(from)) {
+            return createErrorResponse("Data final deve ser igual ou posterior à data inicial", HttpStatus.BAD_REQUEST);
+        }
+
+        List<String> groups = new ArrayList<>();
+        for (String group : groupBy != null ? groupBy : List.of("day")) {
+            String normalized = group.trim().toLowerCase();
+            if (!RevenueRollupRepository.GROUPS.containsKey(normalized)) {
+                return createErrorResponse("Agrupamento inválido: " + group + ". Use day, month, type, plan ou shift", HttpStatus.BAD_REQUEST);
+            }
+            if (!groups.contains(normalized)) {
+                groups.add(normalized);
+            }
+        }
+
+        Set<ResourceType> types = EnumSet.allOf(ResourceType.class);
+        if (type != null && !type.isEmpty()) {
+            types = EnumSet.noneOf(ResourceType.class);
+            for (String value : type) {
+                try {
+                    types.add(ResourceType.valueOf(value.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return createErrorResponse("Tipo de recurso inválido: " + value + ". Use desk, room, area ou stand", HttpStatus.BAD_REQUEST);
+                }
+            }
+        }
+
+        List<Map<String, Object>> rows = revenueRollupRepository.find(from, to, types, groups);
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalRentals = 0;
+        for (Map<String, Object> row : rows) {
+            totalRevenue = totalRevenue.add((BigDecimal) row.get("revenue"));
+            totalRentals += (Long) row.get("rentals");
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", rows.isEmpty() ? "Nenhuma receita no período" : "Receita recuperada com sucesso");
+        response.put("data", rows);
+        response.put("count", rows.size());
+        response.put("totalRevenue", totalRevenue);
+        response.put("totalRentals", totalRentals);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // POST REBUILD - Recalcula a receita pré-agregada dos dias [from, to] a partir das tabelas de aluguel
+    @PostMapping("/revenue/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (to.isBefore(from)) {
+            return createErrorResponse("Data final deve ser igual ou posterior à data inicial", HttpStatus.BAD_REQUEST);
+        }
+
+        int rows = revenueRollupService.rebuild(from, to);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Receita recalculada com sucesso");
+        response.put("data", null);
+        response.put("count", rows);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
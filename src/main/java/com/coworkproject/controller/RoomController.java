@@ -1,13 +1,18 @@
 package com.coworkproject.controller;
 
+import com.coworkproject.model.ResourceType;
 import com.coworkproject.model.Room;
 import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.ResourceChangedEvent;
+import com.coworkproject.service.ResponseCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,44 +20,65 @@ import java.util.Optional;
 @RequestMapping("/api/rooms")
 public class RoomController {
 
-    private final RoomRepository repository;
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idRooms",
+            "number", "numberRooms",
+            "name", "nameRooms"
+    );
 
-    public RoomController(RoomRepository repository) {
+    private final RoomRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final ResponseCache responseCache;
+
+    public RoomController(RoomRepository repository,
+                          ApplicationEventPublisher eventPublisher,
+                          KeysetPaging keysetPaging,
+                          ResponseCache responseCache) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.responseCache = responseCache;
     }
 
     // GET ALL - Buscar todas as salas
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllRooms() {
-        List<Room> rooms = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllRooms(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) String sort,
+                                                           @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rooms.isEmpty() ? "Nenhuma sala encontrada" : "Salas recuperadas com sucesso");
-        response.put("data", rooms);
-        response.put("count", rooms.size());
+        Window<Room> rooms = keysetPaging.scroll(repository, null, page, "idRooms");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(rooms, page, rooms.isEmpty() ? "Nenhuma sala encontrada" : "Salas recuperadas com sucesso"));
     }
 
     // GET BY ID - Buscar sala por ID
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getRoomById(@PathVariable Integer id) {
-        Optional<Room> room = repository.findById(id);
+    public ResponseEntity<byte[]> getRoomById(@PathVariable Integer id) {
+        return responseCache.get("rooms", id, () -> {
+            Optional<Room> room = repository.findById(id);
 
-        Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
 
-        if (room.isPresent()) {
-            response.put("success", true);
-            response.put("message", "Sala encontrada com sucesso");
-            response.put("data", room.get());
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("success", false);
-            response.put("message", "Sala não encontrada com ID: " + id);
-            response.put("data", null);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
+            if (room.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Sala encontrada com sucesso");
+                response.put("data", room.get());
+                return ResponseEntity.ok(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Sala não encontrada com ID: " + id);
+                response.put("data", null);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+        });
     }
 
     // POST - Criar nova sala
@@ -75,6 +101,7 @@ public class RoomController {
             }
 
             Room savedRoom = repository.save(room);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.ROOM, savedRoom.getIdRooms(), false));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -123,6 +150,7 @@ public class RoomController {
             room.setNameRooms(roomDetails.getNameRooms());
 
             Room updatedRoom = repository.save(room);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.ROOM, updatedRoom.getIdRooms(), false));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -143,6 +171,7 @@ public class RoomController {
 
         if (repository.existsById(id)) {
             repository.deleteById(id);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.ROOM, id, true));
 
             response.put("success", true);
             response.put("message", "Sala deletada com sucesso!");
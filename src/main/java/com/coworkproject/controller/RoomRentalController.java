@@ -1,61 +1,117 @@
 package com.coworkproject.controller;
 
+import com.coworkproject.dto.RecurrenceRule;
 import com.coworkproject.dto.RoomRentalRequest;
 import com.coworkproject.model.Customer;
+import com.coworkproject.model.RentalSeries;
+import com.coworkproject.model.ResourceType;
 import com.coworkproject.model.Room;
 import com.coworkproject.model.RoomRental;
 import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.RentalSeriesRepository;
 import com.coworkproject.repository.RoomRentalRepository;
 import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.service.ActiveRentalSnapshot;
+import com.coworkproject.service.CompactView;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.RentalChangedEvent;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/room-rentals")
 public class RoomRentalController {
 
+    private static final int MAX_BATCH_SIZE = 200;
+
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idRoomRentals",
+            "start", "startPeriodAreaRentals",
+            "end", "endPeriodAreaRentals",
+            "totalPrice", "totalPriceStandRentals"
+    );
+
     private final RoomRentalRepository repository;
     private final RoomRepository roomRepository;
     private final CustomerRepository customerRepository;
+    private final ResourceLocks resourceLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final RentalSeriesRepository rentalSeriesRepository;
+    private final HoldService holdService;
+    private final KeysetPaging keysetPaging;
+    private final CompactView compactView;
+    private final ActiveRentalSnapshot activeRentalSnapshot;
 
     public RoomRentalController(RoomRentalRepository repository,
                                 RoomRepository roomRepository,
-                                CustomerRepository customerRepository) {
+                                CustomerRepository customerRepository,
+                                ResourceLocks resourceLocks,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                RentalSeriesRepository rentalSeriesRepository,
+                                HoldService holdService,
+                                KeysetPaging keysetPaging,
+                                CompactView compactView,
+                                ActiveRentalSnapshot activeRentalSnapshot) {
         this.repository = repository;
         this.roomRepository = roomRepository;
         this.customerRepository = customerRepository;
+        this.resourceLocks = resourceLocks;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.rentalSeriesRepository = rentalSeriesRepository;
+        this.holdService = holdService;
+        this.keysetPaging = keysetPaging;
+        this.compactView = compactView;
+        this.activeRentalSnapshot = activeRentalSnapshot;
     }
 
     // GET ALL - Buscar todos os aluguéis OU filtrar por sala
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getRoomRentals(@RequestParam(required = false) Integer roomId) {
-        List<RoomRental> rentals;
-
-        if (roomId != null) {
-            // Se roomId foi fornecido, filtra por sala
-            rentals = repository.findByRoomIdRooms(roomId);
-        } else {
-            // Se não, retorna todos os aluguéis
-            rentals = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getRoomRentals(@RequestParam(required = false) Integer roomId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) String sort,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ?
-                (roomId != null ? "Nenhum aluguel encontrado para esta sala" : "Nenhum aluguel encontrado")
-                : "Aluguéis de salas recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<RoomRental> rentals = roomId != null
+                ? repository.findByRoomIdRooms(roomId, page.position(), page.sort(), page.limit())
+                : repository.findBy(page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ?
+                (roomId != null ? "Nenhum aluguel encontrado para esta sala" : "Nenhum aluguel encontrado")
+                : "Aluguéis de salas recuperados com sucesso")));
     }
 
     // GET BY ID - Buscar aluguel por ID
@@ -107,41 +163,261 @@ public class RoomRentalController {
                 return createErrorResponse("Data de início não pode ser no passado", HttpStatus.BAD_REQUEST);
             }
 
-            // Verificar conflitos de horário
-            List<RoomRental> conflictingRentals = repository.findConflictingRentals(
-                    rentalRequest.getIdRooms(),
-                    rentalRequest.getStartPeriodAreaRentals(),
-                    rentalRequest.getEndPeriodAreaRentals()
-            );
-
-            if (!conflictingRentals.isEmpty()) {
-                return createErrorResponse("A sala já está alugada neste período", HttpStatus.CONFLICT);
+            // Com regra de recorrência o pedido vira uma série, validada de uma vez
+            if (rentalRequest.getRecurrence() != null) {
+                return createRecurringRoomRentals(rentalRequest, room.get(), customer.get());
             }
 
-            // Validação de preço
-            if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
-                return createErrorResponse("Preço total deve ser maior que zero", HttpStatus.BAD_REQUEST);
+            // Seção crítica: verificação de conflito + save serializados por recurso
+            Lock lock = resourceLocks.lockFor(ResourceType.ROOM, rentalRequest.getIdRooms());
+            lock.lock();
+            try {
+                // Verificar conflitos de horário
+                List<RoomRental> conflictingRentals = repository.findConflictingRentals(
+                        rentalRequest.getIdRooms(),
+                        rentalRequest.getStartPeriodAreaRentals(),
+                        rentalRequest.getEndPeriodAreaRentals()
+                );
+
+                if (!conflictingRentals.isEmpty()) {
+                    return createErrorResponse("A sala já está alugada neste período", HttpStatus.CONFLICT);
+                }
+
+                // Reservas temporárias em aberto também ocupam o período
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.ROOM, rentalRequest.getIdRooms(),
+                        rentalRequest.getStartPeriodAreaRentals(), rentalRequest.getEndPeriodAreaRentals(), null, null, null, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+                }
+
+                // Validação de preço
+                if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
+                    return createErrorResponse("Preço total deve ser maior que zero", HttpStatus.BAD_REQUEST);
+                }
+
+                // Criar o aluguel
+                RoomRental roomRental = new RoomRental();
+                roomRental.setRoom(room.get());
+                roomRental.setCustomer(customer.get());
+                roomRental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
+                roomRental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
+                roomRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+
+                RoomRental savedRental = repository.save(roomRental);
+                eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(savedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Sala alugada com sucesso!");
+                response.put("data", savedRental);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                lock.unlock();
             }
 
-            // Criar o aluguel
+        } catch (Exception e) {
+            return createErrorResponse("Erro ao criar aluguel de sala: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Série recorrente: expande as ocorrências e verifica todas com uma única consulta, sob um único lock da sala
+    private ResponseEntity<Map<String, Object>> createRecurringRoomRentals(RoomRentalRequest rentalRequest,
+                                                                           Room room,
+                                                                           Customer customer) {
+        RecurrenceRule recurrence = rentalRequest.getRecurrence();
+        LocalDate firstDay = rentalRequest.getStartPeriodAreaRentals().toLocalDate();
+
+        String recurrenceError = recurrence.validate(firstDay);
+        if (recurrenceError != null) {
+            return createErrorResponse(recurrenceError, HttpStatus.BAD_REQUEST);
+        }
+
+        // Na série o preço informado é o de cada ocorrência (como no POST individual), não o total da série
+        if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
+            return createErrorResponse("Preço de cada ocorrência deve ser maior que zero", HttpStatus.BAD_REQUEST);
+        }
+
+        List<LocalDate> days = recurrence.expand(firstDay);
+        if (days.isEmpty()) {
+            return createErrorResponse("A recorrência não gera nenhuma ocorrência", HttpStatus.BAD_REQUEST);
+        }
+
+        RentalSeries series = new RentalSeries(
+                ResourceType.ROOM,
+                customer,
+                recurrence.getFrequency().name(),
+                days.stream().map(LocalDate::getDayOfWeek).distinct().sorted().map(Enum::name).collect(Collectors.joining(",")),
+                days.get(0),
+                days.get(days.size() - 1),
+                days.size()
+        );
+
+        // Cada ocorrência repete o horário do primeiro aluguel, deslocado para o seu dia
+        List<RoomRental> occurrences = new ArrayList<>();
+        for (LocalDate day : days) {
+            long offset = ChronoUnit.DAYS.between(firstDay, day);
             RoomRental roomRental = new RoomRental();
-            roomRental.setRoom(room.get());
-            roomRental.setCustomer(customer.get());
-            roomRental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
-            roomRental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
+            roomRental.setRoom(room);
+            roomRental.setCustomer(customer);
+            roomRental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals().plusDays(offset));
+            roomRental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals().plusDays(offset));
             roomRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+            roomRental.setRentalSeries(series);
+            occurrences.add(roomRental);
+        }
+
+        Lock lock = resourceLocks.lockFor(ResourceType.ROOM, room.getIdRooms());
+        lock.lock();
+        try {
+            // Uma consulta traz os aluguéis da sala em toda a janela da série; o resto é feito em memória
+            List<RentalSlot> existing = repository.findConflictingRentalsIn(
+                            Set.of(room.getIdRooms()),
+                            occurrences.get(0).getStartPeriodAreaRentals(),
+                            occurrences.get(occurrences.size() - 1).getEndPeriodAreaRentals()).stream()
+                    .map(RentalSlot::of)
+                    .toList();
+
+            List<String> errors = new ArrayList<>();
+            List<RentalSlot> accepted = new ArrayList<>();
+            for (RoomRental occurrence : occurrences) {
+                RentalSlot slot = RentalSlot.of(occurrence);
+                Optional<RentalSlot> held = holdService.findConflict(slot);
+                if (existing.stream().anyMatch(slot::conflictsWith) || accepted.stream().anyMatch(slot::conflictsWith)) {
+                    errors.add(slot.start().toLocalDate() + ": A sala já está alugada neste período");
+                } else if (held.isPresent()) {
+                    errors.add(slot.start().toLocalDate() + ": " + HoldService.conflictMessage(held.get()));
+                }
+                accepted.add(slot);
+            }
+
+            if (!errors.isEmpty()) {
+                return createBatchErrorResponse("Série rejeitada, " + errors.size() + " ocorrência(s) em conflito", errors, HttpStatus.CONFLICT);
+            }
 
-            RoomRental savedRental = repository.save(roomRental);
+            // Série + ocorrências no mesmo commit, com os inserts das ocorrências em batch
+            List<RoomRental> savedRentals = transactionTemplate.execute(status -> {
+                rentalSeriesRepository.save(series);
+                return repository.saveAll(occurrences);
+            });
+            savedRentals.forEach(saved -> eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(saved))));
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("series", series);
+            data.put("rentals", savedRentals);
+            data.put("seriesTotalPrice", rentalRequest.getTotalPriceStandRentals().multiply(BigDecimal.valueOf(savedRentals.size())));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Sala alugada com sucesso!");
-            response.put("data", savedRental);
+            response.put("message", "Série criada com " + savedRentals.size() + " ocorrências!");
+            response.put("data", data);
+            response.put("count", savedRentals.size());
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // POST BATCH - Criar vários aluguéis de sala de uma vez (tudo ou nada)
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createRoomRentalsBatch(@RequestBody List<RoomRentalRequest> rentalRequests) {
+        if (rentalRequests == null || rentalRequests.isEmpty() || rentalRequests.size() > MAX_BATCH_SIZE) {
+            return createErrorResponse("O lote deve ter entre 1 e " + MAX_BATCH_SIZE + " aluguéis", HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            // Salas e clientes do lote carregados com uma consulta por tabela
+            Map<Integer, Room> rooms = roomRepository.findAllById(collectIds(rentalRequests, RoomRentalRequest::getIdRooms)).stream()
+                    .collect(Collectors.toMap(Room::getIdRooms, Function.identity()));
+            Map<Integer, Customer> customers = customerRepository.findAllById(collectIds(rentalRequests, RoomRentalRequest::getIdCustomers)).stream()
+                    .collect(Collectors.toMap(Customer::getIdCustomers, Function.identity()));
+
+            // Mesmas validações do POST individual, acumulando os erros de todos os itens
+            List<String> errors = new ArrayList<>();
+            List<RoomRental> rentals = new ArrayList<>();
+            LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
+            for (int i = 0; i < rentalRequests.size(); i++) {
+                RoomRentalRequest rentalRequest = rentalRequests.get(i);
+                String item = "Item " + (i + 1) + ": ";
+                Room room = rooms.get(rentalRequest.getIdRooms());
+                Customer customer = customers.get(rentalRequest.getIdCustomers());
+
+                if (room == null) {
+                    errors.add(item + "Sala não encontrada com ID: " + rentalRequest.getIdRooms());
+                } else if (customer == null) {
+                    errors.add(item + "Cliente não encontrado com ID: " + rentalRequest.getIdCustomers());
+                } else if (rentalRequest.getStartPeriodAreaRentals() == null || rentalRequest.getEndPeriodAreaRentals() == null) {
+                    errors.add(item + "Datas de início e término são obrigatórias");
+                } else if (rentalRequest.getStartPeriodAreaRentals().isAfter(rentalRequest.getEndPeriodAreaRentals())) {
+                    errors.add(item + "Data de início não pode ser após a data de término");
+                } else if (rentalRequest.getStartPeriodAreaRentals().isBefore(today)) {
+                    errors.add(item + "Data de início não pode ser no passado");
+                } else if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
+                    errors.add(item + "Preço total deve ser maior que zero");
+                } else {
+                    RoomRental roomRental = new RoomRental();
+                    roomRental.setRoom(room);
+                    roomRental.setCustomer(customer);
+                    roomRental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
+                    roomRental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
+                    roomRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+                    rentals.add(roomRental);
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.BAD_REQUEST);
+            }
+
+            // Seção crítica: trava todas as salas do lote (em ordem fixa) durante verificação + save
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.ROOM, rooms.keySet());
+            locks.forEach(Lock::lock);
+            try {
+                // Uma única consulta traz os aluguéis existentes de todas as salas na janela do lote
+                LocalDateTime windowStart = rentals.stream().map(RoomRental::getStartPeriodAreaRentals).min(LocalDateTime::compareTo).get();
+                LocalDateTime windowEnd = rentals.stream().map(RoomRental::getEndPeriodAreaRentals).max(LocalDateTime::compareTo).get();
+                List<RentalSlot> existing = repository.findConflictingRentalsIn(rooms.keySet(), windowStart, windowEnd).stream()
+                        .map(RentalSlot::of)
+                        .toList();
+
+                // Conflitos contra os aluguéis existentes, as reservas temporárias e entre os itens do próprio lote
+                List<RentalSlot> accepted = new ArrayList<>();
+                for (int i = 0; i < rentals.size(); i++) {
+                    RentalSlot slot = RentalSlot.of(rentals.get(i));
+                    boolean conflict = existing.stream().anyMatch(slot::conflictsWith)
+                            || accepted.stream().anyMatch(slot::conflictsWith);
+                    Optional<RentalSlot> held = holdService.findConflict(slot);
+
+                    if (conflict) {
+                        errors.add("Item " + (i + 1) + ": A sala " + slot.resourceId() + " já está alugada neste período");
+                    } else if (held.isPresent()) {
+                        errors.add("Item " + (i + 1) + ": " + HoldService.conflictMessage(held.get()));
+                    }
+                    accepted.add(slot);
+                }
+
+                if (!errors.isEmpty()) {
+                    return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.CONFLICT);
+                }
+
+                // Um único commit: os ids vêm em blocos do gerador e os inserts saem em batch
+                List<RoomRental> savedRentals = transactionTemplate.execute(status -> repository.saveAll(rentals));
+                savedRentals.forEach(saved -> eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(saved))));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", savedRentals.size() + " salas alugadas com sucesso!");
+                response.put("data", savedRentals);
+                response.put("count", savedRentals.size());
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
 
         } catch (Exception e) {
-            return createErrorResponse("Erro ao criar aluguel de sala: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            return createErrorResponse("Erro ao criar lote de aluguéis de sala: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -174,33 +450,50 @@ public class RoomRentalController {
                 return createErrorResponse("Data de início não pode ser após a data de término", HttpStatus.BAD_REQUEST);
             }
 
-            // Verificar conflitos de horário (excluindo o próprio aluguel)
-            List<RoomRental> conflictingRentals = repository.findConflictingRentals(
-                    rentalRequest.getIdRooms(),
-                    rentalRequest.getStartPeriodAreaRentals(),
-                    rentalRequest.getEndPeriodAreaRentals()
-            ).stream().filter(r -> !r.getIdRoomRentals().equals(id)).toList();
-
-            if (!conflictingRentals.isEmpty()) {
-                return createErrorResponse("A sala já está alugada neste período", HttpStatus.CONFLICT);
+            // Seção crítica: verificação de conflito + save serializados por recurso. Se o aluguel muda de recurso, o
+            // anterior também fica travado: o slot dele é liberado e a fila de espera dele é avaliada no evento
+            RentalSlot previous = RentalSlot.of(rental);
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.ROOM, Arrays.asList(previous.resourceId(), rentalRequest.getIdRooms()));
+            locks.forEach(Lock::lock);
+            try {
+                // Verificar conflitos de horário (excluindo o próprio aluguel)
+                List<RoomRental> conflictingRentals = repository.findConflictingRentals(
+                        rentalRequest.getIdRooms(),
+                        rentalRequest.getStartPeriodAreaRentals(),
+                        rentalRequest.getEndPeriodAreaRentals()
+                ).stream().filter(r -> !r.getIdRoomRentals().equals(id)).toList();
+
+                if (!conflictingRentals.isEmpty()) {
+                    return createErrorResponse("A sala já está alugada neste período", HttpStatus.CONFLICT);
+                }
+
+                // Reservas temporárias em aberto também ocupam o período
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.ROOM, rentalRequest.getIdRooms(),
+                        rentalRequest.getStartPeriodAreaRentals(), rentalRequest.getEndPeriodAreaRentals(), null, null, null, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+                }
+
+                // Atualizar o aluguel
+                rental.setRoom(room.get());
+                rental.setCustomer(customer.get());
+                rental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
+                rental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
+                rental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+
+                RoomRental updatedRental = repository.save(rental);
+                eventPublisher.publishEvent(RentalChangedEvent.updated(previous, RentalSlot.of(updatedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Aluguel de sala atualizado com sucesso!");
+                response.put("data", updatedRental);
+
+                return ResponseEntity.ok(response);
+            } finally {
+                locks.forEach(Lock::unlock);
             }
 
-            // Atualizar o aluguel
-            rental.setRoom(room.get());
-            rental.setCustomer(customer.get());
-            rental.setStartPeriodAreaRentals(rentalRequest.getStartPeriodAreaRentals());
-            rental.setEndPeriodAreaRentals(rentalRequest.getEndPeriodAreaRentals());
-            rental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
-
-            RoomRental updatedRental = repository.save(rental);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Aluguel de sala atualizado com sucesso!");
-            response.put("data", updatedRental);
-
-            return ResponseEntity.ok(response);
-
         } catch (Exception e) {
             return createErrorResponse("Erro ao atualizar aluguel de sala: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -210,9 +503,11 @@ public class RoomRentalController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteRoomRental(@PathVariable Integer id) {
         Map<String, Object> response = new HashMap<>();
+        Optional<RoomRental> rental = repository.findById(id);
 
-        if (repository.existsById(id)) {
-            repository.deleteById(id);
+        if (rental.isPresent()) {
+            repository.delete(rental.get());
+            eventPublisher.publishEvent(RentalChangedEvent.deleted(RentalSlot.of(rental.get())));
 
             response.put("success", true);
             response.put("message", "Aluguel de sala deletado com sucesso!");
@@ -229,44 +524,90 @@ public class RoomRentalController {
 
     // GET BY CUSTOMER - Buscar aluguéis por cliente
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<Map<String, Object>> getRoomRentalsByCustomer(@PathVariable Integer customerId) {
-        List<RoomRental> rentals = repository.findByCustomerIdCustomers(customerId);
+    public ResponseEntity<Map<String, Object>> getRoomRentalsByCustomer(@PathVariable Integer customerId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) String sort,
+                                                                        @RequestParam(required = false) Integer size,
+                                                                        @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel de sala encontrado para este cliente" : "Aluguéis de salas do cliente recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<RoomRental> rentals = repository.findByCustomerIdCustomers(customerId, page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel de sala encontrado para este cliente" : "Aluguéis de salas do cliente recuperados com sucesso")));
     }
 
     // GET BY ROOM - Buscar aluguéis por sala (endpoint alternativo)
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<Map<String, Object>> getRoomRentalsByRoom(@PathVariable Integer roomId) {
-        List<RoomRental> rentals = repository.findByRoomIdRooms(roomId);
+    public ResponseEntity<Map<String, Object>> getRoomRentalsByRoom(@PathVariable Integer roomId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        Window<RoomRental> rentals = repository.findByRoomIdRooms(roomId, page.position(), page.sort(), page.limit());
+
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel encontrado para esta sala" : "Aluguéis da sala recuperados com sucesso")));
+    }
+
+    // GET BY SERIES - Buscar as ocorrências de uma série recorrente
+    @GetMapping("/series/{seriesId}")
+    public ResponseEntity<Map<String, Object>> getRoomRentalsBySeries(@PathVariable Integer seriesId,
+                                                                      @RequestParam(defaultValue = "false") boolean compact) {
+        List<RoomRental> rentals = repository.findByRentalSeriesIdRentalSeriesOrderByStartPeriodAreaRentals(seriesId);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para esta sala" : "Aluguéis da sala recuperados com sucesso");
+        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para esta série" : "Aluguéis da série recuperados com sucesso");
         response.put("data", rentals);
         response.put("count", rentals.size());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, response));
     }
 
     // GET ACTIVE - Buscar aluguéis ativos
     @GetMapping("/active")
-    public ResponseEntity<Map<String, Object>> getActiveRoomRentals() {
-        List<RoomRental> activeRentals = repository.findActiveRentals(LocalDateTime.now());
+    public ResponseEntity<Map<String, Object>> getActiveRoomRentals(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) String sort,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", activeRentals.isEmpty() ? "Nenhum aluguel de sala ativo no momento" : "Aluguéis de salas ativos recuperados com sucesso");
-        response.put("data", activeRentals);
-        response.put("count", activeRentals.size());
+        // Do snapshot em memória: sem consulta ao banco, ordenado e paginado aqui
+        List<RoomRental> active = activeRentalSnapshot.active(ResourceType.ROOM, RoomRental.class, LocalDateTime.now());
+        Window<RoomRental> activeRentals = keysetPaging.page(active, page, "idRoomRentals");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(activeRentals, page, activeRentals.isEmpty() ? "Nenhum aluguel de sala ativo no momento" : "Aluguéis de salas ativos recuperados com sucesso")));
+    }
+
+    // Ids distintos e não nulos de um campo das requisições do lote
+    private static <T> Set<Integer> collectIds(List<T> requests, Function<T, Integer> idGetter) {
+        return requests.stream().map(idGetter).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    // Método auxiliar para respostas de erro de lote/série (um erro por item rejeitado)
+    private ResponseEntity<Map<String, Object>> createBatchErrorResponse(String message, List<String> errors, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        errorResponse.put("errors", errors);
+        return ResponseEntity.status(status).body(errorResponse);
     }
 
     // Método auxiliar para criar respostas de erro
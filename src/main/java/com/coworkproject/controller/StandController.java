@@ -1,13 +1,18 @@
 package com.coworkproject.controller;
 
+import com.coworkproject.model.ResourceType;
 import com.coworkproject.model.Stand;
 import com.coworkproject.repository.StandRepository;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.ResourceChangedEvent;
+import com.coworkproject.service.ResponseCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,44 +20,65 @@ import java.util.Optional;
 @RequestMapping("/api/stands")
 public class StandController {
 
-    private final StandRepository repository;
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idStands",
+            "number", "numberStands",
+            "name", "nameStands"
+    );
 
-    public StandController(StandRepository repository) {
+    private final StandRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeysetPaging keysetPaging;
+    private final ResponseCache responseCache;
+
+    public StandController(StandRepository repository,
+                           ApplicationEventPublisher eventPublisher,
+                           KeysetPaging keysetPaging,
+                           ResponseCache responseCache) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.keysetPaging = keysetPaging;
+        this.responseCache = responseCache;
     }
 
     // GET ALL - Buscar todos os stands
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllStands() {
-        List<Stand> stands = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getAllStands(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) String sort,
+                                                            @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", stands.isEmpty() ? "Nenhum stand encontrado" : "Stands recuperados com sucesso");
-        response.put("data", stands);
-        response.put("count", stands.size());
+        Window<Stand> stands = keysetPaging.scroll(repository, null, page, "idStands");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(keysetPaging.response(stands, page, stands.isEmpty() ? "Nenhum stand encontrado" : "Stands recuperados com sucesso"));
     }
 
     // GET BY ID - Buscar stand por ID
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getStandById(@PathVariable Integer id) {
-        Optional<Stand> stand = repository.findById(id);
+    public ResponseEntity<byte[]> getStandById(@PathVariable Integer id) {
+        return responseCache.get("stands", id, () -> {
+            Optional<Stand> stand = repository.findById(id);
 
-        Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
 
-        if (stand.isPresent()) {
-            response.put("success", true);
-            response.put("message", "Stand encontrado com sucesso");
-            response.put("data", stand.get());
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("success", false);
-            response.put("message", "Stand não encontrado com ID: " + id);
-            response.put("data", null);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
+            if (stand.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Stand encontrado com sucesso");
+                response.put("data", stand.get());
+                return ResponseEntity.ok(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Stand não encontrado com ID: " + id);
+                response.put("data", null);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+        });
     }
 
     // POST - Criar novo stand
@@ -87,6 +113,7 @@ public class StandController {
             }
 
             Stand savedStand = repository.save(stand);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAND, savedStand.getIdStands(), false));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -147,6 +174,7 @@ public class StandController {
             stand.setNameStands(standDetails.getNameStands());
 
             Stand updatedStand = repository.save(stand);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAND, updatedStand.getIdStands(), false));
 
             response.put("success", true);
             response.put("message", "Stand atualizado com sucesso!");
@@ -170,6 +198,7 @@ public class StandController {
             // Aqui você pode adicionar validações (ex: verificar se existem aluguéis para este stand)
 
             repository.deleteById(id);
+            eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAND, id, true));
 
             response.put("success", true);
             response.put("message", "Stand deletado com sucesso!");
@@ -223,4 +252,13 @@ public class StandController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -3,47 +3,114 @@ package com.coworkproject.controller;
 import com.coworkproject.dto.StandRentalRequest;
 import com.coworkproject.model.*;
 import com.coworkproject.repository.*;
+import com.coworkproject.service.ActiveRentalSnapshot;
+import com.coworkproject.service.CatalogService;
+import com.coworkproject.service.CompactView;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.QuoteService;
+import com.coworkproject.service.RentalChangedEvent;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import com.coworkproject.service.ResponseCache;
+import com.coworkproject.service.SlotBookingService;
+import com.coworkproject.service.StandRentalIndex;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/stand-rentals")
 public class StandRentalController {
 
+    private static final int MAX_BATCH_SIZE = 200;
+
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idStandRentals",
+            "start", "startPeriodStandRentals",
+            "end", "endPeriodStandRentals",
+            "totalPrice", "totalPriceStandRentals"
+    );
+
     private final StandRentalRepository repository;
     private final StandRepository standRepository;
     private final CustomerRepository customerRepository;
-    private final RentalPlanRepository rentalPlanRepository;
+    private final CatalogService catalogService;
     private final RentalCategoryRepository rentalCategoryRepository;
     private final RentalShiftRepository rentalShiftRepository;
+    private final StandRentalIndex standRentalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceLocks resourceLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldService holdService;
+    private final KeysetPaging keysetPaging;
+    private final CompactView compactView;
+    private final ResponseCache responseCache;
+    private final ActiveRentalSnapshot activeRentalSnapshot;
+    private final QuoteService quoteService;
 
     public StandRentalController(StandRentalRepository repository,
                                  StandRepository standRepository,
                                  CustomerRepository customerRepository,
-                                 RentalPlanRepository rentalPlanRepository,
+                                 CatalogService catalogService,
                                  RentalCategoryRepository rentalCategoryRepository,
-                                 RentalShiftRepository rentalShiftRepository) {
+                                 RentalShiftRepository rentalShiftRepository,
+                                 StandRentalIndex standRentalIndex,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ResourceLocks resourceLocks,
+                                 TransactionTemplate transactionTemplate,
+                                 HoldService holdService,
+                                 KeysetPaging keysetPaging,
+                                 CompactView compactView,
+                                 ResponseCache responseCache,
+                                 ActiveRentalSnapshot activeRentalSnapshot,
+                                 QuoteService quoteService) {
         this.repository = repository;
         this.standRepository = standRepository;
         this.customerRepository = customerRepository;
-        this.rentalPlanRepository = rentalPlanRepository;
+        this.catalogService = catalogService;
         this.rentalCategoryRepository = rentalCategoryRepository;
         this.rentalShiftRepository = rentalShiftRepository;
+        this.standRentalIndex = standRentalIndex;
+        this.eventPublisher = eventPublisher;
+        this.resourceLocks = resourceLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.holdService = holdService;
+        this.keysetPaging = keysetPaging;
+        this.compactView = compactView;
+        this.responseCache = responseCache;
+        this.activeRentalSnapshot = activeRentalSnapshot;
+        this.quoteService = quoteService;
     }
 
     // POST - Criar novo aluguel de stand (MÉTODO CORRIGIDO)
     @PostMapping
     public ResponseEntity<Map<String, Object>> createStandRental(@RequestBody StandRentalRequest rentalRequest) {
         try {
+            // Com token de cotação, período e preço vêm da cotação assinada
+            if (rentalRequest.getQuoteToken() != null) {
+                return createQuotedStandRental(rentalRequest);
+            }
+
             // CORREÇÃO: Validações obrigatórias mais específicas
             if (rentalRequest.getIdStands() == null) {
                 return createErrorResponse("ID do stand é obrigatório", HttpStatus.BAD_REQUEST);
@@ -68,7 +135,7 @@ public class StandRentalController {
             // Validações das entidades relacionadas
             Optional<Stand> stand = standRepository.findById(rentalRequest.getIdStands());
             Optional<Customer> customer = customerRepository.findById(rentalRequest.getIdCustomers());
-            Optional<RentalPlan> rentalPlan = rentalPlanRepository.findById(rentalRequest.getIdRentalPlans());
+            Optional<RentalPlan> rentalPlan = catalogService.plan(rentalRequest.getIdRentalPlans());
 
             if (stand.isEmpty()) {
                 return createErrorResponse("Stand não encontrado com ID: " + rentalRequest.getIdStands(), HttpStatus.NOT_FOUND);
@@ -113,54 +180,130 @@ public class StandRentalController {
             System.out.println("Horário: " + startTime + " às " + endTime);
             System.out.println("Novo aluguel - Início: " + startDate + " | Fim: " + endDate);
 
-            // VERIFICAÇÃO DE CONFLITOS BASEADA EM HORÁRIOS
-            List<StandRental> conflictingRentals = repository.findTimeRangeConflicts(
-                    rentalRequest.getIdStands(),
-                    startDate,
-                    endDate
-            );
-
-            if (!conflictingRentals.isEmpty()) {
-                System.out.println("CONFLITOS ENCONTRADOS: " + conflictingRentals.size());
-
-                // Verificar se os conflitos são reais (sobreposição de horários)
-                for (StandRental conflict : conflictingRentals) {
-                    boolean hasRealConflict = checkTimeOverlap(
+            // Seção crítica: verificação de conflito + save serializados por recurso
+            Lock lock = resourceLocks.lockFor(ResourceType.STAND, rentalRequest.getIdStands());
+            lock.lock();
+            try {
+                // VERIFICAÇÃO DE CONFLITOS BASEADA EM HORÁRIOS (calendário dia x turno em memória)
+                Optional<RentalSlot> conflict = standRentalIndex.findConflict(
+                        rentalRequest.getIdStands(),
+                        startDate,
+                        endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(),
+                        startTime,
+                        endTime,
+                        null
+                );
+
+                if (conflict.isPresent()) {
+                    System.out.println("CONFLITO REAL ENCONTRADO:");
+                    System.out.println("Aluguel ID: " + conflict.get().rentalId());
+                    System.out.println("Turno conflitante: " + conflict.get().shiftName());
+                    System.out.println("Horário conflitante: " + conflict.get().shiftStart() + " às " + conflict.get().shiftEnd());
+                    System.out.println("Período: " + conflict.get().start() + " até " + conflict.get().end());
+
+                    String conflictMessage = buildConflictMessageByTime(
                             rentalPlan.get().getRentalShift(),
-                            conflict.getRentalPlan().getRentalShift()
+                            conflict.get()
                     );
+                    return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
+                }
 
-                    if (hasRealConflict) {
-                        System.out.println("CONFLITO REAL ENCONTRADO:");
-                        System.out.println("Aluguel ID: " + conflict.getIdStandRentals());
-                        System.out.println("Turno conflitante: " + conflict.getRentalPlan().getRentalShift().getNameRentalShifts());
-                        System.out.println("Horário conflitante: " + conflict.getRentalPlan().getRentalShift().getStartTimeRentalShifts() +
-                                " às " + conflict.getRentalPlan().getRentalShift().getEndTimeRentalShifts());
-                        System.out.println("Período: " + conflict.getStartPeriodStandRentals() + " até " + conflict.getEndPeriodStandRentals());
-
-                        String conflictMessage = buildConflictMessageByTime(
-                                rentalPlan.get().getRentalShift(),
-                                conflict.getRentalPlan().getRentalShift()
-                        );
-                        return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
-                    } else {
-                        System.out.println("Conflito de datas mas SEM conflito de horários - PERMITIDO");
-                    }
+                // Reservas temporárias em aberto também ocupam o período
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.STAND, rentalRequest.getIdStands(), startDate, endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(), startTime, endTime, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
                 }
+
+                System.out.println("NENHUM CONFLITO REAL ENCONTRADO - CRIANDO ALUGUEL");
+
+                // Criar o aluguel
+                StandRental standRental = new StandRental();
+                standRental.setStand(stand.get());
+                standRental.setCustomer(customer.get());
+                standRental.setRentalPlan(rentalPlan.get());
+                standRental.setStartPeriodStandRentals(startDate);
+                standRental.setEndPeriodStandRentals(endDate);
+                standRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+
+                StandRental savedRental = repository.save(standRental);
+                eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(savedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Stand alugado com sucesso!");
+                response.put("data", savedRental);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                lock.unlock();
+            }
+
+        } catch (Exception e) {
+            System.out.println("ERRO AO CRIAR ALUGUEL: " + e.getMessage());
+            e.printStackTrace();
+            return createErrorResponse("Erro ao criar aluguel: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Aluguel a partir de uma cotação (/api/quotes): período e preço vêm do token, sem recalcular;
+    // só a disponibilidade é verificada de novo, sob o lock, porque a cotação não reserva o recurso
+    private ResponseEntity<Map<String, Object>> createQuotedStandRental(StandRentalRequest rentalRequest) {
+        SlotBookingService.Resolution resolution = quoteService.redeem(rentalRequest.getQuoteToken(), ResourceType.STAND, LocalDateTime.now());
+        if (resolution.error() != null) {
+            return createErrorResponse(resolution.error(), resolution.status());
+        }
+        RentalSlot slot = resolution.slot();
+
+        // Ids enviados junto com o token precisam ser os da cotação
+        if (differs(rentalRequest.getIdStands(), slot.resourceId())
+                || differs(rentalRequest.getIdCustomers(), slot.customerId())
+                || differs(rentalRequest.getIdRentalPlans(), slot.planId())) {
+            return createErrorResponse("Pedido não corresponde à cotação", HttpStatus.BAD_REQUEST);
+        }
+
+        Optional<Stand> stand = standRepository.findById(slot.resourceId());
+        Optional<Customer> customer = customerRepository.findById(slot.customerId());
+        Optional<RentalPlan> rentalPlan = catalogService.plan(slot.planId());
+
+        if (stand.isEmpty()) {
+            return createErrorResponse("Stand não encontrado com ID: " + slot.resourceId(), HttpStatus.NOT_FOUND);
+        }
+
+        if (customer.isEmpty()) {
+            return createErrorResponse("Cliente não encontrado com ID: " + slot.customerId(), HttpStatus.NOT_FOUND);
+        }
+
+        if (rentalPlan.isEmpty()) {
+            return createErrorResponse("Plano de aluguel não encontrado com ID: " + slot.planId(), HttpStatus.NOT_FOUND);
+        }
+
+        Lock lock = resourceLocks.lockFor(ResourceType.STAND, slot.resourceId());
+        lock.lock();
+        try {
+            Optional<RentalSlot> conflict = standRentalIndex.findConflict(slot.resourceId(), slot.start(), slot.end(),
+                    slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null);
+            if (conflict.isPresent()) {
+                return createErrorResponse(buildConflictMessageByTime(rentalPlan.get().getRentalShift(), conflict.get()), HttpStatus.CONFLICT);
             }
 
-            System.out.println("NENHUM CONFLITO REAL ENCONTRADO - CRIANDO ALUGUEL");
+            Optional<RentalSlot> held = holdService.findConflict(slot);
+            if (held.isPresent()) {
+                return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+            }
 
-            // Criar o aluguel
             StandRental standRental = new StandRental();
             standRental.setStand(stand.get());
             standRental.setCustomer(customer.get());
             standRental.setRentalPlan(rentalPlan.get());
-            standRental.setStartPeriodStandRentals(startDate);
-            standRental.setEndPeriodStandRentals(endDate);
-            standRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+            standRental.setStartPeriodStandRentals(slot.start());
+            standRental.setEndPeriodStandRentals(slot.end());
+            standRental.setTotalPriceStandRentals(slot.totalPrice());
 
             StandRental savedRental = repository.save(standRental);
+            eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(savedRental)));
+            quoteService.markRedeemed(rentalRequest.getQuoteToken(), LocalDateTime.now());
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -168,11 +311,125 @@ public class StandRentalController {
             response.put("data", savedRental);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean differs(Integer sent, Integer quoted) {
+        return sent != null && !sent.equals(quoted);
+    }
+
+    // POST BATCH - Criar vários aluguéis de stand de uma vez (tudo ou nada)
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createStandRentalsBatch(@RequestBody List<StandRentalRequest> rentalRequests) {
+        if (rentalRequests == null || rentalRequests.isEmpty() || rentalRequests.size() > MAX_BATCH_SIZE) {
+            return createErrorResponse("O lote deve ter entre 1 e " + MAX_BATCH_SIZE + " aluguéis", HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            // Stands e clientes do lote carregados com uma consulta por tabela; planos vêm do catálogo em memória
+            Map<Integer, Stand> stands = standRepository.findAllById(collectIds(rentalRequests, StandRentalRequest::getIdStands)).stream()
+                    .collect(Collectors.toMap(Stand::getIdStands, Function.identity()));
+            Map<Integer, Customer> customers = customerRepository.findAllById(collectIds(rentalRequests, StandRentalRequest::getIdCustomers)).stream()
+                    .collect(Collectors.toMap(Customer::getIdCustomers, Function.identity()));
+            Map<Integer, RentalPlan> rentalPlans = catalogService.plans(collectIds(rentalRequests, StandRentalRequest::getIdRentalPlans));
+
+            // Mesmas validações do POST individual, acumulando os erros de todos os itens
+            List<String> errors = new ArrayList<>();
+            List<StandRental> rentals = new ArrayList<>();
+            for (int i = 0; i < rentalRequests.size(); i++) {
+                StandRentalRequest rentalRequest = rentalRequests.get(i);
+                String item = "Item " + (i + 1) + ": ";
+                Stand stand = stands.get(rentalRequest.getIdStands());
+                Customer customer = customers.get(rentalRequest.getIdCustomers());
+                RentalPlan rentalPlan = rentalPlans.get(rentalRequest.getIdRentalPlans());
+
+                if (stand == null) {
+                    errors.add(item + "Stand não encontrado com ID: " + rentalRequest.getIdStands());
+                } else if (customer == null) {
+                    errors.add(item + "Cliente não encontrado com ID: " + rentalRequest.getIdCustomers());
+                } else if (rentalPlan == null) {
+                    errors.add(item + "Plano de aluguel não encontrado com ID: " + rentalRequest.getIdRentalPlans());
+                } else if (rentalRequest.getStartPeriodStandRentals() == null) {
+                    errors.add(item + "Data de início é obrigatória");
+                } else if (rentalPlan.getRentalShift() == null) {
+                    errors.add(item + "Plano de aluguel não possui turno definido");
+                } else if (rentalPlan.getRentalCategory() == null) {
+                    errors.add(item + "Categoria do plano de aluguel não encontrada");
+                } else if (rentalRequest.getTotalPriceStandRentals() == null || rentalRequest.getTotalPriceStandRentals().compareTo(BigDecimal.ZERO) <= 0) {
+                    errors.add(item + "Preço total deve ser maior que zero");
+                } else {
+                    RentalShift shift = rentalPlan.getRentalShift();
+                    int durationInDays = rentalPlan.getRentalCategory().getBaseDurationInDaysRentalCategories();
+                    // Como no POST individual, o início já vem com o horário do frontend
+                    LocalDateTime startDate = rentalRequest.getStartPeriodStandRentals();
+                    LocalDateTime endDate = startDate.plusDays(durationInDays - 1).with(shift.getEndTimeRentalShifts());
+
+                    StandRental standRental = new StandRental();
+                    standRental.setStand(stand);
+                    standRental.setCustomer(customer);
+                    standRental.setRentalPlan(rentalPlan);
+                    standRental.setStartPeriodStandRentals(startDate);
+                    standRental.setEndPeriodStandRentals(endDate);
+                    standRental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+                    rentals.add(standRental);
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.BAD_REQUEST);
+            }
+
+            // Seção crítica: trava todos os stands do lote (em ordem fixa) durante verificação + save
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.STAND, stands.keySet());
+            locks.forEach(Lock::lock);
+            try {
+                // Conflitos contra os aluguéis existentes (índice em memória), as reservas temporárias e entre os itens do próprio lote
+                List<RentalSlot> accepted = new ArrayList<>();
+                for (int i = 0; i < rentals.size(); i++) {
+                    StandRental rental = rentals.get(i);
+                    RentalShift shift = rental.getRentalPlan().getRentalShift();
+                    RentalSlot slot = RentalSlot.of(rental);
+
+                    Optional<RentalSlot> conflict = standRentalIndex.findConflict(
+                            slot.resourceId(), slot.start(), slot.end(),
+                            slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null);
+                    if (conflict.isEmpty()) {
+                        conflict = accepted.stream().filter(slot::conflictsWith).findFirst();
+                    }
+
+                    Optional<RentalSlot> held = holdService.findConflict(slot);
+
+                    if (conflict.isPresent()) {
+                        errors.add("Item " + (i + 1) + ": " + buildConflictMessageByTime(shift, conflict.get()));
+                    } else if (held.isPresent()) {
+                        errors.add("Item " + (i + 1) + ": " + HoldService.conflictMessage(held.get()));
+                    }
+                    accepted.add(slot);
+                }
+
+                if (!errors.isEmpty()) {
+                    return createBatchErrorResponse("Lote rejeitado, nenhum aluguel foi criado", errors, HttpStatus.CONFLICT);
+                }
+
+                // Um único commit: os ids vêm em blocos do gerador e os inserts saem em batch
+                List<StandRental> savedRentals = transactionTemplate.execute(status -> repository.saveAll(rentals));
+                savedRentals.forEach(saved -> eventPublisher.publishEvent(RentalChangedEvent.created(RentalSlot.of(saved))));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", savedRentals.size() + " stands alugados com sucesso!");
+                response.put("data", savedRentals);
+                response.put("count", savedRentals.size());
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
 
         } catch (Exception e) {
-            System.out.println("ERRO AO CRIAR ALUGUEL: " + e.getMessage());
-            e.printStackTrace();
-            return createErrorResponse("Erro ao criar aluguel: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            return createErrorResponse("Erro ao criar lote de aluguéis: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -212,7 +469,7 @@ public class StandRentalController {
             // Validações das entidades relacionadas
             Optional<Stand> stand = standRepository.findById(rentalRequest.getIdStands());
             Optional<Customer> customer = customerRepository.findById(rentalRequest.getIdCustomers());
-            Optional<RentalPlan> rentalPlan = rentalPlanRepository.findById(rentalRequest.getIdRentalPlans());
+            Optional<RentalPlan> rentalPlan = catalogService.plan(rentalRequest.getIdRentalPlans());
 
             if (stand.isEmpty()) {
                 return createErrorResponse("Stand não encontrado com ID: " + rentalRequest.getIdStands(), HttpStatus.NOT_FOUND);
@@ -250,46 +507,57 @@ public class StandRentalController {
 
             LocalDateTime endDate = startDate.plusDays(durationInDays - 1).with(endTime);
 
-            // Verificar conflitos considerando sobreposição de horários (excluindo o próprio aluguel)
-            List<StandRental> conflictingRentals = repository.findTimeRangeConflicts(
-                    rentalRequest.getIdStands(),
-                    startDate,
-                    endDate
-            ).stream().filter(r -> !r.getIdStandRentals().equals(id)).toList();
-
-            if (!conflictingRentals.isEmpty()) {
-                for (StandRental conflict : conflictingRentals) {
-                    boolean hasRealConflict = checkTimeOverlap(
+            // Seção crítica: verificação de conflito + save serializados por recurso. Se o aluguel muda de recurso, o
+            // anterior também fica travado: o slot dele é liberado e a fila de espera dele é avaliada no evento
+            RentalSlot previous = RentalSlot.of(rental);
+            List<Lock> locks = resourceLocks.locksFor(ResourceType.STAND, Arrays.asList(previous.resourceId(), rentalRequest.getIdStands()));
+            locks.forEach(Lock::lock);
+            try {
+                // Verificar conflitos considerando sobreposição de horários (excluindo o próprio aluguel)
+                Optional<RentalSlot> conflict = standRentalIndex.findConflict(
+                        rentalRequest.getIdStands(),
+                        startDate,
+                        endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(),
+                        startTime,
+                        endTime,
+                        id
+                );
+
+                if (conflict.isPresent()) {
+                    String conflictMessage = buildConflictMessageByTime(
                             rentalPlan.get().getRentalShift(),
-                            conflict.getRentalPlan().getRentalShift()
+                            conflict.get()
                     );
-
-                    if (hasRealConflict) {
-                        String conflictMessage = buildConflictMessageByTime(
-                                rentalPlan.get().getRentalShift(),
-                                conflict.getRentalPlan().getRentalShift()
-                        );
-                        return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
-                    }
+                    return createErrorResponse(conflictMessage, HttpStatus.CONFLICT);
                 }
-            }
 
-            // Atualizar o aluguel
-            rental.setStand(stand.get());
-            rental.setCustomer(customer.get());
-            rental.setRentalPlan(rentalPlan.get());
-            rental.setStartPeriodStandRentals(startDate);
-            rental.setEndPeriodStandRentals(endDate);
-            rental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
-
-            StandRental updatedRental = repository.save(rental);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Aluguel atualizado com sucesso!");
-            response.put("data", updatedRental);
+                Optional<RentalSlot> held = holdService.findConflict(ResourceType.STAND, rentalRequest.getIdStands(), startDate, endDate,
+                        rentalPlan.get().getRentalShift().getIdRentalShifts(), startTime, endTime, null);
+                if (held.isPresent()) {
+                    return createErrorResponse(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+                }
 
-            return ResponseEntity.ok(response);
+                // Atualizar o aluguel
+                rental.setStand(stand.get());
+                rental.setCustomer(customer.get());
+                rental.setRentalPlan(rentalPlan.get());
+                rental.setStartPeriodStandRentals(startDate);
+                rental.setEndPeriodStandRentals(endDate);
+                rental.setTotalPriceStandRentals(rentalRequest.getTotalPriceStandRentals());
+
+                StandRental updatedRental = repository.save(rental);
+                eventPublisher.publishEvent(RentalChangedEvent.updated(previous, RentalSlot.of(updatedRental)));
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Aluguel atualizado com sucesso!");
+                response.put("data", updatedRental);
+
+                return ResponseEntity.ok(response);
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
 
         } catch (Exception e) {
             return createErrorResponse("Erro ao atualizar aluguel: " + e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -298,53 +566,58 @@ public class StandRentalController {
 
     // GET ALL - Buscar todos os aluguéis OU filtrar por stand
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getStandRentals(@RequestParam(required = false) Integer standId) {
-        List<StandRental> rentals;
-
-        if (standId != null) {
-            rentals = repository.findByStandIdStands(standId);
-        } else {
-            rentals = repository.findAll();
+    public ResponseEntity<Map<String, Object>> getStandRentals(@RequestParam(required = false) Integer standId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ?
-                (standId != null ? "Nenhum aluguel encontrado para este stand" : "Nenhum aluguel encontrado")
-                : "Aluguéis recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<StandRental> rentals = standId != null
+                ? repository.findByStandIdStands(standId, page.position(), page.sort(), page.limit())
+                : repository.findBy(page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ?
+                (standId != null ? "Nenhum aluguel encontrado para este stand" : "Nenhum aluguel encontrado")
+                : "Aluguéis recuperados com sucesso")));
     }
 
     // GET BY ID - Buscar aluguel por ID
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getStandRentalById(@PathVariable Integer id) {
-        Optional<StandRental> rental = repository.findById(id);
+    public ResponseEntity<byte[]> getStandRentalById(@PathVariable Integer id) {
+        return responseCache.get("standRentals", id, () -> {
+            Optional<StandRental> rental = repository.findById(id);
 
-        Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
 
-        if (rental.isPresent()) {
-            response.put("success", true);
-            response.put("message", "Aluguel encontrado com sucesso");
-            response.put("data", rental.get());
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("success", false);
-            response.put("message", "Aluguel não encontrado com ID: " + id);
-            response.put("data", null);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
+            if (rental.isPresent()) {
+                response.put("success", true);
+                response.put("message", "Aluguel encontrado com sucesso");
+                response.put("data", rental.get());
+                return ResponseEntity.ok(response);
+            } else {
+                response.put("success", false);
+                response.put("message", "Aluguel não encontrado com ID: " + id);
+                response.put("data", null);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+        });
     }
 
     // DELETE - Deletar aluguel
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deleteStandRental(@PathVariable Integer id) {
         Map<String, Object> response = new HashMap<>();
+        Optional<StandRental> rental = repository.findById(id);
 
-        if (repository.existsById(id)) {
-            repository.deleteById(id);
+        if (rental.isPresent()) {
+            repository.delete(rental.get());
+            eventPublisher.publishEvent(RentalChangedEvent.deleted(RentalSlot.of(rental.get())));
 
             response.put("success", true);
             response.put("message", "Aluguel deletado com sucesso!");
@@ -361,63 +634,83 @@ public class StandRentalController {
 
     // GET BY CUSTOMER - Buscar aluguéis por cliente
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<Map<String, Object>> getStandRentalsByCustomer(@PathVariable Integer customerId) {
-        List<StandRental> rentals = repository.findByCustomerIdCustomers(customerId);
+    public ResponseEntity<Map<String, Object>> getStandRentalsByCustomer(@PathVariable Integer customerId,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) String sort,
+                                                                         @RequestParam(required = false) Integer size,
+                                                                         @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para este cliente" : "Aluguéis do cliente recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<StandRental> rentals = repository.findByCustomerIdCustomers(customerId, page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel encontrado para este cliente" : "Aluguéis do cliente recuperados com sucesso")));
     }
 
     // GET BY STAND - Buscar aluguéis por stand (endpoint alternativo)
     @GetMapping("/stand/{standId}")
-    public ResponseEntity<Map<String, Object>> getStandRentalsByStand(@PathVariable Integer standId) {
-        List<StandRental> rentals = repository.findByStandIdStands(standId);
+    public ResponseEntity<Map<String, Object>> getStandRentalsByStand(@PathVariable Integer standId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) String sort,
+                                                                      @RequestParam(required = false) Integer size,
+                                                                      @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", rentals.isEmpty() ? "Nenhum aluguel encontrado para este stand" : "Aluguéis do stand recuperados com sucesso");
-        response.put("data", rentals);
-        response.put("count", rentals.size());
+        Window<StandRental> rentals = repository.findByStandIdStands(standId, page.position(), page.sort(), page.limit());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(rentals, page, rentals.isEmpty() ? "Nenhum aluguel encontrado para este stand" : "Aluguéis do stand recuperados com sucesso")));
     }
 
     // GET ACTIVE - Buscar aluguéis ativos
     @GetMapping("/active")
-    public ResponseEntity<Map<String, Object>> getActiveStandRentals() {
-        List<StandRental> activeRentals = repository.findActiveRentals(LocalDateTime.now());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", activeRentals.isEmpty() ? "Nenhum aluguel ativo no momento" : "Aluguéis ativos recuperados com sucesso");
-        response.put("data", activeRentals);
-        response.put("count", activeRentals.size());
-
-        return ResponseEntity.ok(response);
-    }
+    public ResponseEntity<Map<String, Object>> getActiveStandRentals(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) String sort,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     @RequestParam(defaultValue = "false") boolean compact) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
 
-    // MÉTODO AUXILIAR - Verificar sobreposição de horários
-    private boolean checkTimeOverlap(RentalShift shift1, RentalShift shift2) {
-        LocalTime start1 = shift1.getStartTimeRentalShifts();
-        LocalTime end1 = shift1.getEndTimeRentalShifts();
-        LocalTime start2 = shift2.getStartTimeRentalShifts();
-        LocalTime end2 = shift2.getEndTimeRentalShifts();
+        // Do snapshot em memória: sem consulta ao banco, ordenado e paginado aqui
+        List<StandRental> active = activeRentalSnapshot.active(ResourceType.STAND, StandRental.class, LocalDateTime.now());
+        Window<StandRental> activeRentals = keysetPaging.page(active, page, "idStandRentals");
 
-        // Verifica se os horários se sobrepõem
-        return start1.isBefore(end2) && end1.isAfter(start2);
+        return ResponseEntity.ok(compactView.apply(compact, keysetPaging.response(activeRentals, page, activeRentals.isEmpty() ? "Nenhum aluguel ativo no momento" : "Aluguéis ativos recuperados com sucesso")));
     }
 
     // MÉTODO AUXILIAR - Construir mensagem de conflito baseada em horários
-    private String buildConflictMessageByTime(RentalShift newShift, RentalShift existingShift) {
+    private String buildConflictMessageByTime(RentalShift newShift, RentalSlot existing) {
         return "Conflito de horários: " +
                 newShift.getNameRentalShifts() + " (" + newShift.getStartTimeRentalShifts() + " às " + newShift.getEndTimeRentalShifts() + ") " +
                 "conflita com " +
-                existingShift.getNameRentalShifts() + " (" + existingShift.getStartTimeRentalShifts() + " às " + existingShift.getEndTimeRentalShifts() + ")";
+                existing.shiftName() + " (" + existing.shiftStart() + " às " + existing.shiftEnd() + ")";
+    }
+
+    // Ids distintos e não nulos de um campo das requisições do lote
+    private static <T> Set<Integer> collectIds(List<T> requests, Function<T, Integer> idGetter) {
+        return requests.stream().map(idGetter).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    // Método auxiliar para respostas de erro de lote/série (um erro por item rejeitado)
+    private ResponseEntity<Map<String, Object>> createBatchErrorResponse(String message, List<String> errors, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        errorResponse.put("errors", errors);
+        return ResponseEntity.status(status).body(errorResponse);
     }
 
     // Método auxiliar para criar respostas de erro
@@ -0,0 +1,174 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.dto.WaitlistRequest;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.WaitlistEntry;
+import com.coworkproject.repository.WaitlistEntryRepository;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import com.coworkproject.service.SlotBookingService;
+import com.coworkproject.service.WaitlistService;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+// Fila de espera: o cliente entra na fila de um slot ocupado e é promovido automaticamente
+// (reserva temporária ou aluguel) quando o slot vaga, sem precisar consultar os aluguéis do recurso.
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+    // Campos aceitos no parâmetro sort (nome na API -> propriedade da entidade)
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idWaitlistEntries",
+            "createdAt", "createdAtWaitlistEntries"
+    );
+
+    private final WaitlistEntryRepository repository;
+    private final WaitlistService waitlistService;
+    private final SlotBookingService slotBookingService;
+    private final HoldService holdService;
+    private final ResourceLocks resourceLocks;
+    private final KeysetPaging keysetPaging;
+
+    public WaitlistController(WaitlistEntryRepository repository,
+                              WaitlistService waitlistService,
+                              SlotBookingService slotBookingService,
+                              HoldService holdService,
+                              ResourceLocks resourceLocks,
+                              KeysetPaging keysetPaging) {
+        this.repository = repository;
+        this.waitlistService = waitlistService;
+        this.slotBookingService = slotBookingService;
+        this.holdService = holdService;
+        this.resourceLocks = resourceLocks;
+        this.keysetPaging = keysetPaging;
+    }
+
+    // POST - Entrar na fila de espera
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> joinWaitlist(@RequestBody WaitlistRequest waitlistRequest) {
+        try {
+            SlotBookingService.Resolution resolution = slotBookingService.resolve(waitlistRequest);
+            if (resolution.error() != null) {
+                return createErrorResponse(resolution.error(), resolution.status());
+            }
+            RentalSlot slot = resolution.slot();
+            WaitlistEntry.PromoteTo promoteTo = waitlistRequest.getPromoteTo() != null
+                    ? waitlistRequest.getPromoteTo()
+                    : WaitlistEntry.PromoteTo.HOLD;
+
+            // Mesmo lock da exclusão: o slot não vaga entre a verificação e a entrada na fila
+            Lock lock = resourceLocks.lockFor(slot.type(), slot.resourceId());
+            lock.lock();
+            try {
+                if (!slotBookingService.isRented(slot) && holdService.findConflict(slot).isEmpty()) {
+                    return createErrorResponse("O período está livre, faça o aluguel ou a reserva temporária diretamente", HttpStatus.CONFLICT);
+                }
+
+                if (waitlistService.size(slot.type(), slot.resourceId()) >= WaitlistService.MAX_WAITING_PER_RESOURCE) {
+                    return createErrorResponse("A fila de espera deste recurso está cheia", HttpStatus.CONFLICT);
+                }
+
+                WaitlistEntry entry = waitlistService.join(slot, promoteTo, waitlistRequest.getTtlSeconds());
+                int position = waitlistService.position(entry.getIdWaitlistEntries());
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Pedido incluído na fila de espera na posição " + position);
+                response.put("data", entry);
+                response.put("position", position);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } finally {
+                lock.unlock();
+            }
+
+        } catch (Exception e) {
+            return createErrorResponse("Erro ao entrar na fila de espera: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // GET - Pedidos em espera de um recurso, na ordem em que serão avaliados
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getWaitlist(@RequestParam ResourceType resourceType,
+                                                           @RequestParam Integer resourceId) {
+        List<WaitlistService.Waiting> waiting = waitlistService.waiting(resourceType, resourceId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", waiting.isEmpty() ? "Nenhum pedido em espera para este recurso" : "Fila de espera recuperada com sucesso");
+        response.put("data", waiting);
+        response.put("count", waiting.size());
+
+        return ResponseEntity.ok(response);
+    }
+
+    // GET BY ID - Buscar pedido (com a posição na fila, se ainda estiver em espera)
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getWaitlistEntryById(@PathVariable Integer id) {
+        Optional<WaitlistEntry> entry = repository.findById(id);
+        if (entry.isEmpty()) {
+            return createErrorResponse("Pedido da fila de espera não encontrado com ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Pedido da fila de espera encontrado com sucesso");
+        response.put("data", entry.get());
+        response.put("position", waitlistService.position(id));
+
+        return ResponseEntity.ok(response);
+    }
+
+    // GET BY CUSTOMER - Pedidos de um cliente (sort=createdAt,desc para os mais recentes primeiro)
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<Map<String, Object>> getWaitlistByCustomer(@PathVariable Integer customerId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) String sort,
+                                                                     @RequestParam(required = false) Integer size) {
+        KeysetPaging.PageQuery page;
+        try {
+            page = keysetPaging.query(cursor, sort, size, SORT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        Window<WaitlistEntry> entries = repository.findByCustomerIdCustomers(customerId, page.position(), page.sort(), page.limit());
+
+        return ResponseEntity.ok(keysetPaging.response(entries, page, entries.isEmpty() ? "Nenhum pedido encontrado para este cliente" : "Pedidos do cliente recuperados com sucesso"));
+    }
+
+    // DELETE - Sair da fila de espera
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> leaveWaitlist(@PathVariable Integer id) {
+        if (!waitlistService.cancel(id)) {
+            return createErrorResponse("Pedido não está em espera com ID: " + id, HttpStatus.NOT_FOUND);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Pedido retirado da fila de espera com sucesso");
+        response.put("data", null);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Método auxiliar para respostas de erro
+    private ResponseEntity<Map<String, Object>> createErrorResponse(String message, HttpStatus status) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("data", null);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
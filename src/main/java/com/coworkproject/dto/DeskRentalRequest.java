@@ -9,6 +9,8 @@ public class DeskRentalRequest {
     private Integer idRentalPlans;
     private LocalDateTime startPeriodDeskRentals;
     private BigDecimal totalPriceDeskRentals;
+    private RecurrenceRule recurrence;
+    private String quoteToken;
 
     // Getters e Setters
     public Integer getIdDesks() {
@@ -43,6 +45,7 @@ public class DeskRentalRequest {
         this.startPeriodDeskRentals = startPeriodDeskRentals;
     }
 
+    // Com recorrência, é o preço de cada ocorrência: a série custa esse valor vezes o número de ocorrências
     public BigDecimal getTotalPriceDeskRentals() {
         return totalPriceDeskRentals;
     }
@@ -50,4 +53,22 @@ public class DeskRentalRequest {
     public void setTotalPriceDeskRentals(BigDecimal totalPriceDeskRentals) {
         this.totalPriceDeskRentals = totalPriceDeskRentals;
     }
+
+    // Opcional: quando presente, o aluguel vira uma série de ocorrências
+    public RecurrenceRule getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(RecurrenceRule recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    // Opcional: token de /api/quotes; quando presente, período e preço vêm da cotação
+    public String getQuoteToken() {
+        return quoteToken;
+    }
+
+    public void setQuoteToken(String quoteToken) {
+        this.quoteToken = quoteToken;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.coworkproject.dto;
+
+import com.coworkproject.model.ResourceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Pedido de reserva temporária. Mesas e stands usam plano (o fim vem da categoria e o horário do turno);
+// salas e áreas usam início e fim explícitos, como nos aluguéis.
+public class HoldRequest {
+    private ResourceType resourceType;
+    private Integer idResource;
+    private Integer idCustomers;
+    private Integer idRentalPlans;
+    private LocalDateTime startPeriod;
+    private LocalDateTime endPeriod;
+    private BigDecimal totalPrice;
+    private Long ttlSeconds;
+
+    // Construtores
+    public HoldRequest() {}
+
+    public HoldRequest(ResourceType resourceType, Integer idResource, Integer idCustomers, Integer idRentalPlans,
+                       LocalDateTime startPeriod, LocalDateTime endPeriod, BigDecimal totalPrice, Long ttlSeconds) {
+        this.resourceType = resourceType;
+        this.idResource = idResource;
+        this.idCustomers = idCustomers;
+        this.idRentalPlans = idRentalPlans;
+        this.startPeriod = startPeriod;
+        this.endPeriod = endPeriod;
+        this.totalPrice = totalPrice;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    // Getters e Setters
+    public ResourceType getResourceType() {
+        return resourceType;
+    }
+
+    public void setResourceType(ResourceType resourceType) {
+        this.resourceType = resourceType;
+    }
+
+    public Integer getIdResource() {
+        return idResource;
+    }
+
+    public void setIdResource(Integer idResource) {
+        this.idResource = idResource;
+    }
+
+    public Integer getIdCustomers() {
+        return idCustomers;
+    }
+
+    public void setIdCustomers(Integer idCustomers) {
+        this.idCustomers = idCustomers;
+    }
+
+    public Integer getIdRentalPlans() {
+        return idRentalPlans;
+    }
+
+    public void setIdRentalPlans(Integer idRentalPlans) {
+        this.idRentalPlans = idRentalPlans;
+    }
+
+    public LocalDateTime getStartPeriod() {
+        return startPeriod;
+    }
+
+    public void setStartPeriod(LocalDateTime startPeriod) {
+        this.startPeriod = startPeriod;
+    }
+
+    public LocalDateTime getEndPeriod() {
+        return endPeriod;
+    }
+
+    public void setEndPeriod(LocalDateTime endPeriod) {
+        this.endPeriod = endPeriod;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
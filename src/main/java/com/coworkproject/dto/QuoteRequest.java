@@ -0,0 +1,67 @@
+package com.coworkproject.dto;
+
+import com.coworkproject.model.ResourceType;
+
+import java.time.LocalDateTime;
+
+// Pedido de cotação: mesa ou stand, plano e data de início; preço e término vêm do plano
+public class QuoteRequest {
+    private ResourceType resourceType;
+    private Integer idResource;
+    private Integer idCustomers;
+    private Integer idRentalPlans;
+    private LocalDateTime startPeriod;
+
+    // Construtores
+    public QuoteRequest() {}
+
+    public QuoteRequest(ResourceType resourceType, Integer idResource, Integer idCustomers, Integer idRentalPlans,
+                        LocalDateTime startPeriod) {
+        this.resourceType = resourceType;
+        this.idResource = idResource;
+        this.idCustomers = idCustomers;
+        this.idRentalPlans = idRentalPlans;
+        this.startPeriod = startPeriod;
+    }
+
+    // Getters e Setters
+    public ResourceType getResourceType() {
+        return resourceType;
+    }
+
+    public void setResourceType(ResourceType resourceType) {
+        this.resourceType = resourceType;
+    }
+
+    public Integer getIdResource() {
+        return idResource;
+    }
+
+    public void setIdResource(Integer idResource) {
+        this.idResource = idResource;
+    }
+
+    public Integer getIdCustomers() {
+        return idCustomers;
+    }
+
+    public void setIdCustomers(Integer idCustomers) {
+        this.idCustomers = idCustomers;
+    }
+
+    public Integer getIdRentalPlans() {
+        return idRentalPlans;
+    }
+
+    public void setIdRentalPlans(Integer idRentalPlans) {
+        this.idRentalPlans = idRentalPlans;
+    }
+
+    public LocalDateTime getStartPeriod() {
+        return startPeriod;
+    }
+
+    public void setStartPeriod(LocalDateTime startPeriod) {
+        this.startPeriod = startPeriod;
+    }
+}
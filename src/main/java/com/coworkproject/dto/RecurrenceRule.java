@@ -0,0 +1,115 @@
+package com.coworkproject.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+// Regra de recorrência de um aluguel: semanal ou quinzenal, em um ou mais dias da semana,
+// até uma data final (until) ou por um número de ocorrências (count)
+public class RecurrenceRule {
+
+    public static final int MAX_OCCURRENCES = 200;
+    public static final int MAX_RANGE_DAYS = 366;
+
+    public enum Frequency {
+        WEEKLY,
+        BIWEEKLY
+    }
+
+    private Frequency frequency;
+    private List<DayOfWeek> daysOfWeek;
+    private LocalDate until;
+    private Integer count;
+
+    // Construtores
+    public RecurrenceRule() {}
+
+    public RecurrenceRule(Frequency frequency, List<DayOfWeek> daysOfWeek, LocalDate until, Integer count) {
+        this.frequency = frequency;
+        this.daysOfWeek = daysOfWeek;
+        this.until = until;
+        this.count = count;
+    }
+
+    // Mensagem de erro da regra, ou null se ela for válida
+    public String validate(LocalDate firstDay) {
+        if (frequency == null) {
+            return "Frequência da recorrência é obrigatória (WEEKLY ou BIWEEKLY)";
+        }
+        if (until == null && count == null) {
+            return "Informe a data final (until) ou o número de ocorrências (count) da recorrência";
+        }
+        if (count != null && (count < 1 || count > MAX_OCCURRENCES)) {
+            return "O número de ocorrências deve estar entre 1 e " + MAX_OCCURRENCES;
+        }
+        if (until != null && until.isBefore(firstDay)) {
+            return "Data final da recorrência não pode ser anterior à data de início";
+        }
+        if (until != null && ChronoUnit.DAYS.between(firstDay, until) >= MAX_RANGE_DAYS) {
+            return "A recorrência pode cobrir no máximo " + MAX_RANGE_DAYS + " dias";
+        }
+        // Pelo count, a janela só é conhecida depois de expandir: uma regra que não cabe nela é recusada, não cortada
+        if (count != null && expand(firstDay).size() < count) {
+            return "A recorrência pode cobrir no máximo " + MAX_RANGE_DAYS + " dias";
+        }
+        return null;
+    }
+
+    // Datas das ocorrências a partir do primeiro dia, em ordem; sem dias da semana usa o dia do primeiro aluguel.
+    // Para no until, no count, no limite de ocorrências ou no de dias, o que vier primeiro.
+    public List<LocalDate> expand(LocalDate firstDay) {
+        List<DayOfWeek> days = daysOfWeek == null || daysOfWeek.isEmpty() ? List.of(firstDay.getDayOfWeek()) : daysOfWeek;
+        int intervalWeeks = frequency == Frequency.BIWEEKLY ? 2 : 1;
+        int maxOccurrences = count != null ? Math.min(count, MAX_OCCURRENCES) : MAX_OCCURRENCES;
+        LocalDate firstWeek = firstDay.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate lastDay = firstDay.plusDays(MAX_RANGE_DAYS - 1);
+        if (until != null && until.isBefore(lastDay)) {
+            lastDay = until;
+        }
+
+        List<LocalDate> occurrences = new ArrayList<>();
+        for (LocalDate day = firstDay; occurrences.size() < maxOccurrences && !day.isAfter(lastDay); day = day.plusDays(1)) {
+            long week = ChronoUnit.WEEKS.between(firstWeek, day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            if (week % intervalWeeks == 0 && days.contains(day.getDayOfWeek())) {
+                occurrences.add(day);
+            }
+        }
+        return occurrences;
+    }
+
+    // Getters e Setters
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public List<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(List<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDate until) {
+        this.until = until;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,23 @@
+package com.coworkproject.dto;
+
+import com.coworkproject.model.ResourceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Aluguel de qualquer tipo de recurso no mesmo formato (listagem unificada /api/rentals).
+// Plano e turno ficam nulos para salas e áreas; a série fica nula para áreas e stands.
+public record RentalView(ResourceType type,
+                         Integer idRental,
+                         Integer idResource,
+                         String resourceName,
+                         Integer idCustomers,
+                         String customerName,
+                         Integer idRentalPlans,
+                         String planName,
+                         String shiftName,
+                         LocalDateTime startPeriod,
+                         LocalDateTime endPeriod,
+                         BigDecimal totalPrice,
+                         Integer idRentalSeries) {
+}
@@ -9,6 +9,7 @@ public class RoomRentalRequest {
     private LocalDateTime startPeriodAreaRentals;
     private LocalDateTime endPeriodAreaRentals;
     private BigDecimal totalPriceStandRentals;
+    private RecurrenceRule recurrence;
 
     // Construtores
     public RoomRentalRequest() {}
@@ -56,6 +57,7 @@ public class RoomRentalRequest {
         this.endPeriodAreaRentals = endPeriodAreaRentals;
     }
 
+    // Com recorrência, é o preço de cada ocorrência: a série custa esse valor vezes o número de ocorrências
     public BigDecimal getTotalPriceStandRentals() {
         return totalPriceStandRentals;
     }
@@ -63,4 +65,13 @@ public class RoomRentalRequest {
     public void setTotalPriceStandRentals(BigDecimal totalPriceStandRentals) {
         this.totalPriceStandRentals = totalPriceStandRentals;
     }
+
+    // Opcional: quando presente, o aluguel vira uma série de ocorrências
+    public RecurrenceRule getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(RecurrenceRule recurrence) {
+        this.recurrence = recurrence;
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ public class StandRentalRequest {
     private Integer idRentalPlans;
     private LocalDateTime startPeriodStandRentals;
     private BigDecimal totalPriceStandRentals;
+    private String quoteToken;
 
     // Construtores
     public StandRentalRequest() {}
@@ -62,4 +63,13 @@ public class StandRentalRequest {
     public void setTotalPriceStandRentals(BigDecimal totalPriceStandRentals) {
         this.totalPriceStandRentals = totalPriceStandRentals;
     }
+
+    // Opcional: token de /api/quotes; quando presente, período e preço vêm da cotação
+    public String getQuoteToken() {
+        return quoteToken;
+    }
+
+    public void setQuoteToken(String quoteToken) {
+        this.quoteToken = quoteToken;
+    }
 }
\ No newline at end of file
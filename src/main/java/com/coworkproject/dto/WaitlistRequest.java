@@ -0,0 +1,21 @@
+package com.coworkproject.dto;
+
+import com.coworkproject.model.WaitlistEntry;
+
+// Mesmos dados de uma reserva temporária, mais o que fazer quando o slot vagar.
+// ttlSeconds vale para a reserva gerada na promoção (promoteTo = HOLD).
+public class WaitlistRequest extends HoldRequest {
+    private WaitlistEntry.PromoteTo promoteTo;
+
+    // Construtores
+    public WaitlistRequest() {}
+
+    // Getters e Setters
+    public WaitlistEntry.PromoteTo getPromoteTo() {
+        return promoteTo;
+    }
+
+    public void setPromoteTo(WaitlistEntry.PromoteTo promoteTo) {
+        this.promoteTo = promoteTo;
+    }
+}
@@ -0,0 +1,108 @@
+package com.coworkproject.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+// Conjunto dos itens vigentes (início <= agora <= fim, intervalo fechado) mantido por uma agenda de inícios e fins.
+// Os que ainda vão começar ficam numa fila por início; os vigentes, numa fila por fim. Avançar o relógio aplica
+// as transições em ordem, exatamente nos instantes de início e fim, e ler os vigentes custa só o tamanho deles.
+// Itens já encerrados não são guardados. Não é thread-safe: quem usa sincroniza.
+public final class ActiveSchedule<T> {
+
+    private record Entry<T>(int id, LocalDateTime start, LocalDateTime end, T value) {
+    }
+
+    private final Map<Integer, Entry<T>> byId = new HashMap<>();
+    private final TreeSet<Entry<T>> pending = new TreeSet<>(Comparator.<Entry<T>, LocalDateTime>comparing(Entry::start).thenComparingInt(Entry::id));
+    private final TreeSet<Entry<T>> ending = new TreeSet<>(Comparator.<Entry<T>, LocalDateTime>comparing(Entry::end).thenComparingInt(Entry::id));
+    private final Map<Integer, T> active = new HashMap<>();
+    private LocalDateTime clock;
+
+    public ActiveSchedule(LocalDateTime now) {
+        this.clock = now;
+    }
+
+    // Insere ou substitui o item, classificado pelo relógio atual
+    public void put(int id, LocalDateTime start, LocalDateTime end, T value) {
+        remove(id);
+        if (start == null || end == null || end.isBefore(clock)) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(id, start, end, value);
+        byId.put(id, entry);
+        if (start.isAfter(clock)) {
+            pending.add(entry);
+        } else {
+            activate(entry);
+        }
+    }
+
+    public void remove(int id) {
+        Entry<T> entry = byId.remove(id);
+        if (entry != null) {
+            pending.remove(entry);
+            ending.remove(entry);
+            active.remove(id);
+        }
+    }
+
+    // Relógio só anda para frente; um agora anterior ao último aplicado não desfaz transições
+    public void advanceTo(LocalDateTime now) {
+        if (!now.isAfter(clock)) {
+            return;
+        }
+        clock = now;
+        while (!pending.isEmpty() && !pending.first().start().isAfter(now)) {
+            activate(pending.pollFirst());
+        }
+        while (!ending.isEmpty() && ending.first().end().isBefore(now)) {
+            Entry<T> entry = ending.pollFirst();
+            active.remove(entry.id());
+            byId.remove(entry.id());
+        }
+    }
+
+    // Cópia dos vigentes no relógio atual, sem ordem definida
+    public List<T> active() {
+        return new ArrayList<>(active.values());
+    }
+
+    // Algum item guardado (vigente ou ainda por começar) satisfaz a condição
+    public boolean anyMatch(Predicate<T> condition) {
+        return byId.values().stream().anyMatch(entry -> condition.test(entry.value()));
+    }
+
+    public int activeCount() {
+        return active.size();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    // Próximo instante em que o conjunto muda (null quando não há nada agendado)
+    public LocalDateTime nextTransition() {
+        LocalDateTime nextStart = pending.isEmpty() ? null : pending.first().start();
+        // O item sai no primeiro instante depois do fim
+        LocalDateTime nextEnd = ending.isEmpty() ? null : ending.first().end().plusNanos(1);
+        if (nextStart == null || nextEnd == null) {
+            return nextStart != null ? nextStart : nextEnd;
+        }
+        return nextStart.isBefore(nextEnd) ? nextStart : nextEnd;
+    }
+
+    private void activate(Entry<T> entry) {
+        if (entry.end().isBefore(clock)) {
+            byId.remove(entry.id());
+            return;
+        }
+        ending.add(entry);
+        active.put(entry.id(), entry.value());
+    }
+}
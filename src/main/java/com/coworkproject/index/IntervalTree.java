@@ -0,0 +1,220 @@
+package com.coworkproject.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Árvore de intervalos fechados [start, end] (AVL aumentada com o maior fim de cada subárvore).
+// A chave é (start, id), então vários intervalos podem começar no mesmo instante.
+public class IntervalTree<V> {
+
+    private Node<V> root;
+    private int size;
+    private boolean removed;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Altura da árvore; usada nos testes para conferir o balanceamento
+    int height() {
+        return height(root);
+    }
+
+    // Insere (ou substitui, se a chave já existir) um intervalo
+    public void insert(LocalDateTime start, LocalDateTime end, int id, V value) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Fim do intervalo anterior ao início: " + start + " > " + end);
+        }
+        root = insert(root, new Node<>(start, end, id, value));
+    }
+
+    // Remove o intervalo com a chave (start, id); retorna false se não existir
+    public boolean remove(LocalDateTime start, int id) {
+        removed = false;
+        root = remove(root, start, id);
+        return removed;
+    }
+
+    // Todos os valores cujo intervalo intercepta [from, to]
+    public List<V> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<V> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    // Primeiro valor (em ordem de início) que intercepta [from, to] e satisfaz o filtro
+    public V findFirstOverlapping(LocalDateTime from, LocalDateTime to, Predicate<V> filter) {
+        return findFirst(root, from, to, filter);
+    }
+
+    private Node<V> insert(Node<V> node, Node<V> added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+
+        int cmp = compare(added.start, added.id, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            added.left = node.left;
+            added.right = node.right;
+            update(added);
+            return added;
+        }
+        return balance(node);
+    }
+
+    private Node<V> remove(Node<V> node, LocalDateTime start, int id) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            removed = true;
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private Node<V> removeMin(Node<V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private void collect(Node<V> node, LocalDateTime from, LocalDateTime to, List<V> result) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start.isAfter(to)) {
+            return;
+        }
+        if (!node.end.isBefore(from)) {
+            result.add(node.value);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private V findFirst(Node<V> node, LocalDateTime from, LocalDateTime to, Predicate<V> filter) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return null;
+        }
+        V found = findFirst(node.left, from, to, filter);
+        if (found != null) {
+            return found;
+        }
+        if (node.start.isAfter(to)) {
+            return null;
+        }
+        if (!node.end.isBefore(from) && filter.test(node.value)) {
+            return node.value;
+        }
+        return findFirst(node.right, from, to, filter);
+    }
+
+    private int compare(LocalDateTime start, int id, Node<V> node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private Node<V> balance(Node<V> node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node<V> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime max = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(max)) {
+            max = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(max)) {
+            max = node.right.maxEnd;
+        }
+        node.maxEnd = max;
+    }
+
+    private int height(Node<V> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<V> {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int id;
+        private final V value;
+        private Node<V> left;
+        private Node<V> right;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+
+        private Node(LocalDateTime start, LocalDateTime end, int id, V value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+}
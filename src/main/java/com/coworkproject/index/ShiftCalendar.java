@@ -0,0 +1,64 @@
+package com.coworkproject.index;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Calendário compacto de um recurso: um bitset por dia, com um bit por turno ocupado.
+public class ShiftCalendar {
+
+    private final int words;
+    private final Map<Long, long[]> days = new HashMap<>();
+
+    public ShiftCalendar(int words) {
+        this.words = words;
+    }
+
+    // Liga os bits informados em todos os dias de from a to, inclusive
+    public void mark(LocalDate from, LocalDate to, long[] bits) {
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            long[] bitset = days.computeIfAbsent(day, d -> new long[words]);
+            for (int w = 0; w < words; w++) {
+                bitset[w] |= bits[w];
+            }
+        }
+    }
+
+    // Desliga os bits informados em todos os dias de from a to, inclusive
+    public void clear(LocalDate from, LocalDate to, long[] bits) {
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            long[] bitset = days.get(day);
+            if (bitset == null) {
+                continue;
+            }
+            boolean empty = true;
+            for (int w = 0; w < words; w++) {
+                bitset[w] &= ~bits[w];
+                empty &= bitset[w] == 0;
+            }
+            if (empty) {
+                days.remove(day);
+            }
+        }
+    }
+
+    // true se algum dia de from a to tem ligado um bit da máscara
+    public boolean intersects(LocalDate from, LocalDate to, long[] mask) {
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            long[] bitset = days.get(day);
+            if (bitset == null) {
+                continue;
+            }
+            for (int w = 0; w < words; w++) {
+                if ((bitset[w] & mask[w]) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return days.isEmpty();
+    }
+}
@@ -0,0 +1,80 @@
+package com.coworkproject.index;
+
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Matriz imutável de sobreposição entre turnos.
+// Cada turno recebe uma posição de bit; conflictMask(turno) liga os bits de todos os turnos que se sobrepõem a ele.
+// O último bit fica reservado para turnos desconhecidos, que conflitam com qualquer outro.
+public final class ShiftOverlapMatrix {
+
+    public record Shift(Integer id, String name, LocalTime start, LocalTime end) {
+    }
+
+    private final List<Shift> shifts;
+    private final Map<Integer, Integer> positions = new HashMap<>();
+    private final long[][] bits;
+    private final long[][] masks;
+    private final long[] all;
+    private final int words;
+
+    public ShiftOverlapMatrix(List<Shift> shifts) {
+        this.shifts = List.copyOf(shifts);
+        int unknown = shifts.size();
+        this.words = (unknown >>> 6) + 1;
+        this.bits = new long[shifts.size()][words];
+        this.masks = new long[shifts.size()][words];
+        this.all = new long[words];
+
+        for (int i = 0; i <= unknown; i++) {
+            all[i >>> 6] |= 1L << i;
+        }
+
+        for (int i = 0; i < shifts.size(); i++) {
+            positions.put(shifts.get(i).id(), i);
+            bits[i][i >>> 6] |= 1L << i;
+            masks[i][unknown >>> 6] |= 1L << unknown;
+            for (int j = 0; j < shifts.size(); j++) {
+                if (overlaps(shifts.get(i), shifts.get(j))) {
+                    masks[i][j >>> 6] |= 1L << j;
+                }
+            }
+        }
+    }
+
+    public int words() {
+        return words;
+    }
+
+    public List<Shift> shifts() {
+        return shifts;
+    }
+
+    // Posição do turno; turno desconhecido usa a posição reservada
+    public int positionOf(Integer shiftId) {
+        Integer position = shiftId != null ? positions.get(shiftId) : null;
+        return position != null ? position : shifts.size();
+    }
+
+    // Bitset com apenas o bit do turno; turno desconhecido ocupa todos os bits
+    public long[] bits(Integer shiftId) {
+        Integer position = shiftId != null ? positions.get(shiftId) : null;
+        return position != null ? bits[position] : all;
+    }
+
+    // Turnos que conflitam com o turno informado; turno desconhecido conflita com todos
+    public long[] conflictMask(Integer shiftId) {
+        Integer position = shiftId != null ? positions.get(shiftId) : null;
+        return position != null ? masks[position] : all;
+    }
+
+    // Mesma regra do checkTimeOverlap; horário ausente é tratado como conflito
+    private static boolean overlaps(Shift a, Shift b) {
+        if (a.start() == null || a.end() == null || b.start() == null || b.end() == null) {
+            return true;
+        }
+        return a.start().isBefore(b.end()) && a.end().isAfter(b.start());
+    }
+}
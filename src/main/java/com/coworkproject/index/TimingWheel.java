@@ -0,0 +1,129 @@
+package com.coworkproject.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Roda de tempo hierárquica: 4 níveis de 64 posições; o nível k avança a cada 64^k ticks.
+// Agendar e cancelar são O(1); avançar custa O(1) por tick mais O(itens vencidos ou rebaixados de nível),
+// sem percorrer os itens que ainda não venceram. Não é thread-safe: quem usa sincroniza.
+public final class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    public static final class Timer<T> {
+        private final T value;
+        private final long tick;
+        private Set<Timer<T>> bucket;
+
+        private Timer(T value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+
+        public T value() {
+            return value;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<List<Set<Timer<T>>>> wheels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<Timer<T>>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    // Agenda o valor para vencer no instante informado; null se o instante já passou
+    public Timer<T> schedule(T value, long deadlineMillis) {
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        if (tick <= currentTick) {
+            return null;
+        }
+        Timer<T> timer = new Timer<>(value, tick);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || timer.bucket == null) {
+            return false;
+        }
+        timer.bucket.remove(timer);
+        timer.bucket = null;
+        size--;
+        return true;
+    }
+
+    // Avança até o instante informado, entregando cada valor vencido ao consumidor
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+
+            // Quando um nível dá a volta, a posição atual do nível de cima desce (do mais alto para o mais baixo)
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (BITS * level)) & MASK));
+                }
+            }
+
+            Set<Timer<T>> bucket = wheels.get(0).get((int) (currentTick & MASK));
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<Timer<T>> due = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Timer<T> timer : due) {
+                if (timer.tick <= currentTick) {
+                    timer.bucket = null;
+                    size--;
+                    expired.accept(timer.value);
+                } else {
+                    place(timer);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level, int slot) {
+        Set<Timer<T>> bucket = wheels.get(level).get(slot);
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Timer<T>> moving = new ArrayList<>(bucket);
+        bucket.clear();
+        moving.forEach(this::place);
+    }
+
+    // Nível mais baixo cuja volta cobre o prazo; além do último nível o item dá voltas até chegar a hora
+    private void place(Timer<T> timer) {
+        long delta = timer.tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        Set<Timer<T>> bucket = wheels.get(level).get((int) ((timer.tick >>> (BITS * level)) & MASK));
+        bucket.add(timer);
+        timer.bucket = bucket;
+    }
+}
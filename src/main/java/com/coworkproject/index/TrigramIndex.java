@@ -0,0 +1,177 @@
+package com.coworkproject.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+// Índice invertido de trigramas sobre tokens já normalizados (minúsculas, só [a-z0-9]).
+// Cada token entra com dois espaços na frente ("  ana" -> "  a", " an", "ana"), como no pg_trgm:
+// os trigramas com espaço marcam o começo do token e servem a busca por prefixo, os demais a busca por trecho.
+// Um trigrama cabe em 18 bits (6 por caractere), então as listas ficam num array indexado direto pela chave,
+// cada uma um int[] ordenado de ids. Não é thread-safe: quem usa sincroniza.
+public final class TrigramIndex {
+
+    private static final int BITS = 6;
+    private static final int KEYS = 1 << (3 * BITS);
+
+    private final int[][] postings = new int[KEYS][];
+    private final int[] sizes = new int[KEYS];
+
+    public void add(int id, Collection<String> tokens) {
+        for (int key : documentKeys(tokens)) {
+            insert(key, id);
+        }
+    }
+
+    // Os tokens precisam ser os mesmos usados no add
+    public void remove(int id, Collection<String> tokens) {
+        for (int key : documentKeys(tokens)) {
+            delete(key, id);
+        }
+    }
+
+    // Visita, em ordem crescente, os ids em que cada token da consulta pode ser prefixo de algum token, até o visitante
+    // devolver false. Pode trazer falsos positivos (trigramas vindos de tokens diferentes), então quem chama confere.
+    public void prefixCandidates(List<String> queryTokens, IntPredicate visitor) {
+        List<Integer> keys = new ArrayList<>();
+        for (String token : queryTokens) {
+            addKeys("  " + token, keys);
+        }
+        intersect(keys, visitor);
+    }
+
+    // Mesmo que o anterior, para cada token da consulta (3 caracteres ou mais) em qualquer posição de algum token
+    public void substringCandidates(List<String> queryTokens, IntPredicate visitor) {
+        List<Integer> keys = new ArrayList<>();
+        for (String token : queryTokens) {
+            if (token.length() < 3) {
+                return;
+            }
+            addKeys(token, keys);
+        }
+        intersect(keys, visitor);
+    }
+
+    // Libera a folga das listas depois de uma carga completa
+    public void trimToSize() {
+        for (int key = 0; key < KEYS; key++) {
+            if (postings[key] != null && postings[key].length > sizes[key]) {
+                postings[key] = Arrays.copyOf(postings[key], sizes[key]);
+            }
+        }
+    }
+
+    private static int[] documentKeys(Collection<String> tokens) {
+        List<Integer> keys = new ArrayList<>();
+        for (String token : tokens) {
+            addKeys("  " + token, keys);
+        }
+        // Cada id entra uma vez por lista, mesmo que o trigrama se repita no documento
+        return keys.stream().mapToInt(Integer::intValue).distinct().toArray();
+    }
+
+    private static void addKeys(String text, List<Integer> keys) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            keys.add(code(text.charAt(i)) << (2 * BITS) | code(text.charAt(i + 1)) << BITS | code(text.charAt(i + 2)));
+        }
+    }
+
+    private static int code(char c) {
+        if (c == ' ') {
+            return 0;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return 1 + c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 27 + c - '0';
+        }
+        return (1 << BITS) - 1;
+    }
+
+    // Interseção preguiçosa: percorre a lista mais curta e procura cada id nas demais avançando um cursor por lista
+    // (busca exponencial a partir da última posição), então parar cedo custa só o que foi percorrido
+    private void intersect(List<Integer> keys, IntPredicate visitor) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        int[] ordered = keys.stream().mapToInt(Integer::intValue).distinct().boxed()
+                .sorted(Comparator.comparingInt(key -> sizes[key]))
+                .mapToInt(Integer::intValue).toArray();
+
+        int first = ordered[0];
+        int[] cursors = new int[ordered.length];
+        candidates:
+        for (int i = 0; i < sizes[first]; i++) {
+            int id = postings[first][i];
+            for (int k = 1; k < ordered.length; k++) {
+                int key = ordered[k];
+                int position = gallop(postings[key], sizes[key], cursors[k], id);
+                if (position >= sizes[key]) {
+                    return;
+                }
+                cursors[k] = position;
+                if (postings[key][position] != id) {
+                    continue candidates;
+                }
+            }
+            if (!visitor.test(id)) {
+                return;
+            }
+        }
+    }
+
+    // Primeira posição a partir de from com valor >= id
+    private static int gallop(int[] list, int size, int from, int id) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && list[high] < id) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        int position = Arrays.binarySearch(list, low, high, id);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    // Ids novos costumam ser os maiores, então o caso comum é acrescentar no fim
+    private void insert(int key, int id) {
+        int[] list = postings[key];
+        int size = sizes[key];
+        if (list == null) {
+            list = postings[key] = new int[4];
+        }
+        int position = size == 0 || list[size - 1] < id ? size : Arrays.binarySearch(list, 0, size, id);
+        if (position >= 0 && position < size) {
+            return;
+        }
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (size == list.length) {
+            list = postings[key] = Arrays.copyOf(list, size + (size >> 1) + 1);
+        }
+        System.arraycopy(list, position, list, position + 1, size - position);
+        list[position] = id;
+        sizes[key] = size + 1;
+    }
+
+    private void delete(int key, int id) {
+        int[] list = postings[key];
+        int size = sizes[key];
+        int position = list == null ? -1 : Arrays.binarySearch(list, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(list, position + 1, list, position, size - position - 1);
+        sizes[key] = size - 1;
+        if (size - 1 == 0) {
+            postings[key] = null;
+        }
+    }
+}
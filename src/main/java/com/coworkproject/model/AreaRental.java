@@ -4,12 +4,20 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Listagens buscam o aluguel com recurso e cliente num único SELECT com joins
 @Entity
+@NamedEntityGraph(name = "AreaRental.detail", attributeNodes = {
+        @NamedAttributeNode("area"),
+        @NamedAttributeNode("customer")
+})
 @Table(name = "areaRentals")
 public class AreaRental {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids reservados em blocos de 50 (tabela idGenerators), o que permite ao Hibernate agrupar os inserts em batch
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "areaRentalsIdGenerator")
+    @TableGenerator(name = "areaRentalsIdGenerator", table = "idGenerators", pkColumnName = "nameIdGenerators",
+            valueColumnName = "nextValueIdGenerators", pkColumnValue = "areaRentals", allocationSize = 50)
     @Column(name = "idAreaRentals")
     private Integer idAreaRentals;
 
@@ -4,11 +4,27 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Listagens buscam o aluguel com recurso, cliente, plano (categoria e turno) e série num único SELECT com joins
 @Entity
+@NamedEntityGraph(name = "DeskRental.detail", attributeNodes = {
+        @NamedAttributeNode("desk"),
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "rentalPlan", subgraph = "rentalPlan"),
+        @NamedAttributeNode(value = "rentalSeries", subgraph = "rentalSeries")
+}, subgraphs = {
+        @NamedSubgraph(name = "rentalPlan", attributeNodes = {
+                @NamedAttributeNode("rentalCategory"),
+                @NamedAttributeNode("rentalShift")
+        }),
+        @NamedSubgraph(name = "rentalSeries", attributeNodes = @NamedAttributeNode("customer"))
+})
 @Table(name = "deskRentals")
 public class DeskRental {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids reservados em blocos de 50 (tabela idGenerators), o que permite ao Hibernate agrupar os inserts em batch
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "deskRentalsIdGenerator")
+    @TableGenerator(name = "deskRentalsIdGenerator", table = "idGenerators", pkColumnName = "nameIdGenerators",
+            valueColumnName = "nextValueIdGenerators", pkColumnValue = "deskRentals", allocationSize = 50)
     @Column(name = "`idDeskRentals`")
     private Integer idDeskRentals;
 
@@ -24,15 +40,20 @@ public class DeskRental {
     @JoinColumn(name = "`idRentalPlans`", referencedColumnName = "`idRentalPlans`")
     private RentalPlan rentalPlan;
 
-    @Column(name = "`startPeriodDeskRentals`")
+    @Column(name = "`startPeriodDeskRentals`", nullable = false)
     private LocalDateTime startPeriodDeskRentals;
 
-    @Column(name = "`endPeriodDeskRentals`")
+    @Column(name = "`endPeriodDeskRentals`", nullable = false)
     private LocalDateTime endPeriodDeskRentals;
 
-    @Column(name = "`totalPriceDeskRentals`")
+    @Column(name = "`totalPriceDeskRentals`", nullable = false)
     private BigDecimal totalPriceDeskRentals;
 
+    // Série recorrente à qual a ocorrência pertence (nulo para aluguel avulso)
+    @ManyToOne
+    @JoinColumn(name = "`idRentalSeries`", referencedColumnName = "`idRentalSeries`")
+    private RentalSeries rentalSeries;
+
     // Construtores
     public DeskRental() {}
 
@@ -103,4 +124,12 @@ public class DeskRental {
     public void setTotalPriceDeskRentals(BigDecimal totalPriceDeskRentals) {
         this.totalPriceDeskRentals = totalPriceDeskRentals;
     }
+
+    public RentalSeries getRentalSeries() {
+        return rentalSeries;
+    }
+
+    public void setRentalSeries(RentalSeries rentalSeries) {
+        this.rentalSeries = rentalSeries;
+    }
 }
\ No newline at end of file
@@ -3,7 +3,12 @@ package com.coworkproject.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
+// Listagens de planos trazem categoria e turno no mesmo SELECT
 @Entity
+@NamedEntityGraph(name = "RentalPlan.detail", attributeNodes = {
+        @NamedAttributeNode("rentalCategory"),
+        @NamedAttributeNode("rentalShift")
+})
 @Table(name = "rentalPlans")
 public class RentalPlan {
     @Id
@@ -0,0 +1,117 @@
+package com.coworkproject.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Série de aluguéis recorrentes; cada ocorrência é um aluguel comum que aponta para a série
+@Entity
+@Table(name = "rentalSeries")
+public class RentalSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "`idRentalSeries`")
+    private Integer idRentalSeries;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "`typeRentalSeries`", length = 10)
+    private ResourceType typeRentalSeries;
+
+    @ManyToOne
+    @JoinColumn(name = "`idCustomers`", referencedColumnName = "`idCustomers`")
+    private Customer customer;
+
+    @Column(name = "`frequencyRentalSeries`", length = 10)
+    private String frequencyRentalSeries;
+
+    @Column(name = "`daysOfWeekRentalSeries`", length = 100)
+    private String daysOfWeekRentalSeries;
+
+    @Column(name = "`firstDateRentalSeries`")
+    private LocalDate firstDateRentalSeries;
+
+    @Column(name = "`lastDateRentalSeries`")
+    private LocalDate lastDateRentalSeries;
+
+    @Column(name = "`occurrencesRentalSeries`")
+    private Integer occurrencesRentalSeries;
+
+    // Construtores
+    public RentalSeries() {}
+
+    public RentalSeries(ResourceType typeRentalSeries, Customer customer, String frequencyRentalSeries,
+                        String daysOfWeekRentalSeries, LocalDate firstDateRentalSeries,
+                        LocalDate lastDateRentalSeries, Integer occurrencesRentalSeries) {
+        this.typeRentalSeries = typeRentalSeries;
+        this.customer = customer;
+        this.frequencyRentalSeries = frequencyRentalSeries;
+        this.daysOfWeekRentalSeries = daysOfWeekRentalSeries;
+        this.firstDateRentalSeries = firstDateRentalSeries;
+        this.lastDateRentalSeries = lastDateRentalSeries;
+        this.occurrencesRentalSeries = occurrencesRentalSeries;
+    }
+
+    // Getters e Setters
+    public Integer getIdRentalSeries() {
+        return idRentalSeries;
+    }
+
+    public void setIdRentalSeries(Integer idRentalSeries) {
+        this.idRentalSeries = idRentalSeries;
+    }
+
+    public ResourceType getTypeRentalSeries() {
+        return typeRentalSeries;
+    }
+
+    public void setTypeRentalSeries(ResourceType typeRentalSeries) {
+        this.typeRentalSeries = typeRentalSeries;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    public String getFrequencyRentalSeries() {
+        return frequencyRentalSeries;
+    }
+
+    public void setFrequencyRentalSeries(String frequencyRentalSeries) {
+        this.frequencyRentalSeries = frequencyRentalSeries;
+    }
+
+    public String getDaysOfWeekRentalSeries() {
+        return daysOfWeekRentalSeries;
+    }
+
+    public void setDaysOfWeekRentalSeries(String daysOfWeekRentalSeries) {
+        this.daysOfWeekRentalSeries = daysOfWeekRentalSeries;
+    }
+
+    public LocalDate getFirstDateRentalSeries() {
+        return firstDateRentalSeries;
+    }
+
+    public void setFirstDateRentalSeries(LocalDate firstDateRentalSeries) {
+        this.firstDateRentalSeries = firstDateRentalSeries;
+    }
+
+    public LocalDate getLastDateRentalSeries() {
+        return lastDateRentalSeries;
+    }
+
+    public void setLastDateRentalSeries(LocalDate lastDateRentalSeries) {
+        this.lastDateRentalSeries = lastDateRentalSeries;
+    }
+
+    public Integer getOccurrencesRentalSeries() {
+        return occurrencesRentalSeries;
+    }
+
+    public void setOccurrencesRentalSeries(Integer occurrencesRentalSeries) {
+        this.occurrencesRentalSeries = occurrencesRentalSeries;
+    }
+}
@@ -0,0 +1,9 @@
+package com.coworkproject.model;
+
+// Tipos de recurso alugável
+public enum ResourceType {
+    DESK,
+    ROOM,
+    AREA,
+    STAND
+}
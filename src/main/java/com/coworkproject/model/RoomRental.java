@@ -4,12 +4,21 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Listagens buscam o aluguel com recurso, cliente e série num único SELECT com joins
 @Entity
+@NamedEntityGraph(name = "RoomRental.detail", attributeNodes = {
+        @NamedAttributeNode("room"),
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "rentalSeries", subgraph = "rentalSeries")
+}, subgraphs = @NamedSubgraph(name = "rentalSeries", attributeNodes = @NamedAttributeNode("customer")))
 @Table(name = "roomRentals")
 public class RoomRental {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids reservados em blocos de 50 (tabela idGenerators), o que permite ao Hibernate agrupar os inserts em batch
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "roomRentalsIdGenerator")
+    @TableGenerator(name = "roomRentalsIdGenerator", table = "idGenerators", pkColumnName = "nameIdGenerators",
+            valueColumnName = "nextValueIdGenerators", pkColumnValue = "roomRentals", allocationSize = 50)
     @Column(name = "idRoomRentals")
     private Integer idRoomRentals;
 
@@ -30,6 +39,11 @@ public class RoomRental {
     @Column(name = "totalPriceStandRentals", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalPriceStandRentals;
 
+    // Série recorrente à qual a ocorrência pertence (nulo para aluguel avulso)
+    @ManyToOne
+    @JoinColumn(name = "idRentalSeries")
+    private RentalSeries rentalSeries;
+
     // Construtores
     public RoomRental() {}
 
@@ -92,6 +106,14 @@ public class RoomRental {
         this.totalPriceStandRentals = totalPriceStandRentals;
     }
 
+    public RentalSeries getRentalSeries() {
+        return rentalSeries;
+    }
+
+    public void setRentalSeries(RentalSeries rentalSeries) {
+        this.rentalSeries = rentalSeries;
+    }
+
     // toString
     @Override
     public String toString() {
@@ -4,12 +4,24 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Listagens buscam o aluguel com recurso, cliente e plano (categoria e turno) num único SELECT com joins
 @Entity
+@NamedEntityGraph(name = "StandRental.detail", attributeNodes = {
+        @NamedAttributeNode("stand"),
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "rentalPlan", subgraph = "rentalPlan")
+}, subgraphs = @NamedSubgraph(name = "rentalPlan", attributeNodes = {
+        @NamedAttributeNode("rentalCategory"),
+        @NamedAttributeNode("rentalShift")
+}))
 @Table(name = "standRentals")
 public class StandRental {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids reservados em blocos de 50 (tabela idGenerators), o que permite ao Hibernate agrupar os inserts em batch
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "standRentalsIdGenerator")
+    @TableGenerator(name = "standRentalsIdGenerator", table = "idGenerators", pkColumnName = "nameIdGenerators",
+            valueColumnName = "nextValueIdGenerators", pkColumnValue = "standRentals", allocationSize = 50)
     @Column(name = "idStandRentals")
     private Integer idStandRentals;
 
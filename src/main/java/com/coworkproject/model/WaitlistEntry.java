@@ -0,0 +1,214 @@
+package com.coworkproject.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Pedido na fila de espera de um (recurso, período, turno). Quando o slot é liberado o pedido
+// é promovido a reserva temporária (HOLD) ou direto a aluguel (BOOKING), conforme promoteTo.
+@Entity
+@NamedEntityGraph(name = "WaitlistEntry.detail", attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "rentalPlan", subgraph = "rentalPlan")
+}, subgraphs = @NamedSubgraph(name = "rentalPlan", attributeNodes = {
+        @NamedAttributeNode("rentalCategory"),
+        @NamedAttributeNode("rentalShift")
+}))
+@Table(name = "waitlistEntries")
+public class WaitlistEntry {
+
+    public enum PromoteTo {
+        HOLD,
+        BOOKING
+    }
+
+    public enum Status {
+        WAITING,
+        PROMOTED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "`idWaitlistEntries`")
+    private Integer idWaitlistEntries;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "`typeWaitlistEntries`", length = 10)
+    private ResourceType typeWaitlistEntries;
+
+    @Column(name = "`idResourceWaitlistEntries`")
+    private Integer idResourceWaitlistEntries;
+
+    @ManyToOne
+    @JoinColumn(name = "`idCustomers`", referencedColumnName = "`idCustomers`")
+    private Customer customer;
+
+    @ManyToOne
+    @JoinColumn(name = "`idRentalPlans`", referencedColumnName = "`idRentalPlans`")
+    private RentalPlan rentalPlan;
+
+    @Column(name = "`startPeriodWaitlistEntries`")
+    private LocalDateTime startPeriodWaitlistEntries;
+
+    @Column(name = "`endPeriodWaitlistEntries`")
+    private LocalDateTime endPeriodWaitlistEntries;
+
+    @Column(name = "`totalPriceWaitlistEntries`")
+    private BigDecimal totalPriceWaitlistEntries;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "`promoteToWaitlistEntries`", length = 10)
+    private PromoteTo promoteToWaitlistEntries;
+
+    @Column(name = "`ttlSecondsWaitlistEntries`")
+    private Long ttlSecondsWaitlistEntries;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "`statusWaitlistEntries`", length = 10)
+    private Status statusWaitlistEntries;
+
+    @Column(name = "`createdAtWaitlistEntries`")
+    private LocalDateTime createdAtWaitlistEntries;
+
+    @Column(name = "`resolvedAtWaitlistEntries`")
+    private LocalDateTime resolvedAtWaitlistEntries;
+
+    // Id da reserva temporária ou do aluguel gerado na promoção
+    @Column(name = "`resultIdWaitlistEntries`")
+    private Integer resultIdWaitlistEntries;
+
+    // Construtores
+    public WaitlistEntry() {}
+
+    public WaitlistEntry(ResourceType typeWaitlistEntries, Integer idResourceWaitlistEntries, Customer customer,
+                         RentalPlan rentalPlan, LocalDateTime startPeriodWaitlistEntries,
+                         LocalDateTime endPeriodWaitlistEntries, BigDecimal totalPriceWaitlistEntries,
+                         PromoteTo promoteToWaitlistEntries, Long ttlSecondsWaitlistEntries) {
+        this.typeWaitlistEntries = typeWaitlistEntries;
+        this.idResourceWaitlistEntries = idResourceWaitlistEntries;
+        this.customer = customer;
+        this.rentalPlan = rentalPlan;
+        this.startPeriodWaitlistEntries = startPeriodWaitlistEntries;
+        this.endPeriodWaitlistEntries = endPeriodWaitlistEntries;
+        this.totalPriceWaitlistEntries = totalPriceWaitlistEntries;
+        this.promoteToWaitlistEntries = promoteToWaitlistEntries;
+        this.ttlSecondsWaitlistEntries = ttlSecondsWaitlistEntries;
+        this.statusWaitlistEntries = Status.WAITING;
+        this.createdAtWaitlistEntries = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public Integer getIdWaitlistEntries() {
+        return idWaitlistEntries;
+    }
+
+    public void setIdWaitlistEntries(Integer idWaitlistEntries) {
+        this.idWaitlistEntries = idWaitlistEntries;
+    }
+
+    public ResourceType getTypeWaitlistEntries() {
+        return typeWaitlistEntries;
+    }
+
+    public void setTypeWaitlistEntries(ResourceType typeWaitlistEntries) {
+        this.typeWaitlistEntries = typeWaitlistEntries;
+    }
+
+    public Integer getIdResourceWaitlistEntries() {
+        return idResourceWaitlistEntries;
+    }
+
+    public void setIdResourceWaitlistEntries(Integer idResourceWaitlistEntries) {
+        this.idResourceWaitlistEntries = idResourceWaitlistEntries;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    public RentalPlan getRentalPlan() {
+        return rentalPlan;
+    }
+
+    public void setRentalPlan(RentalPlan rentalPlan) {
+        this.rentalPlan = rentalPlan;
+    }
+
+    public LocalDateTime getStartPeriodWaitlistEntries() {
+        return startPeriodWaitlistEntries;
+    }
+
+    public void setStartPeriodWaitlistEntries(LocalDateTime startPeriodWaitlistEntries) {
+        this.startPeriodWaitlistEntries = startPeriodWaitlistEntries;
+    }
+
+    public LocalDateTime getEndPeriodWaitlistEntries() {
+        return endPeriodWaitlistEntries;
+    }
+
+    public void setEndPeriodWaitlistEntries(LocalDateTime endPeriodWaitlistEntries) {
+        this.endPeriodWaitlistEntries = endPeriodWaitlistEntries;
+    }
+
+    public BigDecimal getTotalPriceWaitlistEntries() {
+        return totalPriceWaitlistEntries;
+    }
+
+    public void setTotalPriceWaitlistEntries(BigDecimal totalPriceWaitlistEntries) {
+        this.totalPriceWaitlistEntries = totalPriceWaitlistEntries;
+    }
+
+    public PromoteTo getPromoteToWaitlistEntries() {
+        return promoteToWaitlistEntries;
+    }
+
+    public void setPromoteToWaitlistEntries(PromoteTo promoteToWaitlistEntries) {
+        this.promoteToWaitlistEntries = promoteToWaitlistEntries;
+    }
+
+    public Long getTtlSecondsWaitlistEntries() {
+        return ttlSecondsWaitlistEntries;
+    }
+
+    public void setTtlSecondsWaitlistEntries(Long ttlSecondsWaitlistEntries) {
+        this.ttlSecondsWaitlistEntries = ttlSecondsWaitlistEntries;
+    }
+
+    public Status getStatusWaitlistEntries() {
+        return statusWaitlistEntries;
+    }
+
+    public void setStatusWaitlistEntries(Status statusWaitlistEntries) {
+        this.statusWaitlistEntries = statusWaitlistEntries;
+    }
+
+    public LocalDateTime getCreatedAtWaitlistEntries() {
+        return createdAtWaitlistEntries;
+    }
+
+    public void setCreatedAtWaitlistEntries(LocalDateTime createdAtWaitlistEntries) {
+        this.createdAtWaitlistEntries = createdAtWaitlistEntries;
+    }
+
+    public LocalDateTime getResolvedAtWaitlistEntries() {
+        return resolvedAtWaitlistEntries;
+    }
+
+    public void setResolvedAtWaitlistEntries(LocalDateTime resolvedAtWaitlistEntries) {
+        this.resolvedAtWaitlistEntries = resolvedAtWaitlistEntries;
+    }
+
+    public Integer getResultIdWaitlistEntries() {
+        return resultIdWaitlistEntries;
+    }
+
+    public void setResultIdWaitlistEntries(Integer resultIdWaitlistEntries) {
+        this.resultIdWaitlistEntries = resultIdWaitlistEntries;
+    }
+}
@@ -1,32 +1,90 @@
 package com.coworkproject.repository;
 
 import com.coworkproject.model.AreaRental;
+import com.coworkproject.service.RentalSlot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AreaRentalRepository extends JpaRepository<AreaRental, Integer> {
 
+    // Carga completa (índices em memória e listagens sem filtro) com as associações no mesmo SELECT
+    @Override
+    @EntityGraph("AreaRental.detail")
+    List<AreaRental> findAll();
+
     // Buscar aluguéis por área
+    @EntityGraph("AreaRental.detail")
     List<AreaRental> findByAreaIdAreas(Integer areaId);
 
     // Buscar aluguéis por cliente
+    @EntityGraph("AreaRental.detail")
     List<AreaRental> findByCustomerIdCustomers(Integer customerId);
 
     // Buscar aluguéis conflitantes (para validação de datas)
     @Query("SELECT ar FROM AreaRental ar WHERE ar.area.idAreas = :areaId " +
-            "AND ((ar.startPeriodAreaRentals <= :endDate AND ar.endPeriodAreaRentals >= :startDate))")
+            "AND ar.startPeriodAreaRentals <= :endDate AND ar.endPeriodAreaRentals >= :startDate")
     List<AreaRental> findConflictingRentals(@Param("areaId") Integer areaId,
                                             @Param("startDate") LocalDateTime startDate,
                                             @Param("endDate") LocalDateTime endDate);
 
+    // Aluguéis de várias áreas que tocam a janela de um lote (uma consulta valida o lote inteiro)
+    @Query("SELECT ar FROM AreaRental ar WHERE ar.area.idAreas IN :areaIds " +
+            "AND ar.startPeriodAreaRentals <= :endDate AND ar.endPeriodAreaRentals >= :startDate")
+    List<AreaRental> findConflictingRentalsIn(@Param("areaIds") Collection<Integer> areaIds,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
+
     // Buscar aluguéis ativos
-    @Query("SELECT ar FROM AreaRental ar WHERE ar.startPeriodAreaRentals <= :currentDate " +
-            "AND ar.endPeriodAreaRentals >= :currentDate")
+    @Query("SELECT ar FROM AreaRental ar WHERE ar.endPeriodAreaRentals >= :currentDate " +
+            "AND ar.startPeriodAreaRentals <= :currentDate")
+    @EntityGraph("AreaRental.detail")
     List<AreaRental> findActiveRentals(@Param("currentDate") LocalDateTime currentDate);
-}
\ No newline at end of file
+
+    // Página da listagem (keyset)
+    @EntityGraph("AreaRental.detail")
+    Window<AreaRental> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por área
+    @EntityGraph("AreaRental.detail")
+    Window<AreaRental> findByAreaIdAreas(Integer areaId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por cliente
+    @EntityGraph("AreaRental.detail")
+    Window<AreaRental> findByCustomerIdCustomers(Integer customerId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Visão geral do cliente: aluguéis que ainda não terminaram (em andamento e a começar)
+    @EntityGraph("AreaRental.detail")
+    List<AreaRental> findByCustomerIdCustomersAndEndPeriodAreaRentalsAfter(Integer customerId, LocalDateTime now);
+
+    // Visão geral do cliente: os encerrados mais recentes, até o limite
+    @EntityGraph("AreaRental.detail")
+    List<AreaRental> findByCustomerIdCustomersAndEndPeriodAreaRentalsLessThanEqualOrderByStartPeriodAreaRentalsDesc(Integer customerId, LocalDateTime now, Limit limit);
+
+    // Total gasto pelo cliente em aluguéis de área, somado no banco
+    @Query("SELECT COALESCE(SUM(r.totalPriceStandRentals), 0) FROM AreaRental r WHERE r.customer.idCustomers = :customerId")
+    BigDecimal sumTotalPriceByCustomer(@Param("customerId") Integer customerId);
+
+    // Aluguéis ainda não encerrados (carga do snapshot de ativos: os vigentes e os que vão começar)
+    @EntityGraph("AreaRental.detail")
+    List<AreaRental> findByEndPeriodAreaRentalsGreaterThanEqual(LocalDateTime endFrom);
+
+    // Slots dos aluguéis que tocam a janela [from, to] (carga do índice de disponibilidade), só com as colunas do slot
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.AREA, r.idAreaRentals, " +
+            "r.area.idAreas, r.customer.idCustomers, CAST(NULL AS Integer), CAST(NULL AS Integer), CAST(NULL AS String), " +
+            "CAST(NULL AS LocalTime), CAST(NULL AS LocalTime), r.startPeriodAreaRentals, r.endPeriodAreaRentals, r.totalPriceStandRentals) " +
+            "FROM AreaRental r WHERE r.endPeriodAreaRentals >= :from AND r.startPeriodAreaRentals <= :to")
+    List<RentalSlot> findSlotsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
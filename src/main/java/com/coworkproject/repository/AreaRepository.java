@@ -2,6 +2,7 @@ package com.coworkproject.repository;
 
 import com.coworkproject.model.Area;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface AreaRepository extends JpaRepository<Area, Integer> {
+public interface AreaRepository extends JpaRepository<Area, Integer>, JpaSpecificationExecutor<Area> {
 
     // Buscar por número (único)
     Optional<Area> findByNumberAreas(Integer numberAreas);
@@ -30,4 +31,4 @@ public interface AreaRepository extends JpaRepository<Area, Integer> {
     // Verificar se existe por nome excluindo um ID específico (para update)
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Area a WHERE a.nameAreas = :name AND a.idAreas != :id")
     boolean existsByNameAreasAndIdAreasNot(@Param("name") String name, @Param("id") Integer id);
-}
\ No newline at end of file
+}
@@ -1,31 +1,48 @@
 package com.coworkproject.repository;
 
 import com.coworkproject.model.DeskRental;
+import com.coworkproject.service.RentalSlot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
 public interface DeskRentalRepository extends JpaRepository<DeskRental, Integer> {
 
+    // Carga completa (índices em memória e listagens sem filtro) com as associações no mesmo SELECT
+    @Override
+    @EntityGraph("DeskRental.detail")
+    List<DeskRental> findAll();
+
     // Buscar aluguéis por cliente
+    @EntityGraph("DeskRental.detail")
     List<DeskRental> findByCustomerIdCustomers(Integer customerId);
 
+    // Buscar ocorrências de uma série recorrente
+    @EntityGraph("DeskRental.detail")
+    List<DeskRental> findByRentalSeriesIdRentalSeriesOrderByStartPeriodDeskRentals(Integer rentalSeriesId);
+
     // Buscar aluguéis por mesa
+    @EntityGraph("DeskRental.detail")
     List<DeskRental> findByDeskIdDesks(Integer deskId);
 
     // Buscar aluguéis por plano
+    @EntityGraph("DeskRental.detail")
     List<DeskRental> findByRentalPlanIdRentalPlans(Integer rentalPlanId);
 
     // NOVO MÉTODO - Verificação de conflitos baseada em sobreposição de horários
-    @Query("SELECT dr FROM DeskRental dr WHERE dr.desk.idDesks = :deskId AND " +
-            "((:startDate BETWEEN dr.startPeriodDeskRentals AND dr.endPeriodDeskRentals) OR " +
-            "(:endDate BETWEEN dr.startPeriodDeskRentals AND dr.endPeriodDeskRentals) OR " +
-            "(dr.startPeriodDeskRentals BETWEEN :startDate AND :endDate) OR " +
-            "(dr.endPeriodDeskRentals BETWEEN :startDate AND :endDate))")
+    // Forma "início <= fim novo AND fim >= início novo" (equivale aos BETWEEN) para usar o índice (mesa, início, fim)
+    @Query("SELECT dr FROM DeskRental dr WHERE dr.desk.idDesks = :deskId " +
+            "AND dr.startPeriodDeskRentals <= :endDate AND dr.endPeriodDeskRentals >= :startDate")
     List<DeskRental> findTimeRangeConflicts(
             @Param("deskId") Integer deskId,
             @Param("startDate") LocalDateTime startDate,
@@ -33,6 +50,61 @@ public interface DeskRentalRepository extends JpaRepository<DeskRental, Integer>
     );
 
     // Buscar aluguéis ativos (que estão no período de vigência)
-    @Query("SELECT dr FROM DeskRental dr WHERE :currentDate BETWEEN dr.startPeriodDeskRentals AND dr.endPeriodDeskRentals")
+    @Query("SELECT dr FROM DeskRental dr WHERE dr.endPeriodDeskRentals >= :currentDate " +
+            "AND dr.startPeriodDeskRentals <= :currentDate")
+    @EntityGraph("DeskRental.detail")
     List<DeskRental> findActiveRentals(@Param("currentDate") LocalDateTime currentDate);
-}
\ No newline at end of file
+
+    // Página da listagem (keyset)
+    @EntityGraph("DeskRental.detail")
+    Window<DeskRental> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por mesa
+    @EntityGraph("DeskRental.detail")
+    Window<DeskRental> findByDeskIdDesks(Integer deskId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por cliente
+    @EntityGraph("DeskRental.detail")
+    Window<DeskRental> findByCustomerIdCustomers(Integer customerId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Visão geral do cliente: aluguéis que ainda não terminaram (em andamento e a começar)
+    @EntityGraph("DeskRental.detail")
+    List<DeskRental> findByCustomerIdCustomersAndEndPeriodDeskRentalsAfter(Integer customerId, LocalDateTime now);
+
+    // Visão geral do cliente: os encerrados mais recentes, até o limite
+    @EntityGraph("DeskRental.detail")
+    List<DeskRental> findByCustomerIdCustomersAndEndPeriodDeskRentalsLessThanEqualOrderByStartPeriodDeskRentalsDesc(Integer customerId, LocalDateTime now, Limit limit);
+
+    // Total gasto pelo cliente em aluguéis de mesa, somado no banco
+    @Query("SELECT COALESCE(SUM(r.totalPriceDeskRentals), 0) FROM DeskRental r WHERE r.customer.idCustomers = :customerId")
+    BigDecimal sumTotalPriceByCustomer(@Param("customerId") Integer customerId);
+
+    // Aluguéis ainda não encerrados (carga do snapshot de ativos: os vigentes e os que vão começar)
+    @EntityGraph("DeskRental.detail")
+    List<DeskRental> findByEndPeriodDeskRentalsGreaterThanEqual(LocalDateTime endFrom);
+
+    // Slots dos aluguéis que terminam a partir de endFrom (carga dos índices de conflito): só as colunas do slot,
+    // sem montar entidades
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.DESK, r.idDeskRentals, " +
+            "r.desk.idDesks, r.customer.idCustomers, p.idRentalPlans, s.idRentalShifts, s.nameRentalShifts, " +
+            "s.startTimeRentalShifts, s.endTimeRentalShifts, r.startPeriodDeskRentals, r.endPeriodDeskRentals, r.totalPriceDeskRentals) " +
+            "FROM DeskRental r LEFT JOIN r.rentalPlan p LEFT JOIN p.rentalShift s WHERE r.endPeriodDeskRentals >= :endFrom")
+    List<RentalSlot> findSlotsEndingFrom(@Param("endFrom") LocalDateTime endFrom);
+
+    // Slots dos aluguéis do mesa que tocam o período (conflito de reserva retroativa, fora do índice em memória)
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.DESK, r.idDeskRentals, " +
+            "r.desk.idDesks, r.customer.idCustomers, p.idRentalPlans, s.idRentalShifts, s.nameRentalShifts, " +
+            "s.startTimeRentalShifts, s.endTimeRentalShifts, r.startPeriodDeskRentals, r.endPeriodDeskRentals, r.totalPriceDeskRentals) " +
+            "FROM DeskRental r LEFT JOIN r.rentalPlan p LEFT JOIN p.rentalShift s WHERE r.desk.idDesks = :deskId " +
+            "AND r.startPeriodDeskRentals <= :endDate AND r.endPeriodDeskRentals >= :startDate")
+    List<RentalSlot> findSlotsOverlapping(@Param("deskId") Integer deskId,
+                                          @Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    // Slots dos aluguéis que tocam a janela [from, to] (carga do índice de disponibilidade), só com as colunas do slot
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.DESK, r.idDeskRentals, " +
+            "r.desk.idDesks, r.customer.idCustomers, p.idRentalPlans, s.idRentalShifts, s.nameRentalShifts, " +
+            "s.startTimeRentalShifts, s.endTimeRentalShifts, r.startPeriodDeskRentals, r.endPeriodDeskRentals, r.totalPriceDeskRentals) " +
+            "FROM DeskRental r LEFT JOIN r.rentalPlan p LEFT JOIN p.rentalShift s WHERE r.endPeriodDeskRentals >= :from AND r.startPeriodDeskRentals <= :to")
+    List<RentalSlot> findSlotsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
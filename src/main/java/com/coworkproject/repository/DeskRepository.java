@@ -2,9 +2,10 @@ package com.coworkproject.repository;
 
 import com.coworkproject.model.Desk;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import java.util.Optional;
 
-public interface DeskRepository extends JpaRepository<Desk, Integer> {
+public interface DeskRepository extends JpaRepository<Desk, Integer>, JpaSpecificationExecutor<Desk> {
 
     // Método para buscar por número da mesa
     Optional<Desk> findByNumberDesks(Integer numberDesks);
@@ -17,4 +18,4 @@ public interface DeskRepository extends JpaRepository<Desk, Integer> {
 
     // Método para verificar se nome já existe
     boolean existsByNameDesks(String nameDesks);
-}
\ No newline at end of file
+}
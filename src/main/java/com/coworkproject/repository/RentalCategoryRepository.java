@@ -2,13 +2,14 @@ package com.coworkproject.repository;
 
 import com.coworkproject.model.RentalCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import java.util.Optional;
 
-public interface RentalCategoryRepository extends JpaRepository<RentalCategory, Integer> {
+public interface RentalCategoryRepository extends JpaRepository<RentalCategory, Integer>, JpaSpecificationExecutor<RentalCategory> {
 
     // Método para buscar por nome
     Optional<RentalCategory> findByNameRentalCategories(String nameRentalCategories);
 
     // Método para verificar se nome já existe
     boolean existsByNameRentalCategories(String nameRentalCategories);
-}
\ No newline at end of file
+}
@@ -1,7 +1,10 @@
 package com.coworkproject.repository;
 
 import com.coworkproject.model.RentalPlan;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -9,12 +12,19 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
-public interface RentalPlanRepository extends JpaRepository<RentalPlan, Integer> {
+public interface RentalPlanRepository extends JpaRepository<RentalPlan, Integer>, JpaSpecificationExecutor<RentalPlan> {
+
+    // Carga completa (índices em memória e listagens sem filtro) com as associações no mesmo SELECT
+    @Override
+    @EntityGraph("RentalPlan.detail")
+    List<RentalPlan> findAll();
 
     // Buscar planos por categoria
+    @EntityGraph("RentalPlan.detail")
     List<RentalPlan> findByRentalCategoryIdRentalCategories(Integer categoryId);
 
     // Buscar planos por turno
+    @EntityGraph("RentalPlan.detail")
     List<RentalPlan> findByRentalShiftIdRentalShifts(Integer shiftId);
 
     // Buscar plano por nome
@@ -28,15 +38,31 @@ public interface RentalPlanRepository extends JpaRepository<RentalPlan, Integer>
             Integer categoryId, Integer shiftId);
 
     // Buscar planos com preço menor ou igual a um valor
+    @EntityGraph("RentalPlan.detail")
     List<RentalPlan> findByPriceRentalPlansLessThanEqual(BigDecimal maxPrice);
 
     // Buscar planos com preço entre dois valores
+    @EntityGraph("RentalPlan.detail")
     List<RentalPlan> findByPriceRentalPlansBetween(BigDecimal minPrice, BigDecimal maxPrice);
 
     // Buscar planos por categoria, turno e preço máximo
     @Query("SELECT rp FROM RentalPlan rp WHERE rp.rentalCategory.idRentalCategories = :categoryId " +
             "AND rp.rentalShift.idRentalShifts = :shiftId AND rp.priceRentalPlans <= :maxPrice")
+    @EntityGraph("RentalPlan.detail")
     List<RentalPlan> findPlansByCategoryShiftAndMaxPrice(@Param("categoryId") Integer categoryId,
                                                          @Param("shiftId") Integer shiftId,
                                                          @Param("maxPrice") BigDecimal maxPrice);
-}
\ No newline at end of file
+
+    // Filtros das listagens paginadas (KeysetPaging.scroll)
+    static Specification<RentalPlan> inCategory(Integer categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("rentalCategory").get("idRentalCategories"), categoryId);
+    }
+
+    static Specification<RentalPlan> inShift(Integer shiftId) {
+        return (root, query, cb) -> cb.equal(root.get("rentalShift").get("idRentalShifts"), shiftId);
+    }
+
+    static Specification<RentalPlan> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.between(root.get("priceRentalPlans"), minPrice, maxPrice);
+    }
+}
@@ -0,0 +1,14 @@
+package com.coworkproject.repository;
+
+import com.coworkproject.model.RentalSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RentalSeriesRepository extends JpaRepository<RentalSeries, Integer> {
+
+    // Buscar séries por cliente
+    List<RentalSeries> findByCustomerIdCustomers(Integer customerId);
+}
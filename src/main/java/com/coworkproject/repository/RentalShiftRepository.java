@@ -2,13 +2,14 @@ package com.coworkproject.repository;
 
 import com.coworkproject.model.RentalShift;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import java.util.Optional;
 
-public interface RentalShiftRepository extends JpaRepository<RentalShift, Integer> {
+public interface RentalShiftRepository extends JpaRepository<RentalShift, Integer>, JpaSpecificationExecutor<RentalShift> {
 
     // Método para buscar por nome
     Optional<RentalShift> findByNameRentalShifts(String nameRentalShifts);
 
     // Método para verificar se nome já existe
     boolean existsByNameRentalShifts(String nameRentalShifts);
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package com.coworkproject.repository;
+
+import com.coworkproject.dto.RentalView;
+import com.coworkproject.model.ResourceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Aluguéis dos quatro tipos numa única consulta UNION ALL (uma ida ao banco no lugar de quatro listagens).
+// Cada ramo já filtra, ordena por (início, id) e limita pela página, usando os índices de período e de cliente;
+// o UNION externo só intercala no máximo (limite + 1) linhas por tipo.
+@Repository
+public class RentalViewRepository {
+
+    // Colunas de cada tabela de aluguel (salas e áreas usam as colunas "AreaRentals"/"StandRentals" do esquema original)
+    private record Branch(ResourceType type, String table, String id, String resourceTable, String resourceId,
+                          String resourceName, String start, String end, String price, boolean hasPlan, boolean hasSeries) {
+    }
+
+    private static final Map<ResourceType, Branch> BRANCHES = Map.of(
+            ResourceType.DESK, new Branch(ResourceType.DESK, "deskRentals", "idDeskRentals", "desks", "idDesks", "nameDesks",
+                    "startPeriodDeskRentals", "endPeriodDeskRentals", "totalPriceDeskRentals", true, true),
+            ResourceType.ROOM, new Branch(ResourceType.ROOM, "roomRentals", "idRoomRentals", "rooms", "idRooms", "nameRooms",
+                    "startPeriodAreaRentals", "endPeriodAreaRentals", "totalPriceStandRentals", false, true),
+            ResourceType.AREA, new Branch(ResourceType.AREA, "areaRentals", "idAreaRentals", "areas", "idAreas", "nameAreas",
+                    "startPeriodAreaRentals", "endPeriodAreaRentals", "totalPriceStandRentals", false, false),
+            ResourceType.STAND, new Branch(ResourceType.STAND, "standRentals", "idStandRentals", "stands", "idStands", "nameStands",
+                    "startPeriodStandRentals", "endPeriodStandRentals", "totalPriceStandRentals", true, false)
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RentalViewRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Até limit linhas na ordem (início, tipo, id), crescente ou decrescente. periodFrom/periodUntil filtram por
+    // sobreposição com [periodFrom, periodUntil); afterStart/afterType/afterId são a última linha da página anterior.
+    public List<RentalView> find(Set<ResourceType> types, Integer customerId,
+                                 LocalDateTime periodFrom, LocalDateTime periodUntil,
+                                 boolean descending,
+                                 LocalDateTime afterStart, ResourceType afterType, Integer afterId,
+                                 int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("customerId", customerId)
+                .addValue("periodFrom", periodFrom != null ? Timestamp.valueOf(periodFrom) : null)
+                .addValue("periodUntil", periodUntil != null ? Timestamp.valueOf(periodUntil) : null)
+                .addValue("afterStart", afterStart != null ? Timestamp.valueOf(afterStart) : null)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+
+        String direction = descending ? "DESC" : "ASC";
+        List<String> selects = new ArrayList<>();
+        for (ResourceType type : ResourceType.values()) {
+            if (types.contains(type)) {
+                selects.add("(" + branchSql(BRANCHES.get(type), customerId != null, periodFrom != null, periodUntil != null,
+                        descending, afterStart != null ? afterType : null) + " ORDER BY r.`" + BRANCHES.get(type).start() + "` "
+                        + direction + ", r.`" + BRANCHES.get(type).id() + "` " + direction + " LIMIT :limit)");
+            }
+        }
+        if (selects.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = String.join(" UNION ALL ", selects)
+                + " ORDER BY `startPeriod` " + direction + ", `type` " + direction + ", `idRental` " + direction
+                + " LIMIT :limit";
+
+        return jdbcTemplate.query(sql, params, (resultSet, rowNum) -> new RentalView(
+                ResourceType.valueOf(resultSet.getString("type")),
+                resultSet.getInt("idRental"),
+                resultSet.getObject("idResource", Integer.class),
+                resultSet.getString("resourceName"),
+                resultSet.getObject("idCustomers", Integer.class),
+                resultSet.getString("customerName"),
+                resultSet.getObject("idRentalPlans", Integer.class),
+                resultSet.getString("planName"),
+                resultSet.getString("shiftName"),
+                resultSet.getObject("startPeriod", LocalDateTime.class),
+                resultSet.getObject("endPeriod", LocalDateTime.class),
+                resultSet.getBigDecimal("totalPrice"),
+                resultSet.getObject("idRentalSeries", Integer.class)
+        ));
+    }
+
+    private static String branchSql(Branch branch, boolean byCustomer, boolean hasFrom, boolean hasUntil,
+                                    boolean descending, ResourceType afterType) {
+        StringBuilder sql = new StringBuilder("SELECT '").append(branch.type().name()).append("' AS `type`, ")
+                .append("r.`").append(branch.id()).append("` AS `idRental`, ")
+                .append("r.`").append(branch.resourceId()).append("` AS `idResource`, ")
+                .append("res.`").append(branch.resourceName()).append("` AS `resourceName`, ")
+                .append("r.`idCustomers` AS `idCustomers`, c.`nameCustomers` AS `customerName`, ")
+                .append(branch.hasPlan()
+                        ? "r.`idRentalPlans` AS `idRentalPlans`, p.`planNameRentalPlans` AS `planName`, s.`nameRentalShifts` AS `shiftName`, "
+                        : "NULL AS `idRentalPlans`, NULL AS `planName`, NULL AS `shiftName`, ")
+                .append("r.`").append(branch.start()).append("` AS `startPeriod`, ")
+                .append("r.`").append(branch.end()).append("` AS `endPeriod`, ")
+                .append("r.`").append(branch.price()).append("` AS `totalPrice`, ")
+                .append(branch.hasSeries() ? "r.`idRentalSeries`" : "NULL").append(" AS `idRentalSeries`")
+                .append(" FROM `").append(branch.table()).append("` r")
+                .append(" LEFT JOIN `").append(branch.resourceTable()).append("` res ON res.`").append(branch.resourceId())
+                .append("` = r.`").append(branch.resourceId()).append("`")
+                .append(" LEFT JOIN `customers` c ON c.`idCustomers` = r.`idCustomers`");
+        if (branch.hasPlan()) {
+            sql.append(" LEFT JOIN `rentalPlans` p ON p.`idRentalPlans` = r.`idRentalPlans`")
+                    .append(" LEFT JOIN `rentalShifts` s ON s.`idRentalShifts` = p.`idRentalShifts`");
+        }
+
+        List<String> conditions = new ArrayList<>();
+        if (byCustomer) {
+            conditions.add("r.`idCustomers` = :customerId");
+        }
+        // Sobreposição com o período: começa antes do fim da janela e termina depois do início
+        if (hasUntil) {
+            conditions.add("r.`" + branch.start() + "` < :periodUntil");
+        }
+        if (hasFrom) {
+            conditions.add("r.`" + branch.end() + "` >= :periodFrom");
+        }
+        // Keyset: dentro do ramo o tipo é constante, então a comparação (início, tipo, id) vira uma faixa no início
+        if (afterType != null) {
+            String after = descending ? "<" : ">";
+            int typeOrder = branch.type().name().compareTo(afterType.name());
+            boolean typeAfter = descending ? typeOrder < 0 : typeOrder > 0;
+            String start = "r.`" + branch.start() + "`";
+            if (typeOrder == 0) {
+                conditions.add("(" + start + " " + after + " :afterStart OR (" + start + " = :afterStart AND r.`"
+                        + branch.id() + "` " + after + " :afterId))");
+            } else {
+                conditions.add(start + " " + after + (typeAfter ? "= " : " ") + ":afterStart");
+            }
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package com.coworkproject.repository;
+
+import com.coworkproject.model.ResourceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Relatórios de receita sobre a tabela revenueRollups (V8), que os triggers das tabelas de aluguel mantêm
+// na mesma transação de cada escrita: uma linha por (dia de início, tipo, plano, turno), então um período
+// de anos lê no máximo dias x tipos x planos linhas, não importa quantos aluguéis existam.
+@Repository
+public class RevenueRollupRepository {
+
+    // Primeiro e último dia com aluguel ou com linha agregada
+    public record DayRange(LocalDate first, LocalDate last) {
+    }
+
+    // Agrupamentos aceitos: nome na API -> colunas do SELECT (os nomes de plano e turno vêm do catálogo)
+    public static final Map<String, String> GROUPS = Map.of(
+            "day", "r.`dayRevenueRollups` AS `day`",
+            "month", "DATE_FORMAT(r.`dayRevenueRollups`, '%Y-%m') AS `month`",
+            "type", "r.`typeRevenueRollups` AS `type`",
+            "plan", "NULLIF(r.`idRentalPlans`, 0) AS `plan`, MAX(p.`planNameRentalPlans`) AS `planName`",
+            "shift", "NULLIF(r.`idRentalShifts`, 0) AS `shift`, MAX(s.`nameRentalShifts`) AS `shiftName`"
+    );
+
+    // Mesma regra dos triggers: dia de início, plano e turno atuais do plano, 0 para sem plano/turno
+    private static final String SOURCE = """
+            SELECT DATE(dr.`startPeriodDeskRentals`) AS `day`, 'DESK' AS `type`, COALESCE(dr.`idRentalPlans`, 0) AS `plan`,
+                   COALESCE(p.`idRentalShifts`, 0) AS `shift`, COALESCE(dr.`totalPriceDeskRentals`, 0) AS `price`
+            FROM `deskRentals` dr LEFT JOIN `rentalPlans` p ON p.`idRentalPlans` = dr.`idRentalPlans`
+            WHERE dr.`startPeriodDeskRentals` >= :from AND dr.`startPeriodDeskRentals` < :until
+            UNION ALL
+            SELECT DATE(rr.`startPeriodAreaRentals`), 'ROOM', 0, 0, COALESCE(rr.`totalPriceStandRentals`, 0)
+            FROM `roomRentals` rr
+            WHERE rr.`startPeriodAreaRentals` >= :from AND rr.`startPeriodAreaRentals` < :until
+            UNION ALL
+            SELECT DATE(ar.`startPeriodAreaRentals`), 'AREA', 0, 0, COALESCE(ar.`totalPriceStandRentals`, 0)
+            FROM `areaRentals` ar
+            WHERE ar.`startPeriodAreaRentals` >= :from AND ar.`startPeriodAreaRentals` < :until
+            UNION ALL
+            SELECT DATE(sr.`startPeriodStandRentals`), 'STAND', COALESCE(sr.`idRentalPlans`, 0),
+                   COALESCE(p.`idRentalShifts`, 0), COALESCE(sr.`totalPriceStandRentals`, 0)
+            FROM `standRentals` sr LEFT JOIN `rentalPlans` p ON p.`idRentalPlans` = sr.`idRentalPlans`
+            WHERE sr.`startPeriodStandRentals` >= :from AND sr.`startPeriodStandRentals` < :until
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RevenueRollupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Receita e quantidade de aluguéis que começam em [from, to] (dias inteiros), agrupadas na ordem pedida.
+    // Linhas zeradas (aluguéis criados e excluídos) ficam de fora.
+    public List<Map<String, Object>> find(LocalDate from, LocalDate to, Set<ResourceType> types, List<String> groups) {
+        List<String> selects = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (String group : groups) {
+            selects.add(GROUPS.get(group));
+            // Apelidos sem coincidir com colunas das tabelas do FROM
+            keys.add("`" + group + "`");
+        }
+        selects.add("SUM(r.`totalRevenueRollups`) AS `revenue`");
+        selects.add("SUM(r.`rentalsRevenueRollups`) AS `rentals`");
+
+        String sql = "SELECT " + String.join(", ", selects) + " FROM `revenueRollups` r"
+                + " LEFT JOIN `rentalPlans` p ON p.`idRentalPlans` = r.`idRentalPlans`"
+                + " LEFT JOIN `rentalShifts` s ON s.`idRentalShifts` = r.`idRentalShifts`"
+                + " WHERE r.`dayRevenueRollups` BETWEEN :from AND :to AND r.`typeRevenueRollups` IN (:types)"
+                + (keys.isEmpty() ? "" : " GROUP BY " + String.join(", ", keys))
+                + " HAVING SUM(r.`rentalsRevenueRollups`) <> 0 OR SUM(r.`totalRevenueRollups`) <> 0"
+                + (keys.isEmpty() ? "" : " ORDER BY " + String.join(", ", keys));
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to))
+                .addValue("types", types.stream().map(ResourceType::name).toList());
+
+        return jdbcTemplate.query(sql, params, (resultSet, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String group : groups) {
+                switch (group) {
+                    case "day" -> row.put("day", resultSet.getObject("day", LocalDate.class));
+                    case "month" -> row.put("month", resultSet.getString("month"));
+                    case "type" -> row.put("type", resultSet.getString("type"));
+                    case "plan" -> {
+                        row.put("idRentalPlans", resultSet.getObject("plan", Integer.class));
+                        row.put("planName", resultSet.getString("planName"));
+                    }
+                    case "shift" -> {
+                        row.put("idRentalShifts", resultSet.getObject("shift", Integer.class));
+                        row.put("shiftName", resultSet.getString("shiftName"));
+                    }
+                    default -> throw new IllegalArgumentException("Agrupamento inválido: " + group);
+                }
+            }
+            BigDecimal revenue = resultSet.getBigDecimal("revenue");
+            row.put("revenue", revenue != null ? revenue : BigDecimal.ZERO);
+            row.put("rentals", resultSet.getLong("rentals"));
+            return row;
+        });
+    }
+
+    // Refaz as linhas dos dias [from, to] a partir das tabelas de aluguel (carga de histórico ou correção).
+    // Quem chama abre a transação e limita a faixa. O DELETE trava as linhas e os intervalos da faixa na tabela agregada
+    // (REPEATABLE READ, o padrão do InnoDB), então as escritas de aluguel com início nesses dias esperam o commit nos
+    // triggers. A soma dos aluguéis vem depois, numa leitura consistente sem lock: não trava as tabelas de aluguel e
+    // já enxerga tudo o que foi gravado antes do DELETE.
+    public int rebuild(LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to))
+                .addValue("until", Date.valueOf(to.plusDays(1)));
+
+        jdbcTemplate.update("DELETE FROM `revenueRollups` WHERE `dayRevenueRollups` BETWEEN :from AND :to", params);
+        List<MapSqlParameterSource> rows = jdbcTemplate.query("SELECT r.`day`, r.`type`, r.`plan`, r.`shift`, "
+                + "SUM(r.`price`) AS `total`, COUNT(*) AS `rentals` FROM (" + SOURCE + ") r "
+                + "GROUP BY r.`day`, r.`type`, r.`plan`, r.`shift`", params, (resultSet, rowNum) -> new MapSqlParameterSource()
+                .addValue("day", resultSet.getDate("day"))
+                .addValue("type", resultSet.getString("type"))
+                .addValue("plan", resultSet.getInt("plan"))
+                .addValue("shift", resultSet.getInt("shift"))
+                .addValue("total", resultSet.getBigDecimal("total"))
+                .addValue("rentals", resultSet.getInt("rentals")));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, "
+                + "`idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`) "
+                + "VALUES (:day, :type, :plan, :shift, :total, :rentals)", rows.toArray(new MapSqlParameterSource[0]));
+        return rows.size();
+    }
+
+    // Faixa que uma reconstrução completa precisa cobrir: dias com aluguel e dias com linha agregada (que pode estar órfã)
+    public Optional<DayRange> dayRange() {
+        return jdbcTemplate.query("SELECT MIN(d.`first`) AS `first`, MAX(d.`last`) AS `last` FROM ("
+                + "SELECT MIN(DATE(`startPeriodDeskRentals`)) AS `first`, MAX(DATE(`startPeriodDeskRentals`)) AS `last` FROM `deskRentals` "
+                + "UNION ALL SELECT MIN(DATE(`startPeriodAreaRentals`)), MAX(DATE(`startPeriodAreaRentals`)) FROM `roomRentals` "
+                + "UNION ALL SELECT MIN(DATE(`startPeriodAreaRentals`)), MAX(DATE(`startPeriodAreaRentals`)) FROM `areaRentals` "
+                + "UNION ALL SELECT MIN(DATE(`startPeriodStandRentals`)), MAX(DATE(`startPeriodStandRentals`)) FROM `standRentals` "
+                + "UNION ALL SELECT MIN(`dayRevenueRollups`), MAX(`dayRevenueRollups`) FROM `revenueRollups`) d",
+                new MapSqlParameterSource(), (resultSet, rowNum) -> {
+                    LocalDate first = resultSet.getObject("first", LocalDate.class);
+                    LocalDate last = resultSet.getObject("last", LocalDate.class);
+                    return first != null ? Optional.of(new DayRange(first, last)) : Optional.<DayRange>empty();
+                }).get(0);
+    }
+}
@@ -1,32 +1,94 @@
 package com.coworkproject.repository;
 
 import com.coworkproject.model.RoomRental;
+import com.coworkproject.service.RentalSlot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface RoomRentalRepository extends JpaRepository<RoomRental, Integer> {
 
+    // Carga completa (índices em memória e listagens sem filtro) com as associações no mesmo SELECT
+    @Override
+    @EntityGraph("RoomRental.detail")
+    List<RoomRental> findAll();
+
     // Buscar aluguéis por sala
+    @EntityGraph("RoomRental.detail")
     List<RoomRental> findByRoomIdRooms(Integer roomId);
 
     // Buscar aluguéis por cliente
+    @EntityGraph("RoomRental.detail")
     List<RoomRental> findByCustomerIdCustomers(Integer customerId);
 
+    // Buscar ocorrências de uma série recorrente
+    @EntityGraph("RoomRental.detail")
+    List<RoomRental> findByRentalSeriesIdRentalSeriesOrderByStartPeriodAreaRentals(Integer rentalSeriesId);
+
     // Buscar aluguéis conflitantes (para validação de datas)
     @Query("SELECT rr FROM RoomRental rr WHERE rr.room.idRooms = :roomId " +
-            "AND ((rr.startPeriodAreaRentals <= :endDate AND rr.endPeriodAreaRentals >= :startDate))")
+            "AND rr.startPeriodAreaRentals <= :endDate AND rr.endPeriodAreaRentals >= :startDate")
     List<RoomRental> findConflictingRentals(@Param("roomId") Integer roomId,
                                             @Param("startDate") LocalDateTime startDate,
                                             @Param("endDate") LocalDateTime endDate);
 
+    // Aluguéis de várias salas que tocam a janela de um lote (uma consulta valida o lote inteiro)
+    @Query("SELECT rr FROM RoomRental rr WHERE rr.room.idRooms IN :roomIds " +
+            "AND rr.startPeriodAreaRentals <= :endDate AND rr.endPeriodAreaRentals >= :startDate")
+    List<RoomRental> findConflictingRentalsIn(@Param("roomIds") Collection<Integer> roomIds,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
+
     // Buscar aluguéis ativos
-    @Query("SELECT rr FROM RoomRental rr WHERE rr.startPeriodAreaRentals <= :currentDate " +
-            "AND rr.endPeriodAreaRentals >= :currentDate")
+    @Query("SELECT rr FROM RoomRental rr WHERE rr.endPeriodAreaRentals >= :currentDate " +
+            "AND rr.startPeriodAreaRentals <= :currentDate")
+    @EntityGraph("RoomRental.detail")
     List<RoomRental> findActiveRentals(@Param("currentDate") LocalDateTime currentDate);
-}
\ No newline at end of file
+
+    // Página da listagem (keyset)
+    @EntityGraph("RoomRental.detail")
+    Window<RoomRental> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por sala
+    @EntityGraph("RoomRental.detail")
+    Window<RoomRental> findByRoomIdRooms(Integer roomId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por cliente
+    @EntityGraph("RoomRental.detail")
+    Window<RoomRental> findByCustomerIdCustomers(Integer customerId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Visão geral do cliente: aluguéis que ainda não terminaram (em andamento e a começar)
+    @EntityGraph("RoomRental.detail")
+    List<RoomRental> findByCustomerIdCustomersAndEndPeriodAreaRentalsAfter(Integer customerId, LocalDateTime now);
+
+    // Visão geral do cliente: os encerrados mais recentes, até o limite
+    @EntityGraph("RoomRental.detail")
+    List<RoomRental> findByCustomerIdCustomersAndEndPeriodAreaRentalsLessThanEqualOrderByStartPeriodAreaRentalsDesc(Integer customerId, LocalDateTime now, Limit limit);
+
+    // Total gasto pelo cliente em aluguéis de sala, somado no banco
+    @Query("SELECT COALESCE(SUM(r.totalPriceStandRentals), 0) FROM RoomRental r WHERE r.customer.idCustomers = :customerId")
+    BigDecimal sumTotalPriceByCustomer(@Param("customerId") Integer customerId);
+
+    // Aluguéis ainda não encerrados (carga do snapshot de ativos: os vigentes e os que vão começar)
+    @EntityGraph("RoomRental.detail")
+    List<RoomRental> findByEndPeriodAreaRentalsGreaterThanEqual(LocalDateTime endFrom);
+
+    // Slots dos aluguéis que tocam a janela [from, to] (carga do índice de disponibilidade), só com as colunas do slot
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.ROOM, r.idRoomRentals, " +
+            "r.room.idRooms, r.customer.idCustomers, CAST(NULL AS Integer), CAST(NULL AS Integer), CAST(NULL AS String), " +
+            "CAST(NULL AS LocalTime), CAST(NULL AS LocalTime), r.startPeriodAreaRentals, r.endPeriodAreaRentals, r.totalPriceStandRentals) " +
+            "FROM RoomRental r WHERE r.endPeriodAreaRentals >= :from AND r.startPeriodAreaRentals <= :to")
+    List<RentalSlot> findSlotsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
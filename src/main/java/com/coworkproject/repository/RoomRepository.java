@@ -2,6 +2,7 @@ package com.coworkproject.repository;
 
 import com.coworkproject.model.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Integer> {
+public interface RoomRepository extends JpaRepository<Room, Integer>, JpaSpecificationExecutor<Room> {
 
     // Buscar por número (único)
     Optional<Room> findByNumberRooms(Integer numberRooms);
@@ -30,4 +31,4 @@ public interface RoomRepository extends JpaRepository<Room, Integer> {
     // Verificar se existe por nome excluindo um ID específico (para update)
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Room r WHERE r.nameRooms = :name AND r.idRooms != :id")
     boolean existsByNameRoomsAndIdRoomsNot(@Param("name") String name, @Param("id") Integer id);
-}
\ No newline at end of file
+}
@@ -1,33 +1,100 @@
 package com.coworkproject.repository;
 
 import com.coworkproject.model.StandRental;
+import com.coworkproject.service.RentalSlot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface StandRentalRepository extends JpaRepository<StandRental, Integer> {
 
+    // Carga completa (índices em memória e listagens sem filtro) com as associações no mesmo SELECT
+    @Override
+    @EntityGraph("StandRental.detail")
+    List<StandRental> findAll();
+
     // Buscar aluguéis por stand
+    @EntityGraph("StandRental.detail")
     List<StandRental> findByStandIdStands(Integer standId);
 
     // Buscar aluguéis por cliente
+    @EntityGraph("StandRental.detail")
     List<StandRental> findByCustomerIdCustomers(Integer customerId);
 
-    // Buscar conflitos de horário
-    @Query("SELECT sr FROM StandRental sr WHERE sr.stand.idStands = :standId AND " +
-            "(:startDate BETWEEN sr.startPeriodStandRentals AND sr.endPeriodStandRentals OR " +
-            ":endDate BETWEEN sr.startPeriodStandRentals AND sr.endPeriodStandRentals OR " +
-            "sr.startPeriodStandRentals BETWEEN :startDate AND :endDate)")
+    // Buscar conflitos de horário (mesma sobreposição dos BETWEEN, na forma que usa o índice (stand, início, fim))
+    @Query("SELECT sr FROM StandRental sr WHERE sr.stand.idStands = :standId " +
+            "AND sr.startPeriodStandRentals <= :endDate AND sr.endPeriodStandRentals >= :startDate")
     List<StandRental> findTimeRangeConflicts(@Param("standId") Integer standId,
                                              @Param("startDate") LocalDateTime startDate,
                                              @Param("endDate") LocalDateTime endDate);
 
     // Buscar aluguéis ativos
-    @Query("SELECT sr FROM StandRental sr WHERE :currentDate BETWEEN sr.startPeriodStandRentals AND sr.endPeriodStandRentals")
+    @Query("SELECT sr FROM StandRental sr WHERE sr.endPeriodStandRentals >= :currentDate " +
+            "AND sr.startPeriodStandRentals <= :currentDate")
+    @EntityGraph("StandRental.detail")
     List<StandRental> findActiveRentals(@Param("currentDate") LocalDateTime currentDate);
-}
\ No newline at end of file
+
+    // Página da listagem (keyset)
+    @EntityGraph("StandRental.detail")
+    Window<StandRental> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por stand
+    @EntityGraph("StandRental.detail")
+    Window<StandRental> findByStandIdStands(Integer standId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Página de aluguéis por cliente
+    @EntityGraph("StandRental.detail")
+    Window<StandRental> findByCustomerIdCustomers(Integer customerId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Visão geral do cliente: aluguéis que ainda não terminaram (em andamento e a começar)
+    @EntityGraph("StandRental.detail")
+    List<StandRental> findByCustomerIdCustomersAndEndPeriodStandRentalsAfter(Integer customerId, LocalDateTime now);
+
+    // Visão geral do cliente: os encerrados mais recentes, até o limite
+    @EntityGraph("StandRental.detail")
+    List<StandRental> findByCustomerIdCustomersAndEndPeriodStandRentalsLessThanEqualOrderByStartPeriodStandRentalsDesc(Integer customerId, LocalDateTime now, Limit limit);
+
+    // Total gasto pelo cliente em aluguéis de stand, somado no banco
+    @Query("SELECT COALESCE(SUM(r.totalPriceStandRentals), 0) FROM StandRental r WHERE r.customer.idCustomers = :customerId")
+    BigDecimal sumTotalPriceByCustomer(@Param("customerId") Integer customerId);
+
+    // Aluguéis ainda não encerrados (carga do snapshot de ativos: os vigentes e os que vão começar)
+    @EntityGraph("StandRental.detail")
+    List<StandRental> findByEndPeriodStandRentalsGreaterThanEqual(LocalDateTime endFrom);
+
+    // Slots dos aluguéis que terminam a partir de endFrom (carga dos índices de conflito): só as colunas do slot,
+    // sem montar entidades
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.STAND, r.idStandRentals, " +
+            "r.stand.idStands, r.customer.idCustomers, p.idRentalPlans, s.idRentalShifts, s.nameRentalShifts, " +
+            "s.startTimeRentalShifts, s.endTimeRentalShifts, r.startPeriodStandRentals, r.endPeriodStandRentals, r.totalPriceStandRentals) " +
+            "FROM StandRental r LEFT JOIN r.rentalPlan p LEFT JOIN p.rentalShift s WHERE r.endPeriodStandRentals >= :endFrom")
+    List<RentalSlot> findSlotsEndingFrom(@Param("endFrom") LocalDateTime endFrom);
+
+    // Slots dos aluguéis do stand que tocam o período (conflito de reserva retroativa, fora do índice em memória)
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.STAND, r.idStandRentals, " +
+            "r.stand.idStands, r.customer.idCustomers, p.idRentalPlans, s.idRentalShifts, s.nameRentalShifts, " +
+            "s.startTimeRentalShifts, s.endTimeRentalShifts, r.startPeriodStandRentals, r.endPeriodStandRentals, r.totalPriceStandRentals) " +
+            "FROM StandRental r LEFT JOIN r.rentalPlan p LEFT JOIN p.rentalShift s WHERE r.stand.idStands = :standId " +
+            "AND r.startPeriodStandRentals <= :endDate AND r.endPeriodStandRentals >= :startDate")
+    List<RentalSlot> findSlotsOverlapping(@Param("standId") Integer standId,
+                                          @Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    // Slots dos aluguéis que tocam a janela [from, to] (carga do índice de disponibilidade), só com as colunas do slot
+    @Query("SELECT new com.coworkproject.service.RentalSlot(com.coworkproject.model.ResourceType.STAND, r.idStandRentals, " +
+            "r.stand.idStands, r.customer.idCustomers, p.idRentalPlans, s.idRentalShifts, s.nameRentalShifts, " +
+            "s.startTimeRentalShifts, s.endTimeRentalShifts, r.startPeriodStandRentals, r.endPeriodStandRentals, r.totalPriceStandRentals) " +
+            "FROM StandRental r LEFT JOIN r.rentalPlan p LEFT JOIN p.rentalShift s WHERE r.endPeriodStandRentals >= :from AND r.startPeriodStandRentals <= :to")
+    List<RentalSlot> findSlotsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
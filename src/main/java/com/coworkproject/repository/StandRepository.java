@@ -2,12 +2,13 @@ package com.coworkproject.repository;
 
 import com.coworkproject.model.Stand;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface StandRepository extends JpaRepository<Stand, Integer> {
+public interface StandRepository extends JpaRepository<Stand, Integer>, JpaSpecificationExecutor<Stand> {
 
     // Verificar se existe stand com o mesmo número
     boolean existsByNumberStands(Integer numberStands);
@@ -26,4 +27,4 @@ public interface StandRepository extends JpaRepository<Stand, Integer> {
 
     // Verificar se existe outro stand com o mesmo nome (excluindo um ID específico)
     boolean existsByNameStandsAndIdStandsNot(String nameStands, Integer idStands);
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.coworkproject.repository;
+
+import com.coworkproject.model.WaitlistEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Integer> {
+
+    // Pedidos ainda em espera, na ordem de chegada (carga da fila em memória)
+    @EntityGraph("WaitlistEntry.detail")
+    List<WaitlistEntry> findByStatusWaitlistEntriesOrderByCreatedAtWaitlistEntriesAscIdWaitlistEntriesAsc(WaitlistEntry.Status status);
+
+    // Buscar pedidos por cliente
+    @EntityGraph("WaitlistEntry.detail")
+    List<WaitlistEntry> findByCustomerIdCustomersOrderByCreatedAtWaitlistEntriesDesc(Integer customerId);
+
+    // Página de pedidos por cliente
+    @EntityGraph("WaitlistEntry.detail")
+    Window<WaitlistEntry> findByCustomerIdCustomers(Integer customerId, ScrollPosition position, Sort sort, Limit limit);
+}
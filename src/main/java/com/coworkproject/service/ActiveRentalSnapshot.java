@@ -0,0 +1,165 @@
+package com.coworkproject.service;
+
+import com.coworkproject.index.ActiveSchedule;
+import com.coworkproject.model.AreaRental;
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.RoomRental;
+import com.coworkproject.model.StandRental;
+import com.coworkproject.repository.AreaRentalRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.StandRentalRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Aluguéis vigentes por tipo de recurso, em memória, para os endpoints /active (painéis da recepção que atualizam
+// a cada poucos segundos). Guarda os aluguéis ainda não encerrados com o grafo já carregado; a agenda de inícios e
+// fins troca o conjunto no instante exato em que um turno começa ou termina, e a leitura não vai ao banco.
+// Mantido pelos eventos de save/delete; cliente, recurso ou catálogo alterado recarrega os tipos que o usam.
+// As entidades são destacadas e não devem ser alteradas por quem lê.
+@Component
+public class ActiveRentalSnapshot {
+
+    private final DeskRentalRepository deskRentalRepository;
+    private final RoomRentalRepository roomRentalRepository;
+    private final AreaRentalRepository areaRentalRepository;
+    private final StandRentalRepository standRentalRepository;
+    private final Map<ResourceType, ActiveSchedule<Object>> schedules = new EnumMap<>(ResourceType.class);
+
+    public ActiveRentalSnapshot(DeskRentalRepository deskRentalRepository,
+                                RoomRentalRepository roomRentalRepository,
+                                AreaRentalRepository areaRentalRepository,
+                                StandRentalRepository standRentalRepository) {
+        this.deskRentalRepository = deskRentalRepository;
+        this.roomRentalRepository = roomRentalRepository;
+        this.areaRentalRepository = areaRentalRepository;
+        this.standRentalRepository = standRentalRepository;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        for (ResourceType type : ResourceType.values()) {
+            reload(type);
+        }
+    }
+
+    // Vigentes no instante informado (início <= agora <= fim), sem ordem definida
+    public synchronized <T> List<T> active(ResourceType type, Class<T> rentalClass, LocalDateTime now) {
+        ActiveSchedule<Object> schedule = schedules.get(type);
+        schedule.advanceTo(now);
+        return schedule.active().stream().map(rentalClass::cast).toList();
+    }
+
+    public synchronized int activeCount(ResourceType type, LocalDateTime now) {
+        ActiveSchedule<Object> schedule = schedules.get(type);
+        schedule.advanceTo(now);
+        return schedule.activeCount();
+    }
+
+    // A entidade salva é buscada fora do lock; na mesma requisição do save ela vem do contexto de persistência, sem SELECT
+    @EventListener
+    @Order(10)
+    public void onRentalChanged(RentalChangedEvent event) {
+        RentalSlot saved = event.saved();
+        Optional<?> rental = Optional.empty();
+        if (saved != null && saved.start() != null && saved.end() != null && !saved.end().isBefore(LocalDateTime.now())) {
+            rental = find(event.type(), event.rentalId());
+        }
+
+        synchronized (this) {
+            ActiveSchedule<Object> schedule = schedules.get(event.type());
+            schedule.remove(event.rentalId());
+            rental.ifPresent(value -> schedule.put(event.rentalId(), saved.start(), saved.end(), value));
+        }
+    }
+
+    // Nome ou dados do recurso aparecem nos aluguéis guardados; só recarrega se algum deles usa o recurso
+    @EventListener
+    @Order(10)
+    public synchronized void onResourceChanged(ResourceChangedEvent event) {
+        if (schedules.get(event.type()).anyMatch(rental -> event.resourceId().equals(resourceId(rental)))) {
+            reload(event.type());
+        }
+    }
+
+    // Cliente novo não tem aluguel guardado, então o cadastro comum não custa recarga
+    @EventListener
+    @Order(10)
+    public synchronized void onCustomerChanged(CustomerChangedEvent event) {
+        for (ResourceType type : ResourceType.values()) {
+            if (schedules.get(type).anyMatch(rental -> event.customerId().equals(customerId(rental)))) {
+                reload(type);
+            }
+        }
+    }
+
+    // Só mesas e stands têm plano; roda depois do snapshot do catálogo
+    @EventListener
+    @Order(10)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        reload(ResourceType.DESK);
+        reload(ResourceType.STAND);
+    }
+
+    private void reload(ResourceType type) {
+        LocalDateTime now = LocalDateTime.now();
+        ActiveSchedule<Object> schedule = new ActiveSchedule<>(now);
+        switch (type) {
+            case DESK -> deskRentalRepository.findByEndPeriodDeskRentalsGreaterThanEqual(now).forEach(rental ->
+                    schedule.put(rental.getIdDeskRentals(), rental.getStartPeriodDeskRentals(), rental.getEndPeriodDeskRentals(), rental));
+            case ROOM -> roomRentalRepository.findByEndPeriodAreaRentalsGreaterThanEqual(now).forEach(rental ->
+                    schedule.put(rental.getIdRoomRentals(), rental.getStartPeriodAreaRentals(), rental.getEndPeriodAreaRentals(), rental));
+            case AREA -> areaRentalRepository.findByEndPeriodAreaRentalsGreaterThanEqual(now).forEach(rental ->
+                    schedule.put(rental.getIdAreaRentals(), rental.getStartPeriodAreaRentals(), rental.getEndPeriodAreaRentals(), rental));
+            case STAND -> standRentalRepository.findByEndPeriodStandRentalsGreaterThanEqual(now).forEach(rental ->
+                    schedule.put(rental.getIdStandRentals(), rental.getStartPeriodStandRentals(), rental.getEndPeriodStandRentals(), rental));
+        }
+        schedules.put(type, schedule);
+    }
+
+    private static Integer resourceId(Object rental) {
+        if (rental instanceof DeskRental desk) {
+            return desk.getDesk() != null ? desk.getDesk().getIdDesks() : null;
+        } else if (rental instanceof RoomRental room) {
+            return room.getRoom() != null ? room.getRoom().getIdRooms() : null;
+        } else if (rental instanceof AreaRental area) {
+            return area.getArea() != null ? area.getArea().getIdAreas() : null;
+        } else if (rental instanceof StandRental stand) {
+            return stand.getStand() != null ? stand.getStand().getIdStands() : null;
+        }
+        return null;
+    }
+
+    private static Integer customerId(Object rental) {
+        Customer customer = null;
+        if (rental instanceof DeskRental desk) {
+            customer = desk.getCustomer();
+        } else if (rental instanceof RoomRental room) {
+            customer = room.getCustomer();
+        } else if (rental instanceof AreaRental area) {
+            customer = area.getCustomer();
+        } else if (rental instanceof StandRental stand) {
+            customer = stand.getCustomer();
+        }
+        return customer != null ? customer.getIdCustomers() : null;
+    }
+
+    private Optional<?> find(ResourceType type, Integer rentalId) {
+        return switch (type) {
+            case DESK -> deskRentalRepository.findById(rentalId);
+            case ROOM -> roomRentalRepository.findById(rentalId);
+            case AREA -> areaRentalRepository.findById(rentalId);
+            case STAND -> standRentalRepository.findById(rentalId);
+        };
+    }
+}
@@ -0,0 +1,380 @@
+package com.coworkproject.service;
+
+import com.coworkproject.index.IntervalTree;
+import com.coworkproject.index.ShiftOverlapMatrix;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.AreaRentalRepository;
+import com.coworkproject.repository.AreaRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.repository.StandRentalRepository;
+import com.coworkproject.repository.StandRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Índice de disponibilidade: para cada (tipo, dia, turno) um bitset com os ids dos recursos bloqueados naquele turno,
+// isto é, com um aluguel que conflita com ele: mesas e stands pelo turno do aluguel (todos os turnos que se sobrepõem
+// a ele), salas e áreas pelo horário. A posição reservada da matriz (turno desconhecido) recebe todo aluguel do dia.
+// Os livres de um período são "todos os recursos" menos a união dos bloqueados, sem varrer aluguel nenhum.
+// Cada bitset carrega também um contador de bloqueados, que alimenta o mapa de calor mensal.
+// Só guarda o horizonte útil: do primeiro dia do mês corrente até o fim do mês que contém hoje + HORIZON_DAYS.
+@Component
+public class AvailabilityIndex {
+
+    // Dias à frente carregados além do mês corrente (o mesmo limite de período da busca de disponibilidade)
+    public static final long HORIZON_DAYS = 366;
+
+    private final DeskRepository deskRepository;
+    private final RoomRepository roomRepository;
+    private final AreaRepository areaRepository;
+    private final StandRepository standRepository;
+    private final DeskRentalRepository deskRentalRepository;
+    private final RoomRentalRepository roomRentalRepository;
+    private final AreaRentalRepository areaRentalRepository;
+    private final StandRentalRepository standRentalRepository;
+    private final ShiftMatrixService matrixService;
+
+    private final Map<ResourceType, BitSet> resources = new EnumMap<>(ResourceType.class);
+    private final Map<ResourceType, Map<Long, DayOccupancy>> days = new EnumMap<>(ResourceType.class);
+    private final Map<ResourceType, Map<Integer, IntervalTree<RentalSlot>>> rentalsByResource = new EnumMap<>(ResourceType.class);
+    private final Map<ResourceType, Map<Integer, RentalSlot>> byRental = new EnumMap<>(ResourceType.class);
+    private ShiftOverlapMatrix matrix;
+    private LocalDate horizonStart;
+    private LocalDate horizonEnd;
+
+    private final Object reloadLock = new Object();
+    private List<RentalChangedEvent> rentalsChangedWhileLoading;
+    private List<ResourceChangedEvent> resourcesChangedWhileLoading;
+
+    public AvailabilityIndex(DeskRepository deskRepository,
+                             RoomRepository roomRepository,
+                             AreaRepository areaRepository,
+                             StandRepository standRepository,
+                             DeskRentalRepository deskRentalRepository,
+                             RoomRentalRepository roomRentalRepository,
+                             AreaRentalRepository areaRentalRepository,
+                             StandRentalRepository standRentalRepository,
+                             ShiftMatrixService matrixService) {
+        this.deskRepository = deskRepository;
+        this.roomRepository = roomRepository;
+        this.areaRepository = areaRepository;
+        this.standRepository = standRepository;
+        this.deskRentalRepository = deskRentalRepository;
+        this.roomRentalRepository = roomRentalRepository;
+        this.areaRentalRepository = areaRentalRepository;
+        this.standRentalRepository = standRentalRepository;
+        this.matrixService = matrixService;
+    }
+
+    // A janela é recalculada a cada carga; a carga diária faz o horizonte andar junto com o calendário.
+    // A leitura do banco roda fora do monitor, como no RentalIndex: as consultas seguem no índice atual e os eventos
+    // que chegam durante a leitura são reaplicados no novo antes da troca.
+    @PostConstruct
+    @Scheduled(cron = "${app.availability.reload-cron:0 5 0 * * *}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                rentalsChangedWhileLoading = new ArrayList<>();
+                resourcesChangedWhileLoading = new ArrayList<>();
+            }
+            try {
+                load(LocalDate.now());
+            } finally {
+                synchronized (this) {
+                    rentalsChangedWhileLoading = null;
+                    resourcesChangedWhileLoading = null;
+                }
+            }
+        }
+    }
+
+    private void load(LocalDate today) {
+        LocalDate start = today.withDayOfMonth(1);
+        LocalDate end = YearMonth.from(today.plusDays(HORIZON_DAYS)).atEndOfMonth();
+
+        Map<ResourceType, BitSet> loadedResources = new EnumMap<>(ResourceType.class);
+        for (ResourceType type : ResourceType.values()) {
+            loadedResources.put(type, new BitSet());
+        }
+        deskRepository.findAll().forEach(desk -> loadedResources.get(ResourceType.DESK).set(desk.getIdDesks()));
+        roomRepository.findAll().forEach(room -> loadedResources.get(ResourceType.ROOM).set(room.getIdRooms()));
+        areaRepository.findAll().forEach(area -> loadedResources.get(ResourceType.AREA).set(area.getIdAreas()));
+        standRepository.findAll().forEach(stand -> loadedResources.get(ResourceType.STAND).set(stand.getIdStands()));
+
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime to = end.atTime(LocalTime.MAX);
+        List<RentalSlot> slots = new ArrayList<>();
+        slots.addAll(deskRentalRepository.findSlotsBetween(from, to));
+        slots.addAll(roomRentalRepository.findSlotsBetween(from, to));
+        slots.addAll(areaRentalRepository.findSlotsBetween(from, to));
+        slots.addAll(standRentalRepository.findSlotsBetween(from, to));
+
+        synchronized (this) {
+            matrix = matrixService.current();
+            horizonStart = start;
+            horizonEnd = end;
+            for (ResourceType type : ResourceType.values()) {
+                resources.put(type, loadedResources.get(type));
+                days.put(type, new HashMap<>());
+                rentalsByResource.put(type, new HashMap<>());
+                byRental.put(type, new HashMap<>());
+            }
+            slots.forEach(this::add);
+            rentalsChangedWhileLoading.forEach(this::apply);
+            resourcesChangedWhileLoading.forEach(this::apply);
+        }
+    }
+
+    // O índice só responde por dias dentro do horizonte carregado
+    public synchronized boolean covers(LocalDate startDate, LocalDate endDate) {
+        return !startDate.isBefore(horizonStart) && !endDate.isAfter(horizonEnd);
+    }
+
+    public synchronized LocalDate horizonStart() {
+        return horizonStart;
+    }
+
+    public synchronized LocalDate horizonEnd() {
+        return horizonEnd;
+    }
+
+    // Ids dos recursos livres em todos os dias do período; com turno, só os bloqueados naquele turno contam
+    public synchronized BitSet findFree(ResourceType type, LocalDate startDate, LocalDate endDate, Integer shiftId) {
+        BitSet occupied = new BitSet();
+        Integer position = shiftId != null ? matrix.positionOf(shiftId) : null;
+        Map<Long, DayOccupancy> typeDays = days.get(type);
+
+        for (long day = startDate.toEpochDay(); day <= endDate.toEpochDay(); day++) {
+            DayOccupancy occupancy = typeDays.get(day);
+            if (occupancy == null) {
+                continue;
+            }
+            if (position == null) {
+                occupied.or(occupancy.any.bits);
+            } else {
+                occupancy.collect(position, occupied);
+            }
+        }
+
+        BitSet free = (BitSet) resources.get(type).clone();
+        free.andNot(occupied);
+        return free;
+    }
+
+    public synchronized int resourceCount(ResourceType type) {
+        return resources.get(type).cardinality();
+    }
+
+    // Grade de ocupação do período: uma linha por dia, uma coluna por turno (recursos bloqueados nele) e a última com
+    // o total do dia. Cada célula é um contador mantido a cada escrita, então a leitura não toca no banco.
+    public synchronized Occupancy occupancy(ResourceType type, LocalDate startDate, LocalDate endDate) {
+        List<ShiftOverlapMatrix.Shift> shifts = matrix.shifts();
+        Map<Long, DayOccupancy> typeDays = days.get(type);
+        int[][] occupied = new int[(int) (endDate.toEpochDay() - startDate.toEpochDay() + 1)][shifts.size() + 1];
+
+        for (int row = 0; row < occupied.length; row++) {
+            DayOccupancy occupancy = typeDays.get(startDate.toEpochDay() + row);
+            if (occupancy == null) {
+                continue;
+            }
+            for (int position = 0; position < shifts.size(); position++) {
+                occupied[row][position] = occupancy.count(position);
+            }
+            occupied[row][shifts.size()] = occupancy.any.count;
+        }
+
+        return new Occupancy(shifts, resources.get(type).cardinality(), occupied);
+    }
+
+    public record Occupancy(List<ShiftOverlapMatrix.Shift> shifts, int resources, int[][] occupied) {
+    }
+
+    @EventListener
+    @Order(10)
+    public synchronized void onRentalChanged(RentalChangedEvent event) {
+        // Antes da primeira carga não há estrutura: o evento só fica guardado para ela
+        if (horizonStart != null) {
+            apply(event);
+        }
+        if (rentalsChangedWhileLoading != null) {
+            rentalsChangedWhileLoading.add(event);
+        }
+    }
+
+    @EventListener
+    public synchronized void onResourceChanged(ResourceChangedEvent event) {
+        if (horizonStart != null) {
+            apply(event);
+        }
+        if (resourcesChangedWhileLoading != null) {
+            resourcesChangedWhileLoading.add(event);
+        }
+    }
+
+    @EventListener
+    @Order(10)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        reload();
+    }
+
+    private void apply(RentalChangedEvent event) {
+        remove(event.type(), event.rentalId());
+        if (event.saved() != null) {
+            add(event.saved());
+        }
+    }
+
+    private void apply(ResourceChangedEvent event) {
+        if (event.deleted()) {
+            resources.get(event.type()).clear(event.resourceId());
+        } else {
+            resources.get(event.type()).set(event.resourceId());
+        }
+    }
+
+    // Aluguel que não toca o horizonte fica de fora; o que atravessa a borda só marca os dias de dentro
+    private void add(RentalSlot slot) {
+        if (slot.resourceId() == null || slot.start() == null || slot.end() == null
+                || slot.end().toLocalDate().isBefore(horizonStart) || slot.start().toLocalDate().isAfter(horizonEnd)) {
+            return;
+        }
+        rentalsByResource.get(slot.type())
+                .computeIfAbsent(slot.resourceId(), id -> new IntervalTree<>())
+                .insert(slot.start(), slot.end(), slot.rentalId(), slot);
+        byRental.get(slot.type()).put(slot.rentalId(), slot);
+        mark(slot);
+    }
+
+    private void remove(ResourceType type, Integer rentalId) {
+        RentalSlot previous = byRental.get(type).remove(rentalId);
+        if (previous == null) {
+            return;
+        }
+
+        Integer resourceId = previous.resourceId();
+        IntervalTree<RentalSlot> tree = rentalsByResource.get(type).get(resourceId);
+        tree.remove(previous.start(), previous.rentalId());
+
+        LocalDate from = max(previous.start().toLocalDate(), horizonStart);
+        LocalDate to = min(previous.end().toLocalDate(), horizonEnd);
+        Map<Long, DayOccupancy> typeDays = days.get(type);
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            DayOccupancy occupancy = typeDays.get(day);
+            if (occupancy != null) {
+                occupancy.clear(resourceId);
+            }
+        }
+
+        // Outros aluguéis do mesmo recurso nesses dias voltam a marcar seus turnos
+        for (RentalSlot other : tree.findOverlapping(from.atStartOfDay(), to.atTime(LocalTime.MAX))) {
+            mark(other);
+        }
+        if (tree.isEmpty()) {
+            rentalsByResource.get(type).remove(resourceId);
+        }
+    }
+
+    private void mark(RentalSlot slot) {
+        Map<Long, DayOccupancy> typeDays = days.get(slot.type());
+        LocalDate from = max(slot.start().toLocalDate(), horizonStart);
+        LocalDate to = min(slot.end().toLocalDate(), horizonEnd);
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DayOccupancy occupancy = typeDays.computeIfAbsent(day.toEpochDay(), d -> new DayOccupancy());
+            occupancy.any.set(slot.resourceId());
+            occupancy.shift(matrix.shifts().size()).set(slot.resourceId());
+
+            // Com turno (mesas e stands): bloqueia os turnos que conflitam com ele; turno desconhecido bloqueia todos
+            if (slot.shiftId() != null) {
+                long[] mask = matrix.conflictMask(slot.shiftId());
+                for (int position = 0; position < matrix.shifts().size(); position++) {
+                    if ((mask[position >>> 6] & (1L << position)) != 0) {
+                        occupancy.shift(position).set(slot.resourceId());
+                    }
+                }
+                continue;
+            }
+
+            // Sem turno (salas e áreas): bloqueia os turnos que se sobrepõem ao horário do aluguel neste dia
+            LocalDateTime windowStart = slot.start().isAfter(day.atStartOfDay()) ? slot.start() : day.atStartOfDay();
+            LocalDateTime windowEnd = slot.end().isBefore(day.atTime(LocalTime.MAX)) ? slot.end() : day.atTime(LocalTime.MAX);
+            for (ShiftOverlapMatrix.Shift shift : matrix.shifts()) {
+                if (shift.start() == null || shift.end() == null
+                        || (shift.start().isBefore(windowEnd.toLocalTime()) && shift.end().isAfter(windowStart.toLocalTime()))) {
+                    occupancy.shift(matrix.positionOf(shift.id())).set(slot.resourceId());
+                }
+            }
+        }
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // Ocupação de um dia: bitset + contador por turno, mais o total do dia (qualquer turno)
+    private static final class DayOccupancy {
+        private final Cell any = new Cell();
+        private final Map<Integer, Cell> byShift = new HashMap<>();
+
+        private Cell shift(int position) {
+            return byShift.computeIfAbsent(position, p -> new Cell());
+        }
+
+        private int count(int position) {
+            Cell cell = byShift.get(position);
+            return cell != null ? cell.count : 0;
+        }
+
+        private void collect(int position, BitSet occupied) {
+            Cell cell = byShift.get(position);
+            if (cell != null) {
+                occupied.or(cell.bits);
+            }
+        }
+
+        private void clear(Integer resourceId) {
+            any.clear(resourceId);
+            byShift.values().forEach(cell -> cell.clear(resourceId));
+        }
+    }
+
+    // O contador só muda quando o bit realmente muda, então um recurso conta uma vez por célula
+    private static final class Cell {
+        private final BitSet bits = new BitSet();
+        private int count;
+
+        private void set(int resourceId) {
+            if (!bits.get(resourceId)) {
+                bits.set(resourceId);
+                count++;
+            }
+        }
+
+        private void clear(int resourceId) {
+            if (bits.get(resourceId)) {
+                bits.clear(resourceId);
+                count--;
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.coworkproject.service;
+
+// Publicado quando planos, turnos ou categorias são alterados
+public record CatalogChangedEvent(String table) {
+}
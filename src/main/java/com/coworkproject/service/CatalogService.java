@@ -0,0 +1,106 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Catálogo (categorias, turnos e planos) em memória. Muda raramente e é lido em toda reserva e tela,
+// então cada alteração gera um snapshot novo e imutável, trocado de uma vez (copy-on-write):
+// quem leu o snapshot anterior continua com uma visão consistente, sem lock na leitura.
+@Component
+public class CatalogService {
+
+    // Versão cresce a cada reconstrução; as entidades são destacadas e não devem ser alteradas por quem lê
+    public record Snapshot(long version,
+                           LocalDateTime builtAt,
+                           List<RentalCategory> categories,
+                           List<RentalShift> shifts,
+                           List<RentalPlan> plans,
+                           Map<Integer, RentalCategory> categoriesById,
+                           Map<Integer, RentalShift> shiftsById,
+                           Map<Integer, RentalPlan> plansById) {
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Snapshot current;
+
+    public CatalogService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public Snapshot current() {
+        return current;
+    }
+
+    public Optional<RentalPlan> plan(Integer idRentalPlans) {
+        return idRentalPlans != null ? Optional.ofNullable(current.plansById().get(idRentalPlans)) : Optional.empty();
+    }
+
+    public Optional<RentalShift> shift(Integer idRentalShifts) {
+        return idRentalShifts != null ? Optional.ofNullable(current.shiftsById().get(idRentalShifts)) : Optional.empty();
+    }
+
+    public Optional<RentalCategory> category(Integer idRentalCategories) {
+        return idRentalCategories != null ? Optional.ofNullable(current.categoriesById().get(idRentalCategories)) : Optional.empty();
+    }
+
+    // Planos encontrados entre os ids pedidos (ids inexistentes ficam de fora, como no findAllById)
+    public Map<Integer, RentalPlan> plans(Collection<Integer> idsRentalPlans) {
+        Map<Integer, RentalPlan> plansById = current.plansById();
+        return idsRentalPlans.stream()
+                .filter(plansById::containsKey)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), plansById::get));
+    }
+
+    // Contexto de persistência próprio: os planos apontam para as mesmas instâncias de categoria e turno das listas
+    // (três SELECTs no total) e tudo sai destacado, sem ligação com a sessão da requisição que disparou a troca.
+    // Reconstruções em sequência, para um snapshot mais antigo nunca substituir um mais novo.
+    @PostConstruct
+    public synchronized void rebuild() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<RentalCategory> categories = entityManager.createQuery(
+                    "SELECT c FROM RentalCategory c ORDER BY c.idRentalCategories", RentalCategory.class).getResultList();
+            List<RentalShift> shifts = entityManager.createQuery(
+                    "SELECT s FROM RentalShift s ORDER BY s.idRentalShifts", RentalShift.class).getResultList();
+            List<RentalPlan> plans = entityManager.createQuery(
+                    "SELECT p FROM RentalPlan p ORDER BY p.idRentalPlans", RentalPlan.class).getResultList();
+
+            current = new Snapshot(
+                    versions.incrementAndGet(),
+                    LocalDateTime.now(),
+                    List.copyOf(categories),
+                    List.copyOf(shifts),
+                    List.copyOf(plans),
+                    categories.stream().collect(Collectors.toUnmodifiableMap(RentalCategory::getIdRentalCategories, Function.identity())),
+                    shifts.stream().collect(Collectors.toUnmodifiableMap(RentalShift::getIdRentalShifts, Function.identity())),
+                    plans.stream().collect(Collectors.toUnmodifiableMap(RentalPlan::getIdRentalPlans, Function.identity())));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // Junto com a matriz de turnos, antes dos índices e filas que leem o catálogo
+    @EventListener
+    @Order(0)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        rebuild();
+    }
+}
@@ -0,0 +1,144 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.AreaRental;
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalSeries;
+import com.coworkproject.model.RoomRental;
+import com.coworkproject.model.StandRental;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Modo compacto das listagens de aluguéis (?compact=true): cada linha leva só os ids de recurso, cliente, plano
+// e série, e os objetos relacionados distintos vão uma única vez em "included", agrupados por tipo.
+// Numa página de milhares de aluguéis com meia dúzia de planos, plano, categoria e turno deixam de se repetir em toda linha.
+// Os nomes dos campos são os mesmos das entidades (idDesks, idCustomers, idRentalPlans...).
+@Component
+public class CompactView {
+
+    // Devolve a resposta como veio quando o modo compacto não foi pedido
+    public Map<String, Object> apply(boolean compact, Map<String, Object> response) {
+        if (!compact) {
+            return response;
+        }
+
+        Included included = new Included();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object rental : (List<?>) response.get("data")) {
+            rows.add(row(rental, included));
+        }
+
+        response.put("data", rows);
+        response.put("included", included.sections);
+        return response;
+    }
+
+    private static Map<String, Object> row(Object rental, Included included) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        if (rental instanceof DeskRental desk) {
+            row.put("idDeskRentals", desk.getIdDeskRentals());
+            row.put("idDesks", included.add("desks", desk.getDesk() != null ? desk.getDesk().getIdDesks() : null, desk.getDesk()));
+            row.put("idCustomers", included.customer(desk.getCustomer()));
+            row.put("idRentalPlans", included.plan(desk.getRentalPlan()));
+            row.put("idRentalSeries", included.series(desk.getRentalSeries()));
+            row.put("startPeriodDeskRentals", desk.getStartPeriodDeskRentals());
+            row.put("endPeriodDeskRentals", desk.getEndPeriodDeskRentals());
+            row.put("totalPriceDeskRentals", desk.getTotalPriceDeskRentals());
+        } else if (rental instanceof StandRental stand) {
+            row.put("idStandRentals", stand.getIdStandRentals());
+            row.put("idStands", included.add("stands", stand.getStand() != null ? stand.getStand().getIdStands() : null, stand.getStand()));
+            row.put("idCustomers", included.customer(stand.getCustomer()));
+            row.put("idRentalPlans", included.plan(stand.getRentalPlan()));
+            row.put("startPeriodStandRentals", stand.getStartPeriodStandRentals());
+            row.put("endPeriodStandRentals", stand.getEndPeriodStandRentals());
+            row.put("totalPriceStandRentals", stand.getTotalPriceStandRentals());
+        } else if (rental instanceof RoomRental room) {
+            row.put("idRoomRentals", room.getIdRoomRentals());
+            row.put("idRooms", included.add("rooms", room.getRoom() != null ? room.getRoom().getIdRooms() : null, room.getRoom()));
+            row.put("idCustomers", included.customer(room.getCustomer()));
+            row.put("idRentalSeries", included.series(room.getRentalSeries()));
+            row.put("startPeriodAreaRentals", room.getStartPeriodAreaRentals());
+            row.put("endPeriodAreaRentals", room.getEndPeriodAreaRentals());
+            row.put("totalPriceStandRentals", room.getTotalPriceStandRentals());
+        } else if (rental instanceof AreaRental area) {
+            row.put("idAreaRentals", area.getIdAreaRentals());
+            row.put("idAreas", included.add("areas", area.getArea() != null ? area.getArea().getIdAreas() : null, area.getArea()));
+            row.put("idCustomers", included.customer(area.getCustomer()));
+            row.put("startPeriodAreaRentals", area.getStartPeriodAreaRentals());
+            row.put("endPeriodAreaRentals", area.getEndPeriodAreaRentals());
+            row.put("totalPriceStandRentals", area.getTotalPriceStandRentals());
+        } else {
+            throw new IllegalArgumentException("Tipo sem modo compacto: " + rental.getClass().getSimpleName());
+        }
+        return row;
+    }
+
+    // Objetos já vistos por tipo e id, na ordem em que apareceram na página.
+    // Planos e séries saem achatados (ids de categoria, turno e cliente) para não repetir os objetos aninhados.
+    private static final class Included {
+
+        private final Map<String, List<Object>> sections = new LinkedHashMap<>();
+        private final Map<String, Set<Integer>> seen = new HashMap<>();
+
+        Integer add(String section, Integer id, Object value) {
+            if (id != null && seen.computeIfAbsent(section, key -> new HashSet<>()).add(id)) {
+                sections.computeIfAbsent(section, key -> new ArrayList<>()).add(value);
+            }
+            return id;
+        }
+
+        Integer customer(Customer customer) {
+            return customer != null ? add("customers", customer.getIdCustomers(), customer) : null;
+        }
+
+        Integer plan(RentalPlan plan) {
+            if (plan == null) {
+                return null;
+            }
+            if (isNew("rentalPlans", plan.getIdRentalPlans())) {
+                Map<String, Object> flat = new LinkedHashMap<>();
+                flat.put("idRentalPlans", plan.getIdRentalPlans());
+                flat.put("idRentalCategories", plan.getRentalCategory() != null
+                        ? add("rentalCategories", plan.getRentalCategory().getIdRentalCategories(), plan.getRentalCategory()) : null);
+                flat.put("idRentalShifts", plan.getRentalShift() != null
+                        ? add("rentalShifts", plan.getRentalShift().getIdRentalShifts(), plan.getRentalShift()) : null);
+                flat.put("planNameRentalPlans", plan.getPlanNameRentalPlans());
+                flat.put("priceRentalPlans", plan.getPriceRentalPlans());
+                add("rentalPlans", plan.getIdRentalPlans(), flat);
+            }
+            return plan.getIdRentalPlans();
+        }
+
+        Integer series(RentalSeries series) {
+            if (series == null) {
+                return null;
+            }
+            if (isNew("rentalSeries", series.getIdRentalSeries())) {
+                Map<String, Object> flat = new LinkedHashMap<>();
+                flat.put("idRentalSeries", series.getIdRentalSeries());
+                flat.put("typeRentalSeries", series.getTypeRentalSeries());
+                flat.put("idCustomers", customer(series.getCustomer()));
+                flat.put("frequencyRentalSeries", series.getFrequencyRentalSeries());
+                flat.put("daysOfWeekRentalSeries", series.getDaysOfWeekRentalSeries());
+                flat.put("firstDateRentalSeries", series.getFirstDateRentalSeries());
+                flat.put("lastDateRentalSeries", series.getLastDateRentalSeries());
+                flat.put("occurrencesRentalSeries", series.getOccurrencesRentalSeries());
+                add("rentalSeries", series.getIdRentalSeries(), flat);
+            }
+            return series.getIdRentalSeries();
+        }
+
+        private boolean isNew(String section, Integer id) {
+            Set<Integer> ids = seen.get(section);
+            return id != null && (ids == null || !ids.contains(id));
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.coworkproject.service;
+
+// Publicado pelo controller de clientes depois de cada save/delete
+public record CustomerChangedEvent(Integer customerId, boolean deleted) {
+}
@@ -0,0 +1,264 @@
+package com.coworkproject.service;
+
+import com.coworkproject.dto.RentalView;
+import com.coworkproject.model.AreaRental;
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.RoomRental;
+import com.coworkproject.model.StandRental;
+import com.coworkproject.repository.AreaRentalRepository;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.StandRentalRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Visão geral do cliente (perfil na recepção): cadastro e aluguéis dos quatro tipos de recurso numa única requisição.
+// As cinco buscas rodam ao mesmo tempo num pool limitado e dividem um único prazo; um tipo que não responde
+// no prazo fica de fora ("missing") em vez de segurar a resposta inteira.
+// O histórico não é carregado: de cada tipo vêm os aluguéis que ainda não terminaram, os encerrados mais
+// recentes (até o limite de "past") e o total gasto, somado no banco.
+@Service
+public class CustomerOverviewService {
+
+    // Aluguéis separados pelo momento da consulta: em andamento, a começar e encerrados
+    public record Overview(Customer customer,
+                           List<RentalView> active,
+                           List<RentalView> upcoming,
+                           List<RentalView> past,
+                           BigDecimal totalSpend,
+                           List<ResourceType> missing) {
+    }
+
+    // Aluguéis de um tipo: os que ainda não terminaram, os encerrados mais recentes e o total gasto
+    record TypeRentals(List<RentalView> current, List<RentalView> recentPast, BigDecimal spend) {
+    }
+
+    // Cliente não respondeu no prazo (sem ele não há visão geral)
+    public static class OverviewTimeoutException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public OverviewTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    private final CustomerRepository customerRepository;
+    private final DeskRentalRepository deskRentalRepository;
+    private final RoomRentalRepository roomRentalRepository;
+    private final AreaRentalRepository areaRentalRepository;
+    private final StandRentalRepository standRentalRepository;
+    private final Duration budget;
+    private final int pastLimit;
+    private final ThreadPoolExecutor executor;
+
+    public CustomerOverviewService(CustomerRepository customerRepository,
+                                   DeskRentalRepository deskRentalRepository,
+                                   RoomRentalRepository roomRentalRepository,
+                                   AreaRentalRepository areaRentalRepository,
+                                   StandRentalRepository standRentalRepository,
+                                   @Value("${app.customer-overview.threads:8}") int threads,
+                                   @Value("${app.customer-overview.queue-capacity:200}") int queueCapacity,
+                                   @Value("${app.customer-overview.budget-millis:2000}") long budgetMillis,
+                                   @Value("${app.customer-overview.past-limit:20}") int pastLimit) {
+        this.customerRepository = customerRepository;
+        this.deskRentalRepository = deskRentalRepository;
+        this.roomRentalRepository = roomRentalRepository;
+        this.areaRentalRepository = areaRentalRepository;
+        this.standRentalRepository = standRentalRepository;
+        this.budget = Duration.ofMillis(budgetMillis);
+        this.pastLimit = pastLimit;
+
+        // Cada thread ocupa uma conexão do pool do banco enquanto consulta: o número de threads fica abaixo dele.
+        // Fila cheia recusa a tarefa em vez de acumular requisições que já vão estourar o prazo.
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "customer-overview-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Vazio quando o cliente não existe
+    public Optional<Overview> overview(Integer customerId, LocalDateTime now) {
+        long deadline = System.nanoTime() + budget.toNanos();
+
+        Future<Optional<Customer>> customer = null;
+        Map<ResourceType, Future<TypeRentals>> rentals = new EnumMap<>(ResourceType.class);
+        Limit limit = Limit.of(pastLimit);
+        try {
+            customer = executor.submit(() -> customerRepository.findById(customerId));
+            rentals.put(ResourceType.DESK, executor.submit(() -> new TypeRentals(
+                    deskRentalRepository.findByCustomerIdCustomersAndEndPeriodDeskRentalsAfter(customerId, now).stream().map(CustomerOverviewService::view).toList(),
+                    deskRentalRepository.findByCustomerIdCustomersAndEndPeriodDeskRentalsLessThanEqualOrderByStartPeriodDeskRentalsDesc(customerId, now, limit).stream().map(CustomerOverviewService::view).toList(),
+                    deskRentalRepository.sumTotalPriceByCustomer(customerId))));
+            rentals.put(ResourceType.ROOM, executor.submit(() -> new TypeRentals(
+                    roomRentalRepository.findByCustomerIdCustomersAndEndPeriodAreaRentalsAfter(customerId, now).stream().map(CustomerOverviewService::view).toList(),
+                    roomRentalRepository.findByCustomerIdCustomersAndEndPeriodAreaRentalsLessThanEqualOrderByStartPeriodAreaRentalsDesc(customerId, now, limit).stream().map(CustomerOverviewService::view).toList(),
+                    roomRentalRepository.sumTotalPriceByCustomer(customerId))));
+            rentals.put(ResourceType.AREA, executor.submit(() -> new TypeRentals(
+                    areaRentalRepository.findByCustomerIdCustomersAndEndPeriodAreaRentalsAfter(customerId, now).stream().map(CustomerOverviewService::view).toList(),
+                    areaRentalRepository.findByCustomerIdCustomersAndEndPeriodAreaRentalsLessThanEqualOrderByStartPeriodAreaRentalsDesc(customerId, now, limit).stream().map(CustomerOverviewService::view).toList(),
+                    areaRentalRepository.sumTotalPriceByCustomer(customerId))));
+            rentals.put(ResourceType.STAND, executor.submit(() -> new TypeRentals(
+                    standRentalRepository.findByCustomerIdCustomersAndEndPeriodStandRentalsAfter(customerId, now).stream().map(CustomerOverviewService::view).toList(),
+                    standRentalRepository.findByCustomerIdCustomersAndEndPeriodStandRentalsLessThanEqualOrderByStartPeriodStandRentalsDesc(customerId, now, limit).stream().map(CustomerOverviewService::view).toList(),
+                    standRentalRepository.sumTotalPriceByCustomer(customerId))));
+        } catch (RejectedExecutionException e) {
+            if (customer != null) {
+                customer.cancel(true);
+            }
+            rentals.values().forEach(future -> future.cancel(true));
+            throw new OverviewTimeoutException("Servidor ocupado, tente novamente em instantes");
+        }
+
+        Optional<Customer> found;
+        try {
+            found = await(customer, deadline);
+        } catch (TimeoutException e) {
+            rentals.values().forEach(future -> future.cancel(true));
+            throw new OverviewTimeoutException("Tempo limite excedido ao buscar o cliente " + customerId);
+        }
+        if (found.isEmpty()) {
+            rentals.values().forEach(future -> future.cancel(true));
+            return Optional.empty();
+        }
+
+        List<TypeRentals> all = new ArrayList<>();
+        List<ResourceType> missing = new ArrayList<>();
+        for (Map.Entry<ResourceType, Future<TypeRentals>> entry : rentals.entrySet()) {
+            try {
+                all.add(await(entry.getValue(), deadline));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                missing.add(entry.getKey());
+            }
+        }
+
+        return Optional.of(split(found.get(), all, now, pastLimit, missing));
+    }
+
+    // Separa pelo instante informado: em andamento e a começar por início crescente, encerrados do mais recente ao
+    // mais antigo. Cada tipo já trouxe os seus encerrados mais recentes; juntos, ficam os pastLimit primeiros.
+    static Overview split(Customer customer, List<TypeRentals> rentals, LocalDateTime now, int pastLimit, List<ResourceType> missing) {
+        List<RentalView> active = new ArrayList<>();
+        List<RentalView> upcoming = new ArrayList<>();
+        List<RentalView> past = new ArrayList<>();
+        BigDecimal totalSpend = BigDecimal.ZERO;
+
+        for (TypeRentals type : rentals) {
+            for (RentalView rental : type.current()) {
+                if (rental.startPeriod() != null && rental.startPeriod().isAfter(now)) {
+                    upcoming.add(rental);
+                } else {
+                    active.add(rental);
+                }
+            }
+            past.addAll(type.recentPast());
+            if (type.spend() != null) {
+                totalSpend = totalSpend.add(type.spend());
+            }
+        }
+
+        Comparator<RentalView> byStart = Comparator.comparing(RentalView::startPeriod, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(RentalView::type)
+                .thenComparing(RentalView::idRental);
+        active.sort(byStart);
+        upcoming.sort(byStart);
+        past.sort(byStart.reversed());
+
+        return new Overview(customer, active, upcoming, past.size() > pastLimit ? past.subList(0, pastLimit) : past, totalSpend, missing);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Espera o que falta do prazo da requisição; erro da consulta sobe como está
+    private static <T> T await(Future<T> future, long deadline) throws TimeoutException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrompido");
+        }
+    }
+
+    // Conversão dentro da thread da consulta, com as associações já carregadas pelo entity graph
+    private static RentalView view(DeskRental rental) {
+        RentalPlan plan = rental.getRentalPlan();
+        return new RentalView(ResourceType.DESK, rental.getIdDeskRentals(),
+                rental.getDesk() != null ? rental.getDesk().getIdDesks() : null,
+                rental.getDesk() != null ? rental.getDesk().getNameDesks() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getNameCustomers() : null,
+                plan != null ? plan.getIdRentalPlans() : null,
+                plan != null ? plan.getPlanNameRentalPlans() : null,
+                plan != null && plan.getRentalShift() != null ? plan.getRentalShift().getNameRentalShifts() : null,
+                rental.getStartPeriodDeskRentals(), rental.getEndPeriodDeskRentals(), rental.getTotalPriceDeskRentals(),
+                rental.getRentalSeries() != null ? rental.getRentalSeries().getIdRentalSeries() : null);
+    }
+
+    private static RentalView view(RoomRental rental) {
+        return new RentalView(ResourceType.ROOM, rental.getIdRoomRentals(),
+                rental.getRoom() != null ? rental.getRoom().getIdRooms() : null,
+                rental.getRoom() != null ? rental.getRoom().getNameRooms() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getNameCustomers() : null,
+                null, null, null,
+                rental.getStartPeriodAreaRentals(), rental.getEndPeriodAreaRentals(), rental.getTotalPriceStandRentals(),
+                rental.getRentalSeries() != null ? rental.getRentalSeries().getIdRentalSeries() : null);
+    }
+
+    private static RentalView view(AreaRental rental) {
+        return new RentalView(ResourceType.AREA, rental.getIdAreaRentals(),
+                rental.getArea() != null ? rental.getArea().getIdAreas() : null,
+                rental.getArea() != null ? rental.getArea().getNameAreas() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getNameCustomers() : null,
+                null, null, null,
+                rental.getStartPeriodAreaRentals(), rental.getEndPeriodAreaRentals(), rental.getTotalPriceStandRentals(),
+                null);
+    }
+
+    private static RentalView view(StandRental rental) {
+        RentalPlan plan = rental.getRentalPlan();
+        return new RentalView(ResourceType.STAND, rental.getIdStandRentals(),
+                rental.getStand() != null ? rental.getStand().getIdStands() : null,
+                rental.getStand() != null ? rental.getStand().getNameStands() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getNameCustomers() : null,
+                plan != null ? plan.getIdRentalPlans() : null,
+                plan != null ? plan.getPlanNameRentalPlans() : null,
+                plan != null && plan.getRentalShift() != null ? plan.getRentalShift().getNameRentalShifts() : null,
+                rental.getStartPeriodStandRentals(), rental.getEndPeriodStandRentals(), rental.getTotalPriceStandRentals(),
+                null);
+    }
+}
@@ -0,0 +1,197 @@
+package com.coworkproject.service;
+
+import com.coworkproject.index.TrigramIndex;
+import com.coworkproject.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Busca de clientes por nome, e-mail ou CPF enquanto a recepção digita (autocomplete).
+// Índice de trigramas em memória sobre os tokens dos três campos, carregado na inicialização
+// e mantido pelos eventos de save/delete do controller de clientes.
+// Ordem do resultado: nome começando pelo texto digitado, depois algum token começando por ele
+// (sobrenome, e-mail, CPF) e por último o texto no meio de um token; em cada grupo, por nome e id.
+// A ordem vale sobre os primeiros MAX_MATCHES acertos (em ordem de id); além disso a busca é genérica demais.
+@Component
+public class CustomerSearchIndex {
+
+    // Acertos conferidos antes de ordenar e cortar; limita o custo de buscas muito genéricas ("a", "silva")
+    private static final int MAX_MATCHES = 1_000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    // Dados devolvidos na busca, com os nomes dos campos da entidade
+    public record Match(Integer idCustomers, String nameCustomers, String emailCustomers, String cpfCustomers) {
+    }
+
+    // text: tokens normalizados separados por espaço, começando pelos do nome (os primeiros nameLength caracteres).
+    // Uma única string por cliente: é o que a conferência dos candidatos lê e o que a remoção usa para achar os trigramas.
+    private record Entry(Match customer, String text, int nameLength) {
+
+        String name() {
+            return text.substring(0, nameLength);
+        }
+
+        List<String> tokens() {
+            return List.of(text.split(" "));
+        }
+    }
+
+    private final CustomerRepository customerRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private TrigramIndex index = new TrigramIndex();
+    // Por id (os ids de clientes são sequenciais), sem o custo de um HashMap com um milhão de entradas
+    private Entry[] entries = new Entry[16];
+    private int size;
+
+    public CustomerSearchIndex(CustomerRepository customerRepository, JdbcTemplate jdbcTemplate) {
+        this.customerRepository = customerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Só as quatro colunas usadas, lidas direto do cursor em vez de carregar as entidades
+    @PostConstruct
+    public synchronized void reload() {
+        index = new TrigramIndex();
+        entries = new Entry[16];
+        size = 0;
+        jdbcTemplate.query("SELECT `idCustomers`, `nameCustomers`, `emailCustomers`, `cpfCustomers` FROM `customers` ORDER BY `idCustomers`",
+                (ResultSet resultSet) -> put(new Match(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4))));
+        index.trimToSize();
+    }
+
+    public synchronized List<Match> search(String query, int limit) {
+        List<String> queryTokens = tokens(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        String queryText = String.join(" ", queryTokens);
+
+        // rank 0: nome começa pelo texto; 1: todo token da consulta é prefixo de algum token; 2: trecho de algum token
+        List<Entry> matches = new ArrayList<>();
+        List<Integer> ranks = new ArrayList<>();
+        Set<Integer> found = new HashSet<>();
+        // Sem parar nos primeiros limit de rank 0: eles viriam em ordem de id, e o corte tem de ser pela ordem de nome
+        index.prefixCandidates(queryTokens, id -> {
+            Entry entry = entry(id);
+            if (entry != null && allMatch(queryTokens, entry.text(), true)) {
+                matches.add(entry);
+                ranks.add(entry.text().startsWith(queryText) && queryText.length() <= entry.nameLength() ? 0 : 1);
+                found.add(id);
+            }
+            return matches.size() < MAX_MATCHES;
+        });
+
+        if (matches.size() < limit) {
+            index.substringCandidates(queryTokens, id -> {
+                Entry entry = entry(id);
+                if (entry != null && !found.contains(id) && allMatch(queryTokens, entry.text(), false)) {
+                    matches.add(entry);
+                    ranks.add(2);
+                }
+                return matches.size() < MAX_MATCHES;
+            });
+        }
+
+        Integer[] order = new Integer[matches.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.<Integer>comparingInt(ranks::get)
+                .thenComparing(i -> matches.get(i).name())
+                .thenComparing(i -> matches.get(i).customer().idCustomers()));
+        return Arrays.stream(order).limit(limit).map(i -> matches.get(i).customer()).toList();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // A releitura e a troca da entrada ficam sob o mesmo monitor: dois eventos do mesmo cliente em threads diferentes
+    // não gravam uma leitura antiga por cima da nova, e cliente excluído entre o evento e a leitura sai do índice
+    @EventListener
+    @Order(10)
+    public synchronized void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.customerId());
+            return;
+        }
+        customerRepository.findById(event.customerId()).ifPresentOrElse(
+                customer -> put(new Match(customer.getIdCustomers(), customer.getNameCustomers(), customer.getEmailCustomers(), customer.getCpfCustomers())),
+                () -> remove(event.customerId()));
+    }
+
+    synchronized void put(Match customer) {
+        int id = customer.idCustomers();
+        remove(id);
+
+        Set<String> tokens = new LinkedHashSet<>(tokens(customer.nameCustomers()));
+        int nameLength = String.join(" ", tokens).length();
+        tokens.addAll(tokens(customer.emailCustomers()));
+        tokens.addAll(tokens(customer.cpfCustomers()));
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        if (id >= entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(id + 1, entries.length + (entries.length >> 1)));
+        }
+        entries[id] = new Entry(customer, String.join(" ", tokens), nameLength);
+        size++;
+        index.add(id, tokens);
+    }
+
+    synchronized void remove(Integer idCustomers) {
+        Entry previous = entry(idCustomers);
+        if (previous != null) {
+            entries[idCustomers] = null;
+            size--;
+            index.remove(idCustomers, previous.tokens());
+        }
+    }
+
+    private Entry entry(int id) {
+        return id >= 0 && id < entries.length ? entries[id] : null;
+    }
+
+    // Minúsculas, sem acentos e quebrado em tudo que não é letra ou dígito ("João.Silva@x.com" -> joao, silva, x, com).
+    // Números com pontuação de CPF ("123.456.789-00") viram um token só de dígitos.
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String trimmed = text.trim();
+        if (trimmed.matches("[\\d.\\-\\s]+")) {
+            String digits = trimmed.replaceAll("\\D", "");
+            return digits.isEmpty() ? List.of() : List.of(digits);
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(trimmed.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(SEPARATORS.split(normalized)).filter(token -> !token.isEmpty()).toList();
+    }
+
+    // Cada token da consulta precisa ser prefixo (ou trecho) de algum token do texto
+    private static boolean allMatch(List<String> queryTokens, String text, boolean prefix) {
+        for (String queryToken : queryTokens) {
+            boolean matched = prefix
+                    ? text.startsWith(queryToken) || text.contains(" " + queryToken)
+                    : text.contains(queryToken);
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.DeskRentalRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Índice em memória dos aluguéis de mesa
+@Component
+public class DeskRentalIndex extends RentalIndex {
+
+    private final DeskRentalRepository repository;
+
+    public DeskRentalIndex(DeskRentalRepository repository, ShiftMatrixService matrixService) {
+        super(matrixService);
+        this.repository = repository;
+    }
+
+    @Override
+    protected ResourceType type() {
+        return ResourceType.DESK;
+    }
+
+    // Só os aluguéis que ainda não terminaram; os anteriores ficam no banco
+    @Override
+    protected LocalDateTime loadFrom() {
+        return LocalDate.now().atStartOfDay();
+    }
+
+    @Override
+    protected List<RentalSlot> loadSlots(LocalDateTime endFrom) {
+        return repository.findSlotsEndingFrom(endFrom);
+    }
+
+    @Override
+    protected List<RentalSlot> findStoredSlots(Integer resourceId, LocalDateTime startDate, LocalDateTime endDate) {
+        return repository.findSlotsOverlapping(resourceId, startDate, endDate);
+    }
+}
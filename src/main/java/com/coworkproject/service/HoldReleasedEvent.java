@@ -0,0 +1,5 @@
+package com.coworkproject.service;
+
+// Publicado quando uma reserva temporária vence ou é cancelada, liberando o slot sem passar por aluguel
+public record HoldReleasedEvent(RentalSlot slot) {
+}
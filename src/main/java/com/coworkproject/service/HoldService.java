@@ -0,0 +1,182 @@
+package com.coworkproject.service;
+
+import com.coworkproject.index.TimingWheel;
+import com.coworkproject.model.ResourceType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Reservas temporárias (holds): seguram um (recurso, período, turno) por alguns minutos sem gravar aluguel.
+// Ficam em um índice por tipo de recurso, consultado junto com os aluguéis na verificação de conflito,
+// e vencem pela roda de tempo, avançada uma vez por tick, sem consulta periódica ao banco.
+@Component
+public class HoldService {
+
+    public record Hold(Integer idHolds, RentalSlot slot, LocalDateTime expiresAt) {
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final Map<ResourceType, RentalIndex> indexes = new EnumMap<>(ResourceType.class);
+    private final Map<Integer, Hold> holds = new HashMap<>();
+    private final Map<Integer, TimingWheel.Timer<Integer>> timers = new HashMap<>();
+    private final TimingWheel<Integer> wheel;
+    private int nextId = 1;
+
+    public HoldService(ShiftMatrixService matrixService,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${app.holds.default-ttl-seconds:180}") long defaultTtlSeconds,
+                       @Value("${app.holds.max-ttl-seconds:900}") long maxTtlSeconds,
+                       @Value("${app.holds.tick-millis:1000}") long tickMillis) {
+        this.eventPublisher = eventPublisher;
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        for (ResourceType type : ResourceType.values()) {
+            indexes.put(type, new RentalIndex(matrixService) {
+                @Override
+                protected ResourceType type() {
+                    return type;
+                }
+
+                // Todas as reservas temporárias estão em memória: a carga não tem corte
+                @Override
+                protected List<RentalSlot> loadSlots(LocalDateTime endFrom) {
+                    return currentSlots(type);
+                }
+            });
+        }
+        indexes.values().forEach(RentalIndex::reload);
+    }
+
+    // Prazo efetivo: o padrão quando não informado, limitado ao máximo configurado
+    public Duration ttlFor(Long requestedSeconds) {
+        if (requestedSeconds == null || requestedSeconds <= 0) {
+            return defaultTtl;
+        }
+        Duration requested = Duration.ofSeconds(requestedSeconds);
+        return requested.compareTo(maxTtl) > 0 ? maxTtl : requested;
+    }
+
+    // Quem chama já fez a verificação de conflito sob o lock do recurso
+    public synchronized Hold place(RentalSlot slot, Duration ttl) {
+        Integer id = nextId++;
+        long deadline = System.currentTimeMillis() + ttl.toMillis();
+        return register(new Hold(id, slot.withRentalId(id), toDateTime(deadline)), deadline);
+    }
+
+    // Devolve uma reserva retirada por engano (ex.: confirmação que falhou ao gravar), com o prazo original
+    public synchronized void restore(Hold hold) {
+        long deadline = hold.expiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (deadline > System.currentTimeMillis()) {
+            register(hold, deadline);
+        }
+    }
+
+    public synchronized Optional<Hold> find(Integer idHolds) {
+        return Optional.ofNullable(holds.get(idHolds));
+    }
+
+    // Retira a reserva (confirmação ou desistência); vazio se ela não existe ou já venceu
+    public synchronized Optional<Hold> release(Integer idHolds) {
+        Hold hold = holds.remove(idHolds);
+        if (hold == null) {
+            return Optional.empty();
+        }
+        wheel.cancel(timers.remove(idHolds));
+        indexes.get(hold.slot().type()).onRentalChanged(RentalChangedEvent.deleted(hold.slot()));
+        return Optional.of(hold);
+    }
+
+    // Reserva de outra pessoa que conflita com o período e o turno informados
+    public synchronized Optional<RentalSlot> findConflict(ResourceType type,
+                                                          Integer resourceId,
+                                                          LocalDateTime startDate,
+                                                          LocalDateTime endDate,
+                                                          Integer shiftId,
+                                                          LocalTime shiftStart,
+                                                          LocalTime shiftEnd,
+                                                          Integer ignoredHoldId) {
+        return indexes.get(type).findConflict(resourceId, startDate, endDate, shiftId, shiftStart, shiftEnd, ignoredHoldId);
+    }
+
+    public Optional<RentalSlot> findConflict(RentalSlot slot) {
+        return findConflict(slot.type(), slot.resourceId(), slot.start(), slot.end(),
+                slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null);
+    }
+
+    public synchronized int size() {
+        return holds.size();
+    }
+
+    public static String conflictMessage(RentalSlot hold) {
+        return "O período está reservado temporariamente (reserva " + hold.rentalId() + "), tente novamente em alguns minutos";
+    }
+
+    // Os eventos saem fora do monitor: quem os recebe pode precisar do lock do recurso
+    @Scheduled(fixedDelayString = "${app.holds.tick-millis:1000}")
+    public void expireHolds() {
+        advance().forEach(slot -> eventPublisher.publishEvent(new HoldReleasedEvent(slot)));
+    }
+
+    private synchronized List<RentalSlot> advance() {
+        List<RentalSlot> expired = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), id -> {
+            timers.remove(id);
+            Hold hold = holds.remove(id);
+            if (hold != null) {
+                indexes.get(hold.slot().type()).onRentalChanged(RentalChangedEvent.deleted(hold.slot()));
+                expired.add(hold.slot());
+            }
+        });
+        return expired;
+    }
+
+    // Turnos alterados mudam a matriz; os índices das reservas são remontados depois dela
+    @EventListener
+    @Order(10)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        indexes.values().forEach(RentalIndex::reload);
+    }
+
+    private Hold register(Hold hold, long deadline) {
+        TimingWheel.Timer<Integer> timer = wheel.schedule(hold.idHolds(), deadline);
+        if (timer == null) {
+            return hold;
+        }
+        holds.put(hold.idHolds(), hold);
+        timers.put(hold.idHolds(), timer);
+        indexes.get(hold.slot().type()).onRentalChanged(RentalChangedEvent.created(hold.slot()));
+        return hold;
+    }
+
+    private List<RentalSlot> currentSlots(ResourceType type) {
+        List<RentalSlot> slots = new ArrayList<>();
+        for (Hold hold : holds.values()) {
+            if (hold.slot().type() == type) {
+                slots.add(hold.slot());
+            }
+        }
+        return slots;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
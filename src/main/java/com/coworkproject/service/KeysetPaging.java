@@ -0,0 +1,273 @@
+package com.coworkproject.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Paginação por cursor (keyset) das listagens: "WHERE (chave de ordenação, id) > (última linha)" em vez de OFFSET,
+// então cada página custa o mesmo, não importa a profundidade. O cursor é opaco para o cliente:
+// base64 dos valores da última linha (com o tipo de cada um) e da ordenação usada para gerá-lo.
+// Chave nula conta como o menor valor (a ordem do MySQL: primeiro no ASC, por último no DESC).
+@Component
+public class KeysetPaging {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Consulta de uma página: ordenação (o id é acrescentado pelo Spring Data como desempate), posição e tamanho
+    public record PageQuery(String sortSpec, Sort sort, ScrollPosition position, Limit limit) {
+    }
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPaging(@Value("${app.pagination.default-size:50}") int defaultSize,
+                        @Value("${app.pagination.max-size:200}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    // sort = "campo" ou "campo,asc|desc", com os campos aceitos pelo endpoint (nome na API -> propriedade da entidade).
+    // Com cursor, a ordenação vem dele; um sort diferente junto com o cursor é rejeitado.
+    public PageQuery query(String cursor, String sort, Integer size, Map<String, String> sortFields) {
+        if (size != null && (size < 1 || size > maxSize)) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + maxSize);
+        }
+        Limit limit = Limit.of(size != null ? size : defaultSize);
+
+        if (cursor == null || cursor.isBlank()) {
+            String sortSpec = normalize(sort, sortFields);
+            return new PageQuery(sortSpec, toSort(sortSpec, sortFields), ScrollPosition.keyset(), limit);
+        }
+
+        Map<String, Object> decoded = decode(cursor);
+        String sortSpec = (String) decoded.get("sort");
+        if (sort != null && !sort.isBlank() && !normalize(sort, sortFields).equals(sortSpec)) {
+            throw new IllegalArgumentException("O cursor foi gerado com outra ordenação");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> keys = (Map<String, Object>) decoded.get("keys");
+        return new PageQuery(sortSpec, toSort(sortSpec, sortFields), ScrollPosition.forward(keys), limit);
+    }
+
+    // Resposta padrão das listagens: a página, o tamanho dela e o cursor da próxima (null na última)
+    public <T> Map<String, Object> response(Window<T> window, PageQuery query, String message) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encode(query.sortSpec(), last.getKeys());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", message);
+        response.put("data", window.getContent());
+        response.put("count", window.size());
+        response.put("nextCursor", nextCursor);
+        return response;
+    }
+
+    // Mesma paginação sobre linhas já em memória (ex.: aluguéis ativos): ordena pela propriedade do sort com o id
+    // crescente como desempate, como no keyset do Spring Data, e começa depois da posição do cursor
+    public <T> Window<T> page(Collection<T> rows, PageQuery query, String idProperty) {
+        Sort.Order order = query.sort().iterator().next();
+        List<String> properties = order.getProperty().equals(idProperty)
+                ? List.of(idProperty)
+                : List.of(order.getProperty(), idProperty);
+        Comparator<Map<String, Object>> byKeys = (left, right) -> {
+            for (String property : properties) {
+                int compared = NULLS_FIRST.compare(left.get(property), right.get(property));
+                if (compared != 0) {
+                    return property.equals(idProperty) || order.isAscending() ? compared : -compared;
+                }
+            }
+            return 0;
+        };
+
+        Map<String, Object> after = ((KeysetScrollPosition) query.position()).getKeys();
+        List<Map.Entry<Map<String, Object>, T>> sorted = new ArrayList<>();
+        for (T row : rows) {
+            BeanWrapper bean = new BeanWrapperImpl(row);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            properties.forEach(property -> keys.put(property, bean.getPropertyValue(property)));
+            if (after.isEmpty() || byKeys.compare(keys, after) > 0) {
+                sorted.add(Map.entry(keys, row));
+            }
+        }
+        sorted.sort(Map.Entry.comparingByKey(byKeys));
+
+        int limit = query.limit().max();
+        List<Map.Entry<Map<String, Object>, T>> content = sorted.subList(0, Math.min(limit, sorted.size()));
+        return Window.from(content.stream().map(Map.Entry::getValue).toList(),
+                index -> ScrollPosition.forward(content.get(index).getKey()), sorted.size() > limit);
+    }
+
+    // Página de uma tabela cuja chave de ordenação aceita nulo. O keyset do Spring Data compara "chave > valor",
+    // o que não aceita um cursor com chave nula e deixa de fora as linhas com nulo; aqui o predicado trata o nulo
+    // como o menor valor. Traz uma linha a mais para saber se há próxima página. fetched: associações carregadas
+    // no mesmo SELECT (como o @EntityGraph das consultas derivadas).
+    public <T> Window<T> scroll(JpaSpecificationExecutor<T> repository, Specification<T> filter, PageQuery query,
+                                String idProperty, String... fetched) {
+        Sort.Order order = query.sort().iterator().next();
+        List<String> properties = order.getProperty().equals(idProperty)
+                ? List.of(idProperty)
+                : List.of(order.getProperty(), idProperty);
+        Sort sort = properties.size() == 1 ? query.sort() : query.sort().and(Sort.by(idProperty));
+
+        Map<String, Object> after = ((KeysetScrollPosition) query.position()).getKeys();
+        Specification<T> keyset = (root, criteria, cb) -> after.isEmpty() ? null : after(root.get(order.getProperty()),
+                root.get(idProperty), after.get(order.getProperty()), after.get(idProperty), order.isAscending(),
+                properties.size() == 1, cb);
+
+        int limit = query.limit().max();
+        List<T> rows = repository.findBy(filter != null ? filter.and(keyset) : keyset,
+                fluent -> fluent.sortBy(sort).project(fetched).limit(limit + 1).all());
+
+        List<T> content = rows.subList(0, Math.min(limit, rows.size()));
+        return Window.from(content, index -> {
+            BeanWrapper bean = new BeanWrapperImpl(content.get(index));
+            Map<String, Object> keys = new LinkedHashMap<>();
+            properties.forEach(property -> keys.put(property, bean.getPropertyValue(property)));
+            return ScrollPosition.forward(keys);
+        }, rows.size() > limit);
+    }
+
+    // Linhas depois de (key, id): id crescente desempata, como no keyset do Spring Data
+    private static Predicate after(Path<Comparable<Object>> key, Path<Comparable<Object>> id, Object keyValue,
+                                   Object idValue, boolean ascending, boolean byIdOnly, CriteriaBuilder cb) {
+        Comparable<Object> lastId = comparable(idValue);
+        if (byIdOnly) {
+            return ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+        }
+        if (keyValue == null) {
+            Predicate sameKey = cb.and(cb.isNull(key), cb.greaterThan(id, lastId));
+            return ascending ? cb.or(sameKey, cb.isNotNull(key)) : sameKey;
+        }
+        Comparable<Object> lastKey = comparable(keyValue);
+        Predicate sameKey = cb.and(cb.equal(key, lastKey), cb.greaterThan(id, lastId));
+        return ascending
+                ? cb.or(cb.greaterThan(key, lastKey), sameKey)
+                : cb.or(cb.lessThan(key, lastKey), sameKey, cb.isNull(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static final Comparator<Object> NULLS_FIRST = Comparator.nullsFirst((left, right) -> ((Comparable<Object>) left).compareTo(right));
+
+    private static String normalize(String sort, Map<String, String> sortFields) {
+        if (sort == null || sort.isBlank()) {
+            return "id,asc";
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        String direction = parts.length > 1 ? parts[1].trim().toLowerCase() : "asc";
+        if (!sortFields.containsKey(field) || parts.length > 2 || !(direction.equals("asc") || direction.equals("desc"))) {
+            throw new IllegalArgumentException("Ordenação inválida: use um de " + sortFields.keySet() + " seguido de ,asc ou ,desc");
+        }
+        return field + "," + direction;
+    }
+
+    private static Sort toSort(String sortSpec, Map<String, String> sortFields) {
+        String[] parts = sortSpec.split(",");
+        String property = sortFields.get(parts[0]);
+        if (property == null) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return Sort.by(Sort.Direction.fromString(parts[1]), property);
+    }
+
+    // Cada valor leva a etiqueta do tipo para voltar como o mesmo tipo Java na consulta ("z" para nulo)
+    static String encode(String sortSpec, Map<String, Object> keys) {
+        List<List<String>> typedKeys = new ArrayList<>();
+        keys.forEach((property, value) -> typedKeys.add(Arrays.asList(property, tagOf(value), value != null ? value.toString() : null)));
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("s", sortSpec);
+        payload.put("k", typedKeys);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao gerar o cursor", e);
+        }
+    }
+
+    static Map<String, Object> decode(String cursor) {
+        try {
+            Map<String, Object> payload = MAPPER.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8),
+                    new TypeReference<Map<String, Object>>() {});
+
+            @SuppressWarnings("unchecked")
+            List<List<String>> typedKeys = (List<List<String>>) payload.get("k");
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (List<String> typedKey : typedKeys) {
+                keys.put(typedKey.get(0), valueOf(typedKey.get(1), typedKey.get(2)));
+            }
+
+            Map<String, Object> decoded = new HashMap<>();
+            decoded.put("sort", (String) payload.get("s"));
+            decoded.put("keys", keys);
+            return decoded;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private static String tagOf(Object value) {
+        if (value == null) return "z";
+        if (value instanceof Integer) return "i";
+        if (value instanceof Long) return "l";
+        if (value instanceof BigDecimal) return "n";
+        if (value instanceof LocalDateTime) return "t";
+        if (value instanceof LocalDate) return "d";
+        if (value instanceof LocalTime) return "h";
+        if (value instanceof String) return "s";
+        throw new IllegalStateException("Tipo sem suporte no cursor: " + value.getClass().getSimpleName());
+    }
+
+    private static Object valueOf(String tag, String value) {
+        return switch (tag) {
+            case "i" -> Integer.valueOf(value);
+            case "l" -> Long.valueOf(value);
+            case "n" -> new BigDecimal(value);
+            case "t" -> LocalDateTime.parse(value);
+            case "d" -> LocalDate.parse(value);
+            case "h" -> LocalTime.parse(value);
+            case "s" -> value;
+            case "z" -> null;
+            default -> throw new IllegalArgumentException("Cursor inválido");
+        };
+    }
+}
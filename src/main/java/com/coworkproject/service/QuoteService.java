@@ -0,0 +1,317 @@
+package com.coworkproject.service;
+
+import com.coworkproject.dto.QuoteRequest;
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.StandRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cotação de aluguel de mesa ou stand calculada no servidor: preço e término saem de uma tabela de termos dos planos
+// (duração da categoria, horários do turno e preço), montada uma vez por versão do catálogo. A disponibilidade é
+// verificada sem lock e sem gravar nada; a cotação volta com um token assinado (HMAC-SHA256) que o POST de aluguel
+// aceita no lugar do preço e da data, sem recalcular o período. Cada token vira no máximo um aluguel. Salas e áreas
+// não têm plano e ficam de fora.
+@Component
+public class QuoteService {
+
+    // Termos de um plano prontos para cotar; só entram planos com turno, categoria e preço
+    public record PlanTerms(Integer planId,
+                            String planName,
+                            Integer shiftId,
+                            String shiftName,
+                            LocalTime shiftStart,
+                            LocalTime shiftEnd,
+                            int durationInDays,
+                            BigDecimal price) {
+
+        // Mesma regra dos POSTs de aluguel: mesa começa no início do turno; stand mantém o horário enviado
+        public LocalDateTime startFrom(ResourceType type, LocalDateTime requested) {
+            return type == ResourceType.DESK ? requested.with(shiftStart) : requested;
+        }
+
+        public LocalDateTime endFrom(LocalDateTime start) {
+            return start.plusDays(durationInDays - 1).with(shiftEnd);
+        }
+
+        // Resumo do que define preço e período; vai assinado no token e é comparado com o plano atual no uso.
+        // Não depende da versão do catálogo, que recomeça a cada boot e é própria de cada instância.
+        public String digest() {
+            String terms = String.join("|", planId.toString(), shiftId.toString(), shiftStart.toString(),
+                    shiftEnd.toString(), Integer.toString(durationInDays), price.stripTrailingZeros().toPlainString());
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(terms.getBytes(StandardCharsets.UTF_8));
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("SHA-256 indisponível", e);
+            }
+        }
+    }
+
+    public record Quote(ResourceType resourceType,
+                        Integer idResource,
+                        Integer idCustomers,
+                        Integer idRentalPlans,
+                        String planName,
+                        String shiftName,
+                        LocalDateTime startPeriod,
+                        LocalDateTime endPeriod,
+                        BigDecimal totalPrice,
+                        LocalDateTime expiresAt,
+                        String token) {
+    }
+
+    // Cotação, ou a mensagem e o status do erro (validação ou recurso ocupado)
+    public record Outcome(Quote quote, String error, HttpStatus status) {
+
+        static Outcome error(String error, HttpStatus status) {
+            return new Outcome(null, error, status);
+        }
+    }
+
+    private record Table(long version, Map<Integer, PlanTerms> terms) {
+    }
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String INVALID_TOKEN = "Token de cotação inválido";
+
+    private final CatalogService catalogService;
+    private final SlotBookingService slotBookingService;
+    private final HoldService holdService;
+    private final DeskRepository deskRepository;
+    private final StandRepository standRepository;
+    private final CustomerRepository customerRepository;
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private volatile Table table;
+    // Tokens já usados num aluguel (assinatura -> limite da validade), até vencerem. Vale dentro do processo, como os
+    // locks de recurso: com mais de uma instância o registro precisa vir do banco
+    private final Map<String, LocalDateTime> redeemed = new ConcurrentHashMap<>();
+
+    public QuoteService(CatalogService catalogService,
+                        SlotBookingService slotBookingService,
+                        HoldService holdService,
+                        DeskRepository deskRepository,
+                        StandRepository standRepository,
+                        CustomerRepository customerRepository,
+                        @Value("${app.quotes.secret:}") String secret,
+                        @Value("${app.quotes.ttl-seconds:600}") long ttlSeconds) {
+        this.catalogService = catalogService;
+        this.slotBookingService = slotBookingService;
+        this.holdService = holdService;
+        this.deskRepository = deskRepository;
+        this.standRepository = standRepository;
+        this.customerRepository = customerRepository;
+        this.ttlSeconds = ttlSeconds;
+
+        // Sem segredo configurado, uma chave aleatória por processo: os tokens não sobrevivem a um restart
+        byte[] secretBytes;
+        if (secret == null || secret.isBlank()) {
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+        } else {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    // Valida o pedido, calcula período e preço e verifica a disponibilidade no instante da cotação
+    public Outcome quote(QuoteRequest request, LocalDateTime now) {
+        ResourceType type = request.getResourceType();
+        if (type != ResourceType.DESK && type != ResourceType.STAND) {
+            return Outcome.error("Cotação disponível apenas para mesas e stands (DESK ou STAND)", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getIdResource() == null) {
+            return Outcome.error("ID do recurso é obrigatório", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getIdCustomers() == null) {
+            return Outcome.error("ID do cliente é obrigatório", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getIdRentalPlans() == null) {
+            return Outcome.error("ID do plano de aluguel é obrigatório", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getStartPeriod() == null) {
+            return Outcome.error("Data de início é obrigatória", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getStartPeriod().isBefore(now.toLocalDate().atStartOfDay())) {
+            return Outcome.error("Data de início não pode ser no passado", HttpStatus.BAD_REQUEST);
+        }
+
+        boolean resourceExists = type == ResourceType.DESK
+                ? deskRepository.existsById(request.getIdResource())
+                : standRepository.existsById(request.getIdResource());
+        if (!resourceExists) {
+            return Outcome.error("Recurso não encontrado com ID: " + request.getIdResource(), HttpStatus.NOT_FOUND);
+        }
+
+        if (!customerRepository.existsById(request.getIdCustomers())) {
+            return Outcome.error("Cliente não encontrado com ID: " + request.getIdCustomers(), HttpStatus.NOT_FOUND);
+        }
+
+        Table table = table();
+        PlanTerms terms = table.terms().get(request.getIdRentalPlans());
+        if (terms == null) {
+            return catalogService.plan(request.getIdRentalPlans()).isPresent()
+                    ? Outcome.error("Plano de aluguel sem turno, categoria ou preço definido", HttpStatus.BAD_REQUEST)
+                    : Outcome.error("Plano de aluguel não encontrado com ID: " + request.getIdRentalPlans(), HttpStatus.NOT_FOUND);
+        }
+
+        LocalDateTime start = terms.startFrom(type, request.getStartPeriod());
+        RentalSlot slot = new RentalSlot(type, null, request.getIdResource(), request.getIdCustomers(),
+                terms.planId(), terms.shiftId(), terms.shiftName(), terms.shiftStart(), terms.shiftEnd(),
+                start, terms.endFrom(start), terms.price());
+
+        // Simulação: sem lock, o resultado vale só para o instante da cotação; o POST verifica de novo sob o lock
+        if (slotBookingService.isRented(slot)) {
+            return Outcome.error("O recurso já está alugado neste período", HttpStatus.CONFLICT);
+        }
+        Optional<RentalSlot> held = holdService.findConflict(slot);
+        if (held.isPresent()) {
+            return Outcome.error(HoldService.conflictMessage(held.get()), HttpStatus.CONFLICT);
+        }
+
+        LocalDateTime expiresAt = now.plusSeconds(ttlSeconds);
+        String token = sign(slot, terms.digest(), expiresAt);
+        return new Outcome(new Quote(type, slot.resourceId(), slot.customerId(), slot.planId(), terms.planName(),
+                terms.shiftName(), slot.start(), slot.end(), slot.totalPrice(), expiresAt, token), null, null);
+    }
+
+    // Confere assinatura, tipo, validade e os termos atuais do plano e devolve o slot cotado, sem recalcular nada
+    public SlotBookingService.Resolution redeem(String token, ResourceType type, LocalDateTime now) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 2) {
+            return SlotBookingService.Resolution.error(INVALID_TOKEN, HttpStatus.BAD_REQUEST);
+        }
+
+        String payload;
+        byte[] signature;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8);
+            signature = Base64.getUrlDecoder().decode(parts[1]);
+        } catch (IllegalArgumentException e) {
+            return SlotBookingService.Resolution.error(INVALID_TOKEN, HttpStatus.BAD_REQUEST);
+        }
+
+        if (!MessageDigest.isEqual(signature, mac(payload))) {
+            return SlotBookingService.Resolution.error(INVALID_TOKEN, HttpStatus.BAD_REQUEST);
+        }
+
+        // Assinatura confere: o conteúdo foi gerado por sign e tem sempre os mesmos campos
+        String[] fields = payload.split("\\|");
+        ResourceType quotedType = ResourceType.valueOf(fields[0]);
+        if (quotedType != type) {
+            return SlotBookingService.Resolution.error("Cotação não corresponde a este tipo de recurso", HttpStatus.BAD_REQUEST);
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.parse(fields[11]);
+        if (expiresAt.isBefore(now)) {
+            return SlotBookingService.Resolution.error("Cotação expirada em " + expiresAt + "; solicite uma nova", HttpStatus.GONE);
+        }
+
+        if (redeemed.containsKey(parts[1])) {
+            return SlotBookingService.Resolution.error("Cotação já utilizada; solicite uma nova", HttpStatus.GONE);
+        }
+
+        // Preço, turno ou duração do plano mudou (ou o plano saiu do catálogo) desde a cotação
+        PlanTerms terms = table().terms().get(Integer.valueOf(fields[3]));
+        if (terms == null || !terms.digest().equals(fields[10])) {
+            return SlotBookingService.Resolution.error("Plano alterado desde a cotação; solicite uma nova", HttpStatus.GONE);
+        }
+
+        Integer shiftId = Integer.valueOf(fields[4]);
+        String shiftName = catalogService.shift(shiftId).map(RentalShift::getNameRentalShifts).orElse(null);
+        return SlotBookingService.Resolution.ok(new RentalSlot(type, null,
+                Integer.valueOf(fields[1]), Integer.valueOf(fields[2]), Integer.valueOf(fields[3]),
+                shiftId, shiftName, LocalTime.parse(fields[5]), LocalTime.parse(fields[6]),
+                LocalDateTime.parse(fields[7]), LocalDateTime.parse(fields[8]), new BigDecimal(fields[9])));
+    }
+
+    // Chamado depois de gravar o aluguel, sob o lock do recurso. Dois POSTs com o mesmo token que passaram juntos pelo
+    // redeem disputam o mesmo slot, e o segundo para no conflito. Nenhum token ainda válido foi emitido há mais de
+    // ttlSeconds, então esse é o prazo de guarda; os vencidos saem aqui
+    public void markRedeemed(String token, LocalDateTime now) {
+        redeemed.values().removeIf(until -> until.isBefore(now));
+        redeemed.put(token.substring(token.lastIndexOf('.') + 1), now.plusSeconds(ttlSeconds));
+    }
+
+    // Tabela da versão atual do catálogo; remontada na primeira cotação depois de uma troca de snapshot
+    private Table table() {
+        CatalogService.Snapshot snapshot = catalogService.current();
+        Table current = table;
+        if (current != null && current.version() == snapshot.version()) {
+            return current;
+        }
+
+        Map<Integer, PlanTerms> terms = new HashMap<>();
+        for (RentalPlan plan : snapshot.plans()) {
+            RentalShift shift = plan.getRentalShift();
+            RentalCategory category = plan.getRentalCategory();
+            if (shift == null || category == null || category.getBaseDurationInDaysRentalCategories() == null
+                    || plan.getPriceRentalPlans() == null || plan.getPriceRentalPlans().compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+            terms.put(plan.getIdRentalPlans(), new PlanTerms(plan.getIdRentalPlans(), plan.getPlanNameRentalPlans(),
+                    shift.getIdRentalShifts(), shift.getNameRentalShifts(), shift.getStartTimeRentalShifts(),
+                    shift.getEndTimeRentalShifts(), category.getBaseDurationInDaysRentalCategories(), plan.getPriceRentalPlans()));
+        }
+
+        current = new Table(snapshot.version(), Map.copyOf(terms));
+        table = current;
+        return current;
+    }
+
+    private String sign(RentalSlot slot, String termsDigest, LocalDateTime expiresAt) {
+        String payload = String.join("|",
+                slot.type().name(),
+                slot.resourceId().toString(),
+                slot.customerId().toString(),
+                slot.planId().toString(),
+                slot.shiftId().toString(),
+                slot.shiftStart().toString(),
+                slot.shiftEnd().toString(),
+                slot.start().toString(),
+                slot.end().toString(),
+                slot.totalPrice().toPlainString(),
+                termsDigest,
+                expiresAt.toString());
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + encoder.encodeToString(mac(payload));
+    }
+
+    // Mac não é thread-safe; uma instância por chamada
+    private byte[] mac(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+}
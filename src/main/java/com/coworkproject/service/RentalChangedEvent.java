@@ -0,0 +1,20 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+
+// Publicado pelos controllers de aluguel depois de cada save/delete.
+// removed = estado anterior (null na criação); saved = novo estado (null na exclusão).
+public record RentalChangedEvent(ResourceType type, Integer rentalId, RentalSlot removed, RentalSlot saved) {
+
+    public static RentalChangedEvent created(RentalSlot saved) {
+        return new RentalChangedEvent(saved.type(), saved.rentalId(), null, saved);
+    }
+
+    public static RentalChangedEvent updated(RentalSlot removed, RentalSlot saved) {
+        return new RentalChangedEvent(saved.type(), saved.rentalId(), removed, saved);
+    }
+
+    public static RentalChangedEvent deleted(RentalSlot removed) {
+        return new RentalChangedEvent(removed.type(), removed.rentalId(), removed, null);
+    }
+}
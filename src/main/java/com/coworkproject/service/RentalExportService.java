@@ -0,0 +1,182 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Exportação dos aluguéis em NDJSON (um objeto JSON por linha) direto do cursor do banco:
+// cada linha lida é escrita na resposta e descartada, sem montar lista de entidades nem envelope em memória.
+// O cursor do MySQL (useCursorFetch=true, resultado em blocos de fetchSize linhas) fica num pool próprio e pequeno:
+// na URL compartilhada ele valeria para todas as consultas da aplicação, que passariam a usar prepared statements
+// no servidor (no MariaDB, consultas do Hibernate com parâmetro de data chegaram a voltar vazias assim).
+// Para integrações, a mesma sequência de objetos sai em CBOR (RFC 8742, um item após o outro) ou num stream Smile.
+@Component
+public class RentalExportService {
+
+    // Linhas escritas entre um flush e outro; a primeira linha sai sozinha para o cliente começar a receber logo
+    private static final int FLUSH_EVERY = 500;
+
+    // Colunas exportadas por tipo (mesmos nomes dos campos das entidades), na ordem em que saem no JSON
+    private record Table(String name, String id, String start, List<String> columns) {
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CBOR("application/cbor-seq", "cbor"),
+        SMILE("application/x-jackson-smile", "sml");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final Map<ResourceType, Table> TABLES = Map.of(
+            ResourceType.DESK, new Table("deskRentals", "idDeskRentals", "startPeriodDeskRentals", List.of(
+                    "idDeskRentals", "idDesks", "idCustomers", "idRentalPlans", "idRentalSeries",
+                    "startPeriodDeskRentals", "endPeriodDeskRentals", "totalPriceDeskRentals")),
+            ResourceType.ROOM, new Table("roomRentals", "idRoomRentals", "startPeriodAreaRentals", List.of(
+                    "idRoomRentals", "idRooms", "idCustomers", "idRentalSeries",
+                    "startPeriodAreaRentals", "endPeriodAreaRentals", "totalPriceStandRentals")),
+            ResourceType.AREA, new Table("areaRentals", "idAreaRentals", "startPeriodAreaRentals", List.of(
+                    "idAreaRentals", "idAreas", "idCustomers",
+                    "startPeriodAreaRentals", "endPeriodAreaRentals", "totalPriceStandRentals")),
+            ResourceType.STAND, new Table("standRentals", "idStandRentals", "startPeriodStandRentals", List.of(
+                    "idStandRentals", "idStands", "idCustomers", "idRentalPlans",
+                    "startPeriodStandRentals", "endPeriodStandRentals", "totalPriceStandRentals"))
+    );
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Format, ObjectMapper> objectMappers;
+    private final int fetchSize;
+
+    public RentalExportService(DataSourceProperties dataSourceProperties,
+                               ObjectMapper objectMapper,
+                               MappingJackson2CborHttpMessageConverter cborConverter,
+                               MappingJackson2SmileHttpMessageConverter smileConverter,
+                               @Value("${app.exports.fetch-size:1000}") int fetchSize,
+                               @Value("${app.exports.max-connections:4}") int maxConnections) {
+        // Mesmo banco e credenciais do pool principal, com o cursor ligado só aqui
+        String url = dataSourceProperties.determineUrl();
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true")
+                .build();
+        this.dataSource.setPoolName("exports");
+        this.dataSource.setMaximumPoolSize(maxConnections);
+        this.dataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Cópias sem o flush a cada valor: writeObject passa pelo mapper, e o flush fica com o FLUSH_EVERY
+        this.objectMappers = Map.of(
+                Format.NDJSON, withoutFlushPerValue(objectMapper),
+                Format.CBOR, withoutFlushPerValue(cborConverter.getObjectMapper()),
+                Format.SMILE, withoutFlushPerValue(smileConverter.getObjectMapper()));
+        this.fetchSize = fetchSize;
+    }
+
+    private static ObjectMapper withoutFlushPerValue(ObjectMapper objectMapper) {
+        return objectMapper.copy().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    // Escreve os aluguéis do tipo (opcionalmente com início em [from, to)) em ordem de id; devolve quantas linhas saíram
+    public long export(ResourceType type, LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        Table table = TABLES.get(type);
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(String.join(", ", table.columns().stream().map(column -> "`" + column + "`").toList()));
+        sql.append(" FROM `").append(table.name()).append("`");
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(params.isEmpty() ? " WHERE " : " AND ").append("`").append(table.start()).append("` >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(params.isEmpty() ? " WHERE " : " AND ").append("`").append(table.start()).append("` < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY `").append(table.id()).append("`");
+
+        JsonGenerator generator = objectMappers.get(format).createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        boolean ndjson = format == Format.NDJSON;
+        if (ndjson) {
+            // Sem o espaço padrão entre valores da raiz: cada objeto termina na própria quebra de linha
+            generator.setRootValueSeparator(null);
+        }
+        long[] written = {0};
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, (ResultSet resultSet) -> {
+                try {
+                    generator.writeStartObject();
+                    for (int i = 0; i < table.columns().size(); i++) {
+                        generator.writeFieldName(table.columns().get(i));
+                        generator.writeObject(resultSet.getObject(i + 1));
+                    }
+                    generator.writeEndObject();
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+
+                    written[0]++;
+                    if (written[0] == 1 || written[0] % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    // Cliente desconectou: interrompe a leitura e o JdbcTemplate fecha cursor e conexão
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        generator.flush();
+        return written[0];
+    }
+}
@@ -0,0 +1,195 @@
+package com.coworkproject.service;
+
+import com.coworkproject.index.IntervalTree;
+import com.coworkproject.index.ShiftCalendar;
+import com.coworkproject.index.ShiftOverlapMatrix;
+import com.coworkproject.model.ResourceType;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Índice em memória dos aluguéis de um tipo de recurso.
+// Por recurso guarda um calendário dia x turno (filtro rápido) e uma árvore de intervalos (verificação exata).
+// Carregado na inicialização só com os aluguéis que ainda não terminaram (um aluguel encerrado não conflita com
+// reserva nova), recarregado todo dia para avançar o corte e descartar os que terminaram, e mantido pelos eventos
+// de save/delete dos controllers. Um período que começa antes do corte (reserva retroativa ou edição de um aluguel
+// passado) é conferido no banco, que tem o histórico.
+public abstract class RentalIndex {
+
+    private final ShiftMatrixService matrixService;
+
+    private final Map<Integer, IntervalTree<RentalSlot>> trees = new HashMap<>();
+    private final Map<Integer, ShiftCalendar> calendars = new HashMap<>();
+    private final Map<Integer, RentalSlot> byRental = new HashMap<>();
+    private ShiftOverlapMatrix matrix;
+    // Início do que o índice cobre: aluguéis que terminaram antes disso não foram carregados
+    private volatile LocalDateTime loadedFrom = LocalDateTime.MIN;
+
+    private final Object reloadLock = new Object();
+    private List<RentalChangedEvent> changedWhileLoading;
+
+    protected RentalIndex(ShiftMatrixService matrixService) {
+        this.matrixService = matrixService;
+    }
+
+    protected abstract ResourceType type();
+
+    // Aluguéis que terminam a partir de endFrom
+    protected abstract List<RentalSlot> loadSlots(LocalDateTime endFrom);
+
+    // Corte da carga; o padrão carrega tudo e o índice nunca precisa ir ao banco
+    protected LocalDateTime loadFrom() {
+        return LocalDateTime.MIN;
+    }
+
+    // Aluguéis do recurso que tocam o período, lidos do banco (só para períodos que começam antes do corte)
+    protected List<RentalSlot> findStoredSlots(Integer resourceId, LocalDateTime startDate, LocalDateTime endDate) {
+        return List.of();
+    }
+
+    // A leitura do banco roda fora do monitor: enquanto ela dura, as reservas seguem conferidas no índice atual.
+    // Eventos que chegam nesse meio tempo valem para o índice atual e são reaplicados no novo depois da troca
+    // (tirar e recolocar o mesmo aluguel dá o mesmo resultado, tenha a leitura enxergado a alteração ou não).
+    @PostConstruct
+    @Scheduled(cron = "${app.rentals.reload-cron:0 1 0 * * *}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                changedWhileLoading = new ArrayList<>();
+            }
+            LocalDateTime from = loadFrom();
+            List<RentalSlot> slots;
+            try {
+                slots = loadSlots(from);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedWhileLoading = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                matrix = matrixService.current();
+                trees.clear();
+                calendars.clear();
+                byRental.clear();
+                slots.forEach(this::add);
+                changedWhileLoading.forEach(this::apply);
+                changedWhileLoading = null;
+                loadedFrom = from;
+            }
+        }
+    }
+
+    // Primeiro aluguel do recurso que conflita com o período e o turno informados
+    public Optional<RentalSlot> findConflict(Integer resourceId,
+                                             LocalDateTime startDate,
+                                             LocalDateTime endDate,
+                                             Integer shiftId,
+                                             LocalTime shiftStart,
+                                             LocalTime shiftEnd,
+                                             Integer ignoredRentalId) {
+        // Fora do que foi carregado: consulta no banco, fora do monitor do índice
+        if (startDate.isBefore(loadedFrom)) {
+            return findStoredSlots(resourceId, startDate, endDate).stream()
+                    .filter(slot -> !slot.rentalId().equals(ignoredRentalId) && slot.shiftOverlaps(shiftStart, shiftEnd))
+                    .findFirst();
+        }
+        return findIndexedConflict(resourceId, startDate, endDate, shiftId, shiftStart, shiftEnd, ignoredRentalId);
+    }
+
+    private synchronized Optional<RentalSlot> findIndexedConflict(Integer resourceId,
+                                                                  LocalDateTime startDate,
+                                                                  LocalDateTime endDate,
+                                                                  Integer shiftId,
+                                                                  LocalTime shiftStart,
+                                                                  LocalTime shiftEnd,
+                                                                  Integer ignoredRentalId) {
+        // Caminho rápido: nenhum dia do período tem turno sobreposto ocupado
+        ShiftCalendar calendar = calendars.get(resourceId);
+        if (calendar == null || !calendar.intersects(startDate.toLocalDate(), endDate.toLocalDate(), matrix.conflictMask(shiftId))) {
+            return Optional.empty();
+        }
+
+        // O calendário acusou ocupação: confirma na árvore, ignorando o próprio aluguel
+        IntervalTree<RentalSlot> tree = trees.get(resourceId);
+        return Optional.ofNullable(tree.findFirstOverlapping(startDate, endDate, slot ->
+                !slot.rentalId().equals(ignoredRentalId) && slot.shiftOverlaps(shiftStart, shiftEnd)));
+    }
+
+    public synchronized int size() {
+        return byRental.size();
+    }
+
+    @EventListener
+    @Order(10)
+    public synchronized void onRentalChanged(RentalChangedEvent event) {
+        if (event.type() != type()) {
+            return;
+        }
+        apply(event);
+        if (changedWhileLoading != null) {
+            changedWhileLoading.add(event);
+        }
+    }
+
+    // Plano ou turno alterado muda o horário dos aluguéis existentes; roda depois da matriz de turnos
+    @EventListener
+    @Order(10)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        reload();
+    }
+
+    private void apply(RentalChangedEvent event) {
+        remove(event.rentalId());
+        if (event.saved() != null) {
+            add(event.saved());
+        }
+    }
+
+    private void add(RentalSlot slot) {
+        if (slot.resourceId() == null || slot.start() == null || slot.end() == null) {
+            return;
+        }
+        trees.computeIfAbsent(slot.resourceId(), id -> new IntervalTree<>())
+                .insert(slot.start(), slot.end(), slot.rentalId(), slot);
+        calendars.computeIfAbsent(slot.resourceId(), id -> new ShiftCalendar(matrix.words()))
+                .mark(slot.start().toLocalDate(), slot.end().toLocalDate(), matrix.bits(slot.shiftId()));
+        byRental.put(slot.rentalId(), slot);
+    }
+
+    private void remove(Integer rentalId) {
+        RentalSlot previous = byRental.remove(rentalId);
+        if (previous == null) {
+            return;
+        }
+
+        Integer resourceId = previous.resourceId();
+        IntervalTree<RentalSlot> tree = trees.get(resourceId);
+        tree.remove(previous.start(), previous.rentalId());
+
+        ShiftCalendar calendar = calendars.get(resourceId);
+        LocalDate from = previous.start().toLocalDate();
+        LocalDate to = previous.end().toLocalDate();
+        calendar.clear(from, to, matrix.bits(previous.shiftId()));
+
+        // Outros aluguéis nos mesmos dias podem compartilhar o bit que acabou de ser desligado
+        for (RentalSlot other : tree.findOverlapping(from.atStartOfDay(), to.atTime(LocalTime.MAX))) {
+            calendar.mark(other.start().toLocalDate(), other.end().toLocalDate(), matrix.bits(other.shiftId()));
+        }
+
+        if (tree.isEmpty()) {
+            trees.remove(resourceId);
+            calendars.remove(resourceId);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.AreaRental;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.RoomRental;
+import com.coworkproject.model.StandRental;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Visão enxuta e imutável de um aluguel, usada pelos índices em memória.
+// Os dados do turno são copiados para que a verificação de conflito não dependa do grafo de entidades.
+public record RentalSlot(ResourceType type,
+                         Integer rentalId,
+                         Integer resourceId,
+                         Integer customerId,
+                         Integer planId,
+                         Integer shiftId,
+                         String shiftName,
+                         LocalTime shiftStart,
+                         LocalTime shiftEnd,
+                         LocalDateTime start,
+                         LocalDateTime end,
+                         BigDecimal totalPrice) {
+
+    public static RentalSlot of(DeskRental rental) {
+        RentalPlan plan = rental.getRentalPlan();
+        RentalShift shift = plan != null ? plan.getRentalShift() : null;
+        return new RentalSlot(
+                ResourceType.DESK,
+                rental.getIdDeskRentals(),
+                rental.getDesk() != null ? rental.getDesk().getIdDesks() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                plan != null ? plan.getIdRentalPlans() : null,
+                shift != null ? shift.getIdRentalShifts() : null,
+                shift != null ? shift.getNameRentalShifts() : null,
+                shift != null ? shift.getStartTimeRentalShifts() : null,
+                shift != null ? shift.getEndTimeRentalShifts() : null,
+                rental.getStartPeriodDeskRentals(),
+                rental.getEndPeriodDeskRentals(),
+                rental.getTotalPriceDeskRentals()
+        );
+    }
+
+    public static RentalSlot of(StandRental rental) {
+        RentalPlan plan = rental.getRentalPlan();
+        RentalShift shift = plan != null ? plan.getRentalShift() : null;
+        return new RentalSlot(
+                ResourceType.STAND,
+                rental.getIdStandRentals(),
+                rental.getStand() != null ? rental.getStand().getIdStands() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                plan != null ? plan.getIdRentalPlans() : null,
+                shift != null ? shift.getIdRentalShifts() : null,
+                shift != null ? shift.getNameRentalShifts() : null,
+                shift != null ? shift.getStartTimeRentalShifts() : null,
+                shift != null ? shift.getEndTimeRentalShifts() : null,
+                rental.getStartPeriodStandRentals(),
+                rental.getEndPeriodStandRentals(),
+                rental.getTotalPriceStandRentals()
+        );
+    }
+
+    // Salas e áreas não têm plano nem turno: o aluguel ocupa o intervalo inteiro
+    public static RentalSlot of(RoomRental rental) {
+        return new RentalSlot(
+                ResourceType.ROOM,
+                rental.getIdRoomRentals(),
+                rental.getRoom() != null ? rental.getRoom().getIdRooms() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                rental.getStartPeriodAreaRentals(),
+                rental.getEndPeriodAreaRentals(),
+                rental.getTotalPriceStandRentals()
+        );
+    }
+
+    public static RentalSlot of(AreaRental rental) {
+        return new RentalSlot(
+                ResourceType.AREA,
+                rental.getIdAreaRentals(),
+                rental.getArea() != null ? rental.getArea().getIdAreas() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getIdCustomers() : null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                rental.getStartPeriodAreaRentals(),
+                rental.getEndPeriodAreaRentals(),
+                rental.getTotalPriceStandRentals()
+        );
+    }
+
+    // Mesma ocupação com outro id (usado pelas reservas temporárias, que têm numeração própria)
+    public RentalSlot withRentalId(Integer id) {
+        return new RentalSlot(type, id, resourceId, customerId, planId, shiftId, shiftName,
+                shiftStart, shiftEnd, start, end, totalPrice);
+    }
+
+    public boolean hasShift() {
+        return shiftStart != null && shiftEnd != null;
+    }
+
+    // Mesma regra do checkTimeOverlap dos controllers
+    public boolean shiftOverlaps(LocalTime otherStart, LocalTime otherEnd) {
+        if (!hasShift() || otherStart == null || otherEnd == null) {
+            return true;
+        }
+        return otherStart.isBefore(shiftEnd) && otherEnd.isAfter(shiftStart);
+    }
+
+    // Mesmo recurso, períodos sobrepostos (intervalo fechado, como nos índices) e turnos sobrepostos
+    public boolean conflictsWith(RentalSlot other) {
+        return type == other.type
+                && resourceId != null && resourceId.equals(other.resourceId)
+                && !start.isAfter(other.end) && !end.isBefore(other.start)
+                && shiftOverlaps(other.shiftStart, other.shiftEnd);
+    }
+}
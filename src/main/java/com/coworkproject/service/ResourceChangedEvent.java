@@ -0,0 +1,7 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+
+// Publicado pelos controllers de mesas, salas, áreas e stands depois de cada save/delete
+public record ResourceChangedEvent(ResourceType type, Integer resourceId, boolean deleted) {
+}
@@ -0,0 +1,49 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Locks listrados por (tipo de recurso, id do recurso).
+// Serializa a verificação de conflito + save de um mesmo recurso sem bloquear os demais.
+// Vale apenas dentro do processo: com mais de uma instância a proteção precisa vir do banco.
+@Component
+public class ResourceLocks {
+
+    private final Lock[] stripes;
+
+    public ResourceLocks(@Value("${app.booking.lock-stripes:256}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock lockFor(ResourceType type, Integer resourceId) {
+        return stripes[stripeOf(type, resourceId)];
+    }
+
+    // Locks de vários recursos, sem repetição e sempre na mesma ordem (evita deadlock entre lotes)
+    public List<Lock> locksFor(ResourceType type, Collection<Integer> resourceIds) {
+        return resourceIds.stream()
+                .mapToInt(id -> stripeOf(type, id))
+                .distinct()
+                .sorted()
+                .mapToObj(i -> stripes[i])
+                .toList();
+    }
+
+    private int stripeOf(ResourceType type, Integer resourceId) {
+        int hash = 31 * type.ordinal() + (resourceId != null ? resourceId : 0);
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash & (stripes.length - 1);
+    }
+}
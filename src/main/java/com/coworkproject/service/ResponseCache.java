@@ -0,0 +1,170 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Cache das respostas dos GET por id mais acessados (telas de detalhe), já serializadas em JSON:
+// um acerto devolve os bytes direto, sem consultar o banco nem passar pelo Jackson.
+// Limitado por número de entradas, descartando a menos usada (LRU), e invalidado pelos eventos de escrita.
+@Component
+public class ResponseCache {
+
+    private record Key(String endpoint, Integer id) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<Key, byte[]> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Cresce a cada invalidação; uma resposta montada antes de uma escrita não é guardada depois dela
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         @Value("${app.response-cache.max-entries:2000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Resposta guardada para o endpoint e id ou, se não houver, a montada pelo loader (só 200 é guardado)
+    public ResponseEntity<byte[]> get(String endpoint, Integer id, Supplier<ResponseEntity<Map<String, Object>>> loader) {
+        Key key = new Key(endpoint, id);
+        byte[] body;
+        synchronized (entries) {
+            body = entries.get(key);
+        }
+        if (body != null) {
+            hits.incrementAndGet();
+            return json(HttpStatus.OK, body);
+        }
+        misses.incrementAndGet();
+
+        long seen = invalidations.get();
+        ResponseEntity<Map<String, Object>> response = loader.get();
+        try {
+            body = objectMapper.writeValueAsBytes(response.getBody());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar resposta de " + endpoint + "/" + id, e);
+        }
+
+        if (HttpStatus.OK.equals(response.getStatusCode())) {
+            synchronized (entries) {
+                if (invalidations.get() == seen) {
+                    entries.put(key, body);
+                }
+            }
+        }
+        return json(response.getStatusCode(), body);
+    }
+
+    public void evict(String endpoint, Integer id) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(new Key(endpoint, id));
+        }
+    }
+
+    public void evictAll(String endpoint) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.keySet().removeIf(key -> key.endpoint().equals(endpoint));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    public static String resourceEndpoint(ResourceType type) {
+        return switch (type) {
+            case DESK -> "desks";
+            case ROOM -> "rooms";
+            case AREA -> "areas";
+            case STAND -> "stands";
+        };
+    }
+
+    public static String rentalEndpoint(ResourceType type) {
+        return switch (type) {
+            case DESK -> "deskRentals";
+            case ROOM -> "roomRentals";
+            case AREA -> "areaRentals";
+            case STAND -> "standRentals";
+        };
+    }
+
+    // Criação não invalida nada: o id é novo e um 404 nunca é guardado
+    @EventListener
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.removed() != null) {
+            evict(rentalEndpoint(event.type()), event.rentalId());
+        }
+    }
+
+    // O aluguel traz o recurso embutido; alterações em recursos são raras, então vale limpar os aluguéis do tipo
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        evict(resourceEndpoint(event.type()), event.resourceId());
+        evictAll(rentalEndpoint(event.type()));
+    }
+
+    // Plano (com categoria e turno) e cliente também vêm embutidos nos aluguéis
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        evictAllRentals();
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        evictAllRentals();
+    }
+
+    private void evictAllRentals() {
+        for (ResourceType type : ResourceType.values()) {
+            evictAll(rentalEndpoint(type));
+        }
+    }
+
+    private static ResponseEntity<byte[]> json(HttpStatusCode status, byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,48 @@
+package com.coworkproject.service;
+
+import com.coworkproject.index.ShiftOverlapMatrix;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.repository.RentalShiftRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Mantém a matriz de sobreposição de turnos, reconstruída a cada alteração no catálogo
+@Component
+public class ShiftMatrixService {
+
+    private final RentalShiftRepository shiftRepository;
+    private volatile ShiftOverlapMatrix current = new ShiftOverlapMatrix(List.of());
+
+    public ShiftMatrixService(RentalShiftRepository shiftRepository) {
+        this.shiftRepository = shiftRepository;
+    }
+
+    public ShiftOverlapMatrix current() {
+        return current;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<ShiftOverlapMatrix.Shift> shifts = shiftRepository.findAll().stream()
+                .sorted(Comparator.comparing(RentalShift::getIdRentalShifts))
+                .map(shift -> new ShiftOverlapMatrix.Shift(
+                        shift.getIdRentalShifts(),
+                        shift.getNameRentalShifts(),
+                        shift.getStartTimeRentalShifts(),
+                        shift.getEndTimeRentalShifts()))
+                .toList();
+        current = new ShiftOverlapMatrix(shifts);
+    }
+
+    // Roda antes dos índices, que dependem da matriz nova
+    @EventListener
+    @Order(0)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        rebuild();
+    }
+}
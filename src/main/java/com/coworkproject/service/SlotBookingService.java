@@ -0,0 +1,236 @@
+package com.coworkproject.service;
+
+import com.coworkproject.dto.HoldRequest;
+import com.coworkproject.model.AreaRental;
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.RoomRental;
+import com.coworkproject.model.StandRental;
+import com.coworkproject.repository.AreaRentalRepository;
+import com.coworkproject.repository.AreaRepository;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.repository.StandRentalRepository;
+import com.coworkproject.repository.StandRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+
+// Operações sobre um slot (recurso + período + turno) independentes do tipo de recurso,
+// compartilhadas pelas reservas temporárias e pela fila de espera.
+@Component
+public class SlotBookingService {
+
+    // Slot montado a partir do pedido, ou a mensagem e o status do erro de validação
+    public record Resolution(RentalSlot slot, String error, HttpStatus status) {
+
+        static Resolution ok(RentalSlot slot) {
+            return new Resolution(slot, null, null);
+        }
+
+        static Resolution error(String error, HttpStatus status) {
+            return new Resolution(null, error, status);
+        }
+    }
+
+    // Aluguel gravado e a sua visão enxuta (o id é o do aluguel)
+    public record Booking(Object rental, RentalSlot slot) {
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeskRentalIndex deskRentalIndex;
+    private final StandRentalIndex standRentalIndex;
+    private final CustomerRepository customerRepository;
+    private final CatalogService catalogService;
+    private final DeskRepository deskRepository;
+    private final StandRepository standRepository;
+    private final RoomRepository roomRepository;
+    private final AreaRepository areaRepository;
+    private final DeskRentalRepository deskRentalRepository;
+    private final StandRentalRepository standRentalRepository;
+    private final RoomRentalRepository roomRentalRepository;
+    private final AreaRentalRepository areaRentalRepository;
+
+    public SlotBookingService(ApplicationEventPublisher eventPublisher,
+                              DeskRentalIndex deskRentalIndex,
+                              StandRentalIndex standRentalIndex,
+                              CustomerRepository customerRepository,
+                              CatalogService catalogService,
+                              DeskRepository deskRepository,
+                              StandRepository standRepository,
+                              RoomRepository roomRepository,
+                              AreaRepository areaRepository,
+                              DeskRentalRepository deskRentalRepository,
+                              StandRentalRepository standRentalRepository,
+                              RoomRentalRepository roomRentalRepository,
+                              AreaRentalRepository areaRentalRepository) {
+        this.eventPublisher = eventPublisher;
+        this.deskRentalIndex = deskRentalIndex;
+        this.standRentalIndex = standRentalIndex;
+        this.customerRepository = customerRepository;
+        this.catalogService = catalogService;
+        this.deskRepository = deskRepository;
+        this.standRepository = standRepository;
+        this.roomRepository = roomRepository;
+        this.areaRepository = areaRepository;
+        this.deskRentalRepository = deskRentalRepository;
+        this.standRentalRepository = standRentalRepository;
+        this.roomRentalRepository = roomRentalRepository;
+        this.areaRentalRepository = areaRentalRepository;
+    }
+
+    // Valida o pedido e calcula o período com a mesma regra dos POSTs de aluguel de cada tipo
+    public Resolution resolve(HoldRequest request) {
+        ResourceType type = request.getResourceType();
+        if (type == null) {
+            return Resolution.error("Tipo de recurso é obrigatório (DESK, STAND, ROOM ou AREA)", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getIdResource() == null) {
+            return Resolution.error("ID do recurso é obrigatório", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getIdCustomers() == null) {
+            return Resolution.error("ID do cliente é obrigatório", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getTotalPrice() == null || request.getTotalPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            return Resolution.error("Preço total deve ser maior que zero", HttpStatus.BAD_REQUEST);
+        }
+
+        if (!resourceExists(type, request.getIdResource())) {
+            return Resolution.error("Recurso não encontrado com ID: " + request.getIdResource(), HttpStatus.NOT_FOUND);
+        }
+
+        if (!customerRepository.existsById(request.getIdCustomers())) {
+            return Resolution.error("Cliente não encontrado com ID: " + request.getIdCustomers(), HttpStatus.NOT_FOUND);
+        }
+
+        if (request.getStartPeriod() == null) {
+            return Resolution.error("Data de início é obrigatória", HttpStatus.BAD_REQUEST);
+        }
+
+        if (request.getStartPeriod().isBefore(LocalDateTime.now().toLocalDate().atStartOfDay())) {
+            return Resolution.error("Data de início não pode ser no passado", HttpStatus.BAD_REQUEST);
+        }
+
+        if (type == ResourceType.ROOM || type == ResourceType.AREA) {
+            if (request.getEndPeriod() == null) {
+                return Resolution.error("Datas de início e término são obrigatórias", HttpStatus.BAD_REQUEST);
+            }
+
+            if (request.getStartPeriod().isAfter(request.getEndPeriod())) {
+                return Resolution.error("Data de início não pode ser após a data de término", HttpStatus.BAD_REQUEST);
+            }
+
+            return Resolution.ok(new RentalSlot(type, null, request.getIdResource(), request.getIdCustomers(),
+                    null, null, null, null, null,
+                    request.getStartPeriod(), request.getEndPeriod(), request.getTotalPrice()));
+        }
+
+        if (request.getIdRentalPlans() == null) {
+            return Resolution.error("ID do plano de aluguel é obrigatório", HttpStatus.BAD_REQUEST);
+        }
+
+        Optional<RentalPlan> rentalPlan = catalogService.plan(request.getIdRentalPlans());
+        if (rentalPlan.isEmpty()) {
+            return Resolution.error("Plano de aluguel não encontrado com ID: " + request.getIdRentalPlans(), HttpStatus.NOT_FOUND);
+        }
+
+        RentalShift shift = rentalPlan.get().getRentalShift();
+        if (shift == null) {
+            return Resolution.error("Plano de aluguel não possui turno definido", HttpStatus.BAD_REQUEST);
+        }
+
+        RentalCategory rentalCategory = rentalPlan.get().getRentalCategory();
+        if (rentalCategory == null) {
+            return Resolution.error("Categoria do plano de aluguel não encontrada", HttpStatus.NOT_FOUND);
+        }
+
+        // Mesa começa no início do turno; stand mantém o horário enviado pelo frontend
+        LocalTime startTime = shift.getStartTimeRentalShifts();
+        LocalTime endTime = shift.getEndTimeRentalShifts();
+        LocalDateTime startDate = type == ResourceType.DESK
+                ? request.getStartPeriod().with(startTime)
+                : request.getStartPeriod();
+        LocalDateTime endDate = startDate.plusDays(rentalCategory.getBaseDurationInDaysRentalCategories() - 1).with(endTime);
+
+        return Resolution.ok(new RentalSlot(type, null, request.getIdResource(), request.getIdCustomers(),
+                request.getIdRentalPlans(), shift.getIdRentalShifts(), shift.getNameRentalShifts(),
+                startTime, endTime, startDate, endDate, request.getTotalPrice()));
+    }
+
+    // Mesas e stands usam o índice em memória; salas e áreas a consulta de conflito do repositório.
+    // Quem chama segura o lock do recurso.
+    public boolean isRented(RentalSlot slot) {
+        return switch (slot.type()) {
+            case DESK -> deskRentalIndex.findConflict(slot.resourceId(), slot.start(), slot.end(),
+                    slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null).isPresent();
+            case STAND -> standRentalIndex.findConflict(slot.resourceId(), slot.start(), slot.end(),
+                    slot.shiftId(), slot.shiftStart(), slot.shiftEnd(), null).isPresent();
+            case ROOM -> !roomRentalRepository.findConflictingRentals(slot.resourceId(), slot.start(), slot.end()).isEmpty();
+            case AREA -> !areaRentalRepository.findConflictingRentals(slot.resourceId(), slot.start(), slot.end()).isEmpty();
+        };
+    }
+
+    // Grava o aluguel com os dados do slot, sem verificar conflito, e publica o evento.
+    // Vazio se o recurso, o cliente ou o plano foi removido nesse meio tempo.
+    public Optional<Booking> book(RentalSlot slot) {
+        Optional<Customer> customer = customerRepository.findById(slot.customerId());
+        if (customer.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<RentalPlan> rentalPlan = catalogService.plan(slot.planId());
+        Optional<Booking> booking = switch (slot.type()) {
+            case DESK -> rentalPlan.flatMap(plan -> deskRepository.findById(slot.resourceId()))
+                    .map(desk -> {
+                        DeskRental saved = deskRentalRepository.save(new DeskRental(desk, customer.get(), rentalPlan.get(),
+                                slot.start(), slot.end(), slot.totalPrice()));
+                        return new Booking(saved, RentalSlot.of(saved));
+                    });
+            case STAND -> rentalPlan.flatMap(plan -> standRepository.findById(slot.resourceId()))
+                    .map(stand -> {
+                        StandRental saved = standRentalRepository.save(new StandRental(stand, customer.get(), rentalPlan.get(),
+                                slot.start(), slot.end(), slot.totalPrice()));
+                        return new Booking(saved, RentalSlot.of(saved));
+                    });
+            case ROOM -> roomRepository.findById(slot.resourceId())
+                    .map(room -> {
+                        RoomRental saved = roomRentalRepository.save(new RoomRental(room, customer.get(),
+                                slot.start(), slot.end(), slot.totalPrice()));
+                        return new Booking(saved, RentalSlot.of(saved));
+                    });
+            case AREA -> areaRepository.findById(slot.resourceId())
+                    .map(area -> {
+                        AreaRental saved = areaRentalRepository.save(new AreaRental(area, customer.get(),
+                                slot.start(), slot.end(), slot.totalPrice()));
+                        return new Booking(saved, RentalSlot.of(saved));
+                    });
+        };
+
+        booking.ifPresent(saved -> eventPublisher.publishEvent(RentalChangedEvent.created(saved.slot())));
+        return booking;
+    }
+
+    private boolean resourceExists(ResourceType type, Integer resourceId) {
+        return switch (type) {
+            case DESK -> deskRepository.existsById(resourceId);
+            case STAND -> standRepository.existsById(resourceId);
+            case ROOM -> roomRepository.existsById(resourceId);
+            case AREA -> areaRepository.existsById(resourceId);
+        };
+    }
+}
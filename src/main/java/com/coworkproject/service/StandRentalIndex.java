@@ -0,0 +1,42 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.StandRentalRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Índice em memória dos aluguéis de stand
+@Component
+public class StandRentalIndex extends RentalIndex {
+
+    private final StandRentalRepository repository;
+
+    public StandRentalIndex(StandRentalRepository repository, ShiftMatrixService matrixService) {
+        super(matrixService);
+        this.repository = repository;
+    }
+
+    @Override
+    protected ResourceType type() {
+        return ResourceType.STAND;
+    }
+
+    // Só os aluguéis que ainda não terminaram; os anteriores ficam no banco
+    @Override
+    protected LocalDateTime loadFrom() {
+        return LocalDate.now().atStartOfDay();
+    }
+
+    @Override
+    protected List<RentalSlot> loadSlots(LocalDateTime endFrom) {
+        return repository.findSlotsEndingFrom(endFrom);
+    }
+
+    @Override
+    protected List<RentalSlot> findStoredSlots(Integer resourceId, LocalDateTime startDate, LocalDateTime endDate) {
+        return repository.findSlotsOverlapping(resourceId, startDate, endDate);
+    }
+}
@@ -0,0 +1,52 @@
+package com.coworkproject.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Contador de versão por tabela, incrementado depois de cada escrita (eventos publicados pelos controllers).
+// Serve de base para ETags: enquanto o contador não muda, a resposta dos GETs daquela tabela também não muda.
+// O prefixo de inicialização evita que um ETag de antes de um restart (contadores zerados) volte a coincidir.
+@Component
+public class TableVersions {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void bump(String table) {
+        versions.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    // Soma das versões das tabelas: cada escrita aumenta a soma, então ela muda sempre que qualquer uma muda
+    public long version(String... tables) {
+        long sum = 0;
+        for (String table : tables) {
+            AtomicLong version = versions.get(table);
+            sum += version != null ? version.get() : 0;
+        }
+        return sum;
+    }
+
+    // ETag forte (entre aspas) das tabelas das quais a resposta depende
+    public String etag(String... tables) {
+        return "\"" + bootId + "-" + version(tables) + "\"";
+    }
+
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        bump(switch (event.type()) {
+            case DESK -> "desks";
+            case ROOM -> "rooms";
+            case AREA -> "areas";
+            case STAND -> "stands";
+        });
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        bump(event.table());
+    }
+}
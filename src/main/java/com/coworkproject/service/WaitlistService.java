@@ -0,0 +1,267 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.WaitlistEntry;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.WaitlistEntryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Lock;
+
+// Fila de espera por (recurso, período, turno). A tabela waitlistEntries é a fonte da verdade;
+// em memória fica uma fila de prioridade por recurso (ordem de chegada) só com os pedidos em espera.
+// Quando um aluguel é excluído, movido ou encurtado, ou uma reserva temporária vence, os pedidos daquele recurso que tocam
+// o slot liberado são avaliados na ordem da fila e promovidos assim que cabem.
+@Component
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    public static final int MAX_WAITING_PER_RESOURCE = 100;
+
+    // Pedido em espera na memória; o rentalId do slot é o id do pedido
+    public record Waiting(Integer idWaitlistEntries,
+                          RentalSlot slot,
+                          LocalDateTime createdAt,
+                          WaitlistEntry.PromoteTo promoteTo,
+                          Long ttlSeconds) {
+    }
+
+    private record Key(ResourceType type, Integer resourceId) {
+    }
+
+    private static final Comparator<Waiting> ARRIVAL_ORDER = Comparator
+            .comparing(Waiting::createdAt)
+            .thenComparing(Waiting::idWaitlistEntries);
+
+    private final WaitlistEntryRepository repository;
+    private final CustomerRepository customerRepository;
+    private final CatalogService catalogService;
+    private final SlotBookingService slotBookingService;
+    private final HoldService holdService;
+    private final ResourceLocks resourceLocks;
+
+    private final Map<Key, PriorityQueue<Waiting>> queues = new HashMap<>();
+    private final Map<Integer, Waiting> byId = new HashMap<>();
+
+    public WaitlistService(WaitlistEntryRepository repository,
+                           CustomerRepository customerRepository,
+                           CatalogService catalogService,
+                           SlotBookingService slotBookingService,
+                           HoldService holdService,
+                           ResourceLocks resourceLocks) {
+        this.repository = repository;
+        this.customerRepository = customerRepository;
+        this.catalogService = catalogService;
+        this.slotBookingService = slotBookingService;
+        this.holdService = holdService;
+        this.resourceLocks = resourceLocks;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        queues.clear();
+        byId.clear();
+        repository.findByStatusWaitlistEntriesOrderByCreatedAtWaitlistEntriesAscIdWaitlistEntriesAsc(WaitlistEntry.Status.WAITING)
+                .forEach(entry -> add(toWaiting(entry)));
+    }
+
+    // Grava o pedido e o coloca na fila. Quem chama segura o lock do recurso e já confirmou que o slot está ocupado.
+    public WaitlistEntry join(RentalSlot slot, WaitlistEntry.PromoteTo promoteTo, Long ttlSeconds) {
+        RentalPlan rentalPlan = slot.planId() != null ? catalogService.plan(slot.planId()).orElseThrow() : null;
+        WaitlistEntry entry = repository.save(new WaitlistEntry(
+                slot.type(),
+                slot.resourceId(),
+                customerRepository.findById(slot.customerId()).orElseThrow(),
+                rentalPlan,
+                slot.start(),
+                slot.end(),
+                slot.totalPrice(),
+                promoteTo,
+                ttlSeconds
+        ));
+
+        synchronized (this) {
+            add(toWaiting(entry));
+        }
+        return entry;
+    }
+
+    // Retira o pedido da fila; falso se ele não está mais em espera
+    public boolean cancel(Integer idWaitlistEntries) {
+        Waiting waiting = find(idWaitlistEntries).orElse(null);
+        if (waiting == null) {
+            return false;
+        }
+
+        Lock lock = resourceLocks.lockFor(waiting.slot().type(), waiting.slot().resourceId());
+        lock.lock();
+        try {
+            if (find(idWaitlistEntries).isEmpty()) {
+                return false;
+            }
+            resolve(waiting, WaitlistEntry.Status.CANCELLED, null);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public synchronized Optional<Waiting> find(Integer idWaitlistEntries) {
+        return Optional.ofNullable(byId.get(idWaitlistEntries));
+    }
+
+    // Posição na fila do recurso (1 = próximo a ser avaliado); 0 se o pedido não está em espera
+    public synchronized int position(Integer idWaitlistEntries) {
+        Waiting waiting = byId.get(idWaitlistEntries);
+        if (waiting == null) {
+            return 0;
+        }
+        PriorityQueue<Waiting> queue = queues.get(keyOf(waiting.slot()));
+        return (int) queue.stream().filter(other -> ARRIVAL_ORDER.compare(other, waiting) < 0).count() + 1;
+    }
+
+    // Pedidos em espera de um recurso, na ordem da fila
+    public synchronized List<Waiting> waiting(ResourceType type, Integer resourceId) {
+        PriorityQueue<Waiting> queue = queues.get(new Key(type, resourceId));
+        if (queue == null) {
+            return List.of();
+        }
+        List<Waiting> ordered = new ArrayList<>(queue);
+        ordered.sort(ARRIVAL_ORDER);
+        return ordered;
+    }
+
+    public synchronized int size(ResourceType type, Integer resourceId) {
+        PriorityQueue<Waiting> queue = queues.get(new Key(type, resourceId));
+        return queue != null ? queue.size() : 0;
+    }
+
+    // Roda depois dos índices (Order 10), que já não contêm o aluguel excluído nem o slot anterior do alterado.
+    // Na alteração o slot anterior é tratado como liberado; o trecho que o aluguel continua ocupando barra os
+    // pedidos que caem nele na verificação de isRented
+    @EventListener
+    @Order(20)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.removed() != null) {
+            promote(event.removed());
+        }
+    }
+
+    @EventListener
+    public void onHoldReleased(HoldReleasedEvent event) {
+        promote(event.slot());
+    }
+
+    // Plano ou turno alterado muda o horário dos pedidos em espera
+    @EventListener
+    @Order(10)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        reload();
+    }
+
+    // Percorre a fila do recurso na ordem de chegada; um mesmo slot liberado pode acomodar mais de um pedido
+    // (dias ou turnos diferentes), e cada promoção já conta na verificação dos pedidos seguintes
+    private void promote(RentalSlot freed) {
+        if (freed.resourceId() == null || size(freed.type(), freed.resourceId()) == 0) {
+            return;
+        }
+
+        Lock lock = resourceLocks.lockFor(freed.type(), freed.resourceId());
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Waiting waiting : waiting(freed.type(), freed.resourceId())) {
+                try {
+                    RentalSlot slot = waiting.slot();
+                    if (slot.end().isBefore(now)) {
+                        resolve(waiting, WaitlistEntry.Status.EXPIRED, null);
+                        continue;
+                    }
+
+                    if (!slot.conflictsWith(freed)
+                            || slotBookingService.isRented(slot)
+                            || holdService.findConflict(slot).isPresent()) {
+                        continue;
+                    }
+
+                    Integer resultId = switch (waiting.promoteTo()) {
+                        case HOLD -> holdService.place(slot, holdService.ttlFor(waiting.ttlSeconds())).idHolds();
+                        case BOOKING -> slotBookingService.book(slot).map(booking -> booking.slot().rentalId()).orElse(null);
+                    };
+
+                    // Sem resultado o cliente, o recurso ou o plano foi removido: o pedido não tem mais como ser atendido
+                    resolve(waiting, resultId != null ? WaitlistEntry.Status.PROMOTED : WaitlistEntry.Status.CANCELLED, resultId);
+                } catch (Exception e) {
+                    // Um pedido com falha continua na fila e não impede a avaliação dos seguintes
+                    log.warn("Falha ao promover o pedido {} da fila de espera", waiting.idWaitlistEntries(), e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resolve(Waiting waiting, WaitlistEntry.Status status, Integer resultId) {
+        repository.findById(waiting.idWaitlistEntries()).ifPresent(entry -> {
+            entry.setStatusWaitlistEntries(status);
+            entry.setResolvedAtWaitlistEntries(LocalDateTime.now());
+            entry.setResultIdWaitlistEntries(resultId);
+            repository.save(entry);
+        });
+
+        synchronized (this) {
+            byId.remove(waiting.idWaitlistEntries());
+            Key key = keyOf(waiting.slot());
+            PriorityQueue<Waiting> queue = queues.get(key);
+            if (queue != null && queue.remove(waiting) && queue.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+    }
+
+    private void add(Waiting waiting) {
+        queues.computeIfAbsent(keyOf(waiting.slot()), key -> new PriorityQueue<>(ARRIVAL_ORDER)).add(waiting);
+        byId.put(waiting.idWaitlistEntries(), waiting);
+    }
+
+    private static Key keyOf(RentalSlot slot) {
+        return new Key(slot.type(), slot.resourceId());
+    }
+
+    private static Waiting toWaiting(WaitlistEntry entry) {
+        RentalPlan plan = entry.getRentalPlan();
+        RentalShift shift = plan != null ? plan.getRentalShift() : null;
+        RentalSlot slot = new RentalSlot(
+                entry.getTypeWaitlistEntries(),
+                entry.getIdWaitlistEntries(),
+                entry.getIdResourceWaitlistEntries(),
+                entry.getCustomer() != null ? entry.getCustomer().getIdCustomers() : null,
+                plan != null ? plan.getIdRentalPlans() : null,
+                shift != null ? shift.getIdRentalShifts() : null,
+                shift != null ? shift.getNameRentalShifts() : null,
+                shift != null ? shift.getStartTimeRentalShifts() : null,
+                shift != null ? shift.getEndTimeRentalShifts() : null,
+                entry.getStartPeriodWaitlistEntries(),
+                entry.getEndPeriodWaitlistEntries(),
+                entry.getTotalPriceWaitlistEntries()
+        );
+        return new Waiting(entry.getIdWaitlistEntries(), slot, entry.getCreatedAtWaitlistEntries(),
+                entry.getPromoteToWaitlistEntries(), entry.getTtlSecondsWaitlistEntries());
+    }
+}
@@ -0,0 +1,123 @@
+-- Esquema que o ddl-auto=update gerava a partir das entidades.
+-- Em bancos já existentes esta versão é marcada como baseline e não roda (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS `customers` (
+    `idCustomers` INT NOT NULL AUTO_INCREMENT,
+    `nameCustomers` VARCHAR(255),
+    `emailCustomers` VARCHAR(255),
+    `phoneCustomers` VARCHAR(255),
+    `addressCustomers` VARCHAR(255),
+    `cpfCustomers` VARCHAR(255),
+    PRIMARY KEY (`idCustomers`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `desks` (
+    `idDesks` INT NOT NULL AUTO_INCREMENT,
+    `numberDesks` INT,
+    `nameDesks` VARCHAR(255),
+    PRIMARY KEY (`idDesks`),
+    CONSTRAINT `uk_desks_number` UNIQUE (`numberDesks`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `rooms` (
+    `idRooms` INT NOT NULL AUTO_INCREMENT,
+    `numberRooms` INT NOT NULL,
+    `nameRooms` VARCHAR(100),
+    PRIMARY KEY (`idRooms`),
+    CONSTRAINT `uk_rooms_number` UNIQUE (`numberRooms`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `areas` (
+    `idAreas` INT NOT NULL AUTO_INCREMENT,
+    `numberAreas` INT NOT NULL,
+    `nameAreas` VARCHAR(100),
+    PRIMARY KEY (`idAreas`),
+    CONSTRAINT `uk_areas_number` UNIQUE (`numberAreas`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `stands` (
+    `idStands` INT NOT NULL AUTO_INCREMENT,
+    `numberStands` INT NOT NULL,
+    `nameStands` VARCHAR(100),
+    PRIMARY KEY (`idStands`),
+    CONSTRAINT `uk_stands_number` UNIQUE (`numberStands`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `rentalCategories` (
+    `idRentalCategories` INT NOT NULL AUTO_INCREMENT,
+    `nameRentalCategories` VARCHAR(255),
+    `baseDurationInDaysRentalCategories` INT,
+    PRIMARY KEY (`idRentalCategories`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `rentalShifts` (
+    `idRentalShifts` INT NOT NULL AUTO_INCREMENT,
+    `nameRentalShifts` VARCHAR(255),
+    `descriptionRentalShifts` VARCHAR(255),
+    `startTimeRentalShifts` TIME(6),
+    `endTimeRentalShifts` TIME(6),
+    PRIMARY KEY (`idRentalShifts`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `rentalPlans` (
+    `idRentalPlans` INT NOT NULL AUTO_INCREMENT,
+    `idRentalCategories` INT,
+    `idRentalShifts` INT,
+    `planNameRentalPlans` VARCHAR(255),
+    `priceRentalPlans` DECIMAL(38, 2),
+    PRIMARY KEY (`idRentalPlans`),
+    CONSTRAINT `fk_rentalPlans_category` FOREIGN KEY (`idRentalCategories`) REFERENCES `rentalCategories` (`idRentalCategories`),
+    CONSTRAINT `fk_rentalPlans_shift` FOREIGN KEY (`idRentalShifts`) REFERENCES `rentalShifts` (`idRentalShifts`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `deskRentals` (
+    `idDeskRentals` INT NOT NULL AUTO_INCREMENT,
+    `idDesks` INT,
+    `idCustomers` INT,
+    `idRentalPlans` INT,
+    `startPeriodDeskRentals` DATETIME(6),
+    `endPeriodDeskRentals` DATETIME(6),
+    `totalPriceDeskRentals` DECIMAL(38, 2),
+    PRIMARY KEY (`idDeskRentals`),
+    CONSTRAINT `fk_deskRentals_desk` FOREIGN KEY (`idDesks`) REFERENCES `desks` (`idDesks`),
+    CONSTRAINT `fk_deskRentals_customer` FOREIGN KEY (`idCustomers`) REFERENCES `customers` (`idCustomers`),
+    CONSTRAINT `fk_deskRentals_plan` FOREIGN KEY (`idRentalPlans`) REFERENCES `rentalPlans` (`idRentalPlans`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `roomRentals` (
+    `idRoomRentals` INT NOT NULL AUTO_INCREMENT,
+    `idRooms` INT NOT NULL,
+    `idCustomers` INT NOT NULL,
+    `startPeriodAreaRentals` DATETIME(6) NOT NULL,
+    `endPeriodAreaRentals` DATETIME(6) NOT NULL,
+    `totalPriceStandRentals` DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (`idRoomRentals`),
+    CONSTRAINT `fk_roomRentals_room` FOREIGN KEY (`idRooms`) REFERENCES `rooms` (`idRooms`),
+    CONSTRAINT `fk_roomRentals_customer` FOREIGN KEY (`idCustomers`) REFERENCES `customers` (`idCustomers`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `areaRentals` (
+    `idAreaRentals` INT NOT NULL AUTO_INCREMENT,
+    `idAreas` INT NOT NULL,
+    `idCustomers` INT NOT NULL,
+    `startPeriodAreaRentals` DATETIME(6) NOT NULL,
+    `endPeriodAreaRentals` DATETIME(6) NOT NULL,
+    `totalPriceStandRentals` DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (`idAreaRentals`),
+    CONSTRAINT `fk_areaRentals_area` FOREIGN KEY (`idAreas`) REFERENCES `areas` (`idAreas`),
+    CONSTRAINT `fk_areaRentals_customer` FOREIGN KEY (`idCustomers`) REFERENCES `customers` (`idCustomers`)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `standRentals` (
+    `idStandRentals` INT NOT NULL AUTO_INCREMENT,
+    `idStands` INT NOT NULL,
+    `idCustomers` INT NOT NULL,
+    `idRentalPlans` INT NOT NULL,
+    `startPeriodStandRentals` DATETIME(6) NOT NULL,
+    `endPeriodStandRentals` DATETIME(6) NOT NULL,
+    `totalPriceStandRentals` DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (`idStandRentals`),
+    CONSTRAINT `fk_standRentals_stand` FOREIGN KEY (`idStands`) REFERENCES `stands` (`idStands`),
+    CONSTRAINT `fk_standRentals_customer` FOREIGN KEY (`idCustomers`) REFERENCES `customers` (`idCustomers`),
+    CONSTRAINT `fk_standRentals_plan` FOREIGN KEY (`idRentalPlans`) REFERENCES `rentalPlans` (`idRentalPlans`)
+) ENGINE = InnoDB;
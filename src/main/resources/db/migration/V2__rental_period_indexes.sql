@@ -0,0 +1,11 @@
+-- Conflito de reserva: igualdade no recurso + faixa no início; o fim fica no índice e é filtrado sem ir à tabela.
+CREATE INDEX `idx_deskRentals_desk_period` ON `deskRentals` (`idDesks`, `startPeriodDeskRentals`, `endPeriodDeskRentals`);
+CREATE INDEX `idx_roomRentals_room_period` ON `roomRentals` (`idRooms`, `startPeriodAreaRentals`, `endPeriodAreaRentals`);
+CREATE INDEX `idx_areaRentals_area_period` ON `areaRentals` (`idAreas`, `startPeriodAreaRentals`, `endPeriodAreaRentals`);
+CREATE INDEX `idx_standRentals_stand_period` ON `standRentals` (`idStands`, `startPeriodStandRentals`, `endPeriodStandRentals`);
+
+-- Aluguéis ativos: a faixa "fim >= agora" descarta todo o histórico já encerrado.
+CREATE INDEX `idx_deskRentals_active` ON `deskRentals` (`endPeriodDeskRentals`, `startPeriodDeskRentals`);
+CREATE INDEX `idx_roomRentals_active` ON `roomRentals` (`endPeriodAreaRentals`, `startPeriodAreaRentals`);
+CREATE INDEX `idx_areaRentals_active` ON `areaRentals` (`endPeriodAreaRentals`, `startPeriodAreaRentals`);
+CREATE INDEX `idx_standRentals_active` ON `standRentals` (`endPeriodStandRentals`, `startPeriodStandRentals`);
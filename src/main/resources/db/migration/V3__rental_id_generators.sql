@@ -0,0 +1,18 @@
+-- Geração de ids dos aluguéis por tabela (pooled, blocos de 50) no lugar do AUTO_INCREMENT,
+-- para que o Hibernate conheça o id antes do insert e consiga enviar os inserts em batch.
+CREATE TABLE IF NOT EXISTS `idGenerators` (
+    `nameIdGenerators` VARCHAR(64) NOT NULL,
+    `nextValueIdGenerators` BIGINT NOT NULL,
+    PRIMARY KEY (`nameIdGenerators`)
+) ENGINE = InnoDB;
+
+-- O Hibernate trata o valor guardado como último id usado e entrega o bloco (valor - 48 .. valor + 1),
+-- então semear com MAX + 49 faz o primeiro id novo ser MAX + 1
+INSERT INTO `idGenerators` (`nameIdGenerators`, `nextValueIdGenerators`)
+SELECT 'deskRentals', COALESCE(MAX(`idDeskRentals`), 0) + 49 FROM `deskRentals`;
+INSERT INTO `idGenerators` (`nameIdGenerators`, `nextValueIdGenerators`)
+SELECT 'roomRentals', COALESCE(MAX(`idRoomRentals`), 0) + 49 FROM `roomRentals`;
+INSERT INTO `idGenerators` (`nameIdGenerators`, `nextValueIdGenerators`)
+SELECT 'areaRentals', COALESCE(MAX(`idAreaRentals`), 0) + 49 FROM `areaRentals`;
+INSERT INTO `idGenerators` (`nameIdGenerators`, `nextValueIdGenerators`)
+SELECT 'standRentals', COALESCE(MAX(`idStandRentals`), 0) + 49 FROM `standRentals`;
@@ -0,0 +1,21 @@
+-- Séries de aluguéis recorrentes; as ocorrências continuam nas tabelas de aluguel, apontando para a série
+CREATE TABLE IF NOT EXISTS `rentalSeries` (
+    `idRentalSeries` INT NOT NULL AUTO_INCREMENT,
+    `typeRentalSeries` VARCHAR(10),
+    `idCustomers` INT,
+    `frequencyRentalSeries` VARCHAR(10),
+    `daysOfWeekRentalSeries` VARCHAR(100),
+    `firstDateRentalSeries` DATE,
+    `lastDateRentalSeries` DATE,
+    `occurrencesRentalSeries` INT,
+    PRIMARY KEY (`idRentalSeries`),
+    CONSTRAINT `fk_rentalSeries_customer` FOREIGN KEY (`idCustomers`) REFERENCES `customers` (`idCustomers`)
+) ENGINE = InnoDB;
+
+ALTER TABLE `deskRentals`
+    ADD COLUMN `idRentalSeries` INT NULL,
+    ADD CONSTRAINT `fk_deskRentals_series` FOREIGN KEY (`idRentalSeries`) REFERENCES `rentalSeries` (`idRentalSeries`);
+
+ALTER TABLE `roomRentals`
+    ADD COLUMN `idRentalSeries` INT NULL,
+    ADD CONSTRAINT `fk_roomRentals_series` FOREIGN KEY (`idRentalSeries`) REFERENCES `rentalSeries` (`idRentalSeries`);
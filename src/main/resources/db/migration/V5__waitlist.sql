@@ -0,0 +1,24 @@
+-- Fila de espera por (recurso, período, turno). O id do recurso não tem FK porque depende do tipo.
+CREATE TABLE IF NOT EXISTS `waitlistEntries` (
+    `idWaitlistEntries` INT NOT NULL AUTO_INCREMENT,
+    `typeWaitlistEntries` VARCHAR(10) NOT NULL,
+    `idResourceWaitlistEntries` INT NOT NULL,
+    `idCustomers` INT NOT NULL,
+    `idRentalPlans` INT NULL,
+    `startPeriodWaitlistEntries` DATETIME(6) NOT NULL,
+    `endPeriodWaitlistEntries` DATETIME(6) NOT NULL,
+    `totalPriceWaitlistEntries` DECIMAL(38, 2),
+    `promoteToWaitlistEntries` VARCHAR(10) NOT NULL,
+    `ttlSecondsWaitlistEntries` BIGINT NULL,
+    `statusWaitlistEntries` VARCHAR(10) NOT NULL,
+    `createdAtWaitlistEntries` DATETIME(6) NOT NULL,
+    `resolvedAtWaitlistEntries` DATETIME(6) NULL,
+    `resultIdWaitlistEntries` INT NULL,
+    PRIMARY KEY (`idWaitlistEntries`),
+    CONSTRAINT `fk_waitlistEntries_customer` FOREIGN KEY (`idCustomers`) REFERENCES `customers` (`idCustomers`),
+    CONSTRAINT `fk_waitlistEntries_plan` FOREIGN KEY (`idRentalPlans`) REFERENCES `rentalPlans` (`idRentalPlans`)
+) ENGINE = InnoDB;
+
+-- A fila em memória é carregada na subida só com os pedidos em espera
+CREATE INDEX `idx_waitlistEntries_status` ON `waitlistEntries` (`statusWaitlistEntries`, `createdAtWaitlistEntries`);
+CREATE INDEX `idx_waitlistEntries_customer` ON `waitlistEntries` (`idCustomers`, `statusWaitlistEntries`);
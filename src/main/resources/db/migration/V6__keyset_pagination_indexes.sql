@@ -0,0 +1,9 @@
+-- Paginação por cursor: a ordenação da listagem precisa de um índice (chave, id) para o "WHERE (chave, id) > (...)"
+-- virar uma faixa no índice. Ordenar por id já usa a chave primária, e filtrar por recurso ou cliente já usa os
+-- índices das chaves estrangeiras (o InnoDB acrescenta a chave primária no fim de todo índice secundário).
+CREATE INDEX `idx_customers_name` ON `customers` (`nameCustomers`, `idCustomers`);
+
+CREATE INDEX `idx_deskRentals_start` ON `deskRentals` (`startPeriodDeskRentals`, `idDeskRentals`);
+CREATE INDEX `idx_roomRentals_start` ON `roomRentals` (`startPeriodAreaRentals`, `idRoomRentals`);
+CREATE INDEX `idx_areaRentals_start` ON `areaRentals` (`startPeriodAreaRentals`, `idAreaRentals`);
+CREATE INDEX `idx_standRentals_start` ON `standRentals` (`startPeriodStandRentals`, `idStandRentals`);
@@ -0,0 +1,6 @@
+-- Listagem unificada (/api/rentals) filtrada por cliente: cada ramo do UNION lê os aluguéis do cliente
+-- já na ordem de início e para no limite da página, sem ordenar o histórico inteiro do cliente.
+CREATE INDEX `idx_deskRentals_customer_start` ON `deskRentals` (`idCustomers`, `startPeriodDeskRentals`, `idDeskRentals`);
+CREATE INDEX `idx_roomRentals_customer_start` ON `roomRentals` (`idCustomers`, `startPeriodAreaRentals`, `idRoomRentals`);
+CREATE INDEX `idx_areaRentals_customer_start` ON `areaRentals` (`idCustomers`, `startPeriodAreaRentals`, `idAreaRentals`);
+CREATE INDEX `idx_standRentals_customer_start` ON `standRentals` (`idCustomers`, `startPeriodStandRentals`, `idStandRentals`);
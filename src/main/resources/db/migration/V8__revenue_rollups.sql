@@ -0,0 +1,182 @@
+-- Receita pré-agregada por dia de início do aluguel, tipo de recurso, plano e turno (relatórios de /api/reports/revenue
+-- sem somar as tabelas de aluguel). Salas e áreas não têm plano nem turno e entram com 0 nessas colunas.
+-- Mantida pelos triggers abaixo na mesma transação de cada insert, update e delete de aluguel, qualquer que seja
+-- o caminho da escrita (endpoint, lote em batch, série); a carga inicial vem do INSERT ... SELECT no fim do script.
+CREATE TABLE IF NOT EXISTS `revenueRollups` (
+    `dayRevenueRollups` DATE NOT NULL,
+    `typeRevenueRollups` VARCHAR(10) NOT NULL,
+    `idRentalPlans` INT NOT NULL,
+    `idRentalShifts` INT NOT NULL,
+    `totalRevenueRollups` DECIMAL(38, 2) NOT NULL,
+    `rentalsRevenueRollups` INT NOT NULL,
+    PRIMARY KEY (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`)
+) ENGINE = InnoDB;
+
+-- deskRentals (o mesmo nas demais tabelas): soma na criação, tira a linha antiga e soma a nova na alteração, tira na exclusão
+CREATE TRIGGER `trg_deskRentals_revenue_insert` AFTER INSERT ON `deskRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodDeskRentals`), 'DESK', COALESCE(NEW.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = NEW.`idRentalPlans`), 0),
+           COALESCE(NEW.`totalPriceDeskRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodDeskRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceDeskRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_deskRentals_revenue_update_old` AFTER UPDATE ON `deskRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodDeskRentals`), 'DESK', COALESCE(OLD.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = OLD.`idRentalPlans`), 0),
+           -COALESCE(OLD.`totalPriceDeskRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodDeskRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceDeskRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+CREATE TRIGGER `trg_deskRentals_revenue_update_new` AFTER UPDATE ON `deskRentals` FOR EACH ROW FOLLOWS `trg_deskRentals_revenue_update_old`
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodDeskRentals`), 'DESK', COALESCE(NEW.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = NEW.`idRentalPlans`), 0),
+           COALESCE(NEW.`totalPriceDeskRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodDeskRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceDeskRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_deskRentals_revenue_delete` AFTER DELETE ON `deskRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodDeskRentals`), 'DESK', COALESCE(OLD.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = OLD.`idRentalPlans`), 0),
+           -COALESCE(OLD.`totalPriceDeskRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodDeskRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceDeskRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+-- roomRentals
+CREATE TRIGGER `trg_roomRentals_revenue_insert` AFTER INSERT ON `roomRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodAreaRentals`), 'ROOM', 0, 0,
+           COALESCE(NEW.`totalPriceStandRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_roomRentals_revenue_update_old` AFTER UPDATE ON `roomRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodAreaRentals`), 'ROOM', 0, 0,
+           -COALESCE(OLD.`totalPriceStandRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+CREATE TRIGGER `trg_roomRentals_revenue_update_new` AFTER UPDATE ON `roomRentals` FOR EACH ROW FOLLOWS `trg_roomRentals_revenue_update_old`
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodAreaRentals`), 'ROOM', 0, 0,
+           COALESCE(NEW.`totalPriceStandRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_roomRentals_revenue_delete` AFTER DELETE ON `roomRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodAreaRentals`), 'ROOM', 0, 0,
+           -COALESCE(OLD.`totalPriceStandRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+-- areaRentals
+CREATE TRIGGER `trg_areaRentals_revenue_insert` AFTER INSERT ON `areaRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodAreaRentals`), 'AREA', 0, 0,
+           COALESCE(NEW.`totalPriceStandRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_areaRentals_revenue_update_old` AFTER UPDATE ON `areaRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodAreaRentals`), 'AREA', 0, 0,
+           -COALESCE(OLD.`totalPriceStandRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+CREATE TRIGGER `trg_areaRentals_revenue_update_new` AFTER UPDATE ON `areaRentals` FOR EACH ROW FOLLOWS `trg_areaRentals_revenue_update_old`
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodAreaRentals`), 'AREA', 0, 0,
+           COALESCE(NEW.`totalPriceStandRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_areaRentals_revenue_delete` AFTER DELETE ON `areaRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodAreaRentals`), 'AREA', 0, 0,
+           -COALESCE(OLD.`totalPriceStandRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodAreaRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+-- standRentals
+CREATE TRIGGER `trg_standRentals_revenue_insert` AFTER INSERT ON `standRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodStandRentals`), 'STAND', COALESCE(NEW.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = NEW.`idRentalPlans`), 0),
+           COALESCE(NEW.`totalPriceStandRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodStandRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_standRentals_revenue_update_old` AFTER UPDATE ON `standRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodStandRentals`), 'STAND', COALESCE(OLD.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = OLD.`idRentalPlans`), 0),
+           -COALESCE(OLD.`totalPriceStandRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodStandRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+CREATE TRIGGER `trg_standRentals_revenue_update_new` AFTER UPDATE ON `standRentals` FOR EACH ROW FOLLOWS `trg_standRentals_revenue_update_old`
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(NEW.`startPeriodStandRentals`), 'STAND', COALESCE(NEW.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = NEW.`idRentalPlans`), 0),
+           COALESCE(NEW.`totalPriceStandRentals`, 0), 1
+    FROM DUAL WHERE NEW.`startPeriodStandRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` + COALESCE(NEW.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` + 1;
+
+CREATE TRIGGER `trg_standRentals_revenue_delete` AFTER DELETE ON `standRentals` FOR EACH ROW
+    INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+    SELECT DATE(OLD.`startPeriodStandRentals`), 'STAND', COALESCE(OLD.`idRentalPlans`, 0),
+           COALESCE((SELECT p.`idRentalShifts` FROM `rentalPlans` p WHERE p.`idRentalPlans` = OLD.`idRentalPlans`), 0),
+           -COALESCE(OLD.`totalPriceStandRentals`, 0), -1
+    FROM DUAL WHERE OLD.`startPeriodStandRentals` IS NOT NULL
+    ON DUPLICATE KEY UPDATE `totalRevenueRollups` = `totalRevenueRollups` - COALESCE(OLD.`totalPriceStandRentals`, 0),
+                            `rentalsRevenueRollups` = `rentalsRevenueRollups` - 1;
+
+-- Turno trocado num plano: as linhas do plano passam para o novo turno, como se tivessem sido gravadas com ele
+CREATE TRIGGER `trg_rentalPlans_revenue_shift` AFTER UPDATE ON `rentalPlans` FOR EACH ROW
+    UPDATE `revenueRollups` SET `idRentalShifts` = COALESCE(NEW.`idRentalShifts`, 0)
+    WHERE `idRentalPlans` = NEW.`idRentalPlans` AND NOT (NEW.`idRentalShifts` <=> OLD.`idRentalShifts`);
+
+-- Carga inicial a partir dos aluguéis existentes (mesma consulta da reconstrução em RevenueRollupRepository)
+INSERT INTO `revenueRollups` (`dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`)
+SELECT r.`day`, r.`type`, r.`plan`, r.`shift`, SUM(r.`price`), COUNT(*)
+FROM (
+    SELECT DATE(dr.`startPeriodDeskRentals`) AS `day`, 'DESK' AS `type`, COALESCE(dr.`idRentalPlans`, 0) AS `plan`,
+           COALESCE(p.`idRentalShifts`, 0) AS `shift`, COALESCE(dr.`totalPriceDeskRentals`, 0) AS `price`
+    FROM `deskRentals` dr LEFT JOIN `rentalPlans` p ON p.`idRentalPlans` = dr.`idRentalPlans`
+    WHERE dr.`startPeriodDeskRentals` IS NOT NULL
+    UNION ALL
+    SELECT DATE(rr.`startPeriodAreaRentals`), 'ROOM', 0, 0, COALESCE(rr.`totalPriceStandRentals`, 0)
+    FROM `roomRentals` rr
+    WHERE rr.`startPeriodAreaRentals` IS NOT NULL
+    UNION ALL
+    SELECT DATE(ar.`startPeriodAreaRentals`), 'AREA', 0, 0, COALESCE(ar.`totalPriceStandRentals`, 0)
+    FROM `areaRentals` ar
+    WHERE ar.`startPeriodAreaRentals` IS NOT NULL
+    UNION ALL
+    SELECT DATE(sr.`startPeriodStandRentals`), 'STAND', COALESCE(sr.`idRentalPlans`, 0),
+           COALESCE(p.`idRentalShifts`, 0), COALESCE(sr.`totalPriceStandRentals`, 0)
+    FROM `standRentals` sr LEFT JOIN `rentalPlans` p ON p.`idRentalPlans` = sr.`idRentalPlans`
+    WHERE sr.`startPeriodStandRentals` IS NOT NULL
+) r
+GROUP BY r.`day`, r.`type`, r.`plan`, r.`shift`;
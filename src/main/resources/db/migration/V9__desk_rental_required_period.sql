@@ -0,0 +1,11 @@
+-- Período e valor do aluguel de mesa passam a ser obrigatórios, como já são nas demais tabelas de aluguel.
+-- A listagem paginada usa essas colunas como chave do cursor: com uma chave nula o cursor não é gerado e a
+-- comparação "(chave, id) > (...)" pula linhas. Os endpoints sempre gravam os três valores; linhas antigas com
+-- nulo precisam ser corrigidas antes, e enquanto houver alguma o ALTER falha no modo estrito (o padrão do
+-- MySQL 8, e o Connector/J o liga na sessão) e a migração não é aplicada. Para encontrá-las:
+--   SELECT `idDeskRentals` FROM `deskRentals` WHERE `startPeriodDeskRentals` IS NULL
+--       OR `endPeriodDeskRentals` IS NULL OR `totalPriceDeskRentals` IS NULL;
+ALTER TABLE `deskRentals`
+    MODIFY `startPeriodDeskRentals` DATETIME(6) NOT NULL,
+    MODIFY `endPeriodDeskRentals` DATETIME(6) NOT NULL,
+    MODIFY `totalPriceDeskRentals` DECIMAL(38, 2) NOT NULL;
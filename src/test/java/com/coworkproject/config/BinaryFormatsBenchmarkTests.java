@@ -0,0 +1,141 @@
+package com.coworkproject.config;
+
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.Desk;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Custo de codificar e decodificar 100 mil DeskRental (com mesa, cliente e plano embutidos, como na listagem)
+// em JSON, CBOR e Smile, e tamanho do payload de cada formato. Mappers montados como no Spring Boot.
+// mvn test -Dtest=BinaryFormatsBenchmarkTests -Dbenchmark.jmh=true
+@EnabledIfSystemProperty(named = "benchmark.jmh", matches = "true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatsBenchmarkTests {
+
+	private static final int ROWS = 100_000;
+
+	@Param({"json", "cbor", "smile"})
+	public String format;
+
+	private ObjectMapper mapper;
+	private List<DeskRental> rentals;
+	private byte[] encoded;
+
+	@Test
+	void encodeDecodeAndPayloadSize() throws Exception {
+		List<DeskRental> rows = rentals(ROWS);
+		System.out.printf("%-6s | %12s%n", "format", "bytes");
+		for (String name : new String[]{"json", "cbor", "smile"}) {
+			ObjectMapper objectMapper = mapper(name);
+			byte[] bytes = objectMapper.writeValueAsBytes(rows);
+			DeskRental[] decoded = objectMapper.readValue(bytes, DeskRental[].class);
+			assertThat(decoded).hasSize(ROWS);
+			assertThat(decoded[ROWS - 1].getTotalPriceDeskRentals()).isEqualByComparingTo(rows.get(ROWS - 1).getTotalPriceDeskRentals());
+			System.out.printf("%-6s | %12d%n", name, bytes.length);
+		}
+
+		new Runner(new OptionsBuilder().include(BinaryFormatsBenchmarkTests.class.getName() + ".").build()).run();
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		mapper = mapper(format);
+		rentals = rentals(ROWS);
+		encoded = mapper.writeValueAsBytes(rentals);
+	}
+
+	@Benchmark
+	public byte[] encode() throws Exception {
+		return mapper.writeValueAsBytes(rentals);
+	}
+
+	@Benchmark
+	public DeskRental[] decode() throws Exception {
+		return mapper.readValue(encoded, DeskRental[].class);
+	}
+
+	private static ObjectMapper mapper(String format) {
+		JsonFactory factory = switch (format) {
+			case "cbor" -> new CBORFactory();
+			case "smile" -> new SmileFactory();
+			default -> new JsonFactory();
+		};
+		return Jackson2ObjectMapperBuilder.json()
+				.factory(factory)
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+	}
+
+	// 50 mesas, 2 mil clientes e 3 planos, aluguéis de 4 horas com preços de centavos
+	private static List<DeskRental> rentals(int count) {
+		RentalCategory category = new RentalCategory("Diária", 1);
+		category.setIdRentalCategories(1);
+		List<RentalPlan> plans = new ArrayList<>();
+		String[] shifts = {"Manhã", "Tarde", "Noite"};
+		for (int i = 0; i < shifts.length; i++) {
+			RentalShift shift = new RentalShift(shifts[i], "Turno " + shifts[i], LocalTime.of(8 + 4 * i, 0), LocalTime.of(12 + 4 * i, 0));
+			shift.setIdRentalShifts(i + 1);
+			RentalPlan plan = new RentalPlan(category, shift, "Diária " + shifts[i], new BigDecimal("49.90").add(BigDecimal.valueOf(i * 10)));
+			plan.setIdRentalPlans(i + 1);
+			plans.add(plan);
+		}
+
+		List<DeskRental> rentals = new ArrayList<>(count);
+		LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+		for (int i = 0; i < count; i++) {
+			Desk desk = new Desk(i % 50 + 1, "Mesa " + (i % 50 + 1));
+			desk.setIdDesks(i % 50 + 1);
+			Customer customer = new Customer();
+			customer.setIdCustomers(i % 2_000 + 1);
+			customer.setNameCustomers("Cliente " + (i % 2_000 + 1));
+			customer.setEmailCustomers("cliente" + (i % 2_000 + 1) + "@example.com");
+			customer.setPhoneCustomers("(11) 90000-" + String.format("%04d", i % 2_000));
+			customer.setCpfCustomers(String.format("%011d", i % 2_000));
+			RentalPlan plan = plans.get(i % plans.size());
+
+			LocalDateTime start = base.plusDays(i / 50).plusHours(4L * (i % 3));
+			DeskRental rental = new DeskRental(desk, customer, plan, start, start.plusHours(4),
+					plan.getPriceRentalPlans().add(BigDecimal.valueOf(i % 100, 2)));
+			rental.setIdDeskRentals(i + 1);
+			rentals.add(rental);
+		}
+		return rentals;
+	}
+}
@@ -0,0 +1,59 @@
+package com.coworkproject.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bytes trafegados e tempo até o último byte das listagens mais pesadas e do catálogo,
+// com e sem gzip, em HTTP/1.1 e HTTP/2 (h2c). O HttpClient não descomprime, então o corpo recebido
+// é o que passou pela rede. Só roda contra uma instância no ar, com dados:
+// mvn test -Dtest=CompressionBenchmarkTests -Dbenchmark.api.url=http://localhost:8080
+@EnabledIfSystemProperty(named = "benchmark.api.url", matches = ".+")
+class CompressionBenchmarkTests {
+
+	private static final String[] PATHS = {"/api/desk-rentals?size=200", "/api/stand-rentals?size=200", "/api/catalog"};
+	private static final int WARMUP = 20;
+	private static final int ROUNDS = 200;
+
+	@Test
+	void bytesOnTheWireAndTimeToLastByte() throws Exception {
+		String url = System.getProperty("benchmark.api.url");
+
+		System.out.printf("%-30s | %-8s | %-8s | %10s | %10s | %10s%n", "endpoint", "http", "encoding", "bytes", "p50 (us)", "p95 (us)");
+		for (String path : PATHS) {
+			for (HttpClient.Version version : HttpClient.Version.values()) {
+				HttpClient client = HttpClient.newBuilder().version(version).build();
+				for (String encoding : new String[]{"identity", "gzip"}) {
+					HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+							.header("Accept-Encoding", encoding)
+							.GET()
+							.build();
+
+					int bytes = 0;
+					for (int i = 0; i < WARMUP; i++) {
+						bytes = client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+					}
+
+					long[] micros = new long[ROUNDS];
+					for (int i = 0; i < ROUNDS; i++) {
+						long start = System.nanoTime();
+						HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+						micros[i] = (System.nanoTime() - start) / 1_000;
+						assertThat(response.statusCode()).isEqualTo(200);
+					}
+					Arrays.sort(micros);
+
+					System.out.printf("%-30s | %-8s | %-8s | %10d | %10d | %10d%n", path, version, encoding, bytes,
+							micros[ROUNDS / 2], micros[ROUNDS * 95 / 100]);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.coworkproject.config;
+
+import com.coworkproject.service.CatalogChangedEvent;
+import com.coworkproject.service.TableVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalGetFilterTests {
+
+	private final TableVersions tableVersions = new TableVersions();
+	private final ConditionalGetFilter filter = new ConditionalGetFilter(tableVersions);
+
+	// ETag ainda válido: 304 sem executar o restante da cadeia (controller e repositório)
+	@Test
+	void matchingEtagShortCircuitsWithNotModified() throws Exception {
+		String etag = get("/api/rental-plans/3", null).getHeader("ETag");
+
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = get("/api/rental-plans/3", "W/\"other\", " + etag, chain);
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getHeader("ETag")).isEqualTo(etag);
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	// Escrita numa tabela da qual a resposta depende troca o ETag; nas demais, não
+	@Test
+	void writeToDependentTableChangesEtag() throws Exception {
+		String plans = get("/api/rental-plans", null).getHeader("ETag");
+		String desks = get("/api/desks", null).getHeader("ETag");
+
+		tableVersions.onCatalogChanged(new CatalogChangedEvent("rentalShifts"));
+
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = get("/api/rental-plans", plans, chain);
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isNotEqualTo(plans);
+		assertThat(chain.getRequest()).isNotNull();
+		assertThat(get("/api/desks", desks).getStatus()).isEqualTo(304);
+	}
+
+	// Representação gzip do catálogo tem ETag próprio, que também vale para o 304
+	@Test
+	void gzipVariantOfCurrentEtagAlsoMatches() throws Exception {
+		String gzipEtag = ConditionalGetFilter.gzipEtag(get("/api/catalog", null).getHeader("ETag"));
+
+		MockHttpServletResponse response = get("/api/catalog", gzipEtag);
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getHeader("ETag")).isEqualTo(gzipEtag).endsWith("-gzip\"");
+	}
+
+	// Cada codificação tem seu ETag: o de JSON não vale para um pedido em CBOR, e todas as respostas variam pelo Accept
+	@Test
+	void etagDependsOnNegotiatedEncoding() throws Exception {
+		MockHttpServletResponse json = get("/api/desks/1", null);
+		MockHttpServletResponse cbor = get("/api/desks/1", null, "application/cbor", new MockFilterChain());
+
+		assertThat(cbor.getHeader("ETag")).isNotEqualTo(json.getHeader("ETag")).endsWith("-cbor\"");
+		assertThat(json.getHeaders("Vary")).containsExactly("Accept");
+		assertThat(get("/api/desks/1", json.getHeader("ETag"), "application/cbor", new MockFilterChain()).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse notModified = get("/api/desks/1", cbor.getHeader("ETag"), "application/cbor", new MockFilterChain());
+		assertThat(notModified.getStatus()).isEqualTo(304);
+		assertThat(notModified.getHeaders("Vary")).containsExactly("Accept");
+	}
+
+	// Mesma escolha do Spring MVC: maior q primeiro, JSON para */* e para Accept sem tipo conhecido
+	@Test
+	void encodingFollowsAcceptPreference() {
+		assertThat(ConditionalGetFilter.encodingOf(null)).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(ConditionalGetFilter.encodingOf("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(ConditionalGetFilter.encodingOf("application/json;q=0.5, application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+		assertThat(ConditionalGetFilter.encodingOf("application/x-jackson-smile, */*;q=0.1").getSubtype()).isEqualTo("x-jackson-smile");
+		assertThat(ConditionalGetFilter.encodingOf("application/cbor;q=0, application/*")).isEqualTo(MediaType.APPLICATION_JSON);
+		assertThat(ConditionalGetFilter.encodingOf("text/html")).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+
+	// Revalidação vinda do front (outra origem): o CorsFilter roda antes, então o 304 também sai com os cabeçalhos de CORS
+	@Test
+	void notModifiedCarriesCorsHeaders() throws Exception {
+		String etag = get("/api/desks", null).getHeader("ETag");
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/desks");
+		request.addHeader("Origin", "http://localhost:4200");
+		request.addHeader("If-None-Match", etag);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain controller = new MockFilterChain();
+		new WebConfig().corsFilter().getFilter().doFilter(request, response,
+				(req, res) -> filter.doFilter(req, res, controller));
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getHeader("Access-Control-Allow-Origin")).isEqualTo("http://localhost:4200");
+		assertThat(response.getHeader("Access-Control-Allow-Credentials")).isEqualTo("true");
+		assertThat(response.getHeader("Access-Control-Expose-Headers")).contains("ETag");
+		assertThat(controller.getRequest()).isNull();
+	}
+
+	// Rotas fora do mapa passam direto, sem ETag, mas com Vary; escritas passam sem nada
+	@Test
+	void otherPathsAndMethodsAreNotFiltered() throws Exception {
+		MockHttpServletResponse customers = get("/api/customers", null);
+		assertThat(customers.getHeader("ETag")).isNull();
+		assertThat(customers.getHeaders("Vary")).containsExactly("Accept");
+
+		MockHttpServletRequest put = new MockHttpServletRequest("PUT", "/api/desks/1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(put, response, new MockFilterChain());
+		assertThat(response.getHeader("ETag")).isNull();
+		assertThat(response.getHeader("Vary")).isNull();
+	}
+
+	private MockHttpServletResponse get(String uri, String ifNoneMatch) throws Exception {
+		return get(uri, ifNoneMatch, new MockFilterChain());
+	}
+
+	private MockHttpServletResponse get(String uri, String ifNoneMatch, MockFilterChain chain) throws Exception {
+		return get(uri, ifNoneMatch, null, chain);
+	}
+
+	private MockHttpServletResponse get(String uri, String ifNoneMatch, String accept, MockFilterChain chain) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		if (accept != null) {
+			request.addHeader("Accept", accept);
+		}
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+}
@@ -0,0 +1,171 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.dto.DeskRentalRequest;
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.Desk;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.RentalCategoryRepository;
+import com.coworkproject.repository.RentalSeriesRepository;
+import com.coworkproject.repository.RentalShiftRepository;
+import com.coworkproject.service.ActiveRentalSnapshot;
+import com.coworkproject.service.CatalogService;
+import com.coworkproject.service.CompactView;
+import com.coworkproject.service.DeskRentalIndex;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.KeysetPaging;
+import com.coworkproject.service.QuoteService;
+import com.coworkproject.service.RentalChangedEvent;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import com.coworkproject.service.ResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class DeskRentalControllerTests {
+
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+	private final DeskRentalRepository repository = mock(DeskRentalRepository.class);
+	private final DeskRepository deskRepository = mock(DeskRepository.class);
+	private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+	private final CatalogService catalogService = mock(CatalogService.class);
+	private final DeskRentalIndex deskRentalIndex = mock(DeskRentalIndex.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final HoldService holdService = mock(HoldService.class);
+	private final DeskRentalController controller = new DeskRentalController(repository, deskRepository, customerRepository,
+			catalogService, mock(RentalCategoryRepository.class), mock(RentalShiftRepository.class), deskRentalIndex,
+			eventPublisher, new ResourceLocks(16), transactionTemplate, mock(RentalSeriesRepository.class), holdService,
+			mock(KeysetPaging.class), mock(CompactView.class), mock(ResponseCache.class), mock(ActiveRentalSnapshot.class),
+			mock(QuoteService.class));
+
+	private RentalPlan plan;
+
+	@BeforeEach
+	void catalog() {
+		RentalShift shift = new RentalShift();
+		shift.setIdRentalShifts(5);
+		shift.setNameRentalShifts("Manhã");
+		shift.setStartTimeRentalShifts(LocalTime.of(8, 0));
+		shift.setEndTimeRentalShifts(LocalTime.of(12, 0));
+		RentalCategory category = new RentalCategory();
+		category.setIdRentalCategories(2);
+		category.setBaseDurationInDaysRentalCategories(1);
+		plan = new RentalPlan();
+		plan.setIdRentalPlans(11);
+		plan.setRentalShift(shift);
+		plan.setRentalCategory(category);
+
+		Desk first = new Desk();
+		first.setIdDesks(1);
+		Desk second = new Desk();
+		second.setIdDesks(2);
+		Customer customer = new Customer();
+		customer.setIdCustomers(7);
+		when(deskRepository.findAllById(anyIterable())).thenReturn(List.of(first, second));
+		when(customerRepository.findAllById(anyIterable())).thenReturn(List.of(customer));
+		when(catalogService.plans(any())).thenReturn(Map.of(11, plan));
+		when(deskRentalIndex.findConflict(any(), any(), any(), any(), any(), any(), isNull())).thenReturn(Optional.empty());
+		when(holdService.findConflict(any(RentalSlot.class))).thenReturn(Optional.empty());
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+	}
+
+	// Um item em conflito com um aluguel existente e outro em conflito com um item anterior do lote derrubam o lote inteiro:
+	// nada é gravado e nenhum evento sai
+	@Test
+	void oneConflictRejectsTheWholeBatch() {
+		RentalSlot existing = new RentalSlot(ResourceType.DESK, 90, 2, 8, 11, 5, "Manhã",
+				LocalTime.of(8, 0), LocalTime.of(12, 0), MONDAY.withHour(8), MONDAY.withHour(12), BigDecimal.TEN);
+		when(deskRentalIndex.findConflict(eq(2), any(), any(), any(), any(), any(), isNull())).thenReturn(Optional.of(existing));
+
+		ResponseEntity<Map<String, Object>> response = controller.createDeskRentalsBatch(List.of(
+				request(1, MONDAY), request(2, MONDAY), request(1, MONDAY.plusDays(1)), request(1, MONDAY)));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(response.getBody().get("message")).isEqualTo("Lote rejeitado, nenhum aluguel foi criado");
+		assertThat((List<Object>) response.getBody().get("errors")).hasSize(2)
+				.allSatisfy(error -> assertThat(error.toString()).contains("Conflito de horários"))
+				.extracting(error -> error.toString().substring(0, 7))
+				.containsExactly("Item 2:", "Item 4:");
+		verifyNoInteractions(transactionTemplate, eventPublisher);
+		verify(repository, never()).saveAll(any());
+	}
+
+	// Item inválido também rejeita o lote antes da verificação de conflito
+	@Test
+	void invalidItemRejectsTheWholeBatch() {
+		DeskRentalRequest unpriced = request(2, MONDAY);
+		unpriced.setTotalPriceDeskRentals(null);
+
+		ResponseEntity<Map<String, Object>> response = controller.createDeskRentalsBatch(List.of(request(1, MONDAY), unpriced));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat((List<Object>) response.getBody().get("errors")).containsExactly("Item 2: Preço total deve ser maior que zero");
+		verifyNoInteractions(transactionTemplate, eventPublisher);
+		verify(repository, never()).saveAll(any());
+	}
+
+	// Lote sem conflito: um saveAll numa transação e um evento por aluguel gravado
+	@Test
+	void cleanBatchIsSavedOnceAndAnnouncedPerRental() {
+		when(repository.saveAll(any())).thenAnswer(invocation -> {
+			List<DeskRental> rentals = invocation.getArgument(0);
+			for (int i = 0; i < rentals.size(); i++) {
+				rentals.get(i).setIdDeskRentals(100 + i);
+			}
+			return rentals;
+		});
+
+		ResponseEntity<Map<String, Object>> response = controller.createDeskRentalsBatch(List.of(
+				request(1, MONDAY), request(2, MONDAY), request(1, MONDAY.plusDays(1))));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(response.getBody().get("count")).isEqualTo(3);
+		verify(transactionTemplate).execute(any());
+		verify(repository).saveAll(any());
+		verify(eventPublisher, times(3)).publishEvent(any(RentalChangedEvent.class));
+	}
+
+	private static DeskRentalRequest request(int deskId, LocalDateTime day) {
+		DeskRentalRequest request = new DeskRentalRequest();
+		request.setIdDesks(deskId);
+		request.setIdCustomers(7);
+		request.setIdRentalPlans(11);
+		request.setStartPeriodDeskRentals(day);
+		request.setTotalPriceDeskRentals(new BigDecimal("50.00"));
+		return request;
+	}
+}
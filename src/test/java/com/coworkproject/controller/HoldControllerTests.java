@@ -0,0 +1,156 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.dto.HoldRequest;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.service.HoldReleasedEvent;
+import com.coworkproject.service.HoldService;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ResourceLocks;
+import com.coworkproject.service.ShiftMatrixService;
+import com.coworkproject.service.SlotBookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HoldControllerTests {
+
+	private static final LocalDateTime MORNING = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final SlotBookingService slotBookingService = mock(SlotBookingService.class);
+	private final ResourceLocks resourceLocks = new ResourceLocks(16);
+	private final HoldService holdService = new HoldService(new ShiftMatrixService(null), eventPublisher, 180, 900, 1000);
+	private final HoldController controller = new HoldController(holdService, slotBookingService, resourceLocks, eventPublisher);
+
+	// Segunda reserva no mesmo período conflita com a primeira; período já alugado também
+	@Test
+	void createRejectsOverlappingHoldsAndRentedPeriods() {
+		resolves(room(MORNING, MORNING.plusHours(2)));
+		ResponseEntity<Map<String, Object>> created = controller.createHold(new HoldRequest());
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		HoldService.Hold hold = (HoldService.Hold) created.getBody().get("data");
+
+		resolves(room(MORNING.plusHours(1), MORNING.plusHours(3)));
+		ResponseEntity<Map<String, Object>> overlapping = controller.createHold(new HoldRequest());
+		assertThat(overlapping.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(overlapping.getBody().get("message")).isEqualTo(HoldService.conflictMessage(hold.slot()));
+
+		resolves(room(MORNING.plusDays(1), MORNING.plusDays(1).plusHours(2)));
+		when(slotBookingService.isRented(any(RentalSlot.class))).thenReturn(true);
+		assertThat(controller.createHold(new HoldRequest()).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(holdService.size()).isEqualTo(1);
+	}
+
+	// A confirmação grava sob o lock do recurso, já sem a reserva no índice; a reserva não pode ser confirmada duas vezes
+	@Test
+	void confirmBooksUnderTheResourceLock() {
+		resolves(room(MORNING, MORNING.plusHours(2)));
+		HoldService.Hold hold = (HoldService.Hold) controller.createHold(new HoldRequest()).getBody().get("data");
+		ReentrantLock lock = (ReentrantLock) resourceLocks.lockFor(ResourceType.ROOM, 3);
+		when(slotBookingService.book(hold.slot())).thenAnswer(invocation -> {
+			assertThat(lock.isHeldByCurrentThread()).isTrue();
+			assertThat(holdService.find(hold.idHolds())).isEmpty();
+			return Optional.of(new SlotBookingService.Booking("aluguel", hold.slot()));
+		});
+
+		ResponseEntity<Map<String, Object>> confirmed = controller.confirmHold(hold.idHolds());
+
+		assertThat(confirmed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(confirmed.getBody().get("data")).isEqualTo("aluguel");
+		assertThat(lock.isLocked()).isFalse();
+		assertThat(controller.confirmHold(hold.idHolds()).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		verify(eventPublisher, never()).publishEvent(any(HoldReleasedEvent.class));
+	}
+
+	// Falha ao gravar devolve a reserva, que continua bloqueando o período
+	@Test
+	void failedConfirmationRestoresTheHold() {
+		resolves(room(MORNING, MORNING.plusHours(2)));
+		HoldService.Hold hold = (HoldService.Hold) controller.createHold(new HoldRequest()).getBody().get("data");
+		when(slotBookingService.book(hold.slot())).thenReturn(Optional.empty());
+
+		assertThat(controller.confirmHold(hold.idHolds()).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(holdService.find(hold.idHolds())).contains(hold);
+		assertThat(holdService.findConflict(room(MORNING, MORNING.plusHours(2)))).contains(hold.slot());
+	}
+
+	// Pedido com início no passado é recusado já na validação, como no POST de sala; um dia à frente passa
+	@Test
+	void createRejectsPastStartDates() {
+		RoomRepository rooms = mock(RoomRepository.class);
+		CustomerRepository customers = mock(CustomerRepository.class);
+		when(rooms.existsById(3)).thenReturn(true);
+		when(customers.existsById(7)).thenReturn(true);
+		SlotBookingService validating = new SlotBookingService(eventPublisher, null, null, customers, null, null, null,
+				rooms, null, null, null, mock(RoomRentalRepository.class), null);
+		HoldController validatingController = new HoldController(holdService, validating, resourceLocks, eventPublisher);
+		LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+
+		ResponseEntity<Map<String, Object>> past = validatingController.createHold(roomRequest(yesterday, yesterday.plusHours(2)));
+		assertThat(past.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(past.getBody().get("message")).isEqualTo("Data de início não pode ser no passado");
+		assertThat(holdService.size()).isZero();
+
+		LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+		assertThat(validatingController.createHold(roomRequest(tomorrow, tomorrow.plusHours(2))).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+	}
+
+	// Reserva cujo início já passou (criada antes da meia-noite) não vira aluguel
+	@Test
+	void confirmRejectsHoldsThatStartedBeforeToday() {
+		LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+		resolves(room(yesterday, yesterday.plusHours(2)));
+		HoldService.Hold hold = (HoldService.Hold) controller.createHold(new HoldRequest()).getBody().get("data");
+
+		assertThat(controller.confirmHold(hold.idHolds()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		verify(slotBookingService, never()).book(any(RentalSlot.class));
+	}
+
+	// Cancelamento retira a reserva e avisa a fila de espera
+	@Test
+	void deleteReleasesAndPublishesTheEvent() {
+		resolves(room(MORNING, MORNING.plusHours(2)));
+		HoldService.Hold hold = (HoldService.Hold) controller.createHold(new HoldRequest()).getBody().get("data");
+
+		assertThat(controller.deleteHold(hold.idHolds()).getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(controller.deleteHold(hold.idHolds()).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(holdService.size()).isZero();
+		verify(eventPublisher).publishEvent(new HoldReleasedEvent(hold.slot()));
+	}
+
+	private void resolves(RentalSlot slot) {
+		when(slotBookingService.resolve(any(HoldRequest.class))).thenReturn(new SlotBookingService.Resolution(slot, null, null));
+	}
+
+	private static HoldRequest roomRequest(LocalDateTime start, LocalDateTime end) {
+		HoldRequest request = new HoldRequest();
+		request.setResourceType(ResourceType.ROOM);
+		request.setIdResource(3);
+		request.setIdCustomers(7);
+		request.setStartPeriod(start);
+		request.setEndPeriod(end);
+		request.setTotalPrice(BigDecimal.TEN);
+		return request;
+	}
+
+	private static RentalSlot room(LocalDateTime start, LocalDateTime end) {
+		return new RentalSlot(ResourceType.ROOM, null, 3, 7, null, null, null, null, null, start, end, BigDecimal.TEN);
+	}
+}
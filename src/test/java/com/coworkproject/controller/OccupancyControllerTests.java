@@ -0,0 +1,158 @@
+package com.coworkproject.controller;
+
+import com.coworkproject.model.Desk;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.Room;
+import com.coworkproject.repository.AreaRentalRepository;
+import com.coworkproject.repository.AreaRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.RentalShiftRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.repository.StandRentalRepository;
+import com.coworkproject.repository.StandRepository;
+import com.coworkproject.service.AvailabilityIndex;
+import com.coworkproject.service.RentalSlot;
+import com.coworkproject.service.ShiftMatrixService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OccupancyControllerTests {
+
+	private static final LocalTime EIGHT = LocalTime.of(8, 0);
+	private static final LocalTime NOON = LocalTime.of(12, 0);
+	private static final LocalTime ONE = LocalTime.of(13, 0);
+	private static final LocalTime SIX = LocalTime.of(18, 0);
+	private static final YearMonth MONTH = YearMonth.now().plusMonths(1);
+	private static final LocalDate DAY = MONTH.atDay(10);
+
+	private final RentalShiftRepository shifts = mock(RentalShiftRepository.class);
+	private final DeskRepository desks = mock(DeskRepository.class);
+	private final RoomRepository rooms = mock(RoomRepository.class);
+	private final DeskRentalRepository deskRentals = mock(DeskRentalRepository.class);
+	private final RoomRentalRepository roomRentals = mock(RoomRentalRepository.class);
+	private final ShiftMatrixService matrixService = new ShiftMatrixService(shifts);
+	private final AvailabilityIndex index = new AvailabilityIndex(desks, rooms, mock(AreaRepository.class),
+			mock(StandRepository.class), deskRentals, roomRentals, mock(AreaRentalRepository.class),
+			mock(StandRentalRepository.class), matrixService);
+	private final OccupancyController controller = new OccupancyController(index);
+
+	// Três mesas e duas salas; mesa 1 no integral, mesa 2 na manhã, sala 1 das 9h às 10h
+	@BeforeEach
+	void seed() {
+		when(shifts.findAll()).thenReturn(List.of(shift(5, "Manhã", EIGHT, NOON), shift(6, "Tarde", ONE, SIX), shift(7, "Integral", EIGHT, SIX)));
+		matrixService.rebuild();
+		when(desks.findAll()).thenReturn(List.of(desk(1), desk(2), desk(3)));
+		when(rooms.findAll()).thenReturn(List.of(room(1), room(2)));
+		when(deskRentals.findSlotsBetween(any(), any())).thenReturn(List.of(
+				deskRental(1, 1, 7, EIGHT, SIX),
+				deskRental(2, 2, 5, EIGHT, NOON)));
+		when(roomRentals.findSlotsBetween(any(), any())).thenReturn(List.of(
+				new RentalSlot(ResourceType.ROOM, 1, 1, 9, null, null, null, null, null, DAY.atTime(9, 0), DAY.atTime(10, 0), BigDecimal.TEN)));
+		index.reload();
+	}
+
+	// Aluguel no integral ocupa também a manhã e a tarde; o da manhã ocupa o integral. O mapa bate com a busca de
+	// disponibilidade em cada turno, para mesas (pelo turno) e salas (pelo horário)
+	@Test
+	void overlappingShiftsCountAsOccupied() {
+		Map<String, Object> desksDay = day(heatmap("desk"), 10);
+		assertThat(cell(desksDay, 5)).containsEntry("occupied", 2).containsEntry("free", 1);
+		assertThat(cell(desksDay, 6)).containsEntry("occupied", 1).containsEntry("free", 2);
+		assertThat(cell(desksDay, 7)).containsEntry("occupied", 2).containsEntry("free", 1);
+		assertThat(desksDay).containsEntry("occupied", 2).containsEntry("free", 1);
+
+		Map<String, Object> roomsDay = day(heatmap("room"), 10);
+		assertThat(cell(roomsDay, 5)).containsEntry("occupied", 1);
+		assertThat(cell(roomsDay, 6)).containsEntry("occupied", 0);
+		assertThat(cell(roomsDay, 7)).containsEntry("occupied", 1);
+
+		for (int shiftId = 5; shiftId <= 7; shiftId++) {
+			assertThat(cell(desksDay, shiftId).get("free")).isEqualTo(index.findFree(ResourceType.DESK, DAY, DAY, shiftId).cardinality());
+			assertThat(cell(roomsDay, shiftId).get("free")).isEqualTo(index.findFree(ResourceType.ROOM, DAY, DAY, shiftId).cardinality());
+		}
+	}
+
+	@Test
+	void dayWithoutRentalsIsAllFree() {
+		Map<String, Object> emptyDay = day(heatmap("desk"), 11);
+
+		assertThat(emptyDay).containsEntry("date", MONTH.atDay(11)).containsEntry("occupied", 0).containsEntry("free", 3);
+		for (int shiftId = 5; shiftId <= 7; shiftId++) {
+			assertThat(cell(emptyDay, shiftId)).containsEntry("occupied", 0).containsEntry("free", 3);
+		}
+	}
+
+	// Mês que passa da borda do horizonte, antes ou depois, é recusado em vez de mostrar dias vazios
+	@Test
+	void monthCrossingTheHorizonIsRejected() {
+		YearMonth after = YearMonth.from(index.horizonEnd()).plusMonths(1);
+		YearMonth before = YearMonth.from(index.horizonStart()).minusMonths(1);
+
+		assertThat(controller.getHeatmap(after, "desk").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(controller.getHeatmap(before, null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(controller.getHeatmap(YearMonth.from(index.horizonEnd()), "desk").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(controller.getHeatmap(MONTH, "desks").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> heatmap(String type) {
+		ResponseEntity<Map<String, Object>> response = controller.getHeatmap(MONTH, type);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return ((List<Map<String, Object>>) response.getBody().get("data")).get(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> day(Map<String, Object> grid, int dayOfMonth) {
+		return ((List<Map<String, Object>>) grid.get("days")).get(dayOfMonth - 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> cell(Map<String, Object> day, int shiftId) {
+		return ((List<Map<String, Object>>) day.get("shifts")).stream()
+				.filter(cell -> cell.get("shiftId").equals(shiftId))
+				.findFirst().orElseThrow();
+	}
+
+	private static RentalSlot deskRental(int rentalId, int deskId, int shiftId, LocalTime start, LocalTime end) {
+		return new RentalSlot(ResourceType.DESK, rentalId, deskId, 9, 11, shiftId, "Turno " + shiftId, start, end,
+				DAY.atTime(start), DAY.atTime(end), BigDecimal.TEN);
+	}
+
+	private static Desk desk(int id) {
+		Desk desk = new Desk();
+		desk.setIdDesks(id);
+		return desk;
+	}
+
+	private static Room room(int id) {
+		Room room = new Room();
+		room.setIdRooms(id);
+		return room;
+	}
+
+	private static RentalShift shift(int id, String name, LocalTime start, LocalTime end) {
+		RentalShift shift = new RentalShift();
+		shift.setIdRentalShifts(id);
+		shift.setNameRentalShifts(name);
+		shift.setStartTimeRentalShifts(start);
+		shift.setEndTimeRentalShifts(end);
+		return shift;
+	}
+}
@@ -0,0 +1,56 @@
+package com.coworkproject.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceRuleTests {
+
+	// Terças e quintas por 6 meses: ~52 ocorrências geradas a partir de um único pedido
+	@Test
+	void weeklyRuleExpandsEveryChosenDayUntilEndDate() {
+		RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY,
+				List.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY), LocalDate.of(2030, 6, 30), null);
+
+		List<LocalDate> days = rule.expand(LocalDate.of(2030, 1, 1));
+
+		assertThat(rule.validate(LocalDate.of(2030, 1, 1))).isNull();
+		assertThat(days).hasSize(52);
+		assertThat(days).first().isEqualTo(LocalDate.of(2030, 1, 1));
+		assertThat(days).allMatch(day -> day.getDayOfWeek() == DayOfWeek.TUESDAY || day.getDayOfWeek() == DayOfWeek.THURSDAY);
+	}
+
+	@Test
+	void biweeklyRuleSkipsAlternateWeeksAndStopsAtCount() {
+		RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.BIWEEKLY, null, null, 3);
+
+		assertThat(rule.expand(LocalDate.of(2030, 1, 3)))
+				.containsExactly(LocalDate.of(2030, 1, 3), LocalDate.of(2030, 1, 17), LocalDate.of(2030, 1, 31));
+	}
+
+	@Test
+	void ruleWithoutEndIsRejected() {
+		RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, null, null, null);
+
+		assertThat(rule.validate(LocalDate.of(2030, 1, 1))).isNotNull();
+	}
+
+	// Pelo count também vale o limite de 366 dias: 200 segundas quinzenais dariam ~7,7 anos
+	@Test
+	void countBasedBiweeklyRuleIsBoundedByTheRangeLimit() {
+		LocalDate firstDay = LocalDate.of(2030, 1, 7);
+		RecurrenceRule tooLong = new RecurrenceRule(RecurrenceRule.Frequency.BIWEEKLY, List.of(DayOfWeek.MONDAY), null, 200);
+		RecurrenceRule fits = new RecurrenceRule(RecurrenceRule.Frequency.BIWEEKLY, List.of(DayOfWeek.MONDAY), null, 27);
+		RecurrenceRule oneTooMany = new RecurrenceRule(RecurrenceRule.Frequency.BIWEEKLY, List.of(DayOfWeek.MONDAY), null, 28);
+
+		assertThat(tooLong.validate(firstDay)).isNotNull();
+		assertThat(tooLong.expand(firstDay)).hasSize(27).last().isEqualTo(LocalDate.of(2031, 1, 6));
+		assertThat(fits.validate(firstDay)).isNull();
+		assertThat(oneTooMany.validate(firstDay)).isNotNull();
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.coworkproject.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveScheduleTests {
+
+	private static final LocalDateTime MORNING = LocalDateTime.of(2025, 6, 10, 8, 0);
+	private static final LocalDateTime NOON = LocalDateTime.of(2025, 6, 10, 12, 0);
+
+	// Troca exatamente no limite do turno: vigente no próprio instante de início e de fim, fora um instante depois
+	@Test
+	void switchesExactlyAtShiftBoundaries() {
+		ActiveSchedule<String> schedule = new ActiveSchedule<>(MORNING.minusMinutes(1));
+		schedule.put(1, MORNING, NOON, "manhã");
+		schedule.put(2, NOON, NOON.plusHours(6), "tarde");
+
+		assertThat(schedule.active()).isEmpty();
+		assertThat(schedule.nextTransition()).isEqualTo(MORNING);
+
+		schedule.advanceTo(MORNING);
+		assertThat(schedule.active()).containsExactly("manhã");
+
+		schedule.advanceTo(NOON);
+		assertThat(schedule.active()).containsExactlyInAnyOrder("manhã", "tarde");
+
+		schedule.advanceTo(NOON.plusNanos(1));
+		assertThat(schedule.active()).containsExactly("tarde");
+
+		// Relógio não volta; item já encerrado nem é guardado
+		schedule.advanceTo(MORNING);
+		schedule.put(3, MORNING, MORNING.plusHours(1), "encerrado");
+		assertThat(schedule.active()).containsExactly("tarde");
+		assertThat(schedule.pendingCount()).isZero();
+	}
+
+	// Compara com a condição direta (início <= agora <= fim) sob inserções, alterações e remoções em ordem aleatória
+	@Test
+	void matchesDirectFilterUnderRandomUpdates() {
+		Random random = new Random(11);
+		LocalDateTime now = MORNING;
+		ActiveSchedule<Integer> schedule = new ActiveSchedule<>(now);
+		Map<Integer, LocalDateTime[]> periods = new HashMap<>();
+
+		for (int step = 0; step < 20_000; step++) {
+			int action = random.nextInt(10);
+			int id = random.nextInt(500);
+			if (action < 5) {
+				LocalDateTime start = now.plusMinutes(random.nextInt(600) - 300);
+				LocalDateTime end = start.plusMinutes(random.nextInt(480));
+				schedule.put(id, start, end, id);
+				periods.put(id, new LocalDateTime[]{start, end});
+			} else if (action < 6) {
+				schedule.remove(id);
+				periods.remove(id);
+			} else {
+				now = now.plusMinutes(random.nextInt(5));
+				schedule.advanceTo(now);
+			}
+
+			LocalDateTime at = now;
+			List<Integer> expected = periods.entrySet().stream()
+					.filter(entry -> !entry.getValue()[0].isAfter(at) && !entry.getValue()[1].isBefore(at))
+					.map(Map.Entry::getKey)
+					.toList();
+			assertThat(schedule.active()).containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.coworkproject.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntervalTreeTests {
+
+	private static final LocalDateTime MORNING = LocalDateTime.of(2025, 6, 10, 8, 0);
+	private static final LocalDateTime NOON = LocalDateTime.of(2025, 6, 10, 12, 0);
+	private static final LocalDateTime EVENING = LocalDateTime.of(2025, 6, 10, 18, 0);
+
+	// Chave (início, id): mesmo início com ids diferentes convivem, mesma chave substitui; remoção pela chave
+	@Test
+	void insertReplacesSameKeyAndRemoveFindsByStartAndId() {
+		IntervalTree<String> tree = new IntervalTree<>();
+		tree.insert(MORNING, NOON, 1, "a");
+		tree.insert(MORNING, NOON, 2, "b");
+		tree.insert(MORNING, EVENING, 1, "a2");
+
+		assertThat(tree.size()).isEqualTo(2);
+		assertThat(tree.findOverlapping(EVENING, EVENING)).containsExactly("a2");
+
+		assertThat(tree.remove(MORNING, 3)).isFalse();
+		assertThat(tree.remove(NOON, 1)).isFalse();
+		assertThat(tree.remove(MORNING, 1)).isTrue();
+		assertThat(tree.remove(MORNING, 1)).isFalse();
+		assertThat(tree.findOverlapping(MORNING, EVENING)).containsExactly("b");
+
+		assertThat(tree.remove(MORNING, 2)).isTrue();
+		assertThat(tree.isEmpty()).isTrue();
+		assertThat(tree.findOverlapping(MORNING, EVENING)).isEmpty();
+
+		assertThatThrownBy(() -> tree.insert(NOON, MORNING, 4, "invertido")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// Intervalos fechados: quem termina no instante em que o outro começa intercepta a consulta nesse instante
+	@Test
+	void closedIntervalsOverlapAtSharedEndpoints() {
+		IntervalTree<String> tree = new IntervalTree<>();
+		tree.insert(MORNING, NOON, 1, "manhã");
+		tree.insert(NOON, EVENING, 2, "tarde");
+
+		assertThat(tree.findOverlapping(NOON, NOON)).containsExactly("manhã", "tarde");
+		assertThat(tree.findOverlapping(NOON.plusNanos(1), EVENING)).containsExactly("tarde");
+		assertThat(tree.findOverlapping(MORNING.minusHours(1), MORNING)).containsExactly("manhã");
+		assertThat(tree.findOverlapping(EVENING, EVENING.plusHours(1))).containsExactly("tarde");
+		assertThat(tree.findOverlapping(MORNING.minusHours(1), MORNING.minusNanos(1))).isEmpty();
+		assertThat(tree.findFirstOverlapping(NOON, NOON, value -> !value.equals("manhã"))).isEqualTo("tarde");
+	}
+
+	// Inserções em ordem (o pior caso de uma árvore sem rotação) e remoções em massa mantêm a altura AVL
+	@Test
+	void sequentialInsertsAndRemovalsStayBalanced() {
+		IntervalTree<Integer> tree = new IntervalTree<>();
+		int count = 10_000;
+		for (int i = 0; i < count; i++) {
+			tree.insert(MORNING.plusMinutes(i), MORNING.plusMinutes(i + 30), i, i);
+		}
+		assertThat(tree.size()).isEqualTo(count);
+		assertThat(tree.height()).isLessThanOrEqualTo(avlBound(count));
+
+		for (int i = 0; i < count; i += 2) {
+			assertThat(tree.remove(MORNING.plusMinutes(i), i)).isTrue();
+		}
+		for (int i = count - 1; i >= count / 2; i -= 2) {
+			assertThat(tree.remove(MORNING.plusMinutes(i), i)).isTrue();
+		}
+		assertThat(tree.size()).isEqualTo(count / 4);
+		assertThat(tree.height()).isLessThanOrEqualTo(avlBound(count / 4));
+
+		// O maior fim das subárvores continua certo depois das rotações: sobram os ímpares abaixo de count / 2
+		int minute = count / 2 - 1;
+		assertThat(tree.findOverlapping(MORNING.plusMinutes(minute), MORNING.plusMinutes(minute)))
+				.containsExactlyElementsOf(IntStream.rangeClosed(minute - 30, minute).filter(i -> i % 2 == 1).boxed().toList());
+	}
+
+	// Compara com a busca linear sob inserções, substituições e remoções em ordem aleatória
+	@Test
+	void matchesBruteForceUnderRandomUpdates() {
+		Random random = new Random(7);
+		IntervalTree<Integer> tree = new IntervalTree<>();
+		Map<Integer, LocalDateTime[]> intervals = new HashMap<>();
+
+		for (int step = 0; step < 20_000; step++) {
+			int id = random.nextInt(400);
+			if (random.nextInt(3) > 0) {
+				LocalDateTime[] previous = intervals.get(id);
+				if (previous != null) {
+					tree.remove(previous[0], id);
+				}
+				// Minutos cheios numa janela curta: muitos inícios e fins repetidos
+				LocalDateTime start = MORNING.plusMinutes(random.nextInt(2_000));
+				LocalDateTime end = start.plusMinutes(random.nextInt(4) == 0 ? 0 : random.nextInt(300));
+				tree.insert(start, end, id, id);
+				intervals.put(id, new LocalDateTime[]{start, end});
+			} else {
+				LocalDateTime[] previous = intervals.remove(id);
+				assertThat(tree.remove(previous != null ? previous[0] : MORNING.minusDays(1), id)).isEqualTo(previous != null);
+			}
+
+			if (step % 50 == 0) {
+				LocalDateTime from = MORNING.plusMinutes(random.nextInt(2_400) - 200);
+				LocalDateTime to = from.plusMinutes(random.nextInt(200));
+				List<Integer> expected = new ArrayList<>();
+				intervals.entrySet().stream()
+						.filter(entry -> !entry.getValue()[1].isBefore(from) && !entry.getValue()[0].isAfter(to))
+						.sorted(Comparator.<Map.Entry<Integer, LocalDateTime[]>, LocalDateTime>comparing(entry -> entry.getValue()[0])
+								.thenComparing(Map.Entry::getKey))
+						.forEach(entry -> expected.add(entry.getKey()));
+
+				assertThat(tree.size()).isEqualTo(intervals.size());
+				assertThat(tree.height()).isLessThanOrEqualTo(avlBound(intervals.size()));
+				assertThat(tree.findOverlapping(from, to)).containsExactlyElementsOf(expected);
+				assertThat(tree.findFirstOverlapping(from, to, value -> value % 3 == 0))
+						.isEqualTo(expected.stream().filter(value -> value % 3 == 0).findFirst().orElse(null));
+			}
+		}
+	}
+
+	// Altura máxima de uma AVL com n nós: 1,44 log2(n + 2)
+	private static int avlBound(int n) {
+		return (int) Math.floor(1.4405 * Math.log(n + 2) / Math.log(2));
+	}
+}
@@ -0,0 +1,54 @@
+package com.coworkproject.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShiftCalendarTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+	private static final long[] MORNING = {0b01L};
+	private static final long[] AFTERNOON = {0b10L};
+
+	// Aluguel de vários dias marca cada dia do intervalo, inclusive as pontas, e só o bit do seu turno
+	@Test
+	void multiDayMarkCoversEveryDayOfTheRange() {
+		ShiftCalendar calendar = new ShiftCalendar(1);
+		calendar.mark(MONDAY, MONDAY.plusDays(4), MORNING);
+
+		assertThat(calendar.intersects(MONDAY, MONDAY, MORNING)).isTrue();
+		assertThat(calendar.intersects(MONDAY.plusDays(2), MONDAY.plusDays(2), MORNING)).isTrue();
+		assertThat(calendar.intersects(MONDAY.plusDays(4), MONDAY.plusDays(6), MORNING)).isTrue();
+		assertThat(calendar.intersects(MONDAY.minusDays(3), MONDAY.minusDays(1), MORNING)).isFalse();
+		assertThat(calendar.intersects(MONDAY.plusDays(5), MONDAY.plusDays(9), MORNING)).isFalse();
+		assertThat(calendar.intersects(MONDAY, MONDAY.plusDays(4), AFTERNOON)).isFalse();
+	}
+
+	// Limpar um turno mantém o outro no mesmo dia; dia sem nenhum bit sai do mapa
+	@Test
+	void clearKeepsOtherShiftsAndDropsEmptyDays() {
+		ShiftCalendar calendar = new ShiftCalendar(1);
+		calendar.mark(MONDAY, MONDAY.plusDays(2), MORNING);
+		calendar.mark(MONDAY.plusDays(1), MONDAY.plusDays(1), AFTERNOON);
+
+		calendar.clear(MONDAY, MONDAY.plusDays(2), MORNING);
+		assertThat(calendar.intersects(MONDAY, MONDAY.plusDays(2), MORNING)).isFalse();
+		assertThat(calendar.intersects(MONDAY.plusDays(1), MONDAY.plusDays(1), AFTERNOON)).isTrue();
+		assertThat(calendar.isEmpty()).isFalse();
+
+		calendar.clear(MONDAY.minusDays(10), MONDAY.plusDays(10), AFTERNOON);
+		assertThat(calendar.isEmpty()).isTrue();
+	}
+
+	// Máscara de várias palavras: bit na segunda palavra é conferido
+	@Test
+	void intersectsChecksEveryWord() {
+		ShiftCalendar calendar = new ShiftCalendar(2);
+		calendar.mark(MONDAY, MONDAY, new long[]{0L, 1L});
+
+		assertThat(calendar.intersects(MONDAY, MONDAY, new long[]{-1L, 0L})).isFalse();
+		assertThat(calendar.intersects(MONDAY, MONDAY, new long[]{0L, 1L})).isTrue();
+	}
+}
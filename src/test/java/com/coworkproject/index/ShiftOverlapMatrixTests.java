@@ -0,0 +1,69 @@
+package com.coworkproject.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShiftOverlapMatrixTests {
+
+	private static final ShiftOverlapMatrix.Shift MORNING = new ShiftOverlapMatrix.Shift(5, "Manhã", LocalTime.of(8, 0), LocalTime.of(12, 0));
+	private static final ShiftOverlapMatrix.Shift AFTERNOON = new ShiftOverlapMatrix.Shift(6, "Tarde", LocalTime.of(13, 0), LocalTime.of(18, 0));
+	private static final ShiftOverlapMatrix.Shift FULL_DAY = new ShiftOverlapMatrix.Shift(7, "Integral", LocalTime.of(8, 0), LocalTime.of(18, 0));
+
+	// Cada turno conflita consigo, com os que se sobrepõem e com o bit reservado aos desconhecidos
+	@Test
+	void masksFollowTimeOverlapAndIncludeTheUnknownBit() {
+		ShiftOverlapMatrix matrix = new ShiftOverlapMatrix(List.of(MORNING, AFTERNOON, FULL_DAY));
+
+		assertThat(matrix.words()).isEqualTo(1);
+		assertThat(matrix.positionOf(5)).isZero();
+		assertThat(matrix.positionOf(99)).isEqualTo(3);
+		assertThat(matrix.bits(6)).containsExactly(0b0010L);
+		assertThat(matrix.conflictMask(5)).containsExactly(0b1101L);
+		assertThat(matrix.conflictMask(6)).containsExactly(0b1110L);
+		assertThat(matrix.conflictMask(7)).containsExactly(0b1111L);
+	}
+
+	// Turno desconhecido (ou sem id) ocupa e enxerga todos os bits, inclusive o reservado
+	@Test
+	void unknownShiftOccupiesAndConflictsWithEverything() {
+		ShiftOverlapMatrix matrix = new ShiftOverlapMatrix(List.of(MORNING, AFTERNOON));
+
+		assertThat(matrix.bits(99)).containsExactly(0b111L);
+		assertThat(matrix.bits(null)).containsExactly(0b111L);
+		assertThat(matrix.conflictMask(99)).containsExactly(0b111L);
+		assertThat(matrix.bits(99)[0] & matrix.conflictMask(6)[0]).isNotZero();
+		assertThat(matrix.bits(5)[0] & matrix.conflictMask(99)[0]).isNotZero();
+	}
+
+	// Matriz vazia (antes da primeira carga) não pode deixar passar tudo: o único bit é o dos desconhecidos
+	@Test
+	void emptyMatrixStillReportsConflicts() {
+		ShiftOverlapMatrix matrix = new ShiftOverlapMatrix(List.of());
+
+		assertThat(matrix.words()).isEqualTo(1);
+		assertThat(matrix.bits(5)).containsExactly(1L);
+		assertThat(matrix.conflictMask(5)).containsExactly(1L);
+	}
+
+	// Com 64 turnos o bit dos desconhecidos vai para a segunda palavra; horário ausente conflita com todos
+	@Test
+	void unknownBitCrossesTheWordBoundaryAndMissingTimesConflict() {
+		List<ShiftOverlapMatrix.Shift> shifts = new ArrayList<>();
+		for (int i = 0; i < 63; i++) {
+			shifts.add(new ShiftOverlapMatrix.Shift(100 + i, "T" + i, LocalTime.of(0, 0).plusMinutes(i * 20L),
+					LocalTime.of(0, 0).plusMinutes(i * 20L + 10)));
+		}
+		shifts.add(new ShiftOverlapMatrix.Shift(200, "Sem horário", null, null));
+		ShiftOverlapMatrix matrix = new ShiftOverlapMatrix(shifts);
+
+		assertThat(matrix.words()).isEqualTo(2);
+		assertThat(matrix.conflictMask(100)).containsExactly(1L | 1L << 63, 1L);
+		assertThat(matrix.conflictMask(200)).containsExactly(-1L, 1L);
+		assertThat(matrix.bits(999)).containsExactly(-1L, 1L);
+	}
+}
@@ -0,0 +1,54 @@
+package com.coworkproject.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+
+	// Compara com uma lista simples: cada item vence exatamente no tick do seu prazo, nem antes nem depois
+	@Test
+	void expiresEveryTimerOnItsTickAcrossLevels() {
+		Random random = new Random(7);
+		long now = 1_000_000L;
+		TimingWheel<Integer> wheel = new TimingWheel<>(1_000, now);
+		Map<Integer, Long> deadlines = new HashMap<>();
+		Map<Integer, TimingWheel.Timer<Integer>> timers = new HashMap<>();
+		List<Integer> expired = new ArrayList<>();
+
+		for (int step = 0; step < 20_000; step++) {
+			int action = random.nextInt(10);
+			if (action < 5) {
+				// Prazos de segundos a ~2 meses, cobrindo os quatro níveis
+				long ttl = random.nextInt(4) == 0 ? random.nextInt(5_000_000) * 1_000L : random.nextInt(300) * 1_000L + random.nextInt(1_000);
+				TimingWheel.Timer<Integer> timer = wheel.schedule(step, now + ttl);
+				if (timer != null) {
+					deadlines.put(step, now + ttl);
+					timers.put(step, timer);
+				}
+			} else if (action < 6 && !timers.isEmpty()) {
+				Integer id = timers.keySet().iterator().next();
+				assertThat(wheel.cancel(timers.remove(id))).isTrue();
+				deadlines.remove(id);
+			} else {
+				now += random.nextInt(4) == 0 ? random.nextInt(200_000_000) : random.nextInt(3_000);
+				long current = now;
+				expired.clear();
+				wheel.advance(now, expired::add);
+				for (Integer id : expired) {
+					assertThat(deadlines.remove(id)).isLessThanOrEqualTo(current);
+					timers.remove(id);
+				}
+				assertThat(deadlines.values()).allMatch(deadline -> deadline > current - 1_000);
+			}
+			assertThat(wheel.size()).isEqualTo(deadlines.size());
+		}
+	}
+
+}
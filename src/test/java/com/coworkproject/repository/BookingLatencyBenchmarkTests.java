@@ -0,0 +1,168 @@
+package com.coworkproject.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Latência da reserva (verificação de conflito + insert) conforme a tabela de aluguéis cresce,
+// comparando o predicado antigo (OR de BETWEEN) com o novo predicado usando o índice (mesa, início, fim).
+// Só roda com um MySQL disponível; usa (e limpa) o schema próprio coworkBenchmark:
+// mvn test -Dtest=BookingLatencyBenchmarkTests -Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/ -Dbenchmark.mysql.user=root
+@EnabledIfSystemProperty(named = "benchmark.mysql.url", matches = ".+")
+class BookingLatencyBenchmarkTests {
+
+	private static final String SCHEMA = "coworkBenchmark";
+	private static final int DESKS = 200;
+	private static final int BOOKINGS_PER_ROUND = 500;
+	private static final LocalDateTime BASE = LocalDateTime.of(2020, 1, 1, 8, 0);
+
+	private static final String OLD_CONFLICT_QUERY = "SELECT `idDeskRentals` FROM `deskRentals` "
+			+ "IGNORE INDEX (`idx_deskRentals_desk_period`, `idx_deskRentals_active`) WHERE `idDesks` = ? AND "
+			+ "((? BETWEEN `startPeriodDeskRentals` AND `endPeriodDeskRentals`) OR "
+			+ "(? BETWEEN `startPeriodDeskRentals` AND `endPeriodDeskRentals`) OR "
+			+ "(`startPeriodDeskRentals` BETWEEN ? AND ?) OR "
+			+ "(`endPeriodDeskRentals` BETWEEN ? AND ?))";
+
+	private static final String NEW_CONFLICT_QUERY = "SELECT `idDeskRentals` FROM `deskRentals` "
+			+ "WHERE `idDesks` = ? AND `startPeriodDeskRentals` <= ? AND `endPeriodDeskRentals` >= ?";
+
+	private static final String INSERT_RENTAL = "INSERT INTO `deskRentals` (`idDesks`, `idCustomers`, `idRentalPlans`, "
+			+ "`startPeriodDeskRentals`, `endPeriodDeskRentals`, `totalPriceDeskRentals`) VALUES (?, 1, 1, ?, ?, 50.00)";
+
+	@Test
+	void bookingLatencyByTableSize() throws Exception {
+		String url = System.getProperty("benchmark.mysql.url");
+		String user = System.getProperty("benchmark.mysql.user", "root");
+		String password = System.getProperty("benchmark.mysql.password", "");
+		int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "1000,10000,100000,1000000").split(","))
+				.mapToInt(Integer::parseInt).toArray();
+
+		Flyway flyway = Flyway.configure()
+				.dataSource(url, user, password)
+				.schemas(SCHEMA)
+				.createSchemas(true)
+				.cleanDisabled(false)
+				.load();
+		flyway.clean();
+		flyway.migrate();
+
+		Random random = new Random(42);
+		try (Connection connection = DriverManager.getConnection(url + SCHEMA + "?rewriteBatchedStatements=true", user, password)) {
+			seedCatalog(connection);
+
+			System.out.printf("%10s | %-18s | %10s | %10s%n", "alugueis", "predicado", "p50 (us)", "p95 (us)");
+			int rows = 0;
+			for (int size : sizes) {
+				rows = fillRentals(connection, random, rows, size);
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("ANALYZE TABLE `deskRentals`");
+				}
+
+				long[] old = measureBookings(connection, random, true);
+				long[] indexed = measureBookings(connection, random, false);
+				System.out.printf("%10d | %-18s | %10d | %10d%n", size, "OR/BETWEEN", old[0], old[1]);
+				System.out.printf("%10d | %-18s | %10d | %10d%n", size, "indice composto", indexed[0], indexed[1]);
+			}
+
+			try (Statement statement = connection.createStatement();
+				 ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM `deskRentals`")) {
+				count.next();
+				assertThat(count.getInt(1)).isEqualTo(rows);
+			}
+		}
+	}
+
+	private void seedCatalog(Connection connection) throws Exception {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO `customers` (`nameCustomers`) VALUES ('Benchmark')");
+			statement.execute("INSERT INTO `rentalCategories` (`nameRentalCategories`, `baseDurationInDaysRentalCategories`) VALUES ('Diária', 1)");
+			statement.execute("INSERT INTO `rentalShifts` (`nameRentalShifts`, `startTimeRentalShifts`, `endTimeRentalShifts`) VALUES ('Manhã', '08:00', '12:00')");
+			statement.execute("INSERT INTO `rentalPlans` (`idRentalCategories`, `idRentalShifts`, `planNameRentalPlans`, `priceRentalPlans`) VALUES (1, 1, 'Manhã', 50.00)");
+		}
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO `desks` (`numberDesks`, `nameDesks`) VALUES (?, ?)")) {
+			for (int desk = 1; desk <= DESKS; desk++) {
+				insert.setInt(1, desk);
+				insert.setString(2, "Mesa " + desk);
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+	}
+
+	// Aluguéis de 4 horas espalhados por ~10 anos, para que a busca por conflito encontre poucos registros
+	private int fillRentals(Connection connection, Random random, int from, int to) throws Exception {
+		connection.setAutoCommit(false);
+		try (PreparedStatement insert = connection.prepareStatement(INSERT_RENTAL)) {
+			for (int i = from; i < to; i++) {
+				LocalDateTime start = BASE.plusDays(random.nextInt(3650));
+				insert.setInt(1, 1 + random.nextInt(DESKS));
+				insert.setTimestamp(2, Timestamp.valueOf(start));
+				insert.setTimestamp(3, Timestamp.valueOf(start.plusHours(4)));
+				insert.addBatch();
+				if ((i - from) % 5_000 == 4_999) {
+					insert.executeBatch();
+				}
+			}
+			insert.executeBatch();
+		}
+		connection.commit();
+		connection.setAutoCommit(true);
+		return to;
+	}
+
+	// Cada reserva: consulta de conflito + insert, desfeito no fim para não alterar o tamanho da tabela
+	private long[] measureBookings(Connection connection, Random random, boolean oldPredicate) throws Exception {
+		long[] micros = new long[BOOKINGS_PER_ROUND];
+		connection.setAutoCommit(false);
+		try (PreparedStatement conflicts = connection.prepareStatement(oldPredicate ? OLD_CONFLICT_QUERY : NEW_CONFLICT_QUERY);
+			 PreparedStatement insert = connection.prepareStatement(INSERT_RENTAL)) {
+			for (int i = 0; i < BOOKINGS_PER_ROUND; i++) {
+				int desk = 1 + random.nextInt(DESKS);
+				Timestamp start = Timestamp.valueOf(BASE.plusDays(random.nextInt(3650)));
+				Timestamp end = Timestamp.valueOf(start.toLocalDateTime().plusHours(4));
+
+				long began = System.nanoTime();
+				conflicts.setInt(1, desk);
+				if (oldPredicate) {
+					conflicts.setTimestamp(2, start);
+					conflicts.setTimestamp(3, end);
+					conflicts.setTimestamp(4, start);
+					conflicts.setTimestamp(5, end);
+					conflicts.setTimestamp(6, start);
+					conflicts.setTimestamp(7, end);
+				} else {
+					conflicts.setTimestamp(2, end);
+					conflicts.setTimestamp(3, start);
+				}
+				boolean conflict;
+				try (ResultSet resultSet = conflicts.executeQuery()) {
+					conflict = resultSet.next();
+				}
+				if (!conflict) {
+					insert.setInt(1, desk);
+					insert.setTimestamp(2, start);
+					insert.setTimestamp(3, end);
+					insert.executeUpdate();
+				}
+				micros[i] = (System.nanoTime() - began) / 1_000;
+			}
+		}
+		connection.rollback();
+		connection.setAutoCommit(true);
+
+		Arrays.sort(micros);
+		return new long[]{micros[micros.length / 2], micros[micros.length * 95 / 100]};
+	}
+}
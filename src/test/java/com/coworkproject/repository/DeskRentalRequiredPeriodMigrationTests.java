@@ -0,0 +1,65 @@
+package com.coworkproject.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// V9 num MySQL de verdade: com os aluguéis de mesa completos a migração passa; com um período nulo ela falha
+// e o schema fica na V8, sem converter o nulo em data zero.
+@EnabledIf("com.coworkproject.repository.MySqlTestDatabase#available")
+class DeskRentalRequiredPeriodMigrationTests {
+
+	private static final String SCHEMA = "coworkDeskRentalPeriod";
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+	private DataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void migrateToV8() {
+		dataSource = MySqlTestDatabase.dataSource(SCHEMA);
+		Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).target("8").load();
+		flyway.clean();
+		flyway.migrate();
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.update("INSERT INTO `customers` (`idCustomers`, `nameCustomers`) VALUES (1, 'Cliente')");
+		jdbcTemplate.update("INSERT INTO `desks` (`idDesks`, `numberDesks`, `nameDesks`) VALUES (1, 1, 'Mesa 1')");
+		jdbcTemplate.update("INSERT INTO `deskRentals` (`idDesks`, `idCustomers`, `startPeriodDeskRentals`, `endPeriodDeskRentals`, "
+				+ "`totalPriceDeskRentals`) VALUES (1, 1, ?, ?, 50.00)", MONDAY, MONDAY.plusHours(4));
+	}
+
+	@Test
+	void completeRentalsMigrateAndNullsAreRejectedAfterwards() {
+		assertThat(migrate().migrationsExecuted).isEqualTo(1);
+
+		assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO `deskRentals` (`idDesks`, `idCustomers`, `startPeriodDeskRentals`, "
+				+ "`endPeriodDeskRentals`, `totalPriceDeskRentals`) VALUES (1, 1, ?, NULL, 50.00)", MONDAY))
+				.hasMessageContaining("endPeriodDeskRentals");
+	}
+
+	@Test
+	void rentalWithoutPeriodBlocksTheMigration() {
+		jdbcTemplate.update("INSERT INTO `deskRentals` (`idDesks`, `idCustomers`, `totalPriceDeskRentals`) VALUES (1, 1, 50.00)");
+
+		assertThatThrownBy(this::migrate).isInstanceOf(FlywayException.class);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM `deskRentals` WHERE `startPeriodDeskRentals` IS NULL", Integer.class))
+				.isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ? "
+				+ "AND TABLE_NAME = 'deskRentals' AND COLUMN_NAME = 'startPeriodDeskRentals'", String.class, SCHEMA)).isEqualTo("YES");
+	}
+
+	private MigrateResult migrate() {
+		return Flyway.configure().dataSource(dataSource).target("9").load().migrate();
+	}
+}
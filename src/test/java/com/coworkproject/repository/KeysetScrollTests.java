@@ -0,0 +1,78 @@
+package com.coworkproject.repository;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Paginação por uma coluna que aceita nulo (nome do cliente) no banco: nenhuma página falha num cursor com
+// chave nula e nenhuma linha com nulo fica de fora. Roda no MySQL dos testes de integração (MySqlTestDatabase)
+// e usa (e limpa) o schema próprio coworkKeysetScroll.
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIf("com.coworkproject.repository.MySqlTestDatabase#available")
+class KeysetScrollTests {
+
+	private static final String SCHEMA = "coworkKeysetScroll";
+
+	@DynamicPropertySource
+	static void mysql(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> MySqlTestDatabase.url(SCHEMA));
+		registry.add("spring.datasource.username", MySqlTestDatabase::user);
+		registry.add("spring.datasource.password", MySqlTestDatabase::password);
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Nomes: 1 -> Bruna, 2 -> nulo, 3 -> Ana, 4 -> nulo, 5 -> Carla
+	@BeforeEach
+	void seed() {
+		for (String table : new String[]{"waitlistEntries", "deskRentals", "standRentals", "roomRentals", "areaRentals",
+				"rentalSeries", "customers"}) {
+			jdbcTemplate.update("DELETE FROM `" + table + "`");
+		}
+		String[] names = {"Bruna", null, "Ana", null, "Carla"};
+		for (int i = 0; i < names.length; i++) {
+			jdbcTemplate.update("INSERT INTO `customers` (`idCustomers`, `nameCustomers`) VALUES (?, ?)", i + 1, names[i]);
+		}
+	}
+
+	@Test
+	void pagesPastNullNamesInBothDirections() throws Exception {
+		assertThat(pageThrough("name,asc")).containsExactly(2, 4, 3, 1, 5);
+		assertThat(pageThrough("name,desc")).containsExactly(5, 1, 3, 2, 4);
+		assertThat(pageThrough("id,desc")).containsExactly(5, 4, 3, 2, 1);
+	}
+
+	private List<Integer> pageThrough(String sort) throws Exception {
+		List<Integer> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			String url = cursor == null ? "/api/customers?size=1&sort=" + sort : "/api/customers?size=1&cursor=" + cursor;
+			String body = mockMvc.perform(get(url))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			seen.addAll(JsonPath.<List<Integer>>read(body, "$.data[*].idCustomers"));
+			cursor = JsonPath.read(body, "$.nextCursor");
+		} while (cursor != null);
+		return seen;
+	}
+}
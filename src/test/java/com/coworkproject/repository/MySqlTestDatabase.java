@@ -0,0 +1,56 @@
+package com.coworkproject.repository;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+
+// MySQL dos testes de integração: um container do Testcontainers, iniciado uma vez por execução (precisa de Docker),
+// ou um servidor já existente informado em -Dtest.mysql.url (ex.: jdbc:mysql://localhost:3306/, com
+// -Dtest.mysql.user e -Dtest.mysql.password). Sem nenhum dos dois, os testes que dependem dele são pulados.
+// Cada teste usa um schema próprio, criado se não existir.
+public final class MySqlTestDatabase {
+
+    private static MySQLContainer<?> container;
+
+    private MySqlTestDatabase() {
+    }
+
+    // Condição para @EnabledIf
+    public static boolean available() {
+        return System.getProperty("test.mysql.url") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static synchronized String url(String schema) {
+        String server = System.getProperty("test.mysql.url");
+        if (server == null) {
+            server = "jdbc:mysql://" + container().getHost() + ":" + container().getMappedPort(MySQLContainer.MYSQL_PORT) + "/";
+        }
+        return server + schema + "?createDatabaseIfNotExist=true&rewriteBatchedStatements=true";
+    }
+
+    public static String user() {
+        return System.getProperty("test.mysql.url") != null ? System.getProperty("test.mysql.user", "root") : container().getUsername();
+    }
+
+    public static String password() {
+        return System.getProperty("test.mysql.url") != null ? System.getProperty("test.mysql.password", "") : container().getPassword();
+    }
+
+    public static DataSource dataSource(String schema) {
+        return new DriverManagerDataSource(url(schema), user(), password());
+    }
+
+    // Root: os triggers das migrações exigem o privilégio de criá-los com o log binário ligado
+    private static synchronized MySQLContainer<?> container() {
+        if (container == null) {
+            container = new MySQLContainer<>(DockerImageName.parse("mysql:8.4"))
+                    .withUsername("root")
+                    .withPassword("test");
+            container.start();
+        }
+        return container;
+    }
+}
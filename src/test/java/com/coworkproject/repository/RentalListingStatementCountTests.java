@@ -0,0 +1,104 @@
+package com.coworkproject.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Quantidade de comandos SQL por requisição de listagem: com os entity graphs, a página de aluguéis vem
+// num único SELECT com joins, em vez de um SELECT extra por recurso, cliente, plano, categoria e turno distintos.
+// Roda no MySQL dos testes de integração (MySqlTestDatabase) e usa (e limpa) o schema próprio coworkStatementCount.
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIf("com.coworkproject.repository.MySqlTestDatabase#available")
+class RentalListingStatementCountTests {
+
+	private static final String SCHEMA = "coworkStatementCount";
+	private static final int ROWS = 20;
+	private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+	@DynamicPropertySource
+	static void mysql(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> MySqlTestDatabase.url(SCHEMA));
+		registry.add("spring.datasource.username", MySqlTestDatabase::user);
+		registry.add("spring.datasource.password", MySqlTestDatabase::password);
+		registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	// Cada aluguel com mesa, cliente e plano próprios (e cada plano com categoria e turno próprios),
+	// o pior caso para o N+1: nada se repete no contexto de persistência
+	@BeforeEach
+	void seed() {
+		for (String table : new String[]{"waitlistEntries", "deskRentals", "standRentals", "roomRentals", "areaRentals",
+				"rentalSeries", "rentalPlans", "rentalShifts", "rentalCategories", "desks", "stands", "customers"}) {
+			jdbcTemplate.update("DELETE FROM `" + table + "`");
+		}
+
+		for (int i = 1; i <= ROWS; i++) {
+			jdbcTemplate.update("INSERT INTO `customers` (`idCustomers`, `nameCustomers`) VALUES (?, ?)", i, "Cliente " + i);
+			jdbcTemplate.update("INSERT INTO `desks` (`idDesks`, `numberDesks`, `nameDesks`) VALUES (?, ?, ?)", i, i, "Mesa " + i);
+			jdbcTemplate.update("INSERT INTO `stands` (`idStands`, `numberStands`, `nameStands`) VALUES (?, ?, ?)", i, i, "Estande " + i);
+			jdbcTemplate.update("INSERT INTO `rentalCategories` (`idRentalCategories`, `nameRentalCategories`, `baseDurationInDaysRentalCategories`) VALUES (?, ?, 1)", i, "Categoria " + i);
+			jdbcTemplate.update("INSERT INTO `rentalShifts` (`idRentalShifts`, `nameRentalShifts`, `startTimeRentalShifts`, `endTimeRentalShifts`) VALUES (?, ?, '08:00', '12:00')", i, "Turno " + i);
+			jdbcTemplate.update("INSERT INTO `rentalPlans` (`idRentalPlans`, `idRentalCategories`, `idRentalShifts`, `planNameRentalPlans`, `priceRentalPlans`) VALUES (?, ?, ?, ?, 50.00)", i, i, i, "Plano " + i);
+			jdbcTemplate.update("INSERT INTO `deskRentals` (`idDeskRentals`, `idDesks`, `idCustomers`, `idRentalPlans`, `startPeriodDeskRentals`, `endPeriodDeskRentals`, `totalPriceDeskRentals`) VALUES (?, ?, ?, ?, ?, ?, 50.00)",
+					i, i, i, i, BASE.plusDays(i), BASE.plusDays(i).plusHours(4));
+			jdbcTemplate.update("INSERT INTO `standRentals` (`idStandRentals`, `idStands`, `idCustomers`, `idRentalPlans`, `startPeriodStandRentals`, `endPeriodStandRentals`, `totalPriceStandRentals`) VALUES (?, ?, ?, ?, ?, ?, 50.00)",
+					i, i, i, i, BASE.plusDays(i), BASE.plusDays(i).plusDays(1));
+		}
+	}
+
+	@Test
+	void deskRentalPageIsASingleStatement() throws Exception {
+		assertStatements("/api/desk-rentals?size=50", "$.data[0].rentalPlan.rentalShift.nameRentalShifts", 1);
+		assertStatements("/api/desk-rentals/customer/3", "$.data[0].desk.nameDesks", 1);
+	}
+
+	@Test
+	void standRentalPageIsASingleStatement() throws Exception {
+		assertStatements("/api/stand-rentals?size=50&sort=start,desc", "$.data[0].customer.nameCustomers", 1);
+	}
+
+	@Test
+	void rentalPlanPageIsASingleStatement() throws Exception {
+		assertStatements("/api/rental-plans?size=50", "$.data[0].rentalCategory.nameRentalCategories", 1);
+	}
+
+	// O campo conferido vem de uma associação: garante que ela foi serializada dentro da mesma contagem
+	private void assertStatements(String url, String associationField, long expected) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath(associationField).exists());
+
+		assertThat(statistics.getPrepareStatementCount()).as(url).isEqualTo(expected);
+	}
+}
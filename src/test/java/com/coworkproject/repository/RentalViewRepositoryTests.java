@@ -0,0 +1,68 @@
+package com.coworkproject.repository;
+
+import com.coworkproject.model.ResourceType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RentalViewRepositoryTests {
+
+	// A chave (início, tipo, id) vira uma faixa no início de cada ramo: tipos que vêm antes do tipo do cursor
+	// só continuam depois do início, tipos que vêm depois incluem o mesmo início, e o próprio tipo desempata pelo id
+	@Test
+	void keysetConditionIsPushedIntoEachBranch() {
+		NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+		RentalViewRepository repository = new RentalViewRepository(jdbcTemplate);
+
+		repository.find(EnumSet.allOf(ResourceType.class), 7, null, null, false,
+				LocalDateTime.of(2025, 3, 10, 8, 0), ResourceType.DESK, 42, 51);
+
+		String sql = capturedSql(jdbcTemplate);
+		String[] branches = sql.split(" UNION ALL ");
+		assertThat(branches).hasSize(4);
+		assertThat(branches[0]).startsWith("(SELECT 'DESK'")
+				.contains("(r.`startPeriodDeskRentals` > :afterStart OR (r.`startPeriodDeskRentals` = :afterStart AND r.`idDeskRentals` > :afterId))");
+		assertThat(branches[1]).startsWith("(SELECT 'ROOM'").contains("r.`startPeriodAreaRentals` >= :afterStart");
+		assertThat(branches[2]).startsWith("(SELECT 'AREA'").contains("r.`startPeriodAreaRentals` > :afterStart");
+		assertThat(branches[3]).startsWith("(SELECT 'STAND'").contains("r.`startPeriodStandRentals` >= :afterStart");
+		for (String branch : branches) {
+			assertThat(branch).contains("r.`idCustomers` = :customerId").contains("LIMIT :limit)");
+		}
+		assertThat(sql).endsWith("ORDER BY `startPeriod` ASC, `type` ASC, `idRental` ASC LIMIT :limit");
+	}
+
+	@Test
+	void descendingPagesAndTypeFilter() {
+		NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+		RentalViewRepository repository = new RentalViewRepository(jdbcTemplate);
+
+		repository.find(EnumSet.of(ResourceType.AREA, ResourceType.STAND), null,
+				LocalDateTime.of(2025, 3, 10, 0, 0), LocalDateTime.of(2025, 3, 11, 0, 0), true,
+				LocalDateTime.of(2025, 3, 10, 8, 0), ResourceType.ROOM, 5, 11);
+
+		String[] branches = capturedSql(jdbcTemplate).split(" UNION ALL ");
+		assertThat(branches).hasSize(2);
+		// Decrescente: AREA vem depois de ROOM, então inclui o mesmo início; STAND vem antes, então não inclui
+		assertThat(branches[0]).startsWith("(SELECT 'AREA'").contains("r.`startPeriodAreaRentals` <= :afterStart")
+				.contains("r.`startPeriodAreaRentals` < :periodUntil").contains("r.`endPeriodAreaRentals` >= :periodFrom")
+				.doesNotContain(":customerId");
+		assertThat(branches[1]).startsWith("(SELECT 'STAND'").contains("r.`startPeriodStandRentals` < :afterStart");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String capturedSql(NamedParameterJdbcTemplate jdbcTemplate) {
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		verify(jdbcTemplate).query(sql.capture(), any(SqlParameterSource.class), any(RowMapper.class));
+		return sql.getValue();
+	}
+}
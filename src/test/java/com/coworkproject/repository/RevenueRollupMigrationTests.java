@@ -0,0 +1,126 @@
+package com.coworkproject.repository;
+
+import com.coworkproject.service.RevenueRollupService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Triggers da V8 num MySQL de verdade: migrações V1–V8 num schema limpo, escritas de aluguel por SQL direto
+// (o mesmo que o Hibernate envia) e a tabela revenueRollups conferida depois de cada uma.
+// A reconstrução em faixas tem de chegar exatamente ao mesmo resultado que os triggers.
+@EnabledIf("com.coworkproject.repository.MySqlTestDatabase#available")
+class RevenueRollupMigrationTests {
+
+	private static final String SCHEMA = "coworkRevenueRollups";
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 8, 0);
+	private static final String INSERT_DESK_RENTAL = "INSERT INTO `deskRentals` (`idDesks`, `idCustomers`, `idRentalPlans`, "
+			+ "`startPeriodDeskRentals`, `endPeriodDeskRentals`, `totalPriceDeskRentals`) VALUES (?, 1, ?, ?, ?, ?)";
+
+	private DataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void migrate() {
+		dataSource = MySqlTestDatabase.dataSource(SCHEMA);
+		Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).target("8").load();
+		flyway.clean();
+		flyway.migrate();
+
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.update("INSERT INTO `customers` (`idCustomers`, `nameCustomers`) VALUES (1, 'Cliente')");
+		jdbcTemplate.update("INSERT INTO `desks` (`idDesks`, `numberDesks`, `nameDesks`) VALUES (1, 1, 'Mesa 1'), (2, 2, 'Mesa 2')");
+		jdbcTemplate.update("INSERT INTO `stands` (`idStands`, `numberStands`, `nameStands`) VALUES (1, 1, 'Estande 1')");
+		jdbcTemplate.update("INSERT INTO `rooms` (`idRooms`, `numberRooms`, `nameRooms`) VALUES (1, 1, 'Sala 1')");
+		jdbcTemplate.update("INSERT INTO `rentalCategories` (`idRentalCategories`, `nameRentalCategories`, `baseDurationInDaysRentalCategories`) VALUES (1, 'Diária', 1)");
+		jdbcTemplate.update("INSERT INTO `rentalShifts` (`idRentalShifts`, `nameRentalShifts`, `startTimeRentalShifts`, `endTimeRentalShifts`) "
+				+ "VALUES (1, 'Manhã', '08:00', '12:00'), (2, 'Tarde', '13:00', '18:00')");
+		jdbcTemplate.update("INSERT INTO `rentalPlans` (`idRentalPlans`, `idRentalCategories`, `idRentalShifts`, `planNameRentalPlans`, `priceRentalPlans`) "
+				+ "VALUES (1, 1, 1, 'Manhã', 50.00), (2, 1, 2, 'Tarde', 60.00)");
+	}
+
+	// Criação soma; alteração que muda dia e plano tira da linha antiga e soma na nova; exclusão tira
+	@Test
+	void insertUpdateAndDeleteMoveRevenueBetweenRows() {
+		jdbcTemplate.update(INSERT_DESK_RENTAL, 1, 1, MONDAY, MONDAY.plusHours(4), "50.00");
+		assertThat(rollups()).containsExactly("2030-01-07 DESK 1 1 50.00 1");
+
+		jdbcTemplate.update("UPDATE `deskRentals` SET `startPeriodDeskRentals` = ?, `endPeriodDeskRentals` = ?, `idRentalPlans` = 2, "
+				+ "`totalPriceDeskRentals` = 60.00", MONDAY.plusDays(2).withHour(13), MONDAY.plusDays(2).withHour(18));
+		assertThat(rollups()).containsExactly("2030-01-09 DESK 2 2 60.00 1");
+
+		jdbcTemplate.update("UPDATE `deskRentals` SET `totalPriceDeskRentals` = 75.50");
+		assertThat(rollups()).containsExactly("2030-01-09 DESK 2 2 75.50 1");
+
+		jdbcTemplate.update("DELETE FROM `deskRentals`");
+		assertThat(rollups()).isEmpty();
+		assertThat(rebuilt()).isEmpty();
+	}
+
+	// Lote enviado como um único INSERT de várias linhas (rewriteBatchedStatements): o trigger roda por linha
+	@Test
+	void batchInsertCountsEveryRow() {
+		List<Object[]> batch = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			LocalDateTime start = MONDAY.plusDays(i % 2);
+			batch.add(new Object[]{1 + i % 2, 1, start, start.plusHours(4), "50.00"});
+		}
+		jdbcTemplate.batchUpdate(INSERT_DESK_RENTAL, batch);
+		jdbcTemplate.update("INSERT INTO `standRentals` (`idStands`, `idCustomers`, `idRentalPlans`, `startPeriodStandRentals`, "
+				+ "`endPeriodStandRentals`, `totalPriceStandRentals`) VALUES (1, 1, 2, ?, ?, 60.00), (1, 1, 2, ?, ?, 60.00)",
+				MONDAY.withHour(13), MONDAY.withHour(18), MONDAY.plusDays(1).withHour(13), MONDAY.plusDays(1).withHour(18));
+		jdbcTemplate.update("INSERT INTO `roomRentals` (`idRooms`, `idCustomers`, `startPeriodAreaRentals`, `endPeriodAreaRentals`, "
+				+ "`totalPriceStandRentals`) VALUES (1, 1, ?, ?, 120.00)", MONDAY, MONDAY.plusHours(2));
+
+		List<String> expected = List.of(
+				"2030-01-07 DESK 1 1 250.00 5",
+				"2030-01-07 ROOM 0 0 120.00 1",
+				"2030-01-07 STAND 2 2 60.00 1",
+				"2030-01-08 DESK 1 1 250.00 5",
+				"2030-01-08 STAND 2 2 60.00 1");
+		assertThat(rollups()).containsExactlyElementsOf(expected);
+		assertThat(rebuilt()).containsExactlyElementsOf(expected);
+	}
+
+	// Turno trocado no plano leva as linhas do plano para o novo turno; as escritas seguintes continuam nelas
+	@Test
+	void planShiftChangeMovesThePlanRows() {
+		jdbcTemplate.update(INSERT_DESK_RENTAL, 1, 1, MONDAY, MONDAY.plusHours(4), "50.00");
+		jdbcTemplate.update(INSERT_DESK_RENTAL, 2, 1, MONDAY.plusDays(3), MONDAY.plusDays(3).plusHours(4), "50.00");
+
+		jdbcTemplate.update("UPDATE `rentalPlans` SET `idRentalShifts` = 2 WHERE `idRentalPlans` = 1");
+		assertThat(rollups()).containsExactly("2030-01-07 DESK 1 2 50.00 1", "2030-01-10 DESK 1 2 50.00 1");
+
+		jdbcTemplate.update("DELETE FROM `deskRentals` WHERE `idDesks` = 2");
+		jdbcTemplate.update(INSERT_DESK_RENTAL, 2, 1, MONDAY, MONDAY.plusHours(4), "40.00");
+		assertThat(rollups()).containsExactly("2030-01-07 DESK 1 2 90.00 2");
+		assertThat(rebuilt()).containsExactly("2030-01-07 DESK 1 2 90.00 2");
+	}
+
+	// Linhas com valor (as zeradas ficam de fora, como no relatório), em ordem de chave
+	private List<String> rollups() {
+		return jdbcTemplate.queryForList("SELECT CONCAT_WS(' ', `dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, "
+				+ "`idRentalShifts`, `totalRevenueRollups`, `rentalsRevenueRollups`) FROM `revenueRollups` "
+				+ "WHERE `rentalsRevenueRollups` <> 0 OR `totalRevenueRollups` <> 0 "
+				+ "ORDER BY `dayRevenueRollups`, `typeRevenueRollups`, `idRentalPlans`, `idRentalShifts`", String.class);
+	}
+
+	// Reconstrução completa em faixas de 2 dias, uma transação por faixa
+	private List<String> rebuilt() {
+		RevenueRollupRepository repository = new RevenueRollupRepository(new NamedParameterJdbcTemplate(dataSource));
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		new RevenueRollupService(repository, transactionTemplate, 2).rebuildAll();
+		return rollups();
+	}
+}
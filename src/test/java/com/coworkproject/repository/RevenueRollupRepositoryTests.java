@@ -0,0 +1,63 @@
+package com.coworkproject.repository;
+
+import com.coworkproject.model.ResourceType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RevenueRollupRepositoryTests {
+
+	private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+	private final RevenueRollupRepository repository = new RevenueRollupRepository(jdbcTemplate);
+
+	// O relatório lê só a tabela agregada pela faixa de dias (início da chave primária), agrupando na ordem pedida
+	@Test
+	void reportGroupsRollupRowsInRequestedOrder() {
+		repository.find(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), EnumSet.of(ResourceType.DESK), List.of("month", "plan"));
+
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		verify(jdbcTemplate).query(sql.capture(), any(SqlParameterSource.class), ArgumentMatchers.<RowMapper<Object>>any());
+		assertThat(sql.getValue())
+				.startsWith("SELECT DATE_FORMAT(r.`dayRevenueRollups`, '%Y-%m') AS `month`, NULLIF(r.`idRentalPlans`, 0) AS `plan`")
+				.contains("FROM `revenueRollups` r")
+				.contains("WHERE r.`dayRevenueRollups` BETWEEN :from AND :to AND r.`typeRevenueRollups` IN (:types)")
+				.contains("GROUP BY `month`, `plan`")
+				.endsWith("ORDER BY `month`, `plan`")
+				.doesNotContain("deskRentals");
+	}
+
+	// Reconstrução apaga a faixa e só depois soma os quatro tipos de aluguel, numa leitura comum (sem INSERT ... SELECT,
+	// que travaria as linhas lidas das tabelas de aluguel)
+	@Test
+	void rebuildDeletesThenReaggregatesTheRangeWithoutLockingReads() {
+		repository.rebuild(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+		InOrder order = inOrder(jdbcTemplate);
+		order.verify(jdbcTemplate).update(eq("DELETE FROM `revenueRollups` WHERE `dayRevenueRollups` BETWEEN :from AND :to"), any(SqlParameterSource.class));
+		ArgumentCaptor<String> select = ArgumentCaptor.forClass(String.class);
+		order.verify(jdbcTemplate).query(select.capture(), any(SqlParameterSource.class), ArgumentMatchers.<RowMapper<Object>>any());
+		assertThat(select.getValue()).startsWith("SELECT r.`day`")
+				.contains("FROM `deskRentals`", "FROM `roomRentals`", "FROM `areaRentals`", "FROM `standRentals`")
+				.doesNotContain("INSERT", "FOR UPDATE", "FOR SHARE")
+				.endsWith("GROUP BY r.`day`, r.`type`, r.`plan`, r.`shift`");
+		// Nada somado: nada a inserir
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+	}
+}
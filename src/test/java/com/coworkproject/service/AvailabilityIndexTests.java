@@ -0,0 +1,95 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.Room;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.AreaRentalRepository;
+import com.coworkproject.repository.AreaRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.RoomRepository;
+import com.coworkproject.repository.StandRentalRepository;
+import com.coworkproject.repository.StandRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityIndexTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private final RoomRepository rooms = mock(RoomRepository.class);
+	private final RoomRentalRepository roomRentals = mock(RoomRentalRepository.class);
+	private final AvailabilityIndex index = new AvailabilityIndex(mock(DeskRepository.class), rooms, mock(AreaRepository.class),
+			mock(StandRepository.class), mock(DeskRentalRepository.class), roomRentals, mock(AreaRentalRepository.class),
+			mock(StandRentalRepository.class), new ShiftMatrixService(null));
+
+	@BeforeEach
+	void resources() {
+		Room room = new Room();
+		room.setIdRooms(1);
+		when(rooms.findAll()).thenReturn(List.of(room));
+	}
+
+	// Horizonte: do primeiro dia do mês corrente ao fim do mês de hoje + 366 dias
+	@Test
+	void horizonCoversCurrentMonthUntilAYearAhead() {
+		index.reload();
+
+		LocalDate end = YearMonth.from(TODAY.plusDays(AvailabilityIndex.HORIZON_DAYS)).atEndOfMonth();
+		assertThat(index.horizonStart()).isEqualTo(TODAY.withDayOfMonth(1));
+		assertThat(index.horizonEnd()).isEqualTo(end);
+		assertThat(index.covers(TODAY.withDayOfMonth(1), end)).isTrue();
+		assertThat(index.covers(TODAY.withDayOfMonth(1).minusDays(1), TODAY)).isFalse();
+		assertThat(index.covers(TODAY, end.plusDays(1))).isFalse();
+	}
+
+	// Aluguel que atravessa as bordas marca só os dias de dentro; evento fora do horizonte não entra
+	@Test
+	void rentalsAreClippedToTheHorizon() {
+		when(roomRentals.findSlotsBetween(any(), any())).thenReturn(List.of(
+				room(1, TODAY.minusYears(2).atTime(9, 0), TODAY.plusYears(3).atTime(18, 0))));
+		index.reload();
+		index.onRentalChanged(RentalChangedEvent.created(room(2, TODAY.minusYears(1).atTime(9, 0), TODAY.minusYears(1).atTime(18, 0))));
+
+		LocalDate start = index.horizonStart();
+		LocalDate end = index.horizonEnd();
+		assertThat(index.findFree(ResourceType.ROOM, start, start, null).isEmpty()).isTrue();
+		assertThat(index.findFree(ResourceType.ROOM, end, end, null).isEmpty()).isTrue();
+		assertThat(Arrays.stream(index.occupancy(ResourceType.ROOM, start, end).occupied()).mapToInt(row -> row[0]))
+				.containsOnly(1);
+
+		index.onRentalChanged(RentalChangedEvent.deleted(room(1, TODAY.minusYears(2).atTime(9, 0), TODAY.plusYears(3).atTime(18, 0))));
+		assertThat(index.findFree(ResourceType.ROOM, start, end, null).get(1)).isTrue();
+	}
+
+	// Evento publicado enquanto a carga lê o banco (que ainda não enxergava o aluguel) vale no índice novo
+	@Test
+	void eventsDuringLoadAreReplayedOnTheNewIndex() {
+		RentalSlot saved = room(5, TODAY.atTime(9, 0), TODAY.atTime(18, 0));
+		when(roomRentals.findSlotsBetween(any(), any())).thenAnswer(invocation -> {
+			index.onRentalChanged(RentalChangedEvent.created(saved));
+			return List.of();
+		});
+
+		index.reload();
+		index.reload();
+
+		assertThat(index.findFree(ResourceType.ROOM, TODAY, TODAY, null).get(1)).isFalse();
+	}
+
+	private static RentalSlot room(int rentalId, LocalDateTime start, LocalDateTime end) {
+		return new RentalSlot(ResourceType.ROOM, rentalId, 1, 7, null, null, null, null, null, start, end, BigDecimal.TEN);
+	}
+}
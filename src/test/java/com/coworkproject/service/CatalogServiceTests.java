@@ -0,0 +1,90 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogServiceTests {
+
+	private final List<RentalCategory> categories = new ArrayList<>();
+	private final List<RentalShift> shifts = new ArrayList<>();
+	private final List<RentalPlan> plans = new ArrayList<>();
+
+	// Quem segurou o snapshot anterior continua vendo o catálogo antigo; a troca só aparece em current()
+	@Test
+	void rebuildSwapsInANewVersionWithoutTouchingTheOldSnapshot() {
+		CatalogService catalogService = new CatalogService(entityManagerFactory());
+		RentalCategory daily = category(1, "Diária");
+		RentalShift morning = shift(1, "Manhã");
+		categories.add(daily);
+		shifts.add(morning);
+		plans.add(plan(1, daily, morning, "Manhã diária"));
+		catalogService.rebuild();
+		CatalogService.Snapshot first = catalogService.current();
+
+		plans.add(plan(2, daily, morning, "Manhã diária promocional"));
+		catalogService.rebuild();
+
+		assertThat(first.plans()).hasSize(1);
+		assertThat(catalogService.current().version()).isEqualTo(first.version() + 1);
+		assertThat(catalogService.current().plans()).hasSize(2);
+		assertThat(catalogService.plan(2)).isPresent();
+		assertThat(catalogService.plan(3)).isEmpty();
+		assertThat(catalogService.plan(null)).isEmpty();
+		assertThat(catalogService.plans(List.of(2, 3, 2)).keySet()).containsExactly(2);
+		assertThat(catalogService.shift(1)).containsSame(morning);
+		assertThat(catalogService.category(1)).containsSame(daily);
+	}
+
+	private EntityManagerFactory entityManagerFactory() {
+		EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+		when(entityManagerFactory.createEntityManager()).thenAnswer(invocation -> {
+			EntityManager entityManager = mock(EntityManager.class);
+			stubQuery(entityManager, RentalCategory.class, categories);
+			stubQuery(entityManager, RentalShift.class, shifts);
+			stubQuery(entityManager, RentalPlan.class, plans);
+			return entityManager;
+		});
+		return entityManagerFactory;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void stubQuery(EntityManager entityManager, Class<T> type, List<T> rows) {
+		TypedQuery<T> query = mock(TypedQuery.class);
+		when(query.getResultList()).thenAnswer(invocation -> new ArrayList<>(rows));
+		when(entityManager.createQuery(anyString(), eq(type))).thenReturn(query);
+	}
+
+	private static RentalCategory category(int id, String name) {
+		RentalCategory category = new RentalCategory(name, 1);
+		category.setIdRentalCategories(id);
+		return category;
+	}
+
+	private static RentalShift shift(int id, String name) {
+		RentalShift shift = new RentalShift(name, null, LocalTime.of(8, 0), LocalTime.of(12, 0));
+		shift.setIdRentalShifts(id);
+		return shift;
+	}
+
+	private static RentalPlan plan(int id, RentalCategory category, RentalShift shift, String name) {
+		RentalPlan plan = new RentalPlan(category, shift, name, new BigDecimal("50.00"));
+		plan.setIdRentalPlans(id);
+		return plan;
+	}
+}
@@ -0,0 +1,104 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.Desk;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactViewTests {
+
+	private final CompactView compactView = new CompactView();
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+
+	// 5 mil aluguéis, 6 planos (2 categorias x 3 turnos), 40 mesas e 300 clientes: cada objeto relacionado sai uma vez
+	@Test
+	void relatedObjectsAreSentOncePerPage() throws Exception {
+		List<DeskRental> rentals = rentals(5_000);
+
+		Map<String, Object> full = response(rentals);
+		byte[] fullJson = objectMapper.writeValueAsBytes(full);
+		Map<String, Object> compact = compactView.apply(true, response(rentals));
+		byte[] compactJson = objectMapper.writeValueAsBytes(compact);
+
+		@SuppressWarnings("unchecked")
+		Map<String, List<Object>> included = (Map<String, List<Object>>) compact.get("included");
+		assertThat(included.get("rentalPlans")).hasSize(6);
+		assertThat(included.get("rentalShifts")).hasSize(3);
+		assertThat(included.get("rentalCategories")).hasSize(2);
+		assertThat(included.get("desks")).hasSize(40);
+		assertThat(included.get("customers")).hasSize(300);
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> row = ((List<Map<String, Object>>) compact.get("data")).get(4_999);
+		assertThat(row).containsEntry("idDeskRentals", 5_000)
+				.containsEntry("idDesks", 4_999 % 40 + 1)
+				.containsEntry("idRentalPlans", 4_999 % 6 + 1)
+				.containsEntry("idRentalSeries", null);
+		assertThat(compact).containsEntry("count", 5_000);
+
+		assertThat(compactJson.length * 3).isLessThan(fullJson.length);
+	}
+
+	@Test
+	void responseIsUntouchedWhenNotRequested() {
+		Map<String, Object> response = response(rentals(3));
+
+		assertThat(compactView.apply(false, response)).isSameAs(response).doesNotContainKey("included");
+	}
+
+	private static Map<String, Object> response(List<DeskRental> rentals) {
+		Map<String, Object> response = new HashMap<>();
+		response.put("success", true);
+		response.put("data", rentals);
+		response.put("count", rentals.size());
+		return response;
+	}
+
+	private static List<DeskRental> rentals(int count) {
+		List<RentalPlan> plans = new ArrayList<>();
+		for (int c = 0; c < 2; c++) {
+			RentalCategory category = new RentalCategory(c == 0 ? "Diária" : "Mensal", c == 0 ? 1 : 30);
+			category.setIdRentalCategories(c + 1);
+			for (int s = 0; s < 3; s++) {
+				RentalShift shift = new RentalShift("Turno " + s, "Turno de 4 horas", LocalTime.of(8 + 4 * s, 0), LocalTime.of(12 + 4 * s, 0));
+				shift.setIdRentalShifts(s + 1);
+				RentalPlan plan = new RentalPlan(category, shift, category.getNameRentalCategories() + " " + s, new BigDecimal("49.90"));
+				plan.setIdRentalPlans(plans.size() + 1);
+				plans.add(plan);
+			}
+		}
+
+		List<DeskRental> rentals = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Desk desk = new Desk(i % 40 + 1, "Mesa " + (i % 40 + 1));
+			desk.setIdDesks(i % 40 + 1);
+			Customer customer = new Customer();
+			customer.setIdCustomers(i % 300 + 1);
+			customer.setNameCustomers("Cliente " + (i % 300 + 1));
+			customer.setEmailCustomers("cliente" + (i % 300 + 1) + "@example.com");
+			LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0).plusDays(i / 40);
+			DeskRental rental = new DeskRental(desk, customer, plans.get(i % 6), start, start.plusHours(4), new BigDecimal("49.90"));
+			rental.setIdDeskRentals(i + 1);
+			rentals.add(rental);
+		}
+		return rentals;
+	}
+}
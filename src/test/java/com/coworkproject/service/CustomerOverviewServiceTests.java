@@ -0,0 +1,146 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.StandRental;
+import com.coworkproject.repository.AreaRentalRepository;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.RoomRentalRepository;
+import com.coworkproject.repository.StandRentalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerOverviewServiceTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 10, 12, 0);
+
+	private final CustomerRepository customers = mock(CustomerRepository.class);
+	private final DeskRentalRepository desks = mock(DeskRentalRepository.class);
+	private final RoomRentalRepository rooms = mock(RoomRentalRepository.class);
+	private final AreaRentalRepository areas = mock(AreaRentalRepository.class);
+	private final StandRentalRepository stands = mock(StandRentalRepository.class);
+	private CustomerOverviewService service;
+
+	@AfterEach
+	void shutdown() {
+		service.shutdown();
+	}
+
+	// As consultas correm juntas: quatro de 150 ms cabem num prazo de 400 ms, e os aluguéis caem no balde certo
+	@Test
+	void lookupsRunConcurrentlyAndRentalsAreBucketedByNow() {
+		service = new CustomerOverviewService(customers, desks, rooms, areas, stands, 8, 10, 400, 20);
+		when(customers.findById(7)).thenReturn(Optional.of(customer(7)));
+		when(desks.findByCustomerIdCustomersAndEndPeriodDeskRentalsAfter(7, NOW)).thenAnswer(invocation -> slow(150, List.of(
+				desk(2, NOW.minusHours(1), NOW.plusHours(3), "40.50"),
+				desk(3, NOW.plusDays(1), NOW.plusDays(2), "59.50"))));
+		when(desks.findByCustomerIdCustomersAndEndPeriodDeskRentalsLessThanEqualOrderByStartPeriodDeskRentalsDesc(7, NOW, Limit.of(20)))
+				.thenReturn(List.of(
+						desk(4, NOW.minusDays(1), NOW.minusDays(1).plusHours(4), "10.00"),
+						desk(1, NOW.minusDays(3), NOW.minusDays(2), "100.00")));
+		when(desks.sumTotalPriceByCustomer(7)).thenReturn(new BigDecimal("210.00"));
+		when(rooms.findByCustomerIdCustomersAndEndPeriodAreaRentalsAfter(7, NOW)).thenAnswer(invocation -> slow(150, List.of()));
+		when(areas.findByCustomerIdCustomersAndEndPeriodAreaRentalsAfter(7, NOW)).thenAnswer(invocation -> slow(150, List.of()));
+		when(stands.findByCustomerIdCustomersAndEndPeriodStandRentalsAfter(7, NOW)).thenAnswer(invocation -> slow(150, List.of()));
+
+		long started = System.nanoTime();
+		CustomerOverviewService.Overview overview = service.overview(7, NOW).orElseThrow();
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+		assertThat(elapsedMillis).isLessThan(400);
+		assertThat(overview.missing()).isEmpty();
+		assertThat(overview.active()).extracting(rental -> rental.idRental()).containsExactly(2);
+		assertThat(overview.upcoming()).extracting(rental -> rental.idRental()).containsExactly(3);
+		assertThat(overview.past()).extracting(rental -> rental.idRental()).containsExactly(4, 1);
+		assertThat(overview.totalSpend()).isEqualByComparingTo("210.00");
+	}
+
+	// Tipo lento fica em "missing" sem atrasar a resposta além do prazo; cliente inexistente dá vazio
+	@Test
+	void slowTypeIsReportedAsMissingWithinBudget() {
+		service = new CustomerOverviewService(customers, desks, rooms, areas, stands, 8, 10, 200, 20);
+		when(customers.findById(7)).thenReturn(Optional.of(customer(7)));
+		when(desks.findByCustomerIdCustomersAndEndPeriodDeskRentalsLessThanEqualOrderByStartPeriodDeskRentalsDesc(7, NOW, Limit.of(20)))
+				.thenReturn(List.of(desk(1, NOW.minusDays(3), NOW.minusDays(2), "100.00")));
+		when(desks.sumTotalPriceByCustomer(7)).thenReturn(new BigDecimal("100.00"));
+		when(rooms.sumTotalPriceByCustomer(7)).thenAnswer(invocation -> slow(2_000, new BigDecimal("999.00")));
+
+		long started = System.nanoTime();
+		CustomerOverviewService.Overview overview = service.overview(7, NOW).orElseThrow();
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+		assertThat(elapsedMillis).isLessThan(1_000);
+		assertThat(overview.missing()).containsExactly(ResourceType.ROOM);
+		assertThat(overview.past()).hasSize(1);
+		assertThat(overview.totalSpend()).isEqualByComparingTo("100.00");
+
+		when(customers.findById(8)).thenReturn(Optional.empty());
+		assertThat(service.overview(8, NOW)).isEmpty();
+	}
+
+	// Cada tipo traz no máximo o limite de encerrados; juntos, ficam os mais recentes de todos os tipos
+	@Test
+	void pastBucketKeepsTheMostRecentAcrossTypes() {
+		service = new CustomerOverviewService(customers, desks, rooms, areas, stands, 8, 10, 400, 3);
+		when(customers.findById(7)).thenReturn(Optional.of(customer(7)));
+		when(desks.findByCustomerIdCustomersAndEndPeriodDeskRentalsLessThanEqualOrderByStartPeriodDeskRentalsDesc(7, NOW, Limit.of(3)))
+				.thenReturn(List.of(
+						desk(1, NOW.minusDays(1), NOW.minusDays(1).plusHours(4), "10.00"),
+						desk(2, NOW.minusDays(5), NOW.minusDays(5).plusHours(4), "10.00"),
+						desk(3, NOW.minusDays(6), NOW.minusDays(6).plusHours(4), "10.00")));
+		when(stands.findByCustomerIdCustomersAndEndPeriodStandRentalsLessThanEqualOrderByStartPeriodStandRentalsDesc(7, NOW, Limit.of(3)))
+				.thenReturn(List.of(
+						stand(8, NOW.minusDays(2), NOW.minusDays(2).plusHours(4)),
+						stand(9, NOW.minusDays(3), NOW.minusDays(3).plusHours(4))));
+		when(desks.sumTotalPriceByCustomer(7)).thenReturn(new BigDecimal("1500.00"));
+		when(stands.sumTotalPriceByCustomer(7)).thenReturn(new BigDecimal("80.00"));
+
+		CustomerOverviewService.Overview overview = service.overview(7, NOW).orElseThrow();
+
+		assertThat(overview.past()).extracting(rental -> rental.type() + " " + rental.idRental())
+				.containsExactly("DESK 1", "STAND 8", "STAND 9");
+		assertThat(overview.totalSpend()).isEqualByComparingTo("1580.00");
+	}
+
+	private static <T> T slow(long millis, T result) throws InterruptedException {
+		Thread.sleep(millis);
+		return result;
+	}
+
+	private static Customer customer(int id) {
+		Customer customer = new Customer();
+		customer.setIdCustomers(id);
+		customer.setNameCustomers("Cliente " + id);
+		return customer;
+	}
+
+	private static StandRental stand(int id, LocalDateTime start, LocalDateTime end) {
+		StandRental rental = new StandRental();
+		rental.setIdStandRentals(id);
+		rental.setStartPeriodStandRentals(start);
+		rental.setEndPeriodStandRentals(end);
+		rental.setTotalPriceStandRentals(new BigDecimal("40.00"));
+		return rental;
+	}
+
+	private static DeskRental desk(int id, LocalDateTime start, LocalDateTime end, String price) {
+		DeskRental rental = new DeskRental();
+		rental.setIdDeskRentals(id);
+		rental.setStartPeriodDeskRentals(start);
+		rental.setEndPeriodDeskRentals(end);
+		rental.setTotalPriceDeskRentals(new BigDecimal(price));
+		return rental;
+	}
+}
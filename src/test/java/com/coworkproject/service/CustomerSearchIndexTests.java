@@ -0,0 +1,118 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.Customer;
+import com.coworkproject.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerSearchIndexTests {
+
+	private final CustomerRepository customers = mock(CustomerRepository.class);
+	private final CustomerSearchIndex index = new CustomerSearchIndex(customers, null);
+
+	// Sem acento e sem caixa; nome começando pelo texto vem antes de sobrenome/e-mail, e trecho no meio por último
+	@Test
+	void ranksNamePrefixThenTokenPrefixThenSubstring() {
+		index.put(new CustomerSearchIndex.Match(1, "Ana Souza", "ana@example.com", "111.222.333-44"));
+		index.put(new CustomerSearchIndex.Match(2, "Mariana Silva", "mari@example.com", "22233344455"));
+		index.put(new CustomerSearchIndex.Match(3, "Bruno Anacleto", "bruno@example.com", null));
+		index.put(new CustomerSearchIndex.Match(4, "Ânia Costa", "costa@example.com", null));
+
+		assertThat(ids(index.search("ana", 10))).containsExactly(1, 3, 2);
+		assertThat(ids(index.search("ÂNI", 10))).containsExactly(4);
+		assertThat(ids(index.search("ana sou", 10))).containsExactly(1);
+		assertThat(ids(index.search("111.222", 10))).containsExactly(1);
+		assertThat(ids(index.search("mari@exa", 10))).containsExactly(2);
+		assertThat(ids(index.search("ana", 1))).containsExactly(1);
+	}
+
+	// O corte pelo limite vale sobre a ordem de nome, não sobre os primeiros acertos em ordem de id
+	@Test
+	void limitKeepsTheFirstNamesNotTheFirstIds() {
+		index.put(new CustomerSearchIndex.Match(1, "Ana Zulu", null, null));
+		index.put(new CustomerSearchIndex.Match(2, "Ana Yara", null, null));
+		index.put(new CustomerSearchIndex.Match(3, "Ana Xavier", null, null));
+		index.put(new CustomerSearchIndex.Match(4, "Ana Alves", null, null));
+		index.put(new CustomerSearchIndex.Match(5, "Bruno Anacleto", null, null));
+
+		assertThat(ids(index.search("ana", 2))).containsExactly(4, 3);
+		assertThat(ids(index.search("ana", 5))).containsExactly(4, 3, 2, 1, 5);
+	}
+
+	// O evento relê o cliente sob o monitor do índice; cliente que já não existe sai do índice
+	@Test
+	void changeEventRereadsUnderTheIndexLock() {
+		index.put(new CustomerSearchIndex.Match(7, "Ana Souza", null, null));
+		Customer renamed = new Customer();
+		renamed.setIdCustomers(7);
+		renamed.setNameCustomers("Carla Souza");
+		when(customers.findById(7)).thenAnswer(invocation -> {
+			assertThat(Thread.holdsLock(index)).isTrue();
+			return Optional.of(renamed);
+		});
+
+		index.onCustomerChanged(new CustomerChangedEvent(7, false));
+		assertThat(ids(index.search("carla", 10))).containsExactly(7);
+		assertThat(index.search("ana", 10)).isEmpty();
+
+		doReturn(Optional.empty()).when(customers).findById(7);
+		index.onCustomerChanged(new CustomerChangedEvent(7, false));
+		assertThat(index.size()).isZero();
+	}
+
+	// Alterações e exclusões aleatórias, conferidas contra uma busca por força bruta nos mesmos tokens
+	@Test
+	void incrementalUpdatesMatchBruteForce() {
+		Random random = new Random(11);
+		String[] names = {"ana", "bruno", "carla", "daniel", "eduarda", "fabio", "silva", "souza", "santos", "oliveira"};
+		Map<Integer, CustomerSearchIndex.Match> customers = new HashMap<>();
+
+		for (int step = 0; step < 5_000; step++) {
+			int id = random.nextInt(500) + 1;
+			if (random.nextInt(5) == 0) {
+				index.remove(id);
+				customers.remove(id);
+			} else {
+				String name = names[random.nextInt(names.length)] + " " + names[random.nextInt(names.length)];
+				CustomerSearchIndex.Match customer = new CustomerSearchIndex.Match(id, name, name.replace(' ', '.') + id + "@example.com",
+						String.format("%011d", random.nextInt(1_000_000)));
+				index.put(customer);
+				customers.put(id, customer);
+			}
+		}
+
+		assertThat(index.size()).isEqualTo(customers.size());
+		for (String query : new String[]{"a", "sa", "silva", "liv", "ana s", "0001", "eduarda.souza"}) {
+			List<String> queryTokens = CustomerSearchIndex.tokens(query);
+			List<Integer> expected = new ArrayList<>();
+			customers.values().forEach(customer -> {
+				List<String> tokens = new ArrayList<>(CustomerSearchIndex.tokens(customer.nameCustomers()));
+				tokens.addAll(CustomerSearchIndex.tokens(customer.emailCustomers()));
+				tokens.add(customer.cpfCustomers());
+				// Trecho no meio de um token só é buscado quando todo token da consulta tem 3 caracteres ou mais
+				boolean prefix = queryTokens.stream().allMatch(q -> tokens.stream().anyMatch(token -> token.startsWith(q)));
+				boolean substring = queryTokens.stream().allMatch(q -> q.length() >= 3 && tokens.stream().anyMatch(token -> token.contains(q)));
+				if (prefix || substring) {
+					expected.add(customer.idCustomers());
+				}
+			});
+
+			assertThat(ids(index.search(query, 1_000))).as(query).containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+
+	private static List<Integer> ids(List<CustomerSearchIndex.Match> matches) {
+		return matches.stream().map(CustomerSearchIndex.Match::idCustomers).toList();
+	}
+}
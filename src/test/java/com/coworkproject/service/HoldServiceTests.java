@@ -0,0 +1,93 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class HoldServiceTests {
+
+	private static final LocalDateTime MORNING = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private final HoldService service = new HoldService(new ShiftMatrixService(null), eventPublisher, 180, 900, 10);
+
+	// Prazo padrão quando não informado, limitado ao máximo
+	@Test
+	void ttlDefaultsAndIsCappedAtTheMaximum() {
+		assertThat(service.ttlFor(null)).isEqualTo(Duration.ofSeconds(180));
+		assertThat(service.ttlFor(0L)).isEqualTo(Duration.ofSeconds(180));
+		assertThat(service.ttlFor(60L)).isEqualTo(Duration.ofSeconds(60));
+		assertThat(service.ttlFor(3_600L)).isEqualTo(Duration.ofSeconds(900));
+	}
+
+	// A reserva entra no índice: conflita com o mesmo recurso no período, não com outro recurso nem outro horário
+	@Test
+	void placedHoldConflictsUntilReleased() {
+		HoldService.Hold hold = service.place(room(3, MORNING, MORNING.plusHours(2)), Duration.ofMinutes(5));
+
+		assertThat(hold.slot().rentalId()).isEqualTo(hold.idHolds());
+		assertThat(service.find(hold.idHolds())).contains(hold);
+		assertThat(service.findConflict(room(3, MORNING.plusHours(1), MORNING.plusHours(3)))).contains(hold.slot());
+		assertThat(service.findConflict(room(4, MORNING, MORNING.plusHours(2)))).isEmpty();
+		assertThat(service.findConflict(room(3, MORNING.plusHours(2).plusMinutes(1), MORNING.plusHours(3)))).isEmpty();
+
+		assertThat(service.release(hold.idHolds())).contains(hold);
+		assertThat(service.release(hold.idHolds())).isEmpty();
+		assertThat(service.findConflict(room(3, MORNING, MORNING.plusHours(2)))).isEmpty();
+		assertThat(service.size()).isZero();
+	}
+
+	// Vencida pela roda de tempo: sai do índice e publica HoldReleasedEvent; a retirada manual não publica
+	@Test
+	void expiredHoldsAreRemovedAndAnnounced() throws InterruptedException {
+		HoldService.Hold expiring = service.place(room(3, MORNING, MORNING.plusHours(2)), Duration.ofMillis(50));
+		HoldService.Hold released = service.place(room(5, MORNING, MORNING.plusHours(2)), Duration.ofMillis(50));
+		HoldService.Hold kept = service.place(room(4, MORNING, MORNING.plusHours(2)), Duration.ofMinutes(5));
+		service.release(released.idHolds());
+
+		service.expireHolds();
+		assertThat(service.size()).isEqualTo(2);
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+		long deadline = System.currentTimeMillis() + 2_000;
+		while (service.size() > 1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			service.expireHolds();
+		}
+
+		assertThat(service.find(expiring.idHolds())).isEmpty();
+		assertThat(service.find(kept.idHolds())).contains(kept);
+		assertThat(service.findConflict(room(3, MORNING, MORNING.plusHours(2)))).isEmpty();
+		verify(eventPublisher).publishEvent(new HoldReleasedEvent(expiring.slot()));
+		verify(eventPublisher, never()).publishEvent(new HoldReleasedEvent(released.slot()));
+	}
+
+	// Confirmação que falhou devolve a reserva com o prazo original; vencida não volta
+	@Test
+	void restoreKeepsTheOriginalDeadline() {
+		HoldService.Hold hold = service.place(room(3, MORNING, MORNING.plusHours(2)), Duration.ofMinutes(5));
+		service.release(hold.idHolds());
+
+		service.restore(hold);
+		assertThat(service.find(hold.idHolds())).contains(hold);
+		assertThat(service.findConflict(room(3, MORNING, MORNING.plusHours(2)))).contains(hold.slot());
+
+		service.release(hold.idHolds());
+		service.restore(new HoldService.Hold(hold.idHolds(), hold.slot(), LocalDateTime.now().minusSeconds(1)));
+		assertThat(service.find(hold.idHolds())).isEmpty();
+	}
+
+	private static RentalSlot room(int roomId, LocalDateTime start, LocalDateTime end) {
+		return new RentalSlot(ResourceType.ROOM, null, roomId, 7, null, null, null, null, null, start, end, BigDecimal.TEN);
+	}
+}
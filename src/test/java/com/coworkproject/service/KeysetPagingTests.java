@@ -0,0 +1,124 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.DeskRental;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPagingTests {
+
+	private static final Map<String, String> SORT_FIELDS = Map.of(
+			"id", "idDeskRentals",
+			"start", "startPeriodDeskRentals",
+			"totalPrice", "totalPriceDeskRentals"
+	);
+
+	private final KeysetPaging paging = new KeysetPaging(50, 200);
+
+	// O cursor devolve os valores da última linha com o mesmo tipo Java e a mesma ordenação
+	@Test
+	void cursorRoundTripsTypedKeysAndSort() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("startPeriodDeskRentals", LocalDateTime.of(2025, 3, 10, 8, 0));
+		keys.put("totalPriceDeskRentals", new BigDecimal("150.50"));
+		keys.put("idDeskRentals", 42);
+		String cursor = KeysetPaging.encode("start,desc", keys);
+
+		KeysetPaging.PageQuery page = paging.query(cursor, null, 20, SORT_FIELDS);
+
+		assertThat(page.sort()).isEqualTo(Sort.by(Sort.Direction.DESC, "startPeriodDeskRentals"));
+		assertThat(page.limit().max()).isEqualTo(20);
+		assertThat(((KeysetScrollPosition) page.position()).getKeys()).isEqualTo(keys);
+	}
+
+	@Test
+	void rejectsInvalidSortSizeAndCursor() {
+		String cursor = KeysetPaging.encode("start,asc", Map.of("idDeskRentals", 1));
+
+		assertThatThrownBy(() -> paging.query(null, "customer,asc", null, SORT_FIELDS))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> paging.query(null, null, 201, SORT_FIELDS))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> paging.query(cursor, "id,asc", null, SORT_FIELDS))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> paging.query("não-é-um-cursor", null, null, SORT_FIELDS))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(paging.query(null, null, null, SORT_FIELDS).limit().max()).isEqualTo(50);
+	}
+
+	// Paginação em memória: segue o sort (empate pelo id crescente) e o cursor da página anterior, até a última
+	@Test
+	void pagesInMemoryRowsThroughCursors() {
+		LocalDateTime day = LocalDateTime.of(2025, 3, 10, 8, 0);
+		List<DeskRental> rows = new ArrayList<>();
+		for (int id = 1; id <= 5; id++) {
+			DeskRental rental = new DeskRental();
+			rental.setIdDeskRentals(id);
+			rental.setStartPeriodDeskRentals(day.plusHours(id % 3));
+			rows.add(rental);
+		}
+
+		List<Integer> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			KeysetPaging.PageQuery page = paging.query(cursor, cursor == null ? "start,desc" : null, 2, SORT_FIELDS);
+			Map<String, Object> response = paging.response(paging.page(rows, page, "idDeskRentals"), page, "ok");
+			((List<?>) response.get("data")).forEach(rental -> seen.add(((DeskRental) rental).getIdDeskRentals()));
+			cursor = (String) response.get("nextCursor");
+		} while (cursor != null);
+
+		// Horas: 1 -> 9h, 2 -> 10h, 3 -> 8h, 4 -> 9h, 5 -> 10h
+		assertThat(seen).containsExactly(2, 5, 1, 4, 3);
+	}
+
+	// Chave nula no fim da página: o cursor leva o nulo e a página seguinte continua depois dele
+	@Test
+	void cursorCarriesANullKey() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("totalPriceDeskRentals", null);
+		keys.put("idDeskRentals", 7);
+		String cursor = KeysetPaging.encode("totalPrice,asc", keys);
+
+		KeysetPaging.PageQuery page = paging.query(cursor, null, null, SORT_FIELDS);
+
+		assertThat(((KeysetScrollPosition) page.position()).getKeys()).isEqualTo(keys);
+	}
+
+	// Nulo é o menor valor: primeiro no asc, por último no desc, e nenhuma linha se perde passando por ele
+	@Test
+	void pagesPastNullKeysInBothDirections() {
+		List<DeskRental> rows = new ArrayList<>();
+		for (int id = 1; id <= 5; id++) {
+			DeskRental rental = new DeskRental();
+			rental.setIdDeskRentals(id);
+			rental.setTotalPriceDeskRentals(id % 2 == 0 ? null : new BigDecimal(id * 10));
+			rows.add(rental);
+		}
+
+		// Preços: 1 -> 10, 2 -> nulo, 3 -> 30, 4 -> nulo, 5 -> 50
+		assertThat(pageThrough(rows, "totalPrice,asc")).containsExactly(2, 4, 1, 3, 5);
+		assertThat(pageThrough(rows, "totalPrice,desc")).containsExactly(5, 3, 1, 2, 4);
+	}
+
+	private List<Integer> pageThrough(List<DeskRental> rows, String sort) {
+		List<Integer> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			KeysetPaging.PageQuery page = paging.query(cursor, cursor == null ? sort : null, 1, SORT_FIELDS);
+			Map<String, Object> response = paging.response(paging.page(rows, page, "idDeskRentals"), page, "ok");
+			((List<?>) response.get("data")).forEach(rental -> seen.add(((DeskRental) rental).getIdDeskRentals()));
+			cursor = (String) response.get("nextCursor");
+		} while (cursor != null);
+		return seen;
+	}
+}
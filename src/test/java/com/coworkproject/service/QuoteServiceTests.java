@@ -0,0 +1,154 @@
+package com.coworkproject.service;
+
+import com.coworkproject.dto.QuoteRequest;
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.StandRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuoteServiceTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 10, 12, 0);
+
+	private final CatalogService catalogService = mock(CatalogService.class);
+	private final SlotBookingService slotBookingService = mock(SlotBookingService.class);
+	private final HoldService holdService = mock(HoldService.class);
+	private final DeskRepository desks = mock(DeskRepository.class);
+	private final StandRepository stands = mock(StandRepository.class);
+	private final CustomerRepository customers = mock(CustomerRepository.class);
+	private final QuoteService service = new QuoteService(catalogService, slotBookingService, holdService,
+			desks, stands, customers, "segredo", 600);
+
+	@BeforeEach
+	void catalog() {
+		catalogAt(1, "250.00");
+		when(desks.existsById(3)).thenReturn(true);
+		when(customers.existsById(7)).thenReturn(true);
+		when(holdService.findConflict(any(RentalSlot.class))).thenReturn(Optional.empty());
+	}
+
+	// Mesa começa no início do turno e termina no fim do turno do último dia; o token devolve o mesmo slot
+	@Test
+	void quoteComputesPeriodAndPriceAndTokenRedeemsTheSameSlot() {
+		QuoteService.Quote quote = service.quote(request(LocalDateTime.of(2025, 7, 1, 10, 30)), NOW).quote();
+
+		assertThat(quote.startPeriod()).isEqualTo(LocalDateTime.of(2025, 7, 1, 8, 0));
+		assertThat(quote.endPeriod()).isEqualTo(LocalDateTime.of(2025, 7, 5, 12, 0));
+		assertThat(quote.totalPrice()).isEqualByComparingTo("250.00");
+		assertThat(quote.expiresAt()).isEqualTo(NOW.plusMinutes(10));
+
+		SlotBookingService.Resolution resolution = service.redeem(quote.token(), ResourceType.DESK, NOW.plusMinutes(5));
+		assertThat(resolution.error()).isNull();
+		assertThat(resolution.slot()).isEqualTo(new RentalSlot(ResourceType.DESK, null, 3, 7, 11, 5, "Manhã",
+				LocalTime.of(8, 0), LocalTime.of(12, 0), quote.startPeriod(), quote.endPeriod(), new BigDecimal("250.00")));
+	}
+
+	// Token alterado, vencido ou de outro tipo é recusado
+	@Test
+	void tamperedExpiredOrMismatchedTokensAreRejected() {
+		String token = service.quote(request(NOW.plusDays(1)), NOW).quote().token();
+
+		String[] parts = token.split("\\.");
+		String tampered = parts[0].substring(0, parts[0].length() - 2) + "AA." + parts[1];
+		assertThat(service.redeem(tampered, ResourceType.DESK, NOW).status()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(service.redeem("lixo", ResourceType.DESK, NOW).status()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(service.redeem(token, ResourceType.STAND, NOW).status()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(service.redeem(token, ResourceType.DESK, NOW.plusMinutes(11)).status()).isEqualTo(HttpStatus.GONE);
+	}
+
+	// Início antes de hoje é recusado como no POST de sala; o próprio dia ainda pode ser cotado
+	@Test
+	void pastStartDateIsRejected() {
+		QuoteService.Outcome past = service.quote(request(NOW.minusDays(1)), NOW);
+
+		assertThat(past.status()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(past.error()).isEqualTo("Data de início não pode ser no passado");
+		assertThat(service.quote(request(NOW.withHour(8)), NOW).error()).isNull();
+	}
+
+	// Token que já virou aluguel não vale de novo, mesmo dentro da validade; outro token da mesma cotação continua valendo
+	@Test
+	void redeemedTokenCannotBeReused() {
+		String token = service.quote(request(NOW.plusDays(1)), NOW).quote().token();
+		String other = service.quote(request(NOW.plusDays(1)), NOW.plusSeconds(1)).quote().token();
+		assertThat(service.redeem(token, ResourceType.DESK, NOW).error()).isNull();
+
+		service.markRedeemed(token, NOW.plusMinutes(1));
+
+		SlotBookingService.Resolution reused = service.redeem(token, ResourceType.DESK, NOW.plusMinutes(2));
+		assertThat(reused.status()).isEqualTo(HttpStatus.GONE);
+		assertThat(reused.error()).isEqualTo("Cotação já utilizada; solicite uma nova");
+		assertThat(service.redeem(other, ResourceType.DESK, NOW.plusMinutes(2)).error()).isNull();
+	}
+
+	// Vale o que o plano cobra agora, não a versão do catálogo: outra instância (ou a mesma depois de um restart)
+	// com o mesmo segredo aceita o token enquanto preço, turno e duração forem os cotados, mesmo na mesma versão
+	@Test
+	void tokenFollowsPlanTermsNotCatalogVersion() {
+		String token = service.quote(request(NOW.plusDays(1)), NOW).quote().token();
+
+		catalogAt(2, "250.00");
+		assertThat(service.redeem(token, ResourceType.DESK, NOW).error()).isNull();
+
+		QuoteService otherNode = new QuoteService(catalogService, slotBookingService, holdService,
+				desks, stands, customers, "segredo", 600);
+		catalogAt(1, "180.00");
+		assertThat(otherNode.redeem(token, ResourceType.DESK, NOW).status()).isEqualTo(HttpStatus.GONE);
+		assertThat(service.redeem(token, ResourceType.DESK, NOW).status()).isEqualTo(HttpStatus.GONE);
+	}
+
+	// Recurso ocupado no período não recebe token
+	@Test
+	void rentedResourceIsReportedAsConflict() {
+		when(slotBookingService.isRented(any(RentalSlot.class))).thenReturn(true);
+
+		QuoteService.Outcome outcome = service.quote(request(NOW.plusDays(1)), NOW);
+
+		assertThat(outcome.quote()).isNull();
+		assertThat(outcome.status()).isEqualTo(HttpStatus.CONFLICT);
+	}
+
+	private static QuoteRequest request(LocalDateTime start) {
+		return new QuoteRequest(ResourceType.DESK, 3, 7, 11, start);
+	}
+
+	private void catalogAt(long version, String price) {
+		RentalShift shift = new RentalShift();
+		shift.setIdRentalShifts(5);
+		shift.setNameRentalShifts("Manhã");
+		shift.setStartTimeRentalShifts(LocalTime.of(8, 0));
+		shift.setEndTimeRentalShifts(LocalTime.of(12, 0));
+
+		RentalCategory category = new RentalCategory();
+		category.setIdRentalCategories(2);
+		category.setBaseDurationInDaysRentalCategories(5);
+
+		RentalPlan plan = new RentalPlan();
+		plan.setIdRentalPlans(11);
+		plan.setRentalShift(shift);
+		plan.setRentalCategory(category);
+		plan.setPriceRentalPlans(new BigDecimal(price));
+
+		when(catalogService.current()).thenReturn(new CatalogService.Snapshot(version, NOW, List.of(category), List.of(shift),
+				List.of(plan), Map.of(2, category), Map.of(5, shift), Map.of(11, plan)));
+		when(catalogService.shift(5)).thenReturn(Optional.of(shift));
+	}
+}
@@ -0,0 +1,159 @@
+package com.coworkproject.service;
+
+import com.coworkproject.controller.ExportController;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.MySqlTestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Exportação num MySQL de verdade (migrações V1–V9 num schema limpo), pelo pool próprio com cursor
+@EnabledIf("com.coworkproject.repository.MySqlTestDatabase#available")
+class RentalExportServiceTests {
+
+	private static final String SCHEMA = "coworkRentalExport";
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+	// Como no Spring Boot: datas em ISO-8601
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+	private RentalExportService service;
+
+	@BeforeEach
+	void migrate() {
+		Flyway flyway = Flyway.configure().dataSource(MySqlTestDatabase.dataSource(SCHEMA)).cleanDisabled(false).load();
+		flyway.clean();
+		flyway.migrate();
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(MySqlTestDatabase.dataSource(SCHEMA));
+		jdbcTemplate.update("INSERT INTO `customers` (`idCustomers`, `nameCustomers`) VALUES (1, 'Cliente')");
+		jdbcTemplate.update("INSERT INTO `desks` (`idDesks`, `numberDesks`, `nameDesks`) VALUES (1, 1, 'Mesa 1')");
+		jdbcTemplate.update("INSERT INTO `rentalCategories` (`idRentalCategories`, `nameRentalCategories`, `baseDurationInDaysRentalCategories`) VALUES (1, 'Diária', 1)");
+		jdbcTemplate.update("INSERT INTO `rentalShifts` (`idRentalShifts`, `nameRentalShifts`, `startTimeRentalShifts`, `endTimeRentalShifts`) "
+				+ "VALUES (1, 'Manhã', '08:00', '12:00')");
+		jdbcTemplate.update("INSERT INTO `rentalPlans` (`idRentalPlans`, `idRentalCategories`, `idRentalShifts`, `planNameRentalPlans`, `priceRentalPlans`) "
+				+ "VALUES (1, 1, 1, 'Manhã', 50.00)");
+		for (int day = 0; day < 3; day++) {
+			jdbcTemplate.update("INSERT INTO `deskRentals` (`idDeskRentals`, `idDesks`, `idCustomers`, `idRentalPlans`, "
+					+ "`startPeriodDeskRentals`, `endPeriodDeskRentals`, `totalPriceDeskRentals`) VALUES (?, 1, 1, 1, ?, ?, 50.00)",
+					day + 1, MONDAY.plusDays(day), MONDAY.plusDays(day).plusHours(4));
+		}
+
+		DataSourceProperties properties = new DataSourceProperties();
+		properties.setUrl(MySqlTestDatabase.url(SCHEMA));
+		properties.setUsername(MySqlTestDatabase.user());
+		properties.setPassword(MySqlTestDatabase.password());
+		service = new RentalExportService(properties, objectMapper,
+				new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()),
+				new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build()),
+				2, 1);
+	}
+
+	@AfterEach
+	void close() {
+		service.close();
+	}
+
+	// Um objeto por linha, em ordem de id, com as colunas da tabela; só há flush depois da primeira linha e no fim
+	@Test
+	void writesOneObjectPerLineAndFlushesTheFirstRowAlone() throws Exception {
+		FlushRecordingStream out = new FlushRecordingStream();
+
+		long written = service.export(ResourceType.DESK, null, null, RentalExportService.Format.NDJSON, out);
+
+		assertThat(written).isEqualTo(3);
+		List<JsonNode> lines = lines(out.toString());
+		assertThat(lines).extracting(line -> line.get("idDeskRentals").asInt()).containsExactly(1, 2, 3);
+		assertThat(lines.get(0).get("startPeriodDeskRentals").asText()).isEqualTo("2030-01-07T08:00:00");
+		assertThat(lines.get(0).get("totalPriceDeskRentals").decimalValue()).isEqualByComparingTo("50.00");
+		assertThat(lines.get(0).get("idRentalSeries").isNull()).isTrue();
+
+		assertThat(out.flushes).containsExactly(out.toString().substring(0, out.toString().indexOf('\n') + 1), out.toString());
+	}
+
+	// from inclusivo e to exclusivo, pelo início do aluguel
+	@Test
+	void filtersByStartInHalfOpenRange() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long written = service.export(ResourceType.DESK, MONDAY.plusDays(1), MONDAY.plusDays(2),
+				RentalExportService.Format.NDJSON, out);
+
+		assertThat(written).isEqualTo(1);
+		assertThat(lines(out.toString())).extracting(line -> line.get("idDeskRentals").asInt()).containsExactly(2);
+	}
+
+	// Resposta em streaming pelo controller, com tipo, anexo e Vary; intervalo invertido é recusado antes de abrir o cursor
+	@Test
+	void controllerStreamsNdjsonAndRejectsInvertedRange() throws Exception {
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ExportController(service, objectMapper)).build();
+
+		MvcResult result = mockMvc.perform(get("/api/exports/rentals/desk").param("from", "2030-01-08T00:00:00"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+		assertThat(result.getResponse().getHeader("Content-Disposition")).isEqualTo("attachment; filename=\"desk-rentals.ndjson\"");
+		assertThat(result.getResponse().getHeader("Vary")).isEqualTo("Accept");
+		assertThat(lines(body)).extracting(line -> line.get("idDeskRentals").asInt()).containsExactly(2, 3);
+
+		MvcResult rejected = mockMvc.perform(get("/api/exports/rentals/desk").param("from", "2030-01-08T00:00:00")
+						.param("to", "2030-01-07T00:00:00"))
+				.andReturn();
+		mockMvc.perform(asyncDispatch(rejected))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentType("application/json"))
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.message").value("Data inicial deve ser anterior à data final"));
+	}
+
+	private List<JsonNode> lines(String ndjson) throws Exception {
+		assertThat(ndjson).endsWith("\n");
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : ndjson.split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+
+	// Guarda o que já tinha sido escrito a cada flush
+	private static class FlushRecordingStream extends ByteArrayOutputStream {
+
+		private final List<String> flushes = new ArrayList<>();
+
+		@Override
+		public void flush() {
+			flushes.add(toString());
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.RentalShiftRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RentalIndexTests {
+
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+	private static final LocalTime EIGHT = LocalTime.of(8, 0);
+	private static final LocalTime NOON = LocalTime.of(12, 0);
+	private static final LocalTime ONE = LocalTime.of(13, 0);
+	private static final LocalTime SIX = LocalTime.of(18, 0);
+
+	private final RentalShiftRepository shifts = mock(RentalShiftRepository.class);
+	private final DeskRentalRepository rentals = mock(DeskRentalRepository.class);
+	private final ShiftMatrixService matrixService = new ShiftMatrixService(shifts);
+	private final DeskRentalIndex index = new DeskRentalIndex(rentals, matrixService);
+
+	@BeforeEach
+	void catalog() {
+		when(shifts.findAll()).thenReturn(List.of(shift(5, "Manhã", EIGHT, NOON), shift(6, "Tarde", ONE, SIX), shift(7, "Integral", EIGHT, SIX)));
+		matrixService.rebuild();
+	}
+
+	// Aluguel da manhã de segunda a sexta: a tarde fica livre em todos os dias, a manhã e o integral conflitam no meio
+	// do período, e o sábado está livre
+	@Test
+	void multiDayRentalConflictsPerDayAndShift() {
+		RentalSlot week = desk(1, 5, EIGHT, NOON, MONDAY.with(EIGHT), MONDAY.plusDays(4).with(NOON));
+		when(rentals.findSlotsEndingFrom(any())).thenReturn(List.of(week));
+		index.reload();
+
+		assertThat(conflict(6, ONE, SIX, MONDAY.plusDays(2))).isEmpty();
+		assertThat(conflict(5, EIGHT, NOON, MONDAY.plusDays(2))).contains(week);
+		assertThat(conflict(7, EIGHT, SIX, MONDAY.plusDays(4))).contains(week);
+		assertThat(conflict(5, EIGHT, NOON, MONDAY.plusDays(5))).isEmpty();
+		assertThat(index.findConflict(1, MONDAY.plusDays(2).with(EIGHT), MONDAY.plusDays(2).with(NOON), 5, EIGHT, NOON, 1)).isEmpty();
+		assertThat(index.findConflict(2, MONDAY.plusDays(2).with(EIGHT), MONDAY.plusDays(2).with(NOON), 5, EIGHT, NOON, null)).isEmpty();
+	}
+
+	// Turno criado depois da matriz (id desconhecido): o aluguel ocupa todos os bits do dia e a conferência fina
+	// fica com o horário; reserva com turno desconhecido também enxerga os aluguéis existentes
+	@Test
+	void unknownShiftIsCheckedByTime() {
+		RentalSlot late = desk(1, 99, LocalTime.of(15, 0), LocalTime.of(17, 0), MONDAY.withHour(15), MONDAY.withHour(17));
+		RentalSlot morning = desk(2, 5, EIGHT, NOON, MONDAY.plusDays(1).with(EIGHT), MONDAY.plusDays(1).with(NOON));
+		when(rentals.findSlotsEndingFrom(any())).thenReturn(List.of(late, morning));
+		index.reload();
+
+		assertThat(conflict(6, ONE, SIX, MONDAY)).contains(late);
+		assertThat(conflict(5, EIGHT, NOON, MONDAY)).isEmpty();
+		assertThat(conflict(98, LocalTime.of(10, 0), LocalTime.of(11, 0), MONDAY.plusDays(1))).contains(morning);
+		assertThat(conflict(98, ONE, LocalTime.of(14, 0), MONDAY.plusDays(1))).isEmpty();
+	}
+
+	// Alteração move o aluguel; remoção de um turno não apaga o outro aluguel do mesmo dia
+	@Test
+	void eventsMoveAndRemoveRentals() {
+		RentalSlot morning = desk(1, 5, EIGHT, NOON, MONDAY.with(EIGHT), MONDAY.with(NOON));
+		RentalSlot afternoon = desk(2, 6, ONE, SIX, MONDAY.with(ONE), MONDAY.with(SIX));
+		when(rentals.findSlotsEndingFrom(any())).thenReturn(List.of(morning, afternoon));
+		index.reload();
+
+		RentalSlot moved = desk(1, 5, EIGHT, NOON, MONDAY.plusDays(1).with(EIGHT), MONDAY.plusDays(1).with(NOON));
+		index.onRentalChanged(RentalChangedEvent.updated(morning, moved));
+		assertThat(conflict(5, EIGHT, NOON, MONDAY)).isEmpty();
+		assertThat(conflict(5, EIGHT, NOON, MONDAY.plusDays(1))).contains(moved);
+		assertThat(conflict(6, ONE, SIX, MONDAY)).contains(afternoon);
+
+		index.onRentalChanged(RentalChangedEvent.deleted(afternoon));
+		assertThat(conflict(7, EIGHT, SIX, MONDAY)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+
+		// Eventos de outro tipo de recurso não entram
+		index.onRentalChanged(RentalChangedEvent.created(new RentalSlot(ResourceType.STAND, 3, 1, 7, 11, 5, "Manhã",
+				EIGHT, NOON, MONDAY.with(EIGHT), MONDAY.with(NOON), BigDecimal.TEN)));
+		assertThat(conflict(5, EIGHT, NOON, MONDAY)).isEmpty();
+	}
+
+	// Período que começa antes do corte da carga (reserva retroativa): o aluguel encerrado não está no índice
+	// e o conflito vem do banco, com o mesmo filtro de turno e do próprio aluguel
+	@Test
+	void backDatedPeriodIsCheckedInTheDatabase() {
+		LocalDateTime lastMonday = LocalDateTime.now().minusWeeks(1).with(DayOfWeek.MONDAY).toLocalDate().atStartOfDay();
+		RentalSlot past = desk(1, 5, EIGHT, NOON, lastMonday.with(EIGHT), lastMonday.with(NOON));
+		when(rentals.findSlotsEndingFrom(any())).thenReturn(List.of());
+		when(rentals.findSlotsOverlapping(eq(1), any(), any())).thenReturn(List.of(past));
+		index.reload();
+
+		assertThat(conflict(5, EIGHT, NOON, lastMonday)).contains(past);
+		assertThat(conflict(6, ONE, SIX, lastMonday)).isEmpty();
+		assertThat(index.findConflict(1, lastMonday.with(EIGHT), lastMonday.with(NOON), 5, EIGHT, NOON, 1)).isEmpty();
+		verify(rentals, never()).findSlotsOverlapping(any(), eq(MONDAY.with(EIGHT)), any());
+		assertThat(conflict(5, EIGHT, NOON, MONDAY)).isEmpty();
+	}
+
+	// A recarga diária avança o corte: o aluguel que terminou sai do índice e o dia dele passa a ser conferido no banco
+	@Test
+	void reloadAdvancesTheCutoff() {
+		LocalDateTime[] cutoff = {MONDAY};
+		DeskRentalIndex daily = new DeskRentalIndex(rentals, matrixService) {
+			@Override
+			protected LocalDateTime loadFrom() {
+				return cutoff[0];
+			}
+		};
+		RentalSlot monday = desk(1, 5, EIGHT, NOON, MONDAY.with(EIGHT), MONDAY.with(NOON));
+		RentalSlot tuesday = desk(2, 5, EIGHT, NOON, MONDAY.plusDays(1).with(EIGHT), MONDAY.plusDays(1).with(NOON));
+		when(rentals.findSlotsEndingFrom(MONDAY)).thenReturn(List.of(monday, tuesday));
+		when(rentals.findSlotsEndingFrom(MONDAY.plusDays(1))).thenReturn(List.of(tuesday));
+		daily.reload();
+		assertThat(daily.findConflict(1, MONDAY.with(EIGHT), MONDAY.with(NOON), 5, EIGHT, NOON, null)).contains(monday);
+		verify(rentals, never()).findSlotsOverlapping(any(), any(), any());
+
+		cutoff[0] = MONDAY.plusDays(1);
+		daily.reload();
+
+		assertThat(daily.findConflict(1, MONDAY.with(EIGHT), MONDAY.with(NOON), 5, EIGHT, NOON, null)).isEmpty();
+		verify(rentals).findSlotsOverlapping(1, MONDAY.with(EIGHT), MONDAY.with(NOON));
+		assertThat(daily.findConflict(1, MONDAY.plusDays(1).with(EIGHT), MONDAY.plusDays(1).with(NOON), 5, EIGHT, NOON, null)).contains(tuesday);
+	}
+
+	private Optional<RentalSlot> conflict(Integer shiftId, LocalTime start, LocalTime end, LocalDateTime day) {
+		return index.findConflict(1, day.with(start), day.with(end), shiftId, start, end, null);
+	}
+
+	private static RentalSlot desk(int rentalId, Integer shiftId, LocalTime shiftStart, LocalTime shiftEnd,
+								   LocalDateTime start, LocalDateTime end) {
+		return new RentalSlot(ResourceType.DESK, rentalId, 1, 7, 11, shiftId, "Turno " + shiftId, shiftStart, shiftEnd,
+				start, end, BigDecimal.TEN);
+	}
+
+	private static RentalShift shift(int id, String name, LocalTime start, LocalTime end) {
+		RentalShift shift = new RentalShift();
+		shift.setIdRentalShifts(id);
+		shift.setNameRentalShifts(name);
+		shift.setStartTimeRentalShifts(start);
+		shift.setEndTimeRentalShifts(end);
+		return shift;
+	}
+}
@@ -0,0 +1,169 @@
+package com.coworkproject.service;
+
+import com.coworkproject.controller.DeskRentalController;
+import com.coworkproject.dto.DeskRentalRequest;
+import com.coworkproject.model.Customer;
+import com.coworkproject.model.Desk;
+import com.coworkproject.model.DeskRental;
+import com.coworkproject.model.RentalCategory;
+import com.coworkproject.model.RentalPlan;
+import com.coworkproject.model.RentalShift;
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.DeskRentalRepository;
+import com.coworkproject.repository.DeskRepository;
+import com.coworkproject.repository.RentalCategoryRepository;
+import com.coworkproject.repository.RentalSeriesRepository;
+import com.coworkproject.repository.RentalShiftRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class ResourceLocksTests {
+
+	private static final LocalTime SHIFT_START = LocalTime.of(8, 0);
+	private static final LocalTime SHIFT_END = LocalTime.of(12, 0);
+
+	// Vários POSTs simultâneos pelo createDeskRental de verdade (índice, reservas e lock reais; banco simulado)
+	@Test
+	void concurrentBookingsNeverDoubleBook() throws Exception {
+		RentalShiftRepository shifts = mock(RentalShiftRepository.class);
+		when(shifts.findAll()).thenReturn(List.of(shift()));
+		ShiftMatrixService matrixService = new ShiftMatrixService(shifts);
+		matrixService.rebuild();
+		DeskRentalRepository repository = mock(DeskRentalRepository.class, withSettings().stubOnly());
+		DeskRentalIndex index = new DeskRentalIndex(repository, matrixService);
+		index.reload();
+		// O evento do save chega ao índice na mesma thread, como no Spring
+		ApplicationEventPublisher eventPublisher = event -> {
+			if (event instanceof RentalChangedEvent changed) {
+				index.onRentalChanged(changed);
+			}
+		};
+
+		int desks = 4;
+		int days = 20;
+		AtomicInteger ids = new AtomicInteger();
+		List<DeskRental> saved = Collections.synchronizedList(new ArrayList<>());
+		when(repository.save(any(DeskRental.class))).thenAnswer(invocation -> {
+			// Alarga a janela entre a verificação e o save, como faria a ida ao banco
+			Thread.yield();
+			DeskRental rental = invocation.getArgument(0);
+			rental.setIdDeskRentals(ids.incrementAndGet());
+			saved.add(rental);
+			return rental;
+		});
+
+		DeskRepository deskRepository = mock(DeskRepository.class, withSettings().stubOnly());
+		for (int id = 0; id < desks; id++) {
+			Desk desk = new Desk();
+			desk.setIdDesks(id);
+			when(deskRepository.findById(id)).thenReturn(Optional.of(desk));
+		}
+		CustomerRepository customerRepository = mock(CustomerRepository.class, withSettings().stubOnly());
+		Customer customer = new Customer();
+		customer.setIdCustomers(1);
+		when(customerRepository.findById(1)).thenReturn(Optional.of(customer));
+		CatalogService catalogService = mock(CatalogService.class, withSettings().stubOnly());
+		when(catalogService.plan(1)).thenReturn(Optional.of(plan()));
+		HoldService holdService = new HoldService(matrixService, eventPublisher, 180, 900, 1000);
+
+		DeskRentalController controller = new DeskRentalController(repository, deskRepository, customerRepository, catalogService,
+				mock(RentalCategoryRepository.class), mock(RentalShiftRepository.class), index, eventPublisher,
+				new ResourceLocks(256), mock(TransactionTemplate.class), mock(RentalSeriesRepository.class), holdService,
+				mock(KeysetPaging.class), mock(CompactView.class), mock(ResponseCache.class), mock(ActiveRentalSnapshot.class),
+				mock(QuoteService.class));
+
+		int threads = 16;
+		int attemptsPerThread = 300;
+		LocalDate firstDay = LocalDate.of(2030, 1, 1);
+		AtomicInteger created = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int t = 0; t < threads; t++) {
+			pool.submit(() -> {
+				start.await();
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < attemptsPerThread; i++) {
+					DeskRentalRequest request = new DeskRentalRequest();
+					request.setIdDesks(random.nextInt(desks));
+					request.setIdCustomers(1);
+					request.setIdRentalPlans(1);
+					request.setStartPeriodDeskRentals(firstDay.plusDays(random.nextInt(days)).atStartOfDay());
+					request.setTotalPriceDeskRentals(BigDecimal.TEN);
+
+					HttpStatusCode status = controller.createDeskRental(request).getStatusCode();
+					if (status == HttpStatus.CREATED) {
+						created.incrementAndGet();
+					} else if (status == HttpStatus.CONFLICT) {
+						conflicts.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+		// Cada (mesa, dia) tem exatamente um aluguel no turno; todas as outras tentativas foram recusadas por conflito
+		long distinctSlots = saved.stream().map(rental -> rental.getDesk().getIdDesks() + "@" + rental.getStartPeriodDeskRentals()).distinct().count();
+		assertThat(saved).hasSize((int) distinctSlots);
+		assertThat(saved).hasSize(desks * days);
+		assertThat(created.get()).isEqualTo(desks * days);
+		assertThat(created.get() + conflicts.get()).isEqualTo(threads * attemptsPerThread);
+		assertThat(index.size()).isEqualTo(desks * days);
+	}
+
+	@Test
+	void sameResourceAlwaysMapsToSameLock() {
+		ResourceLocks locks = new ResourceLocks(64);
+
+		assertThat(locks.lockFor(ResourceType.STAND, 42)).isSameAs(locks.lockFor(ResourceType.STAND, 42));
+		assertThat(locks.locksFor(ResourceType.DESK, List.of(3, 1, 3, 2))).hasSizeLessThanOrEqualTo(3);
+	}
+
+	private static RentalShift shift() {
+		RentalShift shift = new RentalShift();
+		shift.setIdRentalShifts(1);
+		shift.setNameRentalShifts("Manhã");
+		shift.setStartTimeRentalShifts(SHIFT_START);
+		shift.setEndTimeRentalShifts(SHIFT_END);
+		return shift;
+	}
+
+	private static RentalPlan plan() {
+		RentalCategory category = new RentalCategory();
+		category.setIdRentalCategories(1);
+		category.setBaseDurationInDaysRentalCategories(1);
+		RentalPlan plan = new RentalPlan();
+		plan.setIdRentalPlans(1);
+		plan.setRentalShift(shift());
+		plan.setRentalCategory(category);
+		return plan;
+	}
+}
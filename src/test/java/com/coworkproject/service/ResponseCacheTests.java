@@ -0,0 +1,75 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTests {
+
+	private final ResponseCache cache = new ResponseCache(new ObjectMapper(), 2);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	// Segundo GET vem dos bytes guardados; o PUT/DELETE do aluguel invalida só aquele id
+	@Test
+	void hitServesStoredBytesUntilRentalChanges() {
+		ResponseEntity<byte[]> first = cache.get("deskRentals", 1, () -> load(HttpStatus.OK, "a"));
+		ResponseEntity<byte[]> second = cache.get("deskRentals", 1, () -> load(HttpStatus.OK, "b"));
+
+		assertThat(loads).hasValue(1);
+		assertThat(second.getBody()).isEqualTo(first.getBody());
+		assertThat(new String(second.getBody(), StandardCharsets.UTF_8)).contains("\"data\":\"a\"");
+
+		RentalSlot slot = new RentalSlot(ResourceType.DESK, 1, 1, null, null, null, null, null, null, null, null, null);
+		cache.onRentalChanged(RentalChangedEvent.deleted(slot));
+		cache.get("deskRentals", 1, () -> load(HttpStatus.OK, "c"));
+
+		assertThat(loads).hasValue(2);
+		assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 2L);
+	}
+
+	// 404 não é guardado, e a capacidade descarta a entrada usada há mais tempo
+	@Test
+	void notFoundIsNotStoredAndCapacityEvictsLeastRecentlyUsed() {
+		assertThat(cache.get("desks", 9, () -> load(HttpStatus.NOT_FOUND, null)).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		cache.get("desks", 9, () -> load(HttpStatus.NOT_FOUND, null));
+		assertThat(loads).hasValue(2);
+
+		cache.get("desks", 1, () -> load(HttpStatus.OK, "1"));
+		cache.get("desks", 2, () -> load(HttpStatus.OK, "2"));
+		cache.get("desks", 1, () -> load(HttpStatus.OK, "1"));
+		cache.get("desks", 3, () -> load(HttpStatus.OK, "3"));
+		cache.get("desks", 1, () -> load(HttpStatus.OK, "1"));
+
+		assertThat(loads).hasValue(5);
+		assertThat(cache.stats()).containsEntry("entries", 2).containsEntry("evictions", 1L);
+	}
+
+	// Escrita durante a montagem da resposta: o corpo (possivelmente antigo) não fica no cache
+	@Test
+	void responseLoadedAcrossAnInvalidationIsNotStored() {
+		cache.get("stands", 4, () -> {
+			cache.onResourceChanged(new ResourceChangedEvent(ResourceType.STAND, 4, false));
+			return load(HttpStatus.OK, "old");
+		});
+		cache.get("stands", 4, () -> load(HttpStatus.OK, "new"));
+
+		assertThat(loads).hasValue(2);
+	}
+
+	private ResponseEntity<Map<String, Object>> load(HttpStatus status, Object data) {
+		loads.incrementAndGet();
+		Map<String, Object> response = new HashMap<>();
+		response.put("success", status == HttpStatus.OK);
+		response.put("data", data);
+		return ResponseEntity.status(status).body(response);
+	}
+}
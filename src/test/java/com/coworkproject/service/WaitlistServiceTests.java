@@ -0,0 +1,150 @@
+package com.coworkproject.service;
+
+import com.coworkproject.model.ResourceType;
+import com.coworkproject.model.WaitlistEntry;
+import com.coworkproject.repository.CustomerRepository;
+import com.coworkproject.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WaitlistServiceTests {
+
+	private static final LocalDate DAY = LocalDate.now().plusDays(10);
+	private static final LocalDateTime ARRIVAL = LocalDateTime.now().minusHours(1);
+
+	private final WaitlistEntryRepository repository = mock(WaitlistEntryRepository.class);
+	private final SlotBookingService slotBookingService = mock(SlotBookingService.class);
+	private final HoldService holdService = mock(HoldService.class);
+	private final WaitlistService service = new WaitlistService(repository, mock(CustomerRepository.class),
+			mock(CatalogService.class), slotBookingService, holdService, new ResourceLocks(16));
+
+	private final Map<Integer, WaitlistEntry> entries = new LinkedHashMap<>();
+	private final List<RentalSlot> booked = new ArrayList<>();
+
+	// Banco simulado: a fila lê as entradas em espera e grava o desfecho nelas; um aluguel gravado passa a ocupar o slot
+	@BeforeEach
+	void mocks() {
+		when(repository.findByStatusWaitlistEntriesOrderByCreatedAtWaitlistEntriesAscIdWaitlistEntriesAsc(WaitlistEntry.Status.WAITING))
+				.thenAnswer(invocation -> entries.values().stream()
+						.filter(entry -> entry.getStatusWaitlistEntries() == WaitlistEntry.Status.WAITING).toList());
+		when(repository.findById(anyInt())).thenAnswer(invocation -> Optional.ofNullable(entries.get(invocation.<Integer>getArgument(0))));
+		when(repository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(slotBookingService.isRented(any(RentalSlot.class))).thenAnswer(invocation ->
+				booked.stream().anyMatch(invocation.<RentalSlot>getArgument(0)::conflictsWith));
+		when(slotBookingService.book(any(RentalSlot.class))).thenAnswer(invocation -> {
+			RentalSlot slot = invocation.<RentalSlot>getArgument(0).withRentalId(100 + booked.size());
+			booked.add(slot);
+			return Optional.of(new SlotBookingService.Booking(null, slot));
+		});
+	}
+
+	// Dois pedidos pelo mesmo slot: o primeiro a chegar leva, o segundo segue esperando na frente da fila
+	@Test
+	void firstInLineIsPromotedAndTheNextKeepsWaiting() {
+		entry(2, 1, DAY, WaitlistEntry.PromoteTo.BOOKING);
+		entry(1, 0, DAY, WaitlistEntry.PromoteTo.BOOKING);
+		service.reload();
+
+		service.onRentalChanged(RentalChangedEvent.deleted(slot(50, DAY)));
+
+		assertThat(entries.get(1).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.PROMOTED);
+		assertThat(entries.get(1).getResultIdWaitlistEntries()).isEqualTo(100);
+		assertThat(entries.get(1).getResolvedAtWaitlistEntries()).isNotNull();
+		assertThat(entries.get(2).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.WAITING);
+		assertThat(service.position(2)).isEqualTo(1);
+		assertThat(service.find(1)).isEmpty();
+	}
+
+	// Pedido de outro dia ou preso por uma reserva temporária é pulado; o de trás que cabe é promovido
+	@Test
+	void entriesThatDoNotFitAreSkipped() {
+		entry(1, 0, DAY.plusDays(5), WaitlistEntry.PromoteTo.BOOKING);
+		entry(2, 1, DAY, WaitlistEntry.PromoteTo.BOOKING);
+		entry(3, 2, DAY, WaitlistEntry.PromoteTo.HOLD);
+		when(holdService.findConflict(any(RentalSlot.class))).thenAnswer(invocation ->
+				invocation.<RentalSlot>getArgument(0).rentalId() == 2 ? Optional.of(slot(77, DAY)) : Optional.empty());
+		when(holdService.place(any(RentalSlot.class), any())).thenAnswer(invocation ->
+				new HoldService.Hold(55, invocation.getArgument(0), LocalDateTime.now().plusMinutes(3)));
+		service.reload();
+
+		service.onHoldReleased(new HoldReleasedEvent(slot(60, DAY)));
+
+		assertThat(entries.get(1).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.WAITING);
+		assertThat(entries.get(2).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.WAITING);
+		assertThat(entries.get(3).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.PROMOTED);
+		assertThat(entries.get(3).getResultIdWaitlistEntries()).isEqualTo(55);
+		assertThat(service.waiting(ResourceType.DESK, 3)).extracting(WaitlistService.Waiting::idWaitlistEntries).containsExactly(1, 2);
+	}
+
+	// Pedido vencido sai como EXPIRED, sem recurso para gravar sai como CANCELLED, e uma falha não trava a fila
+	@Test
+	void expiredMissingAndFailingEntriesGetTheirStatus() {
+		entry(1, 0, LocalDate.now().minusDays(1), WaitlistEntry.PromoteTo.BOOKING);
+		entry(2, 1, DAY, WaitlistEntry.PromoteTo.BOOKING);
+		entry(3, 2, DAY.plusDays(1), WaitlistEntry.PromoteTo.BOOKING);
+		entry(4, 3, DAY.plusDays(2), WaitlistEntry.PromoteTo.BOOKING);
+		when(slotBookingService.book(any(RentalSlot.class))).thenAnswer(invocation -> {
+			RentalSlot slot = invocation.getArgument(0);
+			return switch (slot.rentalId()) {
+				case 2 -> throw new IllegalStateException("banco fora do ar");
+				case 3 -> Optional.empty();
+				default -> Optional.of(new SlotBookingService.Booking(null, slot.withRentalId(200)));
+			};
+		});
+		service.reload();
+
+		service.onRentalChanged(RentalChangedEvent.deleted(new RentalSlot(ResourceType.DESK, 50, 3, 9, null, null, null, null, null,
+				LocalDate.now().minusDays(2).atStartOfDay(), DAY.plusDays(3).atTime(18, 0), BigDecimal.TEN)));
+
+		assertThat(entries.get(1).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.EXPIRED);
+		assertThat(entries.get(2).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.WAITING);
+		assertThat(entries.get(3).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.CANCELLED);
+		assertThat(entries.get(4).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.PROMOTED);
+		assertThat(entries.get(4).getResultIdWaitlistEntries()).isEqualTo(200);
+		assertThat(service.size(ResourceType.DESK, 3)).isEqualTo(1);
+	}
+
+	// Aluguel movido para outro dia libera o slot anterior: o pedido daquele dia é promovido, o do dia novo segue esperando
+	@Test
+	void movedRentalPromotesAgainstThePreviousSlot() {
+		entry(1, 0, DAY, WaitlistEntry.PromoteTo.BOOKING);
+		entry(2, 1, DAY.plusDays(1), WaitlistEntry.PromoteTo.BOOKING);
+		service.reload();
+		RentalSlot moved = slot(50, DAY.plusDays(1));
+		booked.add(moved);
+
+		service.onRentalChanged(RentalChangedEvent.updated(slot(50, DAY), moved));
+
+		assertThat(entries.get(1).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.PROMOTED);
+		assertThat(entries.get(2).getStatusWaitlistEntries()).isEqualTo(WaitlistEntry.Status.WAITING);
+		assertThat(service.waiting(ResourceType.DESK, 3)).extracting(WaitlistService.Waiting::idWaitlistEntries).containsExactly(2);
+	}
+
+	private void entry(int id, int minutesAfterFirst, LocalDate day, WaitlistEntry.PromoteTo promoteTo) {
+		WaitlistEntry entry = new WaitlistEntry(ResourceType.DESK, 3, null, null, day.atTime(8, 0), day.atTime(12, 0),
+				BigDecimal.TEN, promoteTo, null);
+		entry.setIdWaitlistEntries(id);
+		entry.setCreatedAtWaitlistEntries(ARRIVAL.plusMinutes(minutesAfterFirst));
+		entries.put(id, entry);
+	}
+
+	private static RentalSlot slot(int rentalId, LocalDate day) {
+		return new RentalSlot(ResourceType.DESK, rentalId, 3, 9, null, null, null, null, null,
+				day.atTime(8, 0), day.atTime(12, 0), BigDecimal.TEN);
+	}
+}